@@ -34,6 +34,7 @@ import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.api.exceptions.BadRequestException;
 import ai.philterd.entitydb.api.exceptions.InternalServerErrorException;
 import ai.philterd.entitydb.api.exceptions.NotFoundException;
+import ai.philterd.entitydb.api.exceptions.TooManyRequestsException;
 import ai.philterd.entitydb.api.exceptions.UnableToQueueEntitiesException;
 import ai.philterd.entitydb.api.exceptions.UnauthorizedException;
 import ai.philterd.entitydb.model.search.SearchIndex;
@@ -42,18 +43,23 @@ import ai.philterd.entitydb.model.services.EntityAclService;
 import ai.philterd.entitydb.model.services.EntityQueryService;
 import ai.philterd.entitydb.model.services.EntityQueueService;
 import ai.philterd.entitydb.model.services.UserService;
+import ai.philterd.entitydb.model.status.ContinuousQueryCost;
 import ai.philterd.entitydb.model.status.Status;
 import ai.philterd.entitydb.model.domain.ContinuousQuery;
 import ai.philterd.entitydb.model.domain.Notification;
+import ai.philterd.entitydb.model.domain.PreparedQuery;
 import ai.philterd.entitydb.model.entitystore.EntityStore;
 import ai.philterd.entitydb.model.entitystore.QueryResult;
 import ai.philterd.entitydb.model.exceptions.EntityStoreException;
 import ai.philterd.entitydb.model.exceptions.MalformedAclException;
 import ai.philterd.entitydb.model.exceptions.MalformedQueryException;
 import ai.philterd.entitydb.model.exceptions.NonexistantEntityException;
+import ai.philterd.entitydb.model.exceptions.NonexistantPreparedQueryException;
 import ai.philterd.entitydb.model.exceptions.QueryExecutionException;
+import ai.philterd.entitydb.model.exceptions.QueryRejectedException;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
@@ -99,6 +105,32 @@ public class EntityDbRestApiController {
 		
 	}
 	
+	/**
+	 * Gets the user's continuous queries that have taken the most time to execute.
+	 * @param limit The maximum number of continuous queries to return.
+	 * @param authorization The user's API key.
+	 * @return A list of {@link ContinuousQueryCost} in descending order of total evaluation time.
+	 * @throws UnauthorizedException Thrown if the authentication is invalid.
+	 */
+	@RequestMapping(value = "/api/status/continuousqueries", method = RequestMethod.GET)
+	@ResponseStatus(HttpStatus.OK)
+	@ResponseBody
+	public List<ContinuousQueryCost> continuousQueryCosts(
+			@RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
+			@RequestHeader(value="Authorization") String authorization) {
+		
+		if(!userService.authenticate(authorization)) {
+			throw new UnauthorizedException("The API key is not valid.");
+		}
+		
+		if(limit < 1) {
+			throw new BadRequestException("The limit must be greater than zero.");
+		}
+		
+		return entityQueryService.getMostExpensiveContinuousQueries(limit, authorization);
+		
+	}
+	
 	/**
 	 * Only returns HTTP 200 OK responses. This function is for application-level
 	 * monitoring by load balancers and other monitors. Note that there is no
@@ -232,10 +264,14 @@ public class EntityDbRestApiController {
 	 * continuous query. Set to 1 to enable and 0 to disable (default).
 	 * @param days The number of days to run this query continuously.
 	 * If not provided the default value is 90 days. Specify -1 for a non-expiring continuous query.
+	 * @param cursor An optional cursor returned with the previous page of the query's results.
+	 * A continuous query cannot have a cursor.
 	 * @param authorization The user's API key.
 	 * @return A {@link QueryResult} containing the entities.
 	 * @throws UnauthorizedException Thrown if the authentication is invalid.
-	 * @throws BadRequestException Thrown if the EQL query is malformed.
+	 * @throws BadRequestException Thrown if the EQL query or the cursor is malformed.
+	 * @throws TooManyRequestsException Thrown if the query was rejected because too many
+	 * queries are being executed. The query can be retried after the <code>Retry-After</code> seconds.
 	 */
 	@RequestMapping(value = "/api/eql", method = RequestMethod.GET)
 	@ResponseBody
@@ -243,13 +279,18 @@ public class EntityDbRestApiController {
 			@RequestParam(value = "query") String query,
 			@RequestParam(value = "continuous", required = false, defaultValue = "0") int continuous,
 			@RequestParam(value = "days", required = false, defaultValue = "90") int days,
+			@RequestParam(value = "cursor", required = false) String cursor,
 			@RequestHeader(value = "Authorization") String authorization)	{			
 					
 		LOGGER.trace("Received EQL query: {}", query);
+		
+		if(continuous != 0 && cursor != null) {
+			throw new BadRequestException("A continuous query cannot have a cursor.");
+		}
 				
 		try {
 		
-			QueryResult queryResult = entityQueryService.eql(query, authorization, continuous, days);
+			QueryResult queryResult = (cursor != null) ? entityQueryService.eql(query, cursor, authorization) : entityQueryService.eql(query, authorization, continuous, days);
 			
 			// Return OK unless it is set to be a continuous query.
 			HttpStatus status = HttpStatus.OK;
@@ -260,6 +301,10 @@ public class EntityDbRestApiController {
 			
 			return new ResponseEntity<>(queryResult, status);
 			
+		} catch (QueryRejectedException ex) {
+			
+			throw new TooManyRequestsException("The query was rejected.", ex.getRetryAfter(), ex);
+			
 		} catch (QueryExecutionException ex) {
 			
 			throw new InternalServerErrorException("Unable to execute the query.", ex);
@@ -271,5 +316,131 @@ public class EntityDbRestApiController {
 		}
 		
 	}
+	
+	/**
+	 * Executes EQL queries together against the indexed entities. The queries
+	 * returning entities are executed with a single request to the search index.
+	 * @param queries A JSON array of the EQL queries.
+	 * @param authorization The user's API key.
+	 * @return The {@link QueryResult results} in the order of the queries.
+	 * @throws UnauthorizedException Thrown if the authentication is invalid.
+	 * @throws BadRequestException Thrown if an EQL query is malformed or there are too many queries.
+	 * @throws TooManyRequestsException Thrown if the queries were rejected because too many
+	 * queries are being executed. The queries can be retried after the <code>Retry-After</code> seconds.
+	 */
+	@RequestMapping(value = "/api/eql/batch", method = RequestMethod.POST)
+	@ResponseBody
+	public List<QueryResult> eql(
+			@RequestBody List<String> queries,
+			@RequestHeader(value = "Authorization") String authorization) {
+		
+		LOGGER.trace("Received {} EQL queries.", queries.size());
+		
+		try {
+			
+			return entityQueryService.eql(queries, authorization);
+			
+		} catch (QueryRejectedException ex) {
+			
+			throw new TooManyRequestsException("The queries were rejected.", ex.getRetryAfter(), ex);
+			
+		} catch (QueryExecutionException ex) {
+			
+			throw new InternalServerErrorException("Unable to execute the queries.", ex);
+			
+		} catch (MalformedQueryException ex) {
+			
+			throw new BadRequestException("The received queries are malformed.", ex);
+			
+		}
+		
+	}
+	
+	/**
+	 * Prepares an EQL query having parameters. Each <code>?</code> outside
+	 * of a quoted value is a parameter that takes the place of a string value,
+	 * for example <code>select * from entities where text = ? and context = ?</code>.
+	 * @param query The EQL query as the body of the request.
+	 * @param authorization The user's API key.
+	 * @return The {@link PreparedQuery prepared query} whose ID is used to execute it.
+	 * @throws UnauthorizedException Thrown if the authentication is invalid.
+	 * @throws BadRequestException Thrown if the EQL query is malformed.
+	 */
+	@RequestMapping(value = "/api/eql/prepared", method = RequestMethod.POST)
+	@ResponseBody
+	@ResponseStatus(HttpStatus.CREATED)
+	public PreparedQuery prepare(
+			@RequestBody String query,
+			@RequestHeader(value = "Authorization") String authorization) {
+		
+		LOGGER.trace("Received EQL query to prepare: {}", query);
+		
+		if(!userService.authenticate(authorization)) {
+			throw new UnauthorizedException("The API key is not valid.");
+		}
+		
+		try {
+			
+			return entityQueryService.prepare(query, authorization);
+			
+		} catch (QueryExecutionException ex) {
+			
+			throw new InternalServerErrorException("Unable to prepare the query.", ex);
+			
+		} catch (MalformedQueryException ex) {
+			
+			throw new BadRequestException("The received query is malformed.", ex);
+			
+		}
+		
+	}
+	
+	/**
+	 * Executes a prepared EQL query against the indexed entities.
+	 * @param id The ID of the prepared query.
+	 * @param parameters A JSON array of the values of the parameters in the order
+	 * the parameters appear in the query.
+	 * @param authorization The user's API key.
+	 * @return A {@link QueryResult} containing the entities.
+	 * @throws UnauthorizedException Thrown if the authentication is invalid.
+	 * @throws NotFoundException Thrown if the prepared query does not exist. It must be prepared again.
+	 * @throws BadRequestException Thrown if the values do not match the parameters.
+	 * @throws TooManyRequestsException Thrown if the query was rejected because too many
+	 * queries are being executed. The query can be retried after the <code>Retry-After</code> seconds.
+	 */
+	@RequestMapping(value = "/api/eql/prepared/{id}", method = RequestMethod.POST)
+	@ResponseBody
+	public QueryResult execute(
+			@PathVariable(value = "id") String id,
+			@RequestBody(required = false) List<String> parameters,
+			@RequestHeader(value = "Authorization") String authorization) {
+		
+		if(!userService.authenticate(authorization)) {
+			throw new UnauthorizedException("The API key is not valid.");
+		}
+		
+		try {
+			
+			return entityQueryService.execute(id, parameters == null ? Collections.<String>emptyList() : parameters, authorization);
+			
+		} catch (NonexistantPreparedQueryException ex) {
+			
+			throw new NotFoundException("The prepared query was not found.");
+			
+		} catch (QueryRejectedException ex) {
+			
+			throw new TooManyRequestsException("The query was rejected.", ex.getRetryAfter(), ex);
+			
+		} catch (QueryExecutionException ex) {
+			
+			throw new InternalServerErrorException("Unable to execute the query.", ex);
+			
+		} catch (MalformedQueryException ex) {
+			
+			throw new BadRequestException("The parameters do not match the prepared query.", ex);
+			
+		}
+		
+	}
 
 }
\ No newline at end of file
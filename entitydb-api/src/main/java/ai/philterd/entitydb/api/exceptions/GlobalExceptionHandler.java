@@ -31,7 +31,9 @@ import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 
 @ControllerAdvice
@@ -73,6 +75,19 @@ public class GlobalExceptionHandler {
 		
 	}
 
+	@ExceptionHandler(value = TooManyRequestsException.class)
+	@ResponseBody
+	public ResponseEntity<String> handleBaseException(TooManyRequestsException ex) {
+		
+		LOGGER.warn(ex.getMessage());
+		
+		// Tell the client when to retry.
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()))
+				.body("Too many requests. Retry after " + ex.getRetryAfter() + " seconds.");
+		
+	}
+
 	@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
 	@ExceptionHandler(value = {UnableToQueueEntitiesException.class, EntityStoreException.class})
 	@ResponseBody
@@ -34,11 +34,16 @@ import ai.philterd.entitydb.metrics.InfluxDbMetricReporter;
 import ai.philterd.entitydb.metrics.utils.MetricUtils;
 import ai.philterd.entitydb.model.audit.AuditLogger;
 import ai.philterd.entitydb.model.entitystore.EntityStore;
+import ai.philterd.entitydb.model.entitystore.QueryResultTypeAdapterFactory;
+import ai.philterd.entitydb.model.executors.BoundedExecutor;
+import ai.philterd.entitydb.model.executors.ExecutorPools;
+import ai.philterd.entitydb.model.executors.SaturationPolicy;
 import ai.philterd.entitydb.model.metrics.MetricReporter;
 import ai.philterd.entitydb.model.queue.QueueConsumer;
 import ai.philterd.entitydb.model.queue.QueuePublisher;
 import ai.philterd.entitydb.model.rulesengine.RulesEngine;
 import ai.philterd.entitydb.model.rulesengine.RulesEngineException;
+import ai.philterd.entitydb.model.search.ContinuousQueryIndex;
 import ai.philterd.entitydb.model.search.IndexedEntity;
 import ai.philterd.entitydb.model.search.Indexer;
 import ai.philterd.entitydb.model.search.SearchIndex;
@@ -50,9 +55,11 @@ import ai.philterd.entitydb.queues.publishers.InternalQueuePublisher;
 import ai.philterd.entitydb.queues.publishers.SqsQueuePublisher;
 import ai.philterd.entitydb.rulesengine.drools.DroolsRulesEngine;
 import ai.philterd.entitydb.rulesengine.xml.XmlRulesEngine;
+import ai.philterd.entitydb.search.ElasticSearchContinuousQueryIndex;
 import ai.philterd.entitydb.search.ElasticSearchIndex;
 import ai.philterd.entitydb.search.EmbeddedElasticsearchServer;
 import ai.philterd.entitydb.search.indexer.ElasticSearchIndexer;
+import com.google.gson.GsonBuilder;
 import net.spy.memcached.AddrUtil;
 import net.spy.memcached.ConnectionFactoryBuilder;
 import net.spy.memcached.MemcachedClient;
@@ -83,8 +90,8 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * The EntityDB application. EntityDB uses Spring Boot and
@@ -112,14 +119,43 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 	}
 
 	@Bean(destroyMethod = "shutdown")
-	public ThreadPoolExecutor getThreadPoolExecutor() {
+	public ExecutorPools getExecutorPools() {
 
-		final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newCachedThreadPool();
+		final ExecutorPools executorPools = new ExecutorPools();
 
-		executor.setMaximumPoolSize(16);
-		executor.setCorePoolSize(8);
+		executorPools.add(new BoundedExecutor(ExecutorPools.CONTINUOUS_QUERIES, properties.getContinuousQueriesExecutorThreads(),
+				properties.getContinuousQueriesExecutorQueueSize(), SaturationPolicy.fromString(properties.getContinuousQueriesExecutorPolicy())));
 
-		return executor;
+		executorPools.add(new BoundedExecutor(ExecutorPools.RULES, properties.getRulesExecutorThreads(),
+				properties.getRulesExecutorQueueSize(), SaturationPolicy.fromString(properties.getRulesExecutorPolicy())));
+
+		// Only one indexer run is in flight at a time so the indexing pool has a single thread.
+		executorPools.add(new BoundedExecutor(ExecutorPools.INDEXING, 1, 1, SaturationPolicy.SHED));
+
+		return executorPools;
+
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	public ForkJoinPool getContinuousQueryForkJoinPool() {
+
+		int parallelism = properties.getContinuousQueryParallelism();
+
+		if(parallelism <= 0) {
+			parallelism = Runtime.getRuntime().availableProcessors();
+		}
+
+		LOGGER.info("Executing continuous queries with a parallelism of {}.", parallelism);
+
+		// A dedicated pool so continuous queries do not compete with the common pool.
+		return new ForkJoinPool(parallelism, pool -> {
+
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("continuous-query-" + thread.getPoolIndex());
+
+			return thread;
+
+		}, null, false);
 
 	}
 
@@ -259,17 +295,17 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 
 				LOGGER.warn("Using the internal search index is not recommended for production systems.");
 
-				searchIndex = new ElasticSearchIndex("http://localhost:9200/");
+				searchIndex = configure(new ElasticSearchIndex("http://localhost:9200/"));
 
 			} else if(StringUtils.equalsIgnoreCase(EntityDbProperties.ELASTICSEARCH, properties.getSearchIndexProvider())) {
 
 				if(StringUtils.isEmpty(properties.getElasticsearchUsername())) {
 
-					searchIndex = new ElasticSearchIndex(properties.getElasticsearchHost());
+					searchIndex = configure(new ElasticSearchIndex(properties.getElasticsearchHost()));
 
 				} else {
 
-					searchIndex = new ElasticSearchIndex(properties.getElasticsearchHost(), properties.getElasticsearchUsername(), properties.getElasticsearchPassword());
+					searchIndex = configure(new ElasticSearchIndex(properties.getElasticsearchHost(), properties.getElasticsearchUsername(), properties.getElasticsearchPassword()));
 
 				}
 
@@ -290,6 +326,69 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 
 	}
 
+	private ElasticSearchIndex configure(ElasticSearchIndex elasticSearchIndex) throws IOException {
+
+		if(properties.isSearchIndexMigrateAnalysis()) {
+
+			elasticSearchIndex.migrateAnalysis();
+
+		}
+
+		return elasticSearchIndex.withBulkIndexing(properties.getSearchIndexBulkActions(), properties.getSearchIndexBulkBytes(),
+				properties.getSearchIndexBulkConcurrency(), properties.getSearchIndexBulkRetries(), properties.getSearchIndexBulkBackoff());
+
+	}
+
+	@Bean(destroyMethod = "close")
+	public ContinuousQueryIndex getContinuousQueryIndex() {
+
+		ElasticSearchContinuousQueryIndex continuousQueryIndex = null;
+
+		if(StringUtils.equalsIgnoreCase(EntityDbProperties.PERCOLATOR, properties.getContinuousQueryBackend())) {
+
+			LOGGER.info("Matching continuous queries with the Elasticsearch percolator.");
+
+			if(StringUtils.equalsIgnoreCase(EntityDbProperties.INTERNAL, properties.getSearchIndexProvider())) {
+
+				// Make sure the embedded server has been started.
+				getSearchIndex();
+
+				continuousQueryIndex = new ElasticSearchContinuousQueryIndex("http://localhost:9200/");
+
+			} else if(StringUtils.isEmpty(properties.getElasticsearchUsername())) {
+
+				continuousQueryIndex = new ElasticSearchContinuousQueryIndex(properties.getElasticsearchHost());
+
+			} else {
+
+				continuousQueryIndex = new ElasticSearchContinuousQueryIndex(properties.getElasticsearchHost(), properties.getElasticsearchUsername(), properties.getElasticsearchPassword());
+
+			}
+
+			if(properties.isSearchIndexMigrateAnalysis()) {
+
+				try {
+
+					continuousQueryIndex.migrateAnalysis();
+
+				} catch (IOException ex) {
+
+					LOGGER.error("Unable to add the analyzer to the continuous query index.", ex);
+
+				}
+
+			}
+
+		} else if(!StringUtils.equalsIgnoreCase(EntityDbProperties.INTERNAL, properties.getContinuousQueryBackend())) {
+
+			LOGGER.warn("Invalid continuous query backend: {}", properties.getContinuousQueryBackend());
+
+		}
+
+		return continuousQueryIndex;
+
+	}
+
 	@Bean
 	public List<RulesEngine> getRulesEngines() {
 
@@ -386,11 +485,11 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 
 			if(StringUtils.isNotEmpty(properties.getSqsAccessKey())) {
 
-				queueConsumer = new SqsQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), properties.getSqsEndpoint(), properties.getSqsQueueUrl(), properties.getSqsAccessKey(), properties.getSqsSecretKey(), properties.getSqsVisibilityTimeout(), getIndexerCache());
+				queueConsumer = new SqsQueueConsumer(getEntityStore(), getRulesEngines(), getExecutorPools().get(ExecutorPools.RULES), getAuditLogger(), getMetricReporter(), properties.getSqsEndpoint(), properties.getSqsQueueUrl(), properties.getSqsAccessKey(), properties.getSqsSecretKey(), properties.getSqsVisibilityTimeout(), getIndexerCache());
 
 			} else {
 
-				queueConsumer = new SqsQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), properties.getSqsEndpoint(), properties.getSqsQueueUrl(), properties.getSqsVisibilityTimeout(), getIndexerCache());
+				queueConsumer = new SqsQueueConsumer(getEntityStore(), getRulesEngines(), getExecutorPools().get(ExecutorPools.RULES), getAuditLogger(), getMetricReporter(), properties.getSqsEndpoint(), properties.getSqsQueueUrl(), properties.getSqsVisibilityTimeout(), getIndexerCache());
 
 			}
 
@@ -400,7 +499,7 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 
 			try {
 
-				queueConsumer = new ActiveMQQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), properties.getActiveMQBrokerUrl(), properties.getActiveMQQueueName(), properties.getActiveMQBrokerTimeout(), getIndexerCache());
+				queueConsumer = new ActiveMQQueueConsumer(getEntityStore(), getRulesEngines(), getExecutorPools().get(ExecutorPools.RULES), getAuditLogger(), getMetricReporter(), properties.getActiveMQBrokerUrl(), properties.getActiveMQQueueName(), properties.getActiveMQBrokerTimeout(), getIndexerCache());
 
 			} catch (Exception ex) {
 
@@ -412,13 +511,13 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 
 			LOGGER.info("Using internal queue.");
 
-			queueConsumer = new InternalQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), getIndexerCache());
+			queueConsumer = new InternalQueueConsumer(getEntityStore(), getRulesEngines(), getExecutorPools().get(ExecutorPools.RULES), getAuditLogger(), getMetricReporter(), getIndexerCache());
 
 		} else {
 
 			LOGGER.warn("Invalid queue {}. Using the internal queue.", queue);
 
-			queueConsumer = new InternalQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), getIndexerCache());
+			queueConsumer = new InternalQueueConsumer(getEntityStore(), getRulesEngines(), getExecutorPools().get(ExecutorPools.RULES), getAuditLogger(), getMetricReporter(), getIndexerCache());
 
 		}
 
@@ -462,6 +561,10 @@ public class EntityDbApplication extends SpringBootServletInitializer {
 		Collection<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
 
 		GsonHttpMessageConverter gsonHttpMessageConverter = new GsonHttpMessageConverter();
+		
+		// Serialize only the projected properties of queried entities.
+		gsonHttpMessageConverter.setGson(new GsonBuilder().registerTypeAdapterFactory(new QueryResultTypeAdapterFactory()).create());
+		
 		messageConverters.add(gsonHttpMessageConverter);
 
 		return new HttpMessageConverters(true, messageConverters);
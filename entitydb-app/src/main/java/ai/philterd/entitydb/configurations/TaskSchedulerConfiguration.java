@@ -20,11 +20,13 @@
  */
 package ai.philterd.entitydb.configurations;
 
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.logging.log4j.LogManager;
@@ -34,20 +36,27 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 import ai.philterd.entitydb.configuration.EntityDbProperties;
+import ai.philterd.entitydb.datastore.repository.ContinuousQueryRepository;
 import ai.philterd.entitydb.model.entitystore.EntityStore;
 import ai.philterd.entitydb.model.exceptions.EntityStoreException;
+import ai.philterd.entitydb.model.executors.ExecutorPools;
 import ai.philterd.entitydb.model.metrics.Metric;
 import ai.philterd.entitydb.model.metrics.MetricReporter;
 import ai.philterd.entitydb.model.metrics.Unit;
 import ai.philterd.entitydb.model.queue.QueueConsumer;
 import ai.philterd.entitydb.model.search.Indexer;
 import ai.philterd.entitydb.model.search.SearchIndex;
+import ai.philterd.entitydb.services.cache.QueryResultCache;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryRegistry;
 
 @Configuration
 @EnableScheduling
-public class TaskSchedulerConfiguration {
+public class TaskSchedulerConfiguration implements SchedulingConfigurer {
 
 	private static final Logger LOGGER = LogManager.getLogger(TaskSchedulerConfiguration.class);
 	
@@ -69,7 +78,18 @@ public class TaskSchedulerConfiguration {
 	private MetricReporter metricReporter;
 	
 	@Autowired
-	private ThreadPoolExecutor executor;
+	private ExecutorPools executorPools;
+	
+	@Autowired
+	private ContinuousQueryRegistry continuousQueryRegistry;
+	
+	@Autowired
+	private ContinuousQueryRepository continuousQueryRepository;
+	
+	@Autowired
+	private QueryResultCache queryResultCache;
+	
+	private final AtomicBoolean indexing = new AtomicBoolean(false);
 	
 	@Bean(destroyMethod = "shutdown")
     public Executor taskScheduler() {
@@ -96,43 +116,110 @@ public class TaskSchedulerConfiguration {
 		List<Metric> metrics = new LinkedList<Metric>();
 		metrics.add(new Metric("stored", stored, Unit.COUNT));
 		metrics.add(new Metric("indexed", indexed, Unit.COUNT));
-		metrics.add(new Metric("activeThreads", executor.getActiveCount(), Unit.COUNT));
-		metrics.add(new Metric("queuedThreads", executor.getQueue().size(), Unit.COUNT));
+		metrics.addAll(searchIndex.getMetrics());
 		
 		metricReporter.report(MetricReporter.MEASUREMENT_INGEST, metrics);
 		
+		executorPools.report(metricReporter);
+		
+		metricReporter.report(MetricReporter.MEASUREMENT_QUERY, queryResultCache.getMetrics());
+		
 	}
 	
-	@Scheduled(fixedDelay = 500)
-	public void index() {
+	@Scheduled(fixedDelay = 60000)
+	public void expireContinuousQueries() {
 		
-		LOGGER.info("Executing indexer.");
+		continuousQueryRegistry.expire(System.currentTimeMillis());
 		
-		if(properties.isIndexerEnabled()) {			
+	}
+	
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+		
+		final long reloadInterval = properties.getContinuousQueryReloadInterval();
+		
+		if(reloadInterval > 0) {
 			
-			int sleepPeriod = 2000;
+			final Duration interval = Duration.ofMillis(reloadInterval);
 			
-			while(indexer.index() == 0) {
+			taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::reloadContinuousQueries, interval, interval));
 			
-				try {
-					
-					sleepPeriod = sleepPeriod * 2;
+		}
+		
+	}
+	
+	public void reloadContinuousQueries() {
+		
+		// Picks up the continuous queries saved and deleted by other nodes. The version is
+		// taken first so the queries added and removed while they are read are kept.
+		final long version = continuousQueryRegistry.getVersion();
+		
+		continuousQueryRegistry.load(continuousQueryRepository.getNonExpiredContinuousQueries(), version);
+		
+	}
+	
+	@Scheduled(fixedDelay = 500)
+	public void index() {
+		
+		// Only one indexer run is in flight at a time. The run executes
+		// on the indexing executor so it does not hold a scheduler thread.
+		if(properties.isIndexerEnabled() && indexing.compareAndSet(false, true)) {
+			
+			try {
+			
+				executorPools.get(ExecutorPools.INDEXING).execute(() -> {
 					
-					// Sleep for a max of 3 minutes.
-					if(sleepPeriod > 180000) {
-						sleepPeriod = 180000;
+					try {
+						
+						executeIndexer();
+						
+					} finally {
+						
+						indexing.set(false);
+						
 					}
 					
-					Thread.sleep(sleepPeriod);
-					
-				} catch (InterruptedException ex) {
-					Thread.currentThread().interrupt();
-				}
+				});
+			
+			} catch (RejectedExecutionException ex) {
+				
+				// The task will never run so the next scheduled run may try again.
+				indexing.set(false);
+				
+				LOGGER.warn("The indexer was not executed: {}", ex.getMessage());
 				
 			}
 	
 		}
 		
 	}
+	
+	private void executeIndexer() {
+		
+		LOGGER.info("Executing indexer.");
+			
+		int sleepPeriod = 2000;
+		
+		while(indexer.index() == 0) {
+		
+			try {
+				
+				sleepPeriod = sleepPeriod * 2;
+				
+				// Sleep for a max of 3 minutes.
+				if(sleepPeriod > 180000) {
+					sleepPeriod = 180000;
+				}
+				
+				Thread.sleep(sleepPeriod);
+				
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			
+		}
+		
+	}
 		
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.lifecycle;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import ai.philterd.entitydb.datastore.repository.ContinuousQueryRepository;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryRegistry;
+
+/**
+ * Loads the non-expired continuous queries from the datastore
+ * into the {@link ContinuousQueryRegistry} when EntityDB starts.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class ContinuousQueryLoader implements ApplicationRunner {
+
+	private static final Logger LOGGER = LogManager.getLogger(ContinuousQueryLoader.class);
+	
+	@Autowired
+	private ContinuousQueryRepository continuousQueryRepository;
+	
+	@Autowired
+	private ContinuousQueryRegistry continuousQueryRegistry;
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+
+		LOGGER.info("Loading continuous queries from the datastore.");
+		
+		final long version = continuousQueryRegistry.getVersion();
+		
+		continuousQueryRegistry.load(continuousQueryRepository.getNonExpiredContinuousQueries(), version);
+		
+	}
+	
+}
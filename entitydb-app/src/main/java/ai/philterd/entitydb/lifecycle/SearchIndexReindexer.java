@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.lifecycle;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import ai.philterd.entitydb.configuration.EntityDbProperties;
+import ai.philterd.entitydb.model.metrics.MetricReporter;
+import ai.philterd.entitydb.model.metrics.Unit;
+import ai.philterd.entitydb.model.search.SearchIndex;
+
+/**
+ * Reindexes the entities in the {@link SearchIndex} when EntityDB
+ * starts if reindexing is enabled or if some entities were indexed
+ * without the fields of the current mapping.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class SearchIndexReindexer implements ApplicationRunner {
+
+	private static final Logger LOGGER = LogManager.getLogger(SearchIndexReindexer.class);
+	
+	private static final EntityDbProperties properties = ConfigFactory.create(EntityDbProperties.class);
+	
+	@Autowired
+	private SearchIndex searchIndex;
+	
+	@Autowired
+	private MetricReporter metricReporter;
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+
+		if(properties.isSearchIndexReindex() || searchIndex.isReindexRequired()) {
+			
+			LOGGER.info("Reindexing the entities in the search index.");
+			
+			final long startTime = System.currentTimeMillis();
+			
+			final long count = searchIndex.reindex(properties.getSearchIndexReindexBatchSize());
+			
+			metricReporter.report(MetricReporter.MEASUREMENT_INGEST, "reindexed", count, Unit.COUNT);
+			metricReporter.reportElapsedTime(MetricReporter.MEASUREMENT_INGEST, "reindexTime", startTime);
+			
+		}
+		
+	}
+	
+}
@@ -22,6 +22,7 @@ package ai.philterd.entitydb.audit;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
@@ -102,6 +103,31 @@ public class FileAuditLogger extends AbstractAuditLogger implements AuditLogger
 		
 	}
 
+	
+	@Override
+	public boolean audit(List<String> queries, long timestamp, String userName) {
+		
+		final StringBuilder data = new StringBuilder();
+		
+		for(String query : queries) {
+			data.append(String.format("\"%s\"\t\"%s\"\t\"%s\"\t\"%s\"\t\"%s\"", query, timestamp, userName, AuditAction.QUERY, systemId));
+		}
+		
+		try {
+		
+			// The queries are written together.
+			FileUtils.writeStringToFile(file, data.toString(), true);
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to audit event.", ex);
+			
+		}
+		
+		return true;
+		
+	}
+
 
 	@Override
 	public void close() {
@@ -21,6 +21,7 @@
 package ai.philterd.entitydb.audit;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
@@ -79,6 +80,21 @@ public class FluentdAuditLogger extends AbstractAuditLogger implements AuditLogg
 		
 	}
 	
+	
+	@Override
+	public boolean audit(List<String> queries, long timestamp, String userName) {
+		
+		boolean audited = true;
+		
+		// The events are buffered by the logger and sent together.
+		for(String query : queries) {
+			audited &= audit(query, timestamp, userName);
+		}
+		
+		return audited;
+		
+	}
+
 
 	@Override
 	public void close() {
@@ -40,6 +40,7 @@ public interface EntityDbProperties extends Config {
 	String MONGODB = "mongodb";
 	
 	String ELASTICSEARCH = "elasticsearch";
+	String PERCOLATOR = "percolator";
 	
 	String ACTIVEMQ = "activemq";
 	String SQS = "sqs";
@@ -368,6 +369,87 @@ public interface EntityDbProperties extends Config {
 	@Key("elasticsearch.password")
     String getElasticsearchPassword();
 	
+	/**
+	 * Gets if the entities in the search index are reindexed on startup
+	 * even when none of them are missing a field of the current mapping.
+	 * The entities are always reindexed when some are missing a field.
+	 * @return <code>true</code> to always reindex the entities. If not specified
+	 * in the properties then <code>false</code> will be returned.
+	 */
+	@Key("search.index.reindex")
+	@DefaultValue("false")
+	boolean isSearchIndexReindex();
+	
+	/**
+	 * Gets if the analyzer of the lower-cased fields is added on startup to
+	 * an index that was created by an older version without it. The index
+	 * is closed while the analyzer is added so the searches and writes of
+	 * every EntityDB node using the index fail until it is opened again.
+	 * Until the analyzer is added the wildcard conditions match the tokens
+	 * of the entities' values.
+	 * @return <code>true</code> to add the analyzer. If not specified
+	 * in the properties then <code>false</code> will be returned.
+	 */
+	@Key("search.index.migrate.analysis")
+	@DefaultValue("false")
+	boolean isSearchIndexMigrateAnalysis();
+	
+	/**
+	 * Gets the number of entities reindexed in a batch.
+	 * @return The batch size. If not specified in the
+	 * properties then <code>500</code> will be returned.
+	 */
+	@Key("search.index.reindex.batch.size")
+	@DefaultValue("500")
+	int getSearchIndexReindexBatchSize();
+	
+	/**
+	 * Gets the maximum number of entities in a bulk indexing request.
+	 * @return The maximum number of entities. If not specified in
+	 * the properties then <code>500</code> will be returned.
+	 */
+	@Key("search.index.bulk.actions")
+	@DefaultValue("500")
+	int getSearchIndexBulkActions();
+	
+	/**
+	 * Gets the maximum size in bytes of the entities in a bulk indexing request.
+	 * @return The maximum size in bytes. If not specified in the
+	 * properties then <code>5242880</code> (5 MB) will be returned.
+	 */
+	@Key("search.index.bulk.bytes")
+	@DefaultValue("5242880")
+	long getSearchIndexBulkBytes();
+	
+	/**
+	 * Gets the maximum number of bulk indexing requests executing at the same time.
+	 * @return The maximum number of requests. If not specified in
+	 * the properties then <code>2</code> will be returned.
+	 */
+	@Key("search.index.bulk.concurrency")
+	@DefaultValue("2")
+	int getSearchIndexBulkConcurrency();
+	
+	/**
+	 * Gets the maximum number of times an entity rejected by the
+	 * search index because it was busy is retried.
+	 * @return The maximum number of retries. If not specified in
+	 * the properties then <code>3</code> will be returned.
+	 */
+	@Key("search.index.bulk.retries")
+	@DefaultValue("3")
+	int getSearchIndexBulkRetries();
+	
+	/**
+	 * Gets the time in milliseconds to wait before the first retry of
+	 * rejected entities. The time doubles with each retry.
+	 * @return The time in milliseconds. If not specified in
+	 * the properties then <code>100</code> will be returned.
+	 */
+	@Key("search.index.bulk.backoff")
+	@DefaultValue("100")
+	long getSearchIndexBulkBackoff();
+	
 	/**
 	 * Gets the provider of the datastore.
 	 * @return The provider of the datastore. If not provided 
@@ -493,4 +575,222 @@ public interface EntityDbProperties extends Config {
 	@DefaultValue("false")
 	boolean isPopulateTestData();
 	
+	/**
+	 * Gets the number of threads used to execute continuous queries.
+	 * @return The number of threads used to execute continuous queries. If not
+	 * specified in the properties then <code>0</code> will be returned which
+	 * indicates one thread per available processor.
+	 */
+	@Key("continuous.query.parallelism")
+	@DefaultValue("0")
+	int getContinuousQueryParallelism();
+	
+	/**
+	 * Gets the minimum number of entities in a chunk of a batch when the
+	 * continuous queries are executed in parallel. A batch is only split
+	 * while it is larger than this size and there are idle threads.
+	 * @return The minimum number of entities in a chunk. If not specified
+	 * in the properties then <code>16</code> will be returned.
+	 */
+	@Key("continuous.query.chunk.size")
+	@DefaultValue("16")
+	int getContinuousQueryChunkSize();
+	
+	/**
+	 * Gets how often the continuous queries are loaded again from the
+	 * datastore to pick up the continuous queries saved and deleted by
+	 * other EntityDB nodes. A single EntityDB node does not need to load
+	 * them again since its own changes are made to the registry directly.
+	 * @return The interval in milliseconds, or <code>0</code> to not load
+	 * them again. If not specified in the properties then <code>30000</code>
+	 * will be returned.
+	 */
+	@Key("continuous.query.reload.interval")
+	@DefaultValue("30000")
+	long getContinuousQueryReloadInterval();
+	
+	/**
+	 * Gets where the continuous queries are matched. Valid values
+	 * are <code>internal</code> to match the continuous queries in
+	 * EntityDB and <code>percolator</code> to match the continuous
+	 * queries with the Elasticsearch percolator.
+	 * @return Where the continuous queries are matched. If not specified
+	 * in the properties then <code>internal</code> will be returned.
+	 */
+	@Key("continuous.query.backend")
+	@DefaultValue("internal")
+	String getContinuousQueryBackend();
+	
+	/**
+	 * Gets the maximum number of prepared EQL queries that are kept for
+	 * each user. The user's least recently used prepared query is removed
+	 * when the maximum is reached and must be prepared again.
+	 * @return The maximum number of prepared queries of a user. If not
+	 * specified in the properties then <code>100</code> will be returned.
+	 */
+	@Key("eql.prepared.queries")
+	@DefaultValue("100")
+	int getPreparedQueries();
+	
+	/**
+	 * Gets the maximum number of EQL queries executed together in a batch.
+	 * @return The maximum number of queries in a batch. If not specified
+	 * in the properties then <code>100</code> will be returned.
+	 */
+	@Key("eql.batch.queries")
+	@DefaultValue("100")
+	int getBatchQueries();
+	
+	/**
+	 * Gets if EQL queries are only executed when admitted. A query is rejected
+	 * when the user or EntityDB is already executing as many queries as allowed.
+	 * @return <code>true</code> if queries must be admitted. If not specified
+	 * in the properties then <code>true</code> will be returned.
+	 */
+	@Key("eql.admission.enabled")
+	@DefaultValue("true")
+	boolean isQueryAdmissionEnabled();
+	
+	/**
+	 * Gets the number of EQL queries each user may execute at a time.
+	 * @return The number of queries. If not specified in the
+	 * properties then <code>4</code> will be returned.
+	 */
+	@Key("eql.admission.user.concurrency")
+	@DefaultValue("4")
+	int getQueryAdmissionUserConcurrency();
+	
+	/**
+	 * Gets the total estimated cost of the EQL queries that may be executed at a time.
+	 * A selective query for a single page of entities costs a few units.
+	 * @return The total cost. If not specified in the
+	 * properties then <code>200</code> will be returned.
+	 */
+	@Key("eql.admission.budget")
+	@DefaultValue("200")
+	long getQueryAdmissionBudget();
+	
+	/**
+	 * Gets the maximum number of EQL query results that are cached.
+	 * @return The maximum number of results. If not specified in the
+	 * properties then <code>1000</code> will be returned. Set to
+	 * <code>0</code> to disable the cache.
+	 */
+	@Key("eql.cache.size")
+	@DefaultValue("1000")
+	int getQueryCacheSize();
+	
+	/**
+	 * Gets the time in milliseconds an EQL query result is cached.
+	 * @return The time in milliseconds. If not specified in the
+	 * properties then <code>10000</code> will be returned.
+	 */
+	@Key("eql.cache.ttl")
+	@DefaultValue("10000")
+	long getQueryCacheTtl();
+	
+	/**
+	 * Gets the time in milliseconds after an entity is indexed, updated
+	 * or deleted during which EQL query results are not cached. It should
+	 * be at least the search index's refresh interval.
+	 * @return The time in milliseconds. If not specified in the
+	 * properties then <code>1000</code> will be returned.
+	 */
+	@Key("eql.cache.refresh.interval")
+	@DefaultValue("1000")
+	long getQueryCacheRefreshInterval();
+	
+	/**
+	 * Gets the maximum number of notifications buffered
+	 * before they are written to the datastore.
+	 * @return The maximum number of buffered notifications. If not
+	 * specified in the properties then <code>10000</code> will be returned.
+	 */
+	@Key("notification.buffer.size")
+	@DefaultValue("10000")
+	int getNotificationBufferSize();
+	
+	/**
+	 * Gets what happens to a notification when the notification buffer is full.
+	 * @return <code>block</code> to wait for space in the buffer or <code>drop</code>
+	 * to discard the notification. If not specified in the properties then
+	 * <code>block</code> will be returned.
+	 */
+	@Key("notification.buffer.policy")
+	@DefaultValue("block")
+	String getNotificationBufferPolicy();
+	
+	/**
+	 * Gets the maximum number of notifications written to the datastore in a batch.
+	 * @return The maximum number of notifications in a batch. If not specified
+	 * in the properties then <code>100</code> will be returned.
+	 */
+	@Key("notification.batch.size")
+	@DefaultValue("100")
+	int getNotificationBatchSize();
+	
+	/**
+	 * Gets the maximum time in milliseconds a notification is buffered
+	 * before it is written to the datastore.
+	 * @return The flush interval in milliseconds. If not specified in the
+	 * properties then <code>1000</code> will be returned.
+	 */
+	@Key("notification.flush.interval")
+	@DefaultValue("1000")
+	long getNotificationFlushInterval();
+	
+	/**
+	 * Gets the number of threads of the executor for continuous queries.
+	 * @return The number of threads. If not specified in the
+	 * properties then <code>8</code> will be returned.
+	 */
+	@Key("executor.continuous.queries.threads")
+	@DefaultValue("8")
+	int getContinuousQueriesExecutorThreads();
+	
+	/**
+	 * Gets the maximum number of tasks waiting in the queue of the executor for continuous queries.
+	 * @return The maximum number of queued tasks. If not specified in the
+	 * properties then <code>1000</code> will be returned.
+	 */
+	@Key("executor.continuous.queries.queue.size")
+	@DefaultValue("1000")
+	int getContinuousQueriesExecutorQueueSize();
+	
+	/**
+	 * Gets what happens to a task when the queue of the executor for continuous queries is full.
+	 * @return <code>caller-runs</code>, <code>shed</code> or <code>block</code>. If not
+	 * specified in the properties then <code>caller-runs</code> will be returned.
+	 */
+	@Key("executor.continuous.queries.policy")
+	@DefaultValue("caller-runs")
+	String getContinuousQueriesExecutorPolicy();
+	
+	/**
+	 * Gets the number of threads of the executor for the rules engines.
+	 * @return The number of threads. If not specified in the
+	 * properties then <code>4</code> will be returned.
+	 */
+	@Key("executor.rules.threads")
+	@DefaultValue("4")
+	int getRulesExecutorThreads();
+	
+	/**
+	 * Gets the maximum number of tasks waiting in the queue of the executor for the rules engines.
+	 * @return The maximum number of queued tasks. If not specified in the
+	 * properties then <code>1000</code> will be returned.
+	 */
+	@Key("executor.rules.queue.size")
+	@DefaultValue("1000")
+	int getRulesExecutorQueueSize();
+	
+	/**
+	 * Gets what happens to a task when the queue of the executor for the rules engines is full.
+	 * @return <code>caller-runs</code>, <code>shed</code> or <code>block</code>. If not
+	 * specified in the properties then <code>caller-runs</code> will be returned.
+	 */
+	@Key("executor.rules.policy")
+	@DefaultValue("caller-runs")
+	String getRulesExecutorPolicy();
+	
 }
\ No newline at end of file
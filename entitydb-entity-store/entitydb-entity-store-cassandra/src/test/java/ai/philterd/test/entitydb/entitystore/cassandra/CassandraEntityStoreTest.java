@@ -57,4 +57,11 @@ public class CassandraEntityStoreTest extends AbstractEntityStoreTest<CassandraS
 		// CassandraEntityStore doesn't support this yet.
 	}
 	
+	@Override
+	@Test
+	@Ignore
+	public void queryTimeEntities() throws EntityStoreException {
+		// CassandraEntityStore doesn't support this yet.
+	}
+	
 }
\ No newline at end of file
@@ -480,6 +480,31 @@ public class DynamoDBEntityStore implements EntityStore<DynamoDBStoredEntity> {
 			sb.append("((confidence >= :minConfidence) and (confidence <= :maxConfidence)) and ");
 						
 		}
+		
+		if(entityQuery.getExtractionDateRange() != null) {
+			
+			LOGGER.debug("Querying with extraction dates between {} and {}.", entityQuery.getExtractionDateRange().getMinimum(), entityQuery.getExtractionDateRange().getMaximum());
+			
+			expressionAttributeNames.put("#extractionDate", DynamoDBStoredEntity.FIELD_EXTRACTION_DATE);
+			expressionAttributeValues.put(":minExtractionDate", new AttributeValue().withN(String.valueOf(entityQuery.getExtractionDateRange().getMinimum())));
+			expressionAttributeValues.put(":maxExtractionDate", new AttributeValue().withN(String.valueOf(entityQuery.getExtractionDateRange().getMaximum())));
+			
+			sb.append("(#extractionDate between :minExtractionDate and :maxExtractionDate) and ");
+			
+		}
+		
+		if(entityQuery.getTimeRange() != null) {
+			
+			LOGGER.debug("Querying with times between {} and {}.", entityQuery.getTimeRange().getMinimum(), entityQuery.getTimeRange().getMaximum());
+			
+			// The typed time that was copied from the metadata when the entity was stored.
+			expressionAttributeNames.put("#time", DynamoDBStoredEntity.FIELD_TIME);
+			expressionAttributeValues.put(":minTime", new AttributeValue().withN(String.valueOf(entityQuery.getTimeRange().getMinimum())));
+			expressionAttributeValues.put(":maxTime", new AttributeValue().withN(String.valueOf(entityQuery.getTimeRange().getMaximum())));
+			
+			sb.append("(#time between :minTime and :maxTime) and ");
+			
+		}
 				
 		if(!CollectionUtils.isEmpty(entityQuery.getEntityMetadataFilters())) {
 									
@@ -81,6 +81,11 @@ public class DynamoDBStoredEntity extends AbstractStoredEntity {
 	 */
 	public static final String FIELD_EXTRACTION_DATE = "extractionDate";
 	
+	/**
+	 * The time attribute copied from the metadata.
+	 */
+	public static final String FIELD_TIME = "time";
+	
 	/**
 	 * The URI (disambiguated) attribute.
 	 */
@@ -123,6 +128,7 @@ public class DynamoDBStoredEntity extends AbstractStoredEntity {
 	private String documentId;
 	private double confidence;
 	private long extractionDate;
+	private Long time;
 	private String uri;
 	private String language;
 	private String acl;
@@ -153,6 +159,7 @@ public class DynamoDBStoredEntity extends AbstractStoredEntity {
 		storedEntity.setLanguage(entity.getLanguageCode());
 		storedEntity.setAcl(acl);
 		storedEntity.setMetadata(MetadataSanitizer.sanitizeMetadata(entity.getMetadata()));
+		storedEntity.setTime(IndexedEntity.parseTime(entity.getMetadata()));
 		
 		return storedEntity;
 		
@@ -295,6 +302,23 @@ public class DynamoDBStoredEntity extends AbstractStoredEntity {
 		this.extractionDate = extractionDate;
 	}
 
+	/**
+	 * Gets the time from the entity's metadata.
+	 * @return The time, or <code>null</code> if the entity does not have a valid time.
+	 */
+	@DynamoDBAttribute(attributeName=FIELD_TIME)
+	public Long getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the time from the entity's metadata.
+	 * @param time The time.
+	 */
+	public void setTime(Long time) {
+		this.time = time;
+	}
+
 	/**
 	 * Gets the entity URI.
 	 * @return The entity URI.
@@ -244,6 +244,23 @@ public class MongoDBEntityStore implements EntityStore<MongoDBStoredEntity> {
 			
 		}
 		
+		if(entityQuery.getExtractionDateRange() != null) {
+			
+			document
+				.append("extractionDate", new Document("$gte", entityQuery.getExtractionDateRange().getMinimum())
+				.append("$lte", entityQuery.getExtractionDateRange().getMaximum()));
+			
+		}
+		
+		if(entityQuery.getTimeRange() != null) {
+			
+			// The typed time that was copied from the metadata when the entity was stored.
+			document
+				.append("time", new Document("$gte", entityQuery.getTimeRange().getMinimum())
+				.append("$lte", entityQuery.getTimeRange().getMaximum()));
+			
+		}
+		
 		if(!StringUtils.isEmpty(entityQuery.getText())) {			
 			document.append("text", entityQuery.getText());			
 		}
@@ -51,6 +51,7 @@ public class MongoDBStoredEntity extends AbstractStoredEntity implements Bson {
 	private String documentId;
 	private double confidence;
 	private long extractionDate;
+	private Long time;
 	private String uri;
 	private String language;
 	private String acl;
@@ -87,6 +88,7 @@ public class MongoDBStoredEntity extends AbstractStoredEntity implements Bson {
 		storedEntity.setLanguage(entity.getLanguageCode());
 		storedEntity.setAcl(acl);
 		storedEntity.setMetadata(MetadataSanitizer.sanitizeMetadata(entity.getMetadata()));
+		storedEntity.setTime(IndexedEntity.parseTime(entity.getMetadata()));
 				
 		return storedEntity;
 		
@@ -217,6 +219,22 @@ public class MongoDBStoredEntity extends AbstractStoredEntity implements Bson {
 		this.extractionDate = extractionDate;
 	}
 
+	/**
+	 * Gets the time from the entity's metadata.
+	 * @return The time, or <code>null</code> if the entity does not have a valid time.
+	 */
+	public Long getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the time from the entity's metadata.
+	 * @param time The time.
+	 */
+	public void setTime(Long time) {
+		this.time = time;
+	}
+
 	/**
 	 * Gets the entity URI.
 	 * @return The entity URI.
@@ -92,6 +92,10 @@ public class MongoDBStoredEntityCodec implements CollectibleCodec<MongoDBStoredE
     	if (mongoDBStoredEntity.getMetadata() != null && !mongoDBStoredEntity.getMetadata().isEmpty()) {
     		document.put("metadata", mongoDBStoredEntity.getMetadata());
     	}
+    	
+    	if (mongoDBStoredEntity.getTime() != null) {
+    		document.put("time", mongoDBStoredEntity.getTime());
+    	}
     	 	
         // These values are never null.
     	document.put("confidence", mongoDBStoredEntity.getConfidence());
@@ -124,6 +128,7 @@ public class MongoDBStoredEntityCodec implements CollectibleCodec<MongoDBStoredE
 		mongoDBStoredEntity.setVisible(document.getInteger("visible"));
 		mongoDBStoredEntity.setTimestamp(document.getLong("timestamp"));
 		mongoDBStoredEntity.setIndexed(document.getLong("indexed"));
+		mongoDBStoredEntity.setTime(document.getLong("time"));
 		
 		// Add the metadata.
 		Map<String, String> metadata = (Map<String, String>) document.get("metadata");
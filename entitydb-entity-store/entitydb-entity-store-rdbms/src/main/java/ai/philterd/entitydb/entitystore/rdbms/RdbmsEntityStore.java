@@ -267,6 +267,19 @@ public class RdbmsEntityStore implements EntityStore<RdbmsStoredEntity> {
 			
 		}
 		
+		if(entityQuery.getExtractionDateRange() != null) {
+			
+			criteria.add(Restrictions.between("extractionDate", entityQuery.getExtractionDateRange().getMinimum(), entityQuery.getExtractionDateRange().getMaximum()));
+			
+		}
+		
+		if(entityQuery.getTimeRange() != null) {
+			
+			// The typed time that was copied from the metadata when the entity was stored.
+			criteria.add(Restrictions.between("time", entityQuery.getTimeRange().getMinimum(), entityQuery.getTimeRange().getMaximum()));
+			
+		}
+		
 		if(entityQuery.getLimit() > 0) {
 			
 			criteria.setMaxResults(entityQuery.getLimit());
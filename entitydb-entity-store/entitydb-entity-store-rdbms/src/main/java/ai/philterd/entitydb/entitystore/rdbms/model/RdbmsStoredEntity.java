@@ -53,6 +53,7 @@ public class RdbmsStoredEntity extends AbstractStoredEntity {
 	private String documentId;
 	private double confidence;
 	private long extractionDate;
+	private Long time;
 	private String language;
 	private String acl;
 	private String uri;
@@ -115,6 +116,7 @@ public class RdbmsStoredEntity extends AbstractStoredEntity {
 		storedEntity.setType(entity.getType());
 		storedEntity.setConfidence(entity.getConfidence());
 		storedEntity.setExtractionDate(System.currentTimeMillis());
+		storedEntity.setTime(IndexedEntity.parseTime(entity.getMetadata()));
 		storedEntity.setContext(entity.getContext());
 		storedEntity.setDocumentId(entity.getDocumentId());
 		storedEntity.setUri(entity.getUri());
@@ -296,6 +298,22 @@ public class RdbmsStoredEntity extends AbstractStoredEntity {
 		this.extractionDate = extractionDate;
 	}
 
+	/**
+	 * Gets the time from the entity's metadata.
+	 * @return The time, or <code>null</code> if the entity does not have a valid time.
+	 */
+	public Long getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the time from the entity's metadata.
+	 * @param time The time.
+	 */
+	public void setTime(Long time) {
+		this.time = time;
+	}
+
 	/**
 	 * Gets the entity URI.
 	 * @return The entity URI.
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable centered interval tree over inclusive confidence ranges.
+ * Finding the intervals that contain a confidence value takes
+ * <code>O(log n + k)</code> time where <code>k</code> is the number
+ * of matching intervals.
+ *
+ * @author Philterd, LLC
+ *
+ * @param <T> The type of the value associated with each interval.
+ */
+public final class ConfidenceIntervalTree<T> {
+
+	private final Node<T> root;
+	private final int size;
+
+	/**
+	 * Creates a new tree. Empty intervals, those whose minimum
+	 * is greater than the maximum, are not added to the tree.
+	 * @param intervals The {@link Interval intervals}.
+	 */
+	public ConfidenceIntervalTree(Collection<Interval<T>> intervals) {
+
+		final List<Interval<T>> nonEmpty = new ArrayList<>(intervals.size());
+
+		for(Interval<T> interval : intervals) {
+
+			if(interval.minimum <= interval.maximum) {
+				nonEmpty.add(interval);
+			}
+
+		}
+
+		this.root = build(nonEmpty);
+		this.size = nonEmpty.size();
+
+	}
+
+	/**
+	 * Gets the values of all intervals that contain the confidence.
+	 * @param confidence The confidence.
+	 * @param values The collection to which the values are added.
+	 */
+	public void stab(double confidence, Collection<T> values) {
+
+		Node<T> node = root;
+
+		while(node != null) {
+
+			if(confidence < node.center) {
+
+				// Intervals are sorted by ascending minimum.
+				for(Interval<T> interval : node.byMinimum) {
+
+					if(interval.minimum > confidence) {
+						break;
+					}
+
+					values.add(interval.value);
+
+				}
+
+				node = node.left;
+
+			} else if(confidence > node.center) {
+
+				// Intervals are sorted by descending maximum.
+				for(Interval<T> interval : node.byMaximum) {
+
+					if(interval.maximum < confidence) {
+						break;
+					}
+
+					values.add(interval.value);
+
+				}
+
+				node = node.right;
+
+			} else {
+
+				// Every interval at this node contains its center.
+				for(Interval<T> interval : node.byMinimum) {
+					values.add(interval.value);
+				}
+
+				node = null;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Gets the number of intervals in the tree.
+	 * @return The number of intervals in the tree.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private static <T> Node<T> build(List<Interval<T>> intervals) {
+
+		if(intervals.isEmpty()) {
+			return null;
+		}
+
+		// Use the median of the endpoints as the center.
+		final double[] endpoints = new double[intervals.size() * 2];
+
+		for(int i = 0; i < intervals.size(); i++) {
+			endpoints[i * 2] = intervals.get(i).minimum;
+			endpoints[i * 2 + 1] = intervals.get(i).maximum;
+		}
+
+		Arrays.sort(endpoints);
+
+		final double center = endpoints[intervals.size()];
+
+		final List<Interval<T>> left = new ArrayList<>();
+		final List<Interval<T>> right = new ArrayList<>();
+		final List<Interval<T>> overlapping = new ArrayList<>();
+
+		for(Interval<T> interval : intervals) {
+
+			if(interval.maximum < center) {
+				left.add(interval);
+			} else if(interval.minimum > center) {
+				right.add(interval);
+			} else {
+				overlapping.add(interval);
+			}
+
+		}
+
+		@SuppressWarnings("unchecked")
+		final Interval<T>[] byMinimum = overlapping.toArray(new Interval[overlapping.size()]);
+		Arrays.sort(byMinimum, Comparator.comparingDouble(i -> i.minimum));
+
+		@SuppressWarnings("unchecked")
+		final Interval<T>[] byMaximum = overlapping.toArray(new Interval[overlapping.size()]);
+		Arrays.sort(byMaximum, Comparator.comparingDouble((Interval<T> i) -> i.maximum).reversed());
+
+		return new Node<>(center, byMinimum, byMaximum, build(left), build(right));
+
+	}
+
+	private static final class Node<T> {
+
+		private final double center;
+		private final Interval<T>[] byMinimum;
+		private final Interval<T>[] byMaximum;
+		private final Node<T> left;
+		private final Node<T> right;
+
+		private Node(double center, Interval<T>[] byMinimum, Interval<T>[] byMaximum, Node<T> left, Node<T> right) {
+
+			this.center = center;
+			this.byMinimum = byMinimum;
+			this.byMaximum = byMaximum;
+			this.left = left;
+			this.right = right;
+
+		}
+
+	}
+
+	/**
+	 * An inclusive confidence interval and its associated value.
+	 *
+	 * @param <T> The type of the value.
+	 */
+	public static final class Interval<T> {
+
+		private final double minimum;
+		private final double maximum;
+		private final T value;
+
+		/**
+		 * Creates a new interval.
+		 * @param minimum The inclusive minimum confidence.
+		 * @param maximum The inclusive maximum confidence.
+		 * @param value The value associated with the interval.
+		 */
+		public Interval(double minimum, double maximum, T value) {
+
+			this.minimum = minimum;
+			this.maximum = maximum;
+			this.value = value;
+
+		}
+
+		public double getMinimum() {
+			return minimum;
+		}
+
+		public double getMaximum() {
+			return maximum;
+		}
+
+		public T getValue() {
+			return value;
+		}
+
+	}
+
+}
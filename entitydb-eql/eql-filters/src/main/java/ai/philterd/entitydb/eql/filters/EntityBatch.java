@@ -0,0 +1,481 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql.filters;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.eql.DateRange;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+/**
+ * A batch of {@link Entity entities} that {@link EqlPredicate predicates} are
+ * evaluated over column by column instead of entity by entity.
+ * 
+ * The fields used by a predicate are copied out of the entities the first time
+ * they are needed. The confidences and dates are kept in primitive arrays and the string
+ * fields are dictionary-encoded so a condition is only evaluated once for each
+ * distinct value. Each condition is then applied to the whole batch in a tight
+ * loop that produces a bitmask, and the masks are ANDed together. The columns are
+ * kept for the life of the batch so evaluating several predicates over the same
+ * batch only extracts each field once.
+ * 
+ * The result is the same as calling {@link EqlPredicate#test(Entity)} for each
+ * entity in the batch. A batch is not thread-safe.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class EntityBatch {
+
+	private final Entity[] entities;
+	private final int size;
+	private final int words;
+	
+	private double[] confidences;
+	private long[] extractionDates;
+	private long[] times;
+	private long[] hasTimes;
+	private Column texts;
+	private Column types;
+	private Column contexts;
+	private Column documentIds;
+	private Column uris;
+	private Column languageCodes;
+	private final Map<String, Column> metadata = new HashMap<String, Column>();
+	
+	private EntityBatch(Collection<Entity> entities) {
+		
+		this.entities = entities.toArray(new Entity[entities.size()]);
+		this.size = this.entities.length;
+		this.words = (size + 63) >>> 6;
+		
+	}
+	
+	/**
+	 * Creates a batch of entities.
+	 * @param entities The {@link Entity entities}.
+	 * @return An {@link EntityBatch}.
+	 */
+	public static EntityBatch of(Collection<Entity> entities) {
+		
+		return new EntityBatch(entities);
+		
+	}
+	
+	/**
+	 * Gets the number of entities in the batch.
+	 * @return The number of entities in the batch.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Adds the entities that satisfy the predicate to a collection
+	 * in the order of the entities in the batch.
+	 * @param eqlPredicate The {@link EqlPredicate predicate}.
+	 * @param matchedEntities The collection that receives the matching {@link Entity entities}.
+	 */
+	public void filter(EqlPredicate eqlPredicate, Collection<Entity> matchedEntities) {
+		
+		final long[] mask = evaluate(eqlPredicate);
+		
+		for(int w = 0; w < words; w++) {
+			
+			long bits = mask[w];
+			
+			while(bits != 0) {
+				
+				matchedEntities.add(entities[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+				bits &= bits - 1;
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Evaluates the predicate over the batch.
+	 * @param eqlPredicate The {@link EqlPredicate predicate}.
+	 * @return A bitmask having a bit set for each entity that satisfies the predicate.
+	 * The bit for the entity at index <code>i</code> is <code>1L &lt;&lt; (i &amp; 63)</code>
+	 * of the word at index <code>i &gt;&gt;&gt; 6</code>.
+	 */
+	public long[] evaluate(EqlPredicate eqlPredicate) {
+		
+		final long[] mask = new long[words];
+		
+		for(int w = 0; w < words; w++) {
+			mask[w] = -1L;
+		}
+		
+		if((size & 63) != 0) {
+			mask[words - 1] = (1L << (size & 63)) - 1;
+		}
+		
+		if(eqlPredicate.hasConfidenceRange()) {
+			andConfidence(mask, eqlPredicate.getMinimumConfidence(), eqlPredicate.getMaximumConfidence());
+		}
+		
+		if(eqlPredicate.getExtractionDateRange() != null) {
+			andDate(mask, extractionDates(), null, eqlPredicate.getExtractionDateRange());
+		}
+		
+		if(eqlPredicate.getTimeRange() != null) {
+			andDate(mask, times(), hasTimes, eqlPredicate.getTimeRange());
+		}
+		
+		if(eqlPredicate.getText() != null) {
+			and(mask, texts(), eqlPredicate.getTextPattern()::matches);
+		}
+		
+		if(eqlPredicate.getType() != null) {
+			and(mask, types(), eqlPredicate.getTypePattern()::matches);
+		}
+		
+		if(eqlPredicate.getContext() != null) {
+			and(mask, contexts(), eqlPredicate.getContextPattern()::matches);
+		}
+		
+		if(eqlPredicate.getDocumentId() != null) {
+			and(mask, documentIds(), eqlPredicate.getDocumentIdPattern()::matches);
+		}
+		
+		if(eqlPredicate.getUri() != null) {
+			and(mask, uris(), eqlPredicate.getUriPattern()::matches);
+		}
+		
+		if(eqlPredicate.getLanguageCode() != null) {
+			and(mask, languageCodes(), eqlPredicate.getLanguageCodePattern()::matches);
+		}
+		
+		for(int i = 0; i < eqlPredicate.getMetadataConditionCount(); i++) {
+			
+			final String value = eqlPredicate.getMetadataValue(i);
+			
+			if(eqlPredicate.isMetadataCaseSensitive(i)) {
+				and(mask, metadata(eqlPredicate.getMetadataName(i)), v -> StringUtils.equals(value, v));
+			} else {
+				and(mask, metadata(eqlPredicate.getMetadataName(i)), v -> StringUtils.equalsIgnoreCase(value, v));
+			}
+			
+		}
+		
+		if(eqlPredicate.getNotText() != null) {
+			and(mask, texts(), v -> !eqlPredicate.getNotTextPattern().matches(v));
+		}
+		
+		if(eqlPredicate.getNotType() != null) {
+			and(mask, types(), v -> !eqlPredicate.getNotTypePattern().matches(v));
+		}
+		
+		if(eqlPredicate.getNotContext() != null) {
+			and(mask, contexts(), v -> !eqlPredicate.getNotContextPattern().matches(v));
+		}
+		
+		if(eqlPredicate.getNotDocumentId() != null) {
+			and(mask, documentIds(), v -> !eqlPredicate.getNotDocumentIdPattern().matches(v));
+		}
+		
+		if(eqlPredicate.getNotLanguageCode() != null) {
+			and(mask, languageCodes(), v -> !eqlPredicate.getNotLanguageCodePattern().matches(v));
+		}
+		
+		if(eqlPredicate.getNotUri() != null) {
+			and(mask, uris(), v -> !eqlPredicate.getNotUriPattern().matches(v));
+		}
+		
+		return mask;
+		
+	}
+	
+	private void andConfidence(long[] mask, double minimum, double maximum) {
+		
+		if(confidences == null) {
+			
+			confidences = new double[size];
+			
+			for(int i = 0; i < size; i++) {
+				confidences[i] = entities[i].getConfidence();
+			}
+			
+		}
+		
+		for(int w = 0; w < words; w++) {
+			
+			if(mask[w] == 0) {
+				continue;
+			}
+			
+			final int start = w << 6;
+			final int end = Math.min(size, start + 64);
+			
+			long bits = 0;
+			
+			for(int i = start; i < end; i++) {
+				
+				final double confidence = confidences[i];
+				
+				// The same comparison as the predicate so a NaN confidence is handled the same way.
+				if(!(confidence < minimum || confidence > maximum)) {
+					bits |= 1L << (i - start);
+				}
+				
+			}
+			
+			mask[w] &= bits;
+			
+		}
+		
+	}
+	
+	private void andDate(long[] mask, long[] dates, long[] present, DateRange dateRange) {
+		
+		final long minimum = dateRange.getMinimum();
+		final long maximum = dateRange.getMaximum();
+		
+		for(int w = 0; w < words; w++) {
+			
+			if(mask[w] == 0) {
+				continue;
+			}
+			
+			final int start = w << 6;
+			final int end = Math.min(size, start + 64);
+			
+			long bits = 0;
+			
+			for(int i = start; i < end; i++) {
+				
+				if(dates[i] >= minimum && dates[i] <= maximum) {
+					bits |= 1L << (i - start);
+				}
+				
+			}
+			
+			// An entity without a date does not satisfy the range.
+			mask[w] &= present == null ? bits : bits & present[w];
+			
+		}
+		
+	}
+	
+	private long[] extractionDates() {
+		
+		if(extractionDates == null) {
+			
+			extractionDates = new long[size];
+			
+			for(int i = 0; i < size; i++) {
+				extractionDates[i] = entities[i].getExtractionDate();
+			}
+			
+		}
+		
+		return extractionDates;
+		
+	}
+	
+	private long[] times() {
+		
+		if(times == null) {
+			
+			times = new long[size];
+			hasTimes = new long[words];
+			
+			for(int i = 0; i < size; i++) {
+				
+				final Long time = IndexedEntity.timeOf(entities[i]);
+				
+				if(time != null) {
+					times[i] = time;
+					hasTimes[i >>> 6] |= 1L << (i & 63);
+				}
+				
+			}
+			
+		}
+		
+		return times;
+		
+	}
+	
+	private void and(long[] mask, Column column, Predicate<String> condition) {
+		
+		// Evaluate the condition once for each distinct value.
+		final boolean[] matches = new boolean[column.dictionary.length];
+		
+		for(int d = 0; d < matches.length; d++) {
+			matches[d] = condition.test(column.dictionary[d]);
+		}
+		
+		final int[] codes = column.codes;
+		
+		for(int w = 0; w < words; w++) {
+			
+			if(mask[w] == 0) {
+				continue;
+			}
+			
+			final int start = w << 6;
+			final int end = Math.min(size, start + 64);
+			
+			long bits = 0;
+			
+			for(int i = start; i < end; i++) {
+				
+				if(matches[codes[i]]) {
+					bits |= 1L << (i - start);
+				}
+				
+			}
+			
+			mask[w] &= bits;
+			
+		}
+		
+	}
+	
+	private Column texts() {
+		
+		if(texts == null) {
+			texts = new Column(Entity::getText);
+		}
+		
+		return texts;
+		
+	}
+	
+	private Column types() {
+		
+		if(types == null) {
+			types = new Column(Entity::getType);
+		}
+		
+		return types;
+		
+	}
+	
+	private Column contexts() {
+		
+		if(contexts == null) {
+			contexts = new Column(Entity::getContext);
+		}
+		
+		return contexts;
+		
+	}
+	
+	private Column documentIds() {
+		
+		if(documentIds == null) {
+			documentIds = new Column(Entity::getDocumentId);
+		}
+		
+		return documentIds;
+		
+	}
+	
+	private Column uris() {
+		
+		if(uris == null) {
+			uris = new Column(Entity::getUri);
+		}
+		
+		return uris;
+		
+	}
+	
+	private Column languageCodes() {
+		
+		if(languageCodes == null) {
+			languageCodes = new Column(Entity::getLanguageCode);
+		}
+		
+		return languageCodes;
+		
+	}
+	
+	private Column metadata(String name) {
+		
+		Column column = metadata.get(name);
+		
+		if(column == null) {
+			
+			column = new Column(entity -> entity.getMetadata() == null ? null : entity.getMetadata().get(name));
+			
+			metadata.put(name, column);
+			
+		}
+		
+		return column;
+		
+	}
+	
+	/**
+	 * A dictionary-encoded column of a string field. A missing value
+	 * is encoded as <code>null</code> like any other value.
+	 */
+	private final class Column {
+		
+		private final int[] codes;
+		private final String[] dictionary;
+		
+		private Column(Function<Entity, String> field) {
+			
+			final Map<String, Integer> encodings = new HashMap<String, Integer>();
+			
+			codes = new int[size];
+			
+			for(int i = 0; i < size; i++) {
+				
+				final String value = field.apply(entities[i]);
+				
+				Integer code = encodings.get(value);
+				
+				if(code == null) {
+					code = encodings.size();
+					encodings.put(value, code);
+				}
+				
+				codes[i] = code;
+				
+			}
+			
+			dictionary = new String[encodings.size()];
+			
+			for(Map.Entry<String, Integer> encoding : encodings.entrySet()) {
+				dictionary[encoding.getValue()] = encoding.getKey();
+			}
+			
+		}
+		
+	}
+	
+}
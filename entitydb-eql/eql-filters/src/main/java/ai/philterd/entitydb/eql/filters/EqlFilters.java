@@ -27,15 +27,13 @@ import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
-import ai.philterd.entitydb.eql.Eql;
-import ai.philterd.entitydb.model.eql.EntityQuery;
 import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.search.IndexedEntity;
 
 /**
  * Static functions for applying EQL statements to entities.
@@ -46,6 +44,15 @@ import ai.philterd.entitydb.model.entity.Entity;
 public class EqlFilters {
 
 	private static final Logger LOGGER = LogManager.getLogger(EqlFilters.class);
+	
+	/**
+	 * The minimum number of entities that are filtered as an {@link EntityBatch}.
+	 * Smaller collections are filtered entity by entity. A batch is only used when
+	 * there are several statements or a statement has a wildcard condition, since
+	 * copying the columns costs more than testing equality, confidence, date and
+	 * metadata conditions entity by entity.
+	 */
+	public static final int BATCH_SIZE = 64;
 		
 	/**
 	 * Determines if an entity satisfies (matches) an EQL statement. Note that this function
@@ -88,11 +95,11 @@ public class EqlFilters {
 			if(entity.getType().equals("date")) {
 				
 				// The exact milliseconds of the date is stored in the metadata of the date.
-				String milliseconds = entity.getMetadata().get("time");
+				final Long milliseconds = IndexedEntity.timeOf(entity);
 				
 				if(milliseconds != null) {	
 					
-					Date entityDate = new Date(Long.valueOf(milliseconds));
+					Date entityDate = new Date(milliseconds);
 					
 					if(dateComparison.equals(DateComparison.BEFORE) && entityDate.before(date)) {
 						
@@ -142,11 +149,11 @@ public class EqlFilters {
 			if(entity.getType().equals("date")) {
 				
 				// The exact milliseconds of the date is stored in an metadata of the date.
-				String milliseconds = entity.getMetadata().get("time");
+				final Long milliseconds = IndexedEntity.timeOf(entity);
 				
 				if(milliseconds != null) {	
 					
-					Date entityDate = new Date(Long.valueOf(milliseconds));
+					Date entityDate = new Date(milliseconds);
 				
 					if(entityDate.after(startDate) && entityDate.before(endDate)) {
 						
@@ -202,6 +209,11 @@ public class EqlFilters {
 		
 		Collection<Entity> matchedEntities = new LinkedList<>();
 		
+		// Large collections are evaluated column by column when the columns are shared
+		// by several statements or a wildcard is matched once per distinct value. The
+		// batch is created when it is first needed and shared by all of the statements.
+		EntityBatch entityBatch = null;
+		
 		if(CollectionUtils.isEmpty(eqlStatements)) {
 			
 			// There are no statements so this is a universal match.			
@@ -211,25 +223,34 @@ public class EqlFilters {
 		
 			for(String eql : eqlStatements) {
 				
-				if("select * from entities".equalsIgnoreCase(eql)) {
+				if(EqlPredicate.SELECT_ALL.equalsIgnoreCase(eql)) {
 					
 					universalMatch = true;
 					
 				} else {
 				
-					final EntityQuery entityQuery = Eql.generate(eql);
+					final EqlPredicate eqlPredicate = EqlPredicate.compile(eql);
 					
 					if(!universalMatch) {					
-												
-						for(Entity entity : entities) {
+						
+						if(entities.size() >= BATCH_SIZE && (eqlStatements.size() > 1 || eqlPredicate.hasWildcardCondition())) {
+							
+							if(entityBatch == null) {
+								entityBatch = EntityBatch.of(entities);
+							}
+							
+							entityBatch.filter(eqlPredicate, matchedEntities);
 							
-							if(entityQuery.isMatch(entity)) {
+						} else {
+												
+							for(Entity entity : entities) {
 								
-								if(passNotConditions(entity, entityQuery)) {
+								if(eqlPredicate.test(entity)) {
 									matchedEntities.add(entity);
 								}
 								
 							}
+							
 						}
 						
 					}
@@ -255,19 +276,4 @@ public class EqlFilters {
 		
 	}
 	
-	private static boolean passNotConditions(Entity entity, EntityQuery entityQuery) {
-		
-		// Determine if the entity passes the NOT conditions of the query.
-		
-		if(StringUtils.isNotEmpty(entityQuery.getNotText()) && StringUtils.equals(entity.getText(), entityQuery.getNotText())) return false;
-		if(StringUtils.isNotEmpty(entityQuery.getNotType()) && StringUtils.equals(entity.getType(), entityQuery.getNotType())) return false;
-		if(StringUtils.isNotEmpty(entityQuery.getNotContext()) && StringUtils.equals(entity.getContext(), entityQuery.getNotContext())) return false;
-		if(StringUtils.isNotEmpty(entityQuery.getNotDocumentId()) && StringUtils.equals(entity.getDocumentId(), entityQuery.getNotDocumentId())) return false;
-		if(StringUtils.isNotEmpty(entityQuery.getNotLanguageCode()) && StringUtils.equals(entity.getLanguageCode(), entityQuery.getNotLanguageCode())) return false;
-		if(StringUtils.isNotEmpty(entityQuery.getNotUri()) && StringUtils.equals(entity.getUri(), entityQuery.getNotUri())) return false;
-		
-		return true;
-		
-	}
-	
 }
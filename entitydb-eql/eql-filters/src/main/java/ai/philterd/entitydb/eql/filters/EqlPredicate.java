@@ -0,0 +1,391 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql.filters;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.eql.DateRange;
+import ai.philterd.entitydb.model.eql.EntityMetadataFilter;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.eql.WildcardPattern;
+import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+/**
+ * An EQL statement compiled into a {@link Predicate} over {@link Entity entities}.
+ * The statement is parsed once when the predicate is compiled and the conditions
+ * are copied into final fields so the predicate is immutable, safe to share across
+ * threads, and does not allocate when it is evaluated.
+ *
+ * The predicate has the same semantics as {@link EntityQuery#isMatch(Entity)} followed
+ * by the evaluation of the query's NOT conditions. The string conditions, including the
+ * NOT conditions, are the query's compiled {@link WildcardPattern wildcard patterns} as
+ * they are when the query is executed by the search index.
+ *
+ * @author Philterd, LLC
+ *
+ */
+public final class EqlPredicate implements Predicate<Entity> {
+
+	/**
+	 * The EQL statement that matches all entities.
+	 */
+	public static final String SELECT_ALL = "select * from entities";
+
+	/**
+	 * A predicate that matches all entities.
+	 */
+	public static final EqlPredicate MATCH_ALL = new EqlPredicate(new EntityQuery());
+
+	private final boolean hasConfidenceRange;
+	private final double minimumConfidence;
+	private final double maximumConfidence;
+
+	private final DateRange extractionDateRange;
+	private final DateRange timeRange;
+
+	private final WildcardPattern text;
+	private final WildcardPattern type;
+	private final WildcardPattern context;
+	private final WildcardPattern documentId;
+	private final WildcardPattern uri;
+	private final WildcardPattern languageCode;
+
+	private final WildcardPattern notText;
+	private final WildcardPattern notType;
+	private final WildcardPattern notContext;
+	private final WildcardPattern notDocumentId;
+	private final WildcardPattern notUri;
+	private final WildcardPattern notLanguageCode;
+
+	private final String[] metadataNames;
+	private final String[] metadataValues;
+	private final boolean[] metadataCaseSensitive;
+
+	private final boolean hasWildcardCondition;
+
+	private EqlPredicate(EntityQuery entityQuery) {
+
+		if(entityQuery.getConfidenceRange() != null) {
+
+			hasConfidenceRange = true;
+			minimumConfidence = entityQuery.getConfidenceRange().getMinimum();
+			maximumConfidence = entityQuery.getConfidenceRange().getMaximum();
+
+		} else {
+
+			hasConfidenceRange = false;
+			minimumConfidence = 0;
+			maximumConfidence = 0;
+
+		}
+
+		// A date range is immutable.
+		extractionDateRange = entityQuery.getExtractionDateRange();
+		timeRange = entityQuery.getTimeRange();
+
+		// The patterns were compiled when the query was generated.
+		text = entityQuery.getTextPattern();
+		type = entityQuery.getTypePattern();
+		context = entityQuery.getContextPattern();
+		documentId = entityQuery.getDocumentIdPattern();
+		uri = entityQuery.getUriPattern();
+		languageCode = entityQuery.getLanguageCodePattern();
+
+		notText = entityQuery.getNotTextPattern();
+		notType = entityQuery.getNotTypePattern();
+		notContext = entityQuery.getNotContextPattern();
+		notDocumentId = entityQuery.getNotDocumentIdPattern();
+		notUri = entityQuery.getNotUriPattern();
+		notLanguageCode = entityQuery.getNotLanguageCodePattern();
+
+		hasWildcardCondition = isWildcard(text) || isWildcard(type) || isWildcard(context)
+				|| isWildcard(documentId) || isWildcard(uri) || isWildcard(languageCode)
+				|| isWildcard(notText) || isWildcard(notType) || isWildcard(notContext)
+				|| isWildcard(notDocumentId) || isWildcard(notUri) || isWildcard(notLanguageCode);
+
+		final List<EntityMetadataFilter> entityMetadataFilters = entityQuery.getEntityMetadataFilters();
+		final int count = entityMetadataFilters == null ? 0 : entityMetadataFilters.size();
+
+		metadataNames = new String[count];
+		metadataValues = new String[count];
+		metadataCaseSensitive = new boolean[count];
+
+		for(int i = 0; i < count; i++) {
+
+			final EntityMetadataFilter entityMetadataFilter = entityMetadataFilters.get(i);
+
+			metadataNames[i] = entityMetadataFilter.getName();
+			metadataValues[i] = entityMetadataFilter.getValue();
+			metadataCaseSensitive[i] = entityMetadataFilter.isCaseSensitive();
+
+		}
+
+	}
+
+	/**
+	 * Compiles an EQL statement into a predicate.
+	 * @param eql The EQL statement.
+	 * @return An {@link EqlPredicate}.
+	 * @throws QueryGenerationException Thrown if the EQL statement is malformed.
+	 */
+	public static EqlPredicate compile(String eql) throws QueryGenerationException {
+
+		if(SELECT_ALL.equalsIgnoreCase(eql)) {
+			return MATCH_ALL;
+		}
+
+		try {
+
+			return compile(Eql.generate(eql));
+
+		} catch (IllegalStateException ex) {
+
+			// The parser's error listener reports syntax errors this way.
+			throw new QueryGenerationException("Unable to compile EQL statement: " + eql, ex);
+
+		}
+
+	}
+
+	/**
+	 * Compiles an {@link EntityQuery} into a predicate.
+	 * @param entityQuery The {@link EntityQuery}.
+	 * @return An {@link EqlPredicate}.
+	 */
+	public static EqlPredicate compile(EntityQuery entityQuery) {
+
+		return new EqlPredicate(entityQuery);
+
+	}
+
+	/**
+	 * Determines if the entity satisfies all of the conditions
+	 * and all of the NOT conditions of the compiled query.
+	 * @param entity The {@link Entity entity}.
+	 * @return <code>true</code> if the entity matches; otherwise <code>false</code>.
+	 */
+	@Override
+	public boolean test(Entity entity) {
+
+		if(hasConfidenceRange && (entity.getConfidence() < minimumConfidence || entity.getConfidence() > maximumConfidence)) {
+			return false;
+		}
+
+		if(extractionDateRange != null && !extractionDateRange.contains(entity.getExtractionDate())) {
+			return false;
+		}
+
+		if(timeRange != null) {
+
+			final Long time = IndexedEntity.timeOf(entity);
+
+			if(time == null || !timeRange.contains(time)) {
+				return false;
+			}
+
+		}
+
+		if(text != null && !text.matches(entity.getText())) return false;
+		if(type != null && !type.matches(entity.getType())) return false;
+		if(context != null && !context.matches(entity.getContext())) return false;
+		if(documentId != null && !documentId.matches(entity.getDocumentId())) return false;
+		if(uri != null && !uri.matches(entity.getUri())) return false;
+		if(languageCode != null && !languageCode.matches(entity.getLanguageCode())) return false;
+
+		if(metadataNames.length > 0) {
+
+			final Map<String, String> metadata = entity.getMetadata();
+
+			for(int i = 0; i < metadataNames.length; i++) {
+
+				final String value = metadata == null ? null : metadata.get(metadataNames[i]);
+
+				if(metadataCaseSensitive[i] ? !StringUtils.equals(metadataValues[i], value) : !StringUtils.equalsIgnoreCase(metadataValues[i], value)) {
+					return false;
+				}
+
+			}
+
+		}
+
+		if(notText != null && notText.matches(entity.getText())) return false;
+		if(notType != null && notType.matches(entity.getType())) return false;
+		if(notContext != null && notContext.matches(entity.getContext())) return false;
+		if(notDocumentId != null && notDocumentId.matches(entity.getDocumentId())) return false;
+		if(notLanguageCode != null && notLanguageCode.matches(entity.getLanguageCode())) return false;
+		if(notUri != null && notUri.matches(entity.getUri())) return false;
+
+		return true;
+
+	}
+
+
+	// Accessors used by EqlPredicateIndex to index the equality conditions
+	// and by EntityBatch to evaluate the conditions over columns.
+
+	boolean hasConfidenceRange() {
+		return hasConfidenceRange;
+	}
+
+	boolean hasWildcardCondition() {
+		return hasWildcardCondition;
+	}
+
+	private static boolean isWildcard(WildcardPattern pattern) {
+		return pattern != null && pattern.isWildcard();
+	}
+
+	double getMinimumConfidence() {
+		return minimumConfidence;
+	}
+
+	double getMaximumConfidence() {
+		return maximumConfidence;
+	}
+
+	DateRange getExtractionDateRange() {
+		return extractionDateRange;
+	}
+
+	DateRange getTimeRange() {
+		return timeRange;
+	}
+
+	String getText() {
+		return text == null ? null : text.getPattern();
+	}
+
+	WildcardPattern getTextPattern() {
+		return text;
+	}
+
+	String getType() {
+		return type == null ? null : type.getPattern();
+	}
+
+	WildcardPattern getTypePattern() {
+		return type;
+	}
+
+	String getContext() {
+		return context == null ? null : context.getPattern();
+	}
+
+	WildcardPattern getContextPattern() {
+		return context;
+	}
+
+	String getDocumentId() {
+		return documentId == null ? null : documentId.getPattern();
+	}
+
+	WildcardPattern getDocumentIdPattern() {
+		return documentId;
+	}
+
+	String getUri() {
+		return uri == null ? null : uri.getPattern();
+	}
+
+	WildcardPattern getUriPattern() {
+		return uri;
+	}
+
+	String getLanguageCode() {
+		return languageCode == null ? null : languageCode.getPattern();
+	}
+
+	WildcardPattern getLanguageCodePattern() {
+		return languageCode;
+	}
+
+	String getNotText() {
+		return notText == null ? null : notText.getPattern();
+	}
+
+	WildcardPattern getNotTextPattern() {
+		return notText;
+	}
+
+	String getNotType() {
+		return notType == null ? null : notType.getPattern();
+	}
+
+	WildcardPattern getNotTypePattern() {
+		return notType;
+	}
+
+	String getNotContext() {
+		return notContext == null ? null : notContext.getPattern();
+	}
+
+	WildcardPattern getNotContextPattern() {
+		return notContext;
+	}
+
+	String getNotDocumentId() {
+		return notDocumentId == null ? null : notDocumentId.getPattern();
+	}
+
+	WildcardPattern getNotDocumentIdPattern() {
+		return notDocumentId;
+	}
+
+	String getNotUri() {
+		return notUri == null ? null : notUri.getPattern();
+	}
+
+	WildcardPattern getNotUriPattern() {
+		return notUri;
+	}
+
+	String getNotLanguageCode() {
+		return notLanguageCode == null ? null : notLanguageCode.getPattern();
+	}
+
+	WildcardPattern getNotLanguageCodePattern() {
+		return notLanguageCode;
+	}
+
+	int getMetadataConditionCount() {
+		return metadataNames.length;
+	}
+
+	String getMetadataName(int index) {
+		return metadataNames[index];
+	}
+
+	String getMetadataValue(int index) {
+		return metadataValues[index];
+	}
+
+	boolean isMetadataCaseSensitive(int index) {
+		return metadataCaseSensitive[index];
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql.filters;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ai.philterd.entitydb.eql.filters.ConfidenceIntervalTree.Interval;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.eql.WildcardPattern;
+
+/**
+ * An index of compiled {@link EqlPredicate predicates} that finds the predicates
+ * matching an entity without evaluating every predicate.
+ *
+ * Each predicate is indexed under a single anchor condition. Predicates having a
+ * text condition, which may contain wildcards, are anchored on it in a
+ * {@link WildcardAutomaton} that matches an entity's text against all of the text
+ * conditions in one pass. Predicates having another equality condition are anchored
+ * on it in a hash map keyed by the field and the normalized value. Predicates having
+ * only a confidence range are anchored in a {@link ConfidenceIntervalTree}. The remaining
+ * predicates, those with no indexable condition, are evaluated for every entity. The candidates found for an entity are
+ * then verified by evaluating their full predicates, so the index never returns a
+ * predicate that does not match.
+ *
+ * Adding and removing predicates is safe while entities are being matched.
+ *
+ * Each predicate is given a slot, the lowest number not used by another predicate,
+ * so a {@link Listener} can keep per-predicate state in arrays instead of maps.
+ *
+ * @author Philterd, LLC
+ *
+ * @param <K> The type of the key identifying each predicate.
+ */
+public final class EqlPredicateIndex<K> {
+
+	// Field prefixes of the anchor keys.
+	private static final String TEXT = "t:";
+	private static final String URI = "u:";
+	private static final String DOCUMENT_ID = "d:";
+	private static final String METADATA = "m:";
+	private static final String CONTEXT = "c:";
+	private static final String TYPE = "y:";
+	private static final String LANGUAGE_CODE = "l:";
+
+	private final Map<K, IndexedPredicate> predicates = new ConcurrentHashMap<>();
+	private final BitSet slots = new BitSet();
+	private final Map<K, String> anchors = new ConcurrentHashMap<>();
+
+	private final Map<String, Set<K>> anchored = new ConcurrentHashMap<>();
+	private final WildcardAutomaton<K> textPatterns = new WildcardAutomaton<>();
+	private final Map<K, Interval<K>> intervals = new ConcurrentHashMap<>();
+	private final Set<K> unanchored = ConcurrentHashMap.newKeySet();
+
+	// Rebuilt on the next match after the intervals change.
+	private volatile ConfidenceIntervalTree<K> intervalTree = new ConfidenceIntervalTree<>(new ArrayList<Interval<K>>());
+	private volatile boolean intervalTreeStale = false;
+
+	/**
+	 * Adds a predicate to the index, replacing any predicate having the same key.
+	 * @param key The key identifying the predicate.
+	 * @param predicate The {@link EqlPredicate predicate}.
+	 */
+	public synchronized void put(K key, EqlPredicate predicate) {
+
+		remove(key);
+
+		final String anchor = anchor(predicate);
+
+		if(TEXT.equals(anchor)) {
+
+			textPatterns.add(key, predicate.getText());
+			anchors.put(key, TEXT);
+
+		} else if(anchor != null) {
+
+			anchored.computeIfAbsent(anchor, a -> ConcurrentHashMap.newKeySet()).add(key);
+			anchors.put(key, anchor);
+
+		} else if(predicate.hasConfidenceRange()) {
+
+			intervals.put(key, new Interval<>(predicate.getMinimumConfidence(), predicate.getMaximumConfidence(), key));
+			intervalTreeStale = true;
+
+		} else {
+
+			unanchored.add(key);
+
+		}
+
+		final int slot = slots.nextClearBit(0);
+		slots.set(slot);
+
+		predicates.put(key, new IndexedPredicate(predicate, slot));
+
+	}
+
+	/**
+	 * Removes a predicate from the index.
+	 * @param key The key identifying the predicate.
+	 */
+	public synchronized void remove(K key) {
+
+		final IndexedPredicate indexedPredicate = predicates.remove(key);
+
+		if(indexedPredicate == null) {
+			return;
+		}
+
+		slots.clear(indexedPredicate.slot);
+
+		final String anchor = anchors.remove(key);
+
+		if(TEXT.equals(anchor)) {
+
+			textPatterns.remove(key);
+
+		} else if(anchor != null) {
+
+			final Set<K> keys = anchored.get(anchor);
+
+			keys.remove(key);
+
+			if(keys.isEmpty()) {
+				anchored.remove(anchor);
+			}
+
+		} else if(intervals.remove(key) != null) {
+
+			intervalTreeStale = true;
+
+		} else {
+
+			unanchored.remove(key);
+
+		}
+
+	}
+
+	/**
+	 * Gets the keys of the predicates that match the entity.
+	 * @param entity The {@link Entity entity}.
+	 * @return The keys of the matching predicates.
+	 */
+	public List<K> match(Entity entity) {
+
+		return match(entity, null);
+
+	}
+
+	/**
+	 * Gets the keys of the predicates that match the entity and reports
+	 * each predicate that was evaluated to a {@link Listener}. An evaluation
+	 * is only timed if the listener {@link Listener#isTimed() asks for it}.
+	 * @param entity The {@link Entity entity}.
+	 * @param listener The {@link Listener}, or <code>null</code>.
+	 * @return The keys of the matching predicates.
+	 */
+	public List<K> match(Entity entity, Listener<K> listener) {
+
+		final List<K> candidates = new ArrayList<>();
+
+		if(entity.getText() != null) {
+			textPatterns.match(entity.getText(), candidates);
+		}
+
+		addAnchored(URI, entity.getUri(), candidates);
+		addAnchored(DOCUMENT_ID, entity.getDocumentId(), candidates);
+		addAnchored(CONTEXT, entity.getContext(), candidates);
+		addAnchored(TYPE, entity.getType(), candidates);
+		addAnchored(LANGUAGE_CODE, entity.getLanguageCode(), candidates);
+
+		if(entity.getMetadata() != null) {
+
+			for(Map.Entry<String, String> metadata : entity.getMetadata().entrySet()) {
+
+				if(metadata.getKey() != null && metadata.getValue() != null) {
+					addAnchored(METADATA + metadata.getKey() + '\u0000', metadata.getValue(), candidates);
+				}
+
+			}
+
+		}
+
+		getIntervalTree().stab(entity.getConfidence(), candidates);
+
+		candidates.addAll(unanchored);
+
+		// Each predicate has one anchor so the candidates are distinct.
+		final List<K> matches = new ArrayList<>(candidates.size());
+
+		for(K key : candidates) {
+
+			final IndexedPredicate indexedPredicate = predicates.get(key);
+
+			if(indexedPredicate == null) {
+				continue;
+			}
+
+			if(listener == null) {
+
+				if(indexedPredicate.predicate.test(entity)) {
+					matches.add(key);
+				}
+
+			} else {
+
+				final boolean matched;
+
+				if(listener.isTimed()) {
+
+					final long startTime = System.nanoTime();
+					matched = indexedPredicate.predicate.test(entity);
+
+					listener.evaluated(indexedPredicate.slot, key, matched, System.nanoTime() - startTime);
+
+				} else {
+
+					matched = indexedPredicate.predicate.test(entity);
+
+					listener.evaluated(indexedPredicate.slot, key, matched, -1);
+
+				}
+
+				if(matched) {
+					matches.add(key);
+				}
+
+			}
+
+		}
+
+		return matches;
+
+	}
+
+	/**
+	 * Gets the number of predicates in the index.
+	 * @return The number of predicates in the index.
+	 */
+	public int size() {
+		return predicates.size();
+	}
+
+	private void addAnchored(String field, String value, List<K> candidates) {
+
+		if(value != null) {
+
+			final Set<K> keys = anchored.get(field + WildcardPattern.fold(value));
+
+			if(keys != null) {
+				candidates.addAll(keys);
+			}
+
+		}
+
+	}
+
+	private ConfidenceIntervalTree<K> getIntervalTree() {
+
+		if(intervalTreeStale) {
+
+			synchronized(this) {
+
+				if(intervalTreeStale) {
+					intervalTree = new ConfidenceIntervalTree<>(intervals.values());
+					intervalTreeStale = false;
+				}
+
+			}
+
+		}
+
+		return intervalTree;
+
+	}
+
+	/**
+	 * Chooses the condition under which a predicate is indexed, preferring
+	 * the conditions that are likely to be the most selective. Text conditions
+	 * are all anchored in the automaton. The other conditions are looked up by
+	 * value so they are only anchored when they do not have wildcards.
+	 */
+	private static String anchor(EqlPredicate predicate) {
+
+		if(predicate.getText() != null) {
+			return TEXT;
+		}
+
+		if(isExact(predicate.getUriPattern())) {
+			return URI + WildcardPattern.fold(predicate.getUri());
+		}
+
+		if(isExact(predicate.getDocumentIdPattern())) {
+			return DOCUMENT_ID + WildcardPattern.fold(predicate.getDocumentId());
+		}
+
+		for(int i = 0; i < predicate.getMetadataConditionCount(); i++) {
+
+			// A condition on a null value can't be looked up by value.
+			if(predicate.getMetadataName(i) != null && predicate.getMetadataValue(i) != null) {
+				return METADATA + predicate.getMetadataName(i) + '\u0000' + WildcardPattern.fold(predicate.getMetadataValue(i));
+			}
+
+		}
+
+		if(isExact(predicate.getContextPattern())) {
+			return CONTEXT + WildcardPattern.fold(predicate.getContext());
+		}
+
+		if(isExact(predicate.getTypePattern())) {
+			return TYPE + WildcardPattern.fold(predicate.getType());
+		}
+
+		if(isExact(predicate.getLanguageCodePattern())) {
+			return LANGUAGE_CODE + WildcardPattern.fold(predicate.getLanguageCode());
+		}
+
+		return null;
+
+	}
+
+	private static boolean isExact(WildcardPattern pattern) {
+		return pattern != null && !pattern.isWildcard();
+	}
+
+	/**
+	 * Receives the predicates evaluated by {@link EqlPredicateIndex#match(Entity, Listener)}.
+	 * @param <K> The type of the predicates' keys.
+	 */
+	public interface Listener<K> {
+
+		/**
+		 * Called before a predicate is evaluated against an entity.
+		 * @return <code>true</code> if the evaluation is to be timed.
+		 */
+		boolean isTimed();
+
+		/**
+		 * Called after a predicate was evaluated against an entity.
+		 * @param slot The slot of the predicate. No other predicate in the
+		 * index has the same slot but the slot of a removed predicate is reused.
+		 * @param key The key of the predicate.
+		 * @param matched <code>true</code> if the entity matched the predicate.
+		 * @param elapsedTime The time taken to evaluate the predicate in nanoseconds,
+		 * or <code>-1</code> if the evaluation was not timed.
+		 */
+		void evaluated(int slot, K key, boolean matched, long elapsedTime);
+
+	}
+
+	private static final class IndexedPredicate {
+
+		private final EqlPredicate predicate;
+		private final int slot;
+
+		private IndexedPredicate(EqlPredicate predicate, int slot) {
+			this.predicate = predicate;
+			this.slot = slot;
+		}
+
+	}
+
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql.filters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ai.philterd.entitydb.model.eql.WildcardPattern;
+
+/**
+ * A multi-pattern automaton over case-folded {@link WildcardPattern wildcard patterns}.
+ * The patterns are stored in a trie whose edges are characters, <code>?</code>
+ * (any character) and <code>*</code> (any sequence of characters). A value is
+ * matched against every pattern in a single pass by simulating the trie as a
+ * nondeterministic automaton, so the cost of a match depends on the length of
+ * the value and the number of active states rather than on the number of patterns.
+ * 
+ * Patterns are added and removed incrementally. Adding and removing patterns
+ * is safe while values are being matched.
+ * 
+ * @author Philterd, LLC
+ *
+ * @param <K> The type of the key associated with each pattern.
+ */
+public final class WildcardAutomaton<K> {
+
+	private final Node<K> root = new Node<>(false);
+	private final Map<K, String> patterns = new ConcurrentHashMap<>();
+	
+	/**
+	 * Adds a pattern, replacing any pattern having the same key.
+	 * @param key The key associated with the pattern.
+	 * @param pattern The pattern.
+	 */
+	public synchronized void add(K key, String pattern) {
+		
+		remove(key);
+		
+		final String folded = WildcardPattern.fold(pattern);
+		
+		Node<K> node = root;
+		
+		for(int i = 0; i < folded.length(); i++) {
+			
+			final char c = folded.charAt(i);
+			
+			if(c == WildcardPattern.ANY_SEQUENCE) {
+				
+				// Consecutive '*' are equivalent to one.
+				if(!node.selfLoop) {
+					node = node.star();
+				}
+				
+			} else if(c == WildcardPattern.ANY_CHARACTER) {
+				
+				node = node.any();
+				
+			} else {
+				
+				node = node.child(c);
+				
+			}
+			
+		}
+		
+		node.keys.add(key);
+		patterns.put(key, folded);
+		
+	}
+	
+	/**
+	 * Removes a pattern.
+	 * @param key The key associated with the pattern.
+	 */
+	public synchronized void remove(K key) {
+		
+		final String folded = patterns.remove(key);
+		
+		if(folded != null) {
+			remove(root, folded, 0, key);
+		}
+		
+	}
+	
+	/**
+	 * Gets the keys of the patterns that match the value.
+	 * @param value The value.
+	 * @param keys The collection to which the keys are added.
+	 */
+	public void match(String value, Collection<K> keys) {
+		
+		if(patterns.isEmpty()) {
+			return;
+		}
+		
+		final String folded = WildcardPattern.fold(value);
+		
+		Set<Node<K>> states = closure(Collections.singletonList(root));
+		
+		for(int i = 0; i < folded.length() && !states.isEmpty(); i++) {
+			
+			final char c = folded.charAt(i);
+			
+			final List<Node<K>> next = new ArrayList<>();
+			
+			for(Node<K> state : states) {
+				
+				final Node<K> child = state.children.get(c);
+				
+				if(child != null) {
+					next.add(child);
+				}
+				
+				final Node<K> any = state.any;
+				
+				if(any != null) {
+					next.add(any);
+				}
+				
+				if(state.selfLoop) {
+					next.add(state);
+				}
+				
+			}
+			
+			states = closure(next);
+			
+		}
+		
+		for(Node<K> state : states) {
+			keys.addAll(state.keys);
+		}
+		
+	}
+	
+	/**
+	 * Gets the number of patterns.
+	 * @return The number of patterns.
+	 */
+	public int size() {
+		return patterns.size();
+	}
+	
+	/**
+	 * Adds the states reachable without consuming a character, which
+	 * are the states following a <code>*</code> matching nothing.
+	 */
+	private static <K> Set<Node<K>> closure(List<Node<K>> nodes) {
+		
+		final Set<Node<K>> states = Collections.newSetFromMap(new IdentityHashMap<Node<K>, Boolean>());
+		
+		for(Node<K> node : nodes) {
+			
+			// A '*' node never has a '*' child so one step is the full closure.
+			if(states.add(node) && node.star != null) {
+				states.add(node.star);
+			}
+			
+		}
+		
+		return states;
+		
+	}
+	
+	/**
+	 * Removes the key and prunes the nodes that no longer lead to a pattern.
+	 * @return <code>true</code> if the node is empty and can be removed.
+	 */
+	private static <K> boolean remove(Node<K> node, String folded, int index, K key) {
+		
+		if(index == folded.length()) {
+			
+			node.keys.remove(key);
+			
+		} else {
+			
+			final char c = folded.charAt(index);
+			
+			if(c == WildcardPattern.ANY_SEQUENCE) {
+				
+				if(node.selfLoop) {
+					return remove(node, folded, index + 1, key) && node.isEmpty();
+				}
+				
+				if(node.star != null && remove(node.star, folded, index + 1, key)) {
+					node.star = null;
+				}
+				
+			} else if(c == WildcardPattern.ANY_CHARACTER) {
+				
+				if(node.any != null && remove(node.any, folded, index + 1, key)) {
+					node.any = null;
+				}
+				
+			} else {
+				
+				final Node<K> child = node.children.get(c);
+				
+				if(child != null && remove(child, folded, index + 1, key)) {
+					node.children.remove(c);
+				}
+				
+			}
+			
+		}
+		
+		return node.isEmpty();
+		
+	}
+	
+	private static final class Node<K> {
+		
+		private final boolean selfLoop;
+		private final Map<Character, Node<K>> children = new ConcurrentHashMap<>();
+		private final Set<K> keys = ConcurrentHashMap.newKeySet();
+		private volatile Node<K> any;
+		private volatile Node<K> star;
+		
+		private Node(boolean selfLoop) {
+			this.selfLoop = selfLoop;
+		}
+		
+		private Node<K> child(char c) {
+			return children.computeIfAbsent(c, k -> new Node<>(false));
+		}
+		
+		private Node<K> any() {
+			
+			if(any == null) {
+				any = new Node<>(false);
+			}
+			
+			return any;
+			
+		}
+		
+		private Node<K> star() {
+			
+			if(star == null) {
+				star = new Node<>(true);
+			}
+			
+			return star;
+			
+		}
+		
+		private boolean isEmpty() {
+			return keys.isEmpty() && children.isEmpty() && any == null && star == null;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.test.eql.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.filters.EntityBatch;
+import ai.philterd.entitydb.eql.filters.EqlFilters;
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.model.entity.Entity;
+
+public class EntityBatchTest {
+
+	private static final List<String> STATEMENTS = Arrays.asList(
+		"select * from entities where type = \"person\"",
+		"select * from entities where type = \"PERSON\" and confidence > 50",
+		"select * from entities where confidence between 25 and 75",
+		"select * from entities where text = \"George*\"",
+		"select * from entities where text = \"john adams\" and context = \"ctx1\"",
+		"select * from entities where context != \"ctx1\" and type != \"place\"",
+		"select * from entities where documentid = \"doc2\" and language = \"en\"",
+		"select * from entities where uri = \"uri1\" and language != \"en\"",
+		"select * from entities where metadata \"key\" = \"value1\"",
+		"select * from entities where metadata \"missing\" = \"value\"",
+		"select * from entities where text != \"George Washington\" and metadata \"key\" = \"VALUE2\"",
+		"select * from entities where extractiondate between 1000 and 2000",
+		"select * from entities where time < 1500 and type = \"person\""
+	);
+	
+	@Test
+	public void sameAsPredicate() throws Exception {
+		
+		// Sizes below, at and above a 64 bit word.
+		for(int size : new int[] {0, 1, 63, 64, 65, 1000}) {
+		
+			final Collection<Entity> entities = createEntities(size, new Random(size));
+			final EntityBatch entityBatch = EntityBatch.of(entities);
+			
+			assertEquals(size, entityBatch.size());
+			
+			for(String eql : STATEMENTS) {
+				
+				final EqlPredicate eqlPredicate = EqlPredicate.compile(eql);
+				
+				final List<Entity> expected = new LinkedList<Entity>();
+				
+				for(Entity entity : entities) {
+					
+					if(eqlPredicate.test(entity)) {
+						expected.add(entity);
+					}
+					
+				}
+				
+				final List<Entity> actual = new LinkedList<Entity>();
+				entityBatch.filter(eqlPredicate, actual);
+				
+				assertEquals(eql + " with " + size + " entities", expected, actual);
+				
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	public void filterEntities() throws Exception {
+		
+		final Collection<Entity> entities = createEntities(500, new Random(1));
+		
+		final List<Entity> expected = new LinkedList<Entity>();
+		
+		// Each statement's matches in order, including duplicates.
+		for(String eql : STATEMENTS) {
+			
+			final EqlPredicate eqlPredicate = EqlPredicate.compile(eql);
+			
+			for(Entity entity : entities) {
+				
+				if(eqlPredicate.test(entity)) {
+					expected.add(entity);
+				}
+				
+			}
+			
+		}
+		
+		assertEquals(expected, new ArrayList<Entity>(EqlFilters.filterEntities(entities, STATEMENTS)));
+		
+	}
+	
+	private Collection<Entity> createEntities(int size, Random random) {
+		
+		final String[] texts = {"George Washington", "george washington", "John Adams", "john adams", null};
+		final String[] types = {"person", "Person", "place", null};
+		final String[] values = {"ctx1", "CTX1", "ctx2", null};
+		
+		final Collection<Entity> entities = new ArrayList<Entity>();
+		
+		for(int i = 0; i < size; i++) {
+			
+			final Entity entity = new Entity(texts[random.nextInt(texts.length)], random.nextInt(101) / 100.0,
+					types[random.nextInt(types.length)], "[0, 2)", values[random.nextInt(values.length)], "doc" + random.nextInt(3));
+			
+			entity.setLanguageCode(random.nextBoolean() ? "en" : "EN");
+			entity.setUri(random.nextBoolean() ? "uri1" : null);
+			entity.setExtractionDate(random.nextInt(3000));
+			
+			if(random.nextInt(3) > 0) {
+				
+				final Map<String, String> metadata = new HashMap<String, String>();
+				metadata.put("key", "value" + random.nextInt(3));
+				
+				if(random.nextBoolean()) {
+					metadata.put("time", String.valueOf(random.nextInt(3000)));
+				}
+				
+				entity.setMetadata(metadata);
+				
+			}
+			
+			entities.add(entity);
+			
+		}
+		
+		return entities;
+		
+	}
+	
+}
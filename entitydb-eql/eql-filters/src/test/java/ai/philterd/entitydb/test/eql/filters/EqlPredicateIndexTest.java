@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright 2024 Philterd, LLC
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package ai.philterd.entitydb.test.eql.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.filters.ConfidenceIntervalTree;
+import ai.philterd.entitydb.eql.filters.ConfidenceIntervalTree.Interval;
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.eql.filters.EqlPredicateIndex;
+import ai.philterd.entitydb.eql.filters.WildcardAutomaton;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.eql.WildcardPattern;
+
+public class EqlPredicateIndexTest {
+
+	@Test
+	public void match() throws Exception {
+		
+		EqlPredicateIndex<String> index = new EqlPredicateIndex<String>();
+		
+		index.put("text", EqlPredicate.compile("select * from entities where text = \"George Washington\""));
+		index.put("type", EqlPredicate.compile("select * from entities where type = \"place\""));
+		index.put("confidence", EqlPredicate.compile("select * from entities where confidence > 40"));
+		index.put("metadata", EqlPredicate.compile("select * from entities where metadata \"birth_date\" = \"10-20-1945\""));
+		index.put("notcontext", EqlPredicate.compile("select * from entities where context != \"ctx\""));
+		
+		Map<String, String> metadata = new HashMap<String, String>();
+		metadata.put("birth_date", "10-20-1945");
+		
+		Entity entity = new Entity("GEORGE WASHINGTON", 0.3, "person", "[0, 2)", "ctx", "docid");
+		entity.setMetadata(metadata);
+		
+		assertEquals(new HashSet<String>(Arrays.asList("text", "metadata")), new HashSet<String>(index.match(entity)));
+		
+		entity = new Entity("Mount Vernon", 0.5, "place", "[0, 2)", "other", "docid");
+		
+		assertEquals(new HashSet<String>(Arrays.asList("type", "confidence", "notcontext")), new HashSet<String>(index.match(entity)));
+		
+	}
+	
+	@Test
+	public void remove() throws Exception {
+		
+		EqlPredicateIndex<String> index = new EqlPredicateIndex<String>();
+		
+		index.put("text", EqlPredicate.compile("select * from entities where text = \"George Washington\""));
+		index.put("confidence", EqlPredicate.compile("select * from entities where confidence > 40"));
+		
+		Entity entity = new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid");
+		
+		assertEquals(2, index.match(entity).size());
+		
+		index.remove("text");
+		index.remove("confidence");
+		
+		assertTrue(index.match(entity).isEmpty());
+		assertEquals(0, index.size());
+		
+	}
+	
+	@Test
+	public void sameAsPredicates() throws Exception {
+		
+		final String[] texts = {"George Washington", "John Adams", "Thomas Jefferson"};
+		final String[] types = {"person", "place", "organization"};
+		final String[] contexts = {"ctx1", "ctx2"};
+		
+		final Random random = new Random(1789);
+		
+		final EqlPredicateIndex<Integer> index = new EqlPredicateIndex<Integer>();
+		final List<EqlPredicate> predicates = new ArrayList<EqlPredicate>();
+		
+		for(int i = 0; i < 500; i++) {
+			
+			final List<String> conditions = new ArrayList<String>();
+			
+			if(random.nextBoolean()) conditions.add("text = \"" + texts[random.nextInt(texts.length)] + "\"");
+			if(random.nextBoolean()) conditions.add("type = \"" + types[random.nextInt(types.length)] + "\"");
+			if(random.nextBoolean()) conditions.add("context != \"" + contexts[random.nextInt(contexts.length)] + "\"");
+			if(random.nextBoolean()) conditions.add("confidence between " + random.nextInt(50) + " and " + (50 + random.nextInt(50)));
+			
+			final String eql = conditions.isEmpty() ? "select * from entities" : "select * from entities where " + String.join(" and ", conditions);
+			
+			final EqlPredicate predicate = EqlPredicate.compile(eql);
+			
+			predicates.add(predicate);
+			index.put(i, predicate);
+			
+		}
+		
+		for(int i = 0; i < 200; i++) {
+			
+			final Entity entity = new Entity(texts[random.nextInt(texts.length)], random.nextDouble(), types[random.nextInt(types.length)], "[0, 2)", contexts[random.nextInt(contexts.length)], "docid");
+			
+			final Set<Integer> expected = new HashSet<Integer>();
+			
+			for(int j = 0; j < predicates.size(); j++) {
+				
+				if(predicates.get(j).test(entity)) {
+					expected.add(j);
+				}
+				
+			}
+			
+			assertEquals(expected, new HashSet<Integer>(index.match(entity)));
+			
+		}
+		
+	}
+	
+	@Test
+	public void intervalTree() {
+		
+		final Random random = new Random(1776);
+		final List<Interval<Integer>> intervals = new ArrayList<Interval<Integer>>();
+		
+		for(int i = 0; i < 1000; i++) {
+			
+			final double minimum = random.nextDouble();
+			
+			intervals.add(new Interval<Integer>(minimum, minimum + random.nextDouble() / 4, i));
+			
+		}
+		
+		final ConfidenceIntervalTree<Integer> tree = new ConfidenceIntervalTree<Integer>(intervals);
+		
+		for(int i = 0; i < 100; i++) {
+			
+			final double confidence = random.nextDouble();
+			
+			final Set<Integer> expected = new HashSet<Integer>();
+			
+			for(Interval<Integer> interval : intervals) {
+				
+				if(interval.getMinimum() <= confidence && confidence <= interval.getMaximum()) {
+					expected.add(interval.getValue());
+				}
+				
+			}
+			
+			final List<Integer> actual = new ArrayList<Integer>();
+			tree.stab(confidence, actual);
+			
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected, new HashSet<Integer>(actual));
+			
+		}
+		
+	}
+	
+	@Test
+	public void wildcardText() throws Exception {
+		
+		EqlPredicateIndex<String> index = new EqlPredicateIndex<String>();
+		
+		index.put("george", EqlPredicate.compile("select * from entities where text = \"george*\""));
+		index.put("washington", EqlPredicate.compile("select * from entities where text = \"*washingt?n\""));
+		index.put("adams", EqlPredicate.compile("select * from entities where text = \"john adams\""));
+		
+		Entity entity = new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid");
+		
+		assertEquals(new HashSet<String>(Arrays.asList("george", "washington")), new HashSet<String>(index.match(entity)));
+		
+		index.remove("george");
+		
+		assertEquals(Arrays.asList("washington"), index.match(entity));
+		
+	}
+	
+	@Test
+	public void wildcardAutomaton() {
+		
+		final String alphabet = "ab*?";
+		final Random random = new Random(1787);
+		
+		final WildcardAutomaton<Integer> automaton = new WildcardAutomaton<Integer>();
+		final List<WildcardPattern> patterns = new ArrayList<WildcardPattern>();
+		
+		for(int i = 0; i < 300; i++) {
+			
+			final StringBuilder pattern = new StringBuilder();
+			
+			for(int j = random.nextInt(6); j >= 0; j--) {
+				pattern.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			
+			patterns.add(WildcardPattern.compile(pattern.toString()));
+			automaton.add(i, pattern.toString());
+			
+		}
+		
+		// Remove some patterns to exercise pruning.
+		for(int i = 0; i < 300; i += 3) {
+			automaton.remove(i);
+		}
+		
+		for(int i = 0; i < 200; i++) {
+			
+			final StringBuilder value = new StringBuilder();
+			
+			for(int j = random.nextInt(8); j > 0; j--) {
+				value.append(random.nextBoolean() ? 'A' : 'b');
+			}
+			
+			final Set<Integer> expected = new HashSet<Integer>();
+			
+			for(int j = 0; j < patterns.size(); j++) {
+				
+				if(j % 3 != 0 && patterns.get(j).matches(value.toString())) {
+					expected.add(j);
+				}
+				
+			}
+			
+			final List<Integer> actual = new ArrayList<Integer>();
+			automaton.match(value.toString(), actual);
+			
+			assertEquals(value.toString(), expected, new HashSet<Integer>(actual));
+			assertEquals(expected.size(), actual.size());
+			
+		}
+		
+	}
+	
+}
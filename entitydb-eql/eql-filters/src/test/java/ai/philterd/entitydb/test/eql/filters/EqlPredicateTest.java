@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright 2024 Philterd, LLC
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License.  You may obtain a copy
+ * of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ ******************************************************************************/
+
+package ai.philterd.entitydb.test.eql.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+
+public class EqlPredicateTest {
+
+	@Test
+	public void selectAll() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities");
+		
+		assertSame(EqlPredicate.MATCH_ALL, predicate);
+		assertTrue(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid")));
+		
+	}
+	
+	@Test
+	public void allConditionsMustMatch() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where text = \"George Washington\" and type = \"person\"");
+		
+		assertTrue(predicate.test(new Entity("george washington", 0.5, "person", "[0, 2)", "context", "docid")));
+		assertFalse(predicate.test(new Entity("George Washington", 0.5, "place", "[0, 2)", "context", "docid")));
+		assertFalse(predicate.test(new Entity("John Adams", 0.5, "person", "[0, 2)", "context", "docid")));
+		
+	}
+	
+	@Test
+	public void notCondition() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where context != \"ctx\"");
+		
+		assertFalse(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "ctx", "docid")));
+		assertTrue(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "other", "docid")));
+		
+	}
+	
+	@Test
+	public void confidenceRange() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where confidence between 25 and 50");
+		
+		assertTrue(predicate.test(new Entity("George Washington", 0.25, "person", "[0, 2)", "context", "docid")));
+		assertTrue(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid")));
+		assertFalse(predicate.test(new Entity("George Washington", 0.6, "person", "[0, 2)", "context", "docid")));
+		
+	}
+	
+	@Test
+	public void metadata() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where metadata \"birth_date\" = \"10-20-1945\"");
+		
+		Map<String, String> metadata = new HashMap<String, String>();
+		metadata.put("birth_date", "10-20-1945");
+		
+		Entity entity = new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid");
+		
+		assertFalse(predicate.test(entity));
+		
+		entity.setMetadata(metadata);
+		
+		assertTrue(predicate.test(entity));
+		
+	}
+	
+	@Test
+	public void wildcardText() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where text = \"geo?ge wash*\"");
+		
+		assertTrue(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid")));
+		assertTrue(predicate.test(new Entity("george wash", 0.5, "person", "[0, 2)", "context", "docid")));
+		assertFalse(predicate.test(new Entity("George Adams", 0.5, "person", "[0, 2)", "context", "docid")));
+		
+	}
+	
+	@Test
+	public void wildcardConditions() throws Exception {
+		
+		EqlPredicate predicate = EqlPredicate.compile("select * from entities where context = \"ctx*\" and type != \"pl?ce\"");
+		
+		assertTrue(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "CTX1", "docid")));
+		assertFalse(predicate.test(new Entity("George Washington", 0.5, "Place", "[0, 2)", "ctx1", "docid")));
+		assertFalse(predicate.test(new Entity("George Washington", 0.5, "person", "[0, 2)", "other", "docid")));
+		
+	}
+	
+	@Test(expected = QueryGenerationException.class)
+	public void malformed() throws Exception {
+		
+		EqlPredicate.compile("select * from entities order by id asdf");
+		
+	}
+	
+	@Test
+	public void sameAsEntityQuery() throws Exception {
+		
+		List<String> statements = Arrays.asList(
+				"select * from entities where type = \"person\"",
+				"select * from entities where text = \"George Washington\" and context = \"context\"",
+				"select * from entities where confidence > 40 and documentid = \"docid\"",
+				"select * from entities where language = \"en\"",
+				"select * from entities where text = \"geo*\" and context = \"con?ext\"",
+				"select * from entities where type = \"p*\" and documentid = \"doc*2\"");
+		
+		List<Entity> entities = Arrays.asList(
+				new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid"),
+				new Entity("George Washington", 0.3, "place", "[0, 2)", "context", "docid"),
+				new Entity("John Adams", 0.9, "person", "[0, 2)", "other", "docid2"));
+		
+		for(String statement : statements) {
+			
+			EqlPredicate predicate = EqlPredicate.compile(statement);
+			
+			for(Entity entity : entities) {
+				assertEquals(statement, Eql.generate(statement).isMatch(entity), predicate.test(entity));
+			}
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.test.eql.filters.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ai.philterd.entitydb.eql.filters.EntityBatch;
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.model.entity.Entity;
+
+/**
+ * Compares filtering entities one at a time with {@link EqlPredicate}
+ * against the columnar evaluation of an {@link EntityBatch}.
+ * 
+ * Run with <code>mvn test-compile</code> and then the <code>main</code>
+ * method with the module's test classpath.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EqlFiltersBenchmark {
+	
+	@Param({"100", "10000"})
+	private int size;
+	
+	@Param({
+		"select * from entities where type = \"person\" and confidence > 50",
+		"select * from entities where text = \"George*\" and context = \"ctx1\"",
+		"select * from entities where metadata \"key\" = \"value1\" and documentid != \"doc2\""
+	})
+	private String eql;
+	
+	private Collection<Entity> entities;
+	private EqlPredicate eqlPredicate;
+	
+	@Setup
+	public void setup() throws Exception {
+		
+		final Random random = new Random(size);
+		
+		final String[] texts = {"George Washington", "John Adams", "Thomas Jefferson", "James Madison"};
+		final String[] types = {"person", "place", "organization"};
+		
+		entities = new ArrayList<Entity>();
+		
+		for(int i = 0; i < size; i++) {
+			
+			final Entity entity = new Entity(texts[random.nextInt(texts.length)], random.nextInt(101) / 100.0,
+					types[random.nextInt(types.length)], "[0, 2)", "ctx" + random.nextInt(10), "doc" + random.nextInt(100));
+			
+			final Map<String, String> metadata = new HashMap<String, String>();
+			metadata.put("key", "value" + random.nextInt(5));
+			entity.setMetadata(metadata);
+			
+			entities.add(entity);
+			
+		}
+		
+		eqlPredicate = EqlPredicate.compile(eql);
+		
+	}
+	
+	@Benchmark
+	public List<Entity> predicate() {
+		
+		final List<Entity> matchedEntities = new ArrayList<Entity>();
+		
+		for(Entity entity : entities) {
+			
+			if(eqlPredicate.test(entity)) {
+				matchedEntities.add(entity);
+			}
+			
+		}
+		
+		return matchedEntities;
+		
+	}
+	
+	@Benchmark
+	public List<Entity> batch() {
+		
+		final List<Entity> matchedEntities = new ArrayList<Entity>();
+		
+		EntityBatch.of(entities).filter(eqlPredicate, matchedEntities);
+		
+		return matchedEntities;
+		
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder().include(EqlFiltersBenchmark.class.getSimpleName()).build()).run();
+		
+	}
+	
+}
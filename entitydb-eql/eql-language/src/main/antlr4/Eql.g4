@@ -5,15 +5,31 @@ grammar Eql;
 }
  	
 command:
-	  select (sort)? (';')?
+	  (explain)? select (sort)? (';')?
+	| aggregate (';')?
 //	| graph (';')?
 	;
 
+explain:
+	  'explain' (WS p='profile')? WS
+	;
+
 select:
 	  'select * from entities'
 	| 'select * from entities' (option)*
 	| 'select * from entities where' condition (WS 'and' condition)*
 	| 'select * from entities where' condition (WS 'and' condition)* (option)*
+	| 'select' WS projection WS 'from entities' (option)*
+	| 'select' WS projection WS 'from entities where' condition (WS 'and' condition)* (option)*
+	;
+
+projection:
+	  (STRING_FIELD | NUMERIC_FIELD | METADATA_FIELD) ((WS)? ',' (WS)? (STRING_FIELD | NUMERIC_FIELD | METADATA_FIELD))*
+	;
+	
+aggregate:
+	  'select count(*) from entities' (group)? (option)*
+	| 'select count(*) from entities where' condition (WS 'and' condition)* (group)? (option)*
 	;
 	
 //graph:
@@ -24,6 +40,8 @@ select:
 condition: 
 	  WS NUMERIC_FIELD (WS)? operator=('='|'>'|'<'|'>='|'<=') (WS)? value=INTEGERS
 	| WS NUMERIC_FIELD WS 'between' WS value1=INTEGERS WS 'and' WS value2=INTEGERS
+	| WS DATE_FIELD (WS)? operator=('='|'>'|'<'|'>='|'<=') (WS)? value=INTEGERS
+	| WS DATE_FIELD WS 'between' WS value1=INTEGERS WS 'and' WS value2=INTEGERS
 	| WS STRING_FIELD (WS)? operator=('='|'!=') (WS)? value=STRING 
 	| WS METADATA_FIELD WS value1=STRING (WS)? '=' (WS)? value2=STRING 
 	;
@@ -33,18 +51,23 @@ option:
 	| WS OPTION_FIELD WS value=INTEGERS
 	;
 	
+group:
+	  WS 'group by' WS STRING_FIELD
+	;
+	
 sort:
 	  WS 'order by' WS (NUMERIC_FIELD | STRING_FIELD) (WS SORT_ORDER_FIELD)?
 	;
 
 METADATA_FIELD: 'metadata';
 NUMERIC_FIELD: 'confidence';
+DATE_FIELD: 'extractiondate' | 'time' ;
 OPTION_FIELD: 'limit' | 'offset' ;
 STRING_FIELD: 'id' | 'context' | 'documentid' | 'text' | 'type' | 'uri' | 'language' ;
 SORT_ORDER_FIELD: 'asc' | 'desc' ;
 INTEGERS: ('0'..'9')+ ;
 
-STRING: '"' ('A'..'Z' | 'a'..'z' | '0'..'9' | '_' | '-' | '/' | ' ' | ':' | [.] )+ '"'
+STRING: '"' ('A'..'Z' | 'a'..'z' | '0'..'9' | '_' | '-' | '/' | ' ' | ':' | [.] | '*' | '?' )+ '"'
    {
      String s = getText();
      s = s.substring(1, s.length() - 1); // strip the leading and trailing quotes
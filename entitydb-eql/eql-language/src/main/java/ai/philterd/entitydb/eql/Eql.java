@@ -20,19 +20,24 @@
  */
 package ai.philterd.entitydb.eql;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,9 +45,16 @@ import org.apache.logging.log4j.Logger;
 import ai.philterd.entitydb.eql.antlr.EqlBaseListener;
 import ai.philterd.entitydb.eql.antlr.EqlLexer;
 import ai.philterd.entitydb.eql.antlr.EqlParser;
+import ai.philterd.entitydb.eql.antlr.EqlParser.AggregateContext;
+import ai.philterd.entitydb.eql.antlr.EqlParser.CommandContext;
 import ai.philterd.entitydb.eql.antlr.EqlParser.ConditionContext;
+import ai.philterd.entitydb.eql.antlr.EqlParser.ExplainContext;
+import ai.philterd.entitydb.eql.antlr.EqlParser.GroupContext;
 import ai.philterd.entitydb.eql.antlr.EqlParser.OptionContext;
+import ai.philterd.entitydb.eql.antlr.EqlParser.ProjectionContext;
 import ai.philterd.entitydb.model.eql.ConfidenceRange;
+import ai.philterd.entitydb.model.eql.DateRange;
+import ai.philterd.entitydb.model.eql.EntityGroup;
 import ai.philterd.entitydb.model.eql.EntityMetadataFilter;
 import ai.philterd.entitydb.model.eql.EntityOrder;
 import ai.philterd.entitydb.model.eql.EntityQuery;
@@ -57,6 +69,11 @@ import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
  * The purpose of EQL is to provide a generic interface that
  * can be used to query across all entity stores.
  * 
+ * Generated queries are cached by their normalized statement in
+ * a bounded LRU cache so a statement that is executed repeatedly
+ * is only parsed once. Each call returns a copy of the cached
+ * query so callers are free to modify it.
+ * 
  * @author Philterd, LLC
  *
  */
@@ -73,6 +90,25 @@ public class Eql {
 	private static final String OFFSET = "offset";
 	private static final String URI = "uri";
 	private static final String TYPE = "type";
+	private static final String ID = "id";
+	private static final String METADATA = "metadata";
+	private static final String EXTRACTIONDATE = "extractiondate";
+	
+	/**
+	 * The maximum number of parsed statements that are cached.
+	 */
+	public static final int CACHE_SIZE = 1024;
+	
+	private static final Map<String, EntityQuery> CACHE = Collections.synchronizedMap(new LinkedHashMap<String, EntityQuery>(CACHE_SIZE, 0.75f, true) {
+		
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, EntityQuery> eldest) {
+			return size() > CACHE_SIZE;
+		}
+		
+	});
 	
 	private Eql() {
 		// This is a utility class.
@@ -87,18 +123,102 @@ public class Eql {
 		
 		LOGGER.trace("Generating entity query from EQL statement: {}", eqlQuery);
 		
-		EntityQuery entityQuery = new EntityQuery();
+		final String statement = normalize(eqlQuery);
+		
+		EntityQuery entityQuery = CACHE.get(statement);
+		
+		if(entityQuery == null) {
+			
+			entityQuery = parse(statement);
+			
+			CACHE.put(statement, entityQuery);
+			
+		}
+		
+		return entityQuery.copy();
+		
+	}
+	
+	/**
+	 * Normalizes an EQL statement by trimming it and collapsing each run of
+	 * whitespace outside of a quoted value into a single space.
+	 * @param eqlQuery An Entity Query Language query.
+	 * @return The normalized statement.
+	 */
+	public static String normalize(String eqlQuery) {
+		
+		final String statement = eqlQuery.trim();
+		final StringBuilder sb = new StringBuilder(statement.length());
+		
+		boolean quoted = false;
+		boolean whitespace = false;
+		
+		for(int i = 0; i < statement.length(); i++) {
+			
+			final char c = statement.charAt(i);
+			
+			if(!quoted && (c == ' ' || c == '\t' || c == '\r' || c == '\n')) {
+				
+				whitespace = true;
+				
+			} else {
+				
+				if(whitespace) {
+					sb.append(' ');
+					whitespace = false;
+				}
+				
+				if(c == '"') {
+					quoted = !quoted;
+				}
+				
+				sb.append(c);
+				
+			}
+			
+		}
 		
-		List<EntityMetadataFilter> entityMetadataFilters = new LinkedList<EntityMetadataFilter>();		
+		return sb.toString();
+		
+	}
+	
+	/**
+	 * Clears the cache of parsed statements.
+	 */
+	public static void clearCache() {
+		
+		CACHE.clear();
+		
+	}
+	
+	static EntityQuery parse(String statement) {
+		
+		final EqlLexer lexer = new EqlLexer(new ANTLRInputStream(statement));
+		final CommonTokenStream tokens = new CommonTokenStream(lexer);
+		final EqlParser parser = new EqlParser(tokens);
+		
+		// Try the faster SLL prediction first. It bails out on the first error
+		// without reporting it because the statement may still be valid under LL.
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		
+		CommandContext command;
 		
 		try {
-					
-			InputStream stream = new ByteArrayInputStream(eqlQuery.getBytes(StandardCharsets.UTF_8));
-	    	
-	        EqlLexer lexer = new EqlLexer(new ANTLRInputStream(stream));
-	        EqlParser parser = new EqlParser(new CommonTokenStream(lexer));
-	        
-	        parser.addErrorListener(new BaseErrorListener() {
+			
+			command = parser.command();
+			
+		} catch (ParseCancellationException ex) {
+			
+			LOGGER.trace("Parsing the EQL statement again with full LL prediction: {}", statement);
+			
+			// Either the statement is malformed or it needs full LL prediction.
+			parser.reset();
+			parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+			parser.setErrorHandler(new DefaultErrorStrategy());
+			
+			parser.addErrorListener(new BaseErrorListener() {
 	        	
 	            @Override
 	            public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException ex) {
@@ -106,229 +226,369 @@ public class Eql {
 	            }
 	            
 	        });
+			
+			command = parser.command();
+			
+		}
+		
+		final EntityQueryListener listener = new EntityQueryListener();
+		
+		ParseTreeWalker.DEFAULT.walk(listener, command);
+		
+		listener.entityQuery.setEntityMetadataFilters(listener.entityMetadataFilters);
+		
+		return listener.entityQuery;
+		
+	}
+	
+	/**
+	 * Builds an {@link EntityQuery} from the parse tree of an EQL statement.
+	 */
+	private static class EntityQueryListener extends EqlBaseListener {
+		
+		private final EntityQuery entityQuery = new EntityQuery();
+		private final List<EntityMetadataFilter> entityMetadataFilters = new LinkedList<EntityMetadataFilter>();
+		
+		@Override
+		public void exitAggregate(AggregateContext ctx) {
+			
+			entityQuery.setCount(true);
+			
+		}
+		
+		@Override
+		public void exitExplain(ExplainContext ctx) {
+			
+			entityQuery.setExplain(true);
+			
+			entityQuery.setProfile(ctx.p != null);
+			
+		}
+		
+		@Override
+		public void exitProjection(ProjectionContext ctx) {
+			
+			final List<String> fields = new LinkedList<String>();
+			
+			for(ParseTree child : ctx.children) {
+				
+				if(!(child instanceof TerminalNode)) {
+					continue;
+				}
+				
+				final int tokenType = ((TerminalNode) child).getSymbol().getType();
+				
+				if(tokenType == EqlParser.STRING_FIELD || tokenType == EqlParser.NUMERIC_FIELD || tokenType == EqlParser.METADATA_FIELD) {
+					
+					// Use the name of the entity's property.
+					final String property = getProperty(child.getText());
+					
+					if(!fields.contains(property)) {
+						fields.add(property);
+					}
+					
+				}
+				
+			}
+			
+			entityQuery.setFields(fields);
+			
+		}
+		
+		private String getProperty(String field) {
+			
+			if(field.equalsIgnoreCase(ID)) {
+				return "entityId";
+			} else if(field.equalsIgnoreCase(DOCUMENTID)) {
+				return "documentId";
+			} else if(field.equalsIgnoreCase(LANGUAGE)) {
+				return "languageCode";
+			} else if(field.equalsIgnoreCase(METADATA)) {
+				return METADATA;
+			} else {
+				return field.toLowerCase();
+			}
+			
+		}
+		
+		@Override
+		public void exitGroup(GroupContext ctx) {
+			
+			final String field = ctx.STRING_FIELD().getText();
+			
+			if(field.equalsIgnoreCase(TYPE)) {
+				
+				entityQuery.setEntityGroup(EntityGroup.TYPE);
+				
+			} else if(field.equalsIgnoreCase(CONTEXT)) {
+				
+				entityQuery.setEntityGroup(EntityGroup.CONTEXT);
+				
+			} else if(field.equalsIgnoreCase(LANGUAGE)) {
+				
+				entityQuery.setEntityGroup(EntityGroup.LANGUAGE);
+				
+			} else if(field.equalsIgnoreCase(DOCUMENTID)) {
+				
+				entityQuery.setEntityGroup(EntityGroup.DOCUMENT_ID);
+				
+			} else {
+				
+				// Grouping by a field that is unique to each entity is not useful.
+				throw new IllegalStateException("Failed to parse EQL. Entities cannot be grouped by " + field + ".");
+				
+			}
+			
+		}
+		
+		@Override
+		public void exitSort(EqlParser.SortContext ctx) {
+			
+			if(ctx.NUMERIC_FIELD() != null) {
+				
+				entityQuery.setEntityOrder(EntityOrder.CONFIDENCE);
+				
+			} else {
+				
+				// It is a STRING_FIELD.
+				
+				if(ctx.STRING_FIELD().getText().equalsIgnoreCase("text")) {
+					
+					entityQuery.setEntityOrder(EntityOrder.TEXT);
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("id")) {
+					
+					entityQuery.setEntityOrder(EntityOrder.ID);
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("extractiondate")) {
+					
+					entityQuery.setEntityOrder(EntityOrder.EXTRACTION_DATE);
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("type")) {
+					
+					entityQuery.setEntityOrder(EntityOrder.TYPE);
+					
+				}
+				
+			}
+			
+			if(ctx.SORT_ORDER_FIELD() != null) {
+				
+				if(ctx.SORT_ORDER_FIELD().getText().equalsIgnoreCase("asc")) {
+					
+					entityQuery.setSortOrder(SortOrder.ASC);
+					
+				} else if(ctx.SORT_ORDER_FIELD().getText().equalsIgnoreCase("desc")) {
+					
+					entityQuery.setSortOrder(SortOrder.DESC);
+					
+				}
+				
+			}
+			
+		}
 
-	        final AtomicReference<String> command = new AtomicReference<>();
-	    	
-	        parser.addParseListener(new EqlBaseListener() {	        	
-	        	
-	        	@Override
-	            public void exitSort(EqlParser.SortContext ctx) {	            		         
-	            	
-	            	command.set(ctx.getText());
-	            	
-	            	if(ctx.NUMERIC_FIELD() != null) {
-	            		
-	            		entityQuery.setEntityOrder(EntityOrder.CONFIDENCE);
-	            		
-	            	} else {
-	            		
-	            		// It is a STRING_FIELD.
-	            		
-	            		if(ctx.STRING_FIELD().getText().equalsIgnoreCase("text")) {
-	            			
-	            			entityQuery.setEntityOrder(EntityOrder.TEXT);
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("id")) {
-	            			
-	            			entityQuery.setEntityOrder(EntityOrder.ID);
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("extractiondate")) {
-	            			
-	            			entityQuery.setEntityOrder(EntityOrder.EXTRACTION_DATE);
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase("type")) {
-	            			
-	            			entityQuery.setEntityOrder(EntityOrder.TYPE);
-	            			
-	            		}
-	            		
-	            	}	   	 
-	            	
-	            	if(ctx.SORT_ORDER_FIELD() != null) {
-	            		
-	            		if(ctx.SORT_ORDER_FIELD().getText().equalsIgnoreCase("asc")) {
-	            			
-	            			entityQuery.setSortOrder(SortOrder.ASC);
-	            			
-	            		} else if(ctx.SORT_ORDER_FIELD().getText().equalsIgnoreCase("desc")) {
-	            			
-	            			entityQuery.setSortOrder(SortOrder.DESC);
-	            			
-	            		}
-	            		
-	            	}
-	            	
-	            }
-	        	
-	            @Override
-	            public void exitCommand(EqlParser.CommandContext ctx) {	            	
-	            	
-	            	//LOGGER.debug("Command: " + ctx.getText());
-	            	
-	            	command.set(ctx.getText());
-	            	
-	            }	           
-
-	            @Override
-	            public void exitOption(OptionContext ctx) {
-	            	
-	            	if(ctx.OPTION_FIELD() != null && !StringUtils.isEmpty(ctx.OPTION_FIELD().getText())) {	   
-	            	
-	            		if(ctx.OPTION_FIELD().getText().equalsIgnoreCase(LIMIT)) {	 
-		   
-		            		int limit = Integer.valueOf(ctx.INTEGERS().getText());
-		            		
-		            		entityQuery.setLimit(limit);
-		 
-		            	} else if(ctx.OPTION_FIELD().getText().equalsIgnoreCase(OFFSET)) {	 
-		   
-		            		int limit = Integer.valueOf(ctx.INTEGERS().getText());
-		            		
-		            		entityQuery.setOffset(limit);
-		 
-		            	}
-		            	
-	            	}
-	            	
-	            }
-
-	            @Override
-	            public void exitCondition(ConditionContext ctx) {            		            	
-	            	
-	            	if(ctx.NUMERIC_FIELD() != null && !StringUtils.isEmpty(ctx.NUMERIC_FIELD().getText())) {	            		            		
-	            		
-	            		if(ctx.NUMERIC_FIELD().getText().equalsIgnoreCase(CONFIDENCE)) {	            				            			
-	            			
-	            			if(ctx.INTEGERS().size() == 1) {
-	           
-	            				String operator = ctx.operator.getText();
-	            				
-	            				double confidence = Double.valueOf(ctx.INTEGERS(0).getText()) / 100;
-	            				
-	            				if(operator.equals("=")) {
-	            				
-		            				// For when "confidence = 50"		            				 		
-			            			entityQuery.setConfidenceRange(new ConfidenceRange(confidence, confidence));
-		            			
-	            				} else if(operator.equals(">")) {
-	            					
-	            					// For when "confidence > 50"
-	            					confidence = Math.min(1, confidence + 0.01);
-			            			entityQuery.setConfidenceRange(new ConfidenceRange(confidence, 1.0));
-	            					
-	            				} else if(operator.equalsIgnoreCase("<")) {
-	            					
-	            					// For when "confidence < 50"
-	            					confidence = Math.max(0, confidence - 0.01);
-			            			entityQuery.setConfidenceRange(new ConfidenceRange(0.0, confidence));
-	            					
-	            				} else if(operator.equalsIgnoreCase("<=")) {
-	            					
-	            					// For when "confidence <= 50"	            
-			            			entityQuery.setConfidenceRange(new ConfidenceRange(0.0, confidence));
-	            					
-	            				} else if(operator.equalsIgnoreCase(">=")) {
-	            					
-	            					// For when "confidence >= 50"
-			            			entityQuery.setConfidenceRange(new ConfidenceRange(confidence, 1.0));
-	            					
-	            				}
-	            				
-	            			} else if(ctx.INTEGERS().size() == 2) {
-	            			
-	            				// For when "confidence between 10 and 50" is in the query.
-	            				double minConfidence = Double.valueOf(ctx.INTEGERS(0).getText()) / 100;
-	            				double maxConfidence = Double.valueOf(ctx.INTEGERS(1).getText()) / 100;
-		            			entityQuery.setConfidenceRange(new ConfidenceRange(minConfidence, maxConfidence));
-	            				
-	            			}	            				            			
-	            				            			
-	            		}
-	            		
-	            	} else if(ctx.STRING_FIELD() != null) {
-	            		
-	            		//LOGGER.debug("Field: " + ctx.STRING_FIELD().getText());
-	            		//LOGGER.debug("Value: " + ctx.STRING(0).getText());
-	            		
-	            		String operator = ctx.operator.getText();
-	            		
-	            		if(ctx.STRING_FIELD().getText().equalsIgnoreCase(CONTEXT)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setContext(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotContext(ctx.STRING(0).getText());
-	            			}
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(DOCUMENTID)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setDocumentId(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotDocumentId(ctx.STRING(0).getText());
-	            			}
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(TEXT)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setText(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotText(ctx.STRING(0).getText());
-	            			}
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(TYPE)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setType(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotType(ctx.STRING(0).getText());
-	            			}
-	            					            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(LANGUAGE)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setLanguageCode(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotLanguageCode(ctx.STRING(0).getText());
-	            			}
-	            			
-	            		} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(URI)) {
-	            			
-	            			if(operator.equals("=")) {
-	            				entityQuery.setUri(ctx.STRING(0).getText());
-	            			} else {
-	            				entityQuery.setNotUri(ctx.STRING(0).getText());
-	            			}
-	            			
-	            		}
-	            		
-	            	} else if(ctx.METADATA_FIELD() != null && !StringUtils.isEmpty(ctx.METADATA_FIELD().getText())) {	            			            			            			            		
-	            				
-            			String metadataName = ctx.STRING().get(0).getText();
-            			String metadataValue = ctx.STRING().get(1).getText();	            			
- 
-            			entityMetadataFilters.add(new EntityMetadataFilter(metadataName, metadataValue));
-            			
-	            	}
-	    
-	            }
+		@Override
+		public void exitOption(OptionContext ctx) {
+			
+			if(ctx.OPTION_FIELD() != null && !StringUtils.isEmpty(ctx.OPTION_FIELD().getText())) {
+				
+				if(ctx.OPTION_FIELD().getText().equalsIgnoreCase(LIMIT)) {
+					
+					int limit = Integer.valueOf(ctx.INTEGERS().getText());
+					
+					entityQuery.setLimit(limit);
+					
+				} else if(ctx.OPTION_FIELD().getText().equalsIgnoreCase(OFFSET)) {
+					
+					int limit = Integer.valueOf(ctx.INTEGERS().getText());
+					
+					entityQuery.setOffset(limit);
+					
+				}
+				
+			}
+			
+		}
 
-	        });
-	        
-	        entityQuery.setEntityMetadataFilters(entityMetadataFilters);
-	        
-	        // Parse the EQL.
-	        parser.command();
-	        
-	        stream.close();
-        
-		} catch (IOException ex) {
-			
-			throw new QueryGenerationException("Unable to generate query.", ex);
+		@Override
+		public void exitCondition(ConditionContext ctx) {
+			
+			if(ctx.NUMERIC_FIELD() != null && !StringUtils.isEmpty(ctx.NUMERIC_FIELD().getText())) {
+				
+				if(ctx.NUMERIC_FIELD().getText().equalsIgnoreCase(CONFIDENCE)) {
+					
+					if(ctx.INTEGERS().size() == 1) {
+						
+						String operator = ctx.operator.getText();
+						
+						double confidence = Double.valueOf(ctx.INTEGERS(0).getText()) / 100;
+						
+						if(operator.equals("=")) {
+							
+							// For when "confidence = 50"
+							entityQuery.setConfidenceRange(new ConfidenceRange(confidence, confidence));
+							
+						} else if(operator.equals(">")) {
+							
+							// For when "confidence > 50"
+							confidence = Math.min(1, confidence + 0.01);
+							entityQuery.setConfidenceRange(new ConfidenceRange(confidence, 1.0));
+							
+						} else if(operator.equalsIgnoreCase("<")) {
+							
+							// For when "confidence < 50"
+							confidence = Math.max(0, confidence - 0.01);
+							entityQuery.setConfidenceRange(new ConfidenceRange(0.0, confidence));
+							
+						} else if(operator.equalsIgnoreCase("<=")) {
+							
+							// For when "confidence <= 50"
+							entityQuery.setConfidenceRange(new ConfidenceRange(0.0, confidence));
+							
+						} else if(operator.equalsIgnoreCase(">=")) {
+							
+							// For when "confidence >= 50"
+							entityQuery.setConfidenceRange(new ConfidenceRange(confidence, 1.0));
+							
+						}
+						
+					} else if(ctx.INTEGERS().size() == 2) {
+						
+						// For when "confidence between 10 and 50" is in the query.
+						double minConfidence = Double.valueOf(ctx.INTEGERS(0).getText()) / 100;
+						double maxConfidence = Double.valueOf(ctx.INTEGERS(1).getText()) / 100;
+						
+						if(minConfidence > maxConfidence) {
+							throw new IllegalStateException("Failed to parse EQL. The minimum confidence " + ctx.INTEGERS(0).getText() + " is greater than the maximum confidence " + ctx.INTEGERS(1).getText() + ".");
+						}
+						
+						entityQuery.setConfidenceRange(new ConfidenceRange(minConfidence, maxConfidence));
+						
+					}
+					
+				}
+				
+			} else if(ctx.DATE_FIELD() != null) {
+				
+				final DateRange dateRange;
+				
+				if(ctx.INTEGERS().size() == 1) {
+					
+					final String operator = ctx.operator.getText();
+					final long date = parseDate(ctx.INTEGERS(0).getText());
+					
+					if(operator.equals(">")) {
+						
+						if(date == Long.MAX_VALUE) {
+							throw new IllegalStateException("Failed to parse EQL. No date is greater than " + date + ".");
+						}
+						
+						dateRange = new DateRange(date + 1, Long.MAX_VALUE);
+					} else if(operator.equals(">=")) {
+						dateRange = new DateRange(date, Long.MAX_VALUE);
+					} else if(operator.equals("<")) {
+						dateRange = new DateRange(Long.MIN_VALUE, date - 1);
+					} else if(operator.equals("<=")) {
+						dateRange = new DateRange(Long.MIN_VALUE, date);
+					} else {
+						dateRange = new DateRange(date);
+					}
+					
+				} else {
+					
+					// For when "extractiondate between 1500000000000 and 1600000000000" is in the query.
+					final long minDate = parseDate(ctx.INTEGERS(0).getText());
+					final long maxDate = parseDate(ctx.INTEGERS(1).getText());
+					
+					if(minDate > maxDate) {
+						throw new IllegalStateException("Failed to parse EQL. The minimum date " + minDate + " is greater than the maximum date " + maxDate + ".");
+					}
+					
+					dateRange = new DateRange(minDate, maxDate);
+					
+				}
+				
+				if(ctx.DATE_FIELD().getText().equalsIgnoreCase(EXTRACTIONDATE)) {
+					entityQuery.setExtractionDateRange(dateRange);
+				} else {
+					entityQuery.setTimeRange(dateRange);
+				}
+				
+			} else if(ctx.STRING_FIELD() != null) {
+				
+				String operator = ctx.operator.getText();
+				
+				if(ctx.STRING_FIELD().getText().equalsIgnoreCase(CONTEXT)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setContext(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotContext(ctx.STRING(0).getText());
+					}
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(DOCUMENTID)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setDocumentId(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotDocumentId(ctx.STRING(0).getText());
+					}
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(TEXT)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setText(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotText(ctx.STRING(0).getText());
+					}
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(TYPE)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setType(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotType(ctx.STRING(0).getText());
+					}
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(LANGUAGE)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setLanguageCode(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotLanguageCode(ctx.STRING(0).getText());
+					}
+					
+				} else if(ctx.STRING_FIELD().getText().equalsIgnoreCase(URI)) {
+					
+					if(operator.equals("=")) {
+						entityQuery.setUri(ctx.STRING(0).getText());
+					} else {
+						entityQuery.setNotUri(ctx.STRING(0).getText());
+					}
+					
+				}
+				
+			} else if(ctx.METADATA_FIELD() != null && !StringUtils.isEmpty(ctx.METADATA_FIELD().getText())) {
+				
+				String metadataName = ctx.STRING().get(0).getText();
+				String metadataValue = ctx.STRING().get(1).getText();
+				
+				entityMetadataFilters.add(new EntityMetadataFilter(metadataName, metadataValue));
+				
+			}
+			
+		}
+		
+		private static long parseDate(String value) {
+			
+			try {
+				return Long.parseLong(value);
+			} catch (NumberFormatException ex) {
+				throw new IllegalStateException("Failed to parse EQL. The date " + value + " is out of range.", ex);
+			}
 			
 		}
-        
-		return entityQuery;
 		
 	}
 	
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.eql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import ai.philterd.entitydb.model.eql.EntityMetadataFilter;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+
+/**
+ * An EQL statement that is parsed once and executed many times with
+ * different values. Each <code>?</code> outside of a quoted value is a
+ * parameter and takes the place of a quoted string value, for example
+ * <code>select * from entities where text = ? and context = ?</code>.
+ * Numeric values such as a confidence, limit, or offset cannot be parameters.
+ * 
+ * Binding values to the parameters copies the parsed query and sets
+ * the values on the copy so the statement is not lexed or parsed again.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class PreparedEql {
+	
+	private static final char PARAMETER = '?';
+	
+	private final String statement;
+	private final EntityQuery entityQuery;
+	private final List<BiConsumer<EntityQuery, String>> parameters;
+	
+	private PreparedEql(String statement, EntityQuery entityQuery, List<BiConsumer<EntityQuery, String>> parameters) {
+		
+		this.statement = statement;
+		this.entityQuery = entityQuery;
+		this.parameters = parameters;
+		
+	}
+	
+	/**
+	 * Prepares an EQL statement.
+	 * @param eqlQuery An Entity Query Language query having zero or more parameters.
+	 * @return A {@link PreparedEql}.
+	 * @throws QueryGenerationException Thrown if the statement is malformed or if
+	 * a parameter is not used as a string value.
+	 */
+	public static PreparedEql prepare(String eqlQuery) throws QueryGenerationException {
+		
+		final String statement = Eql.normalize(eqlQuery);
+		
+		// Each parameter is replaced by a unique value so the statement can be parsed
+		// and the fields that hold each parameter can be found in the parsed query.
+		final String prefix = "p" + UUID.randomUUID().toString().replace("-", "");
+		
+		final StringBuilder sb = new StringBuilder(statement.length() * 2);
+		final List<String> placeholders = new ArrayList<>();
+		
+		boolean quoted = false;
+		
+		for(int i = 0; i < statement.length(); i++) {
+			
+			final char c = statement.charAt(i);
+			
+			if(c == '"') {
+				quoted = !quoted;
+			}
+			
+			if(c == PARAMETER && !quoted) {
+				
+				final String placeholder = prefix + placeholders.size();
+				
+				placeholders.add(placeholder);
+				sb.append('"').append(placeholder).append('"');
+				
+			} else {
+				
+				sb.append(c);
+				
+			}
+			
+		}
+		
+		final EntityQuery entityQuery;
+		
+		try {
+		
+			// The statement is not cached because its placeholders are unique.
+			entityQuery = Eql.parse(sb.toString());
+			
+		} catch (IllegalStateException ex) {
+			
+			throw new QueryGenerationException("Unable to prepare EQL statement: " + statement, ex);
+			
+		}
+		
+		final List<BiConsumer<EntityQuery, String>> parameters = new ArrayList<>(placeholders.size());
+		
+		for(final String placeholder : placeholders) {
+			
+			final BiConsumer<EntityQuery, String> parameter = find(entityQuery, placeholder);
+			
+			if(parameter == null) {
+				throw new QueryGenerationException("A parameter in the EQL statement is not used as a string value: " + statement);
+			}
+			
+			parameters.add(parameter);
+			
+		}
+		
+		return new PreparedEql(statement, entityQuery, parameters);
+		
+	}
+	
+	/**
+	 * Binds values to the parameters.
+	 * @param values The values of the parameters in the order the parameters appear in the statement.
+	 * @return An {@link EntityQuery} having the values.
+	 * @throws QueryGenerationException Thrown if the number of values does not
+	 * match the number of parameters or if a value is empty.
+	 */
+	public EntityQuery bind(List<String> values) throws QueryGenerationException {
+		
+		if(values.size() != parameters.size()) {
+			throw new QueryGenerationException("The statement has " + parameters.size() + " parameters but " + values.size() + " values were given.");
+		}
+		
+		final EntityQuery bound = entityQuery.copy();
+		
+		for(int i = 0; i < values.size(); i++) {
+			
+			final String value = values.get(i);
+			
+			// The grammar does not allow an empty string value.
+			if(value == null || value.isEmpty()) {
+				throw new QueryGenerationException("The value of parameter " + (i + 1) + " is empty.");
+			}
+			
+			parameters.get(i).accept(bound, value);
+			
+		}
+		
+		return bound;
+		
+	}
+	
+	/**
+	 * Gets the normalized statement.
+	 * @return The normalized statement.
+	 */
+	public String getStatement() {
+		return statement;
+	}
+	
+	/**
+	 * Gets the number of parameters.
+	 * @return The number of parameters.
+	 */
+	public int getParameterCount() {
+		return parameters.size();
+	}
+	
+	private static BiConsumer<EntityQuery, String> find(EntityQuery entityQuery, String placeholder) {
+		
+		if(placeholder.equals(entityQuery.getText())) return EntityQuery::setText;
+		if(placeholder.equals(entityQuery.getNotText())) return EntityQuery::setNotText;
+		if(placeholder.equals(entityQuery.getType())) return EntityQuery::setType;
+		if(placeholder.equals(entityQuery.getNotType())) return EntityQuery::setNotType;
+		if(placeholder.equals(entityQuery.getContext())) return EntityQuery::setContext;
+		if(placeholder.equals(entityQuery.getNotContext())) return EntityQuery::setNotContext;
+		if(placeholder.equals(entityQuery.getDocumentId())) return EntityQuery::setDocumentId;
+		if(placeholder.equals(entityQuery.getNotDocumentId())) return EntityQuery::setNotDocumentId;
+		if(placeholder.equals(entityQuery.getUri())) return EntityQuery::setUri;
+		if(placeholder.equals(entityQuery.getNotUri())) return EntityQuery::setNotUri;
+		if(placeholder.equals(entityQuery.getLanguageCode())) return EntityQuery::setLanguageCode;
+		if(placeholder.equals(entityQuery.getNotLanguageCode())) return EntityQuery::setNotLanguageCode;
+		
+		final List<EntityMetadataFilter> entityMetadataFilters = entityQuery.getEntityMetadataFilters();
+		
+		for(int i = 0; i < entityMetadataFilters.size(); i++) {
+			
+			final int index = i;
+			final EntityMetadataFilter entityMetadataFilter = entityMetadataFilters.get(i);
+			
+			if(placeholder.equals(entityMetadataFilter.getName())) {
+				return (q, value) -> q.getEntityMetadataFilters().get(index).setName(value);
+			}
+			
+			if(placeholder.equals(entityMetadataFilter.getValue())) {
+				return (q, value) -> q.getEntityMetadataFilters().get(index).setValue(value);
+			}
+			
+		}
+		
+		return null;
+		
+	}
+	
+}
@@ -20,8 +20,10 @@ public class EqlLexer extends Lexer {
 		new PredictionContextCache();
 	public static final int
 		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
-		T__9=10, T__10=11, T__11=12, METADATA_FIELD=13, NUMERIC_FIELD=14, OPTION_FIELD=15, 
-		STRING_FIELD=16, SORT_ORDER_FIELD=17, INTEGERS=18, STRING=19, WS=20;
+		T__9=10, T__10=11, T__11=12, T__12=13, T__13=14, T__14=15, T__15=16, T__16=17, 
+		T__17=18, T__18=19, T__19=20, T__20=21, METADATA_FIELD=22, NUMERIC_FIELD=23, 
+		DATE_FIELD=24, OPTION_FIELD=25, STRING_FIELD=26, SORT_ORDER_FIELD=27, 
+		INTEGERS=28, STRING=29, WS=30;
 	public static String[] channelNames = {
 		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
 	};
@@ -33,25 +35,30 @@ public class EqlLexer extends Lexer {
 	private static String[] makeRuleNames() {
 		return new String[] {
 			"T__0", "T__1", "T__2", "T__3", "T__4", "T__5", "T__6", "T__7", "T__8", 
-			"T__9", "T__10", "T__11", "METADATA_FIELD", "NUMERIC_FIELD", "OPTION_FIELD", 
-			"STRING_FIELD", "SORT_ORDER_FIELD", "INTEGERS", "STRING", "WS"
+			"T__9", "T__10", "T__11", "T__12", "T__13", "T__14", "T__15", "T__16", 
+			"T__17", "T__18", "T__19", "T__20", "METADATA_FIELD", "NUMERIC_FIELD", 
+			"DATE_FIELD", "OPTION_FIELD", "STRING_FIELD", "SORT_ORDER_FIELD", "INTEGERS", 
+			"STRING", "WS"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
 
 	private static String[] makeLiteralNames() {
 		return new String[] {
-			null, "';'", "'select * from entities'", "'select * from entities where'", 
-			"'and'", "'='", "'>'", "'<'", "'>='", "'<='", "'between'", "'!='", "'order by'", 
-			"'metadata'", "'confidence'"
+			null, "';'", "'explain'", "'profile'", "'select * from entities'", "'select * from entities where'", 
+			"'and'", "'select'", "'from entities'", "'from entities where'", "','", 
+			"'select count(*) from entities'", "'select count(*) from entities where'", 
+			"'='", "'>'", "'<'", "'>='", "'<='", "'between'", "'!='", "'group by'", 
+			"'order by'", "'metadata'", "'confidence'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
 			null, null, null, null, null, null, null, null, null, null, null, null, 
-			null, "METADATA_FIELD", "NUMERIC_FIELD", "OPTION_FIELD", "STRING_FIELD", 
-			"SORT_ORDER_FIELD", "INTEGERS", "STRING", "WS"
+			null, null, null, null, null, null, null, null, null, null, "METADATA_FIELD", 
+			"NUMERIC_FIELD", "DATE_FIELD", "OPTION_FIELD", "STRING_FIELD", "SORT_ORDER_FIELD", 
+			"INTEGERS", "STRING", "WS"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -115,7 +122,7 @@ public class EqlLexer extends Lexer {
 	@Override
 	public void action(RuleContext _localctx, int ruleIndex, int actionIndex) {
 		switch (ruleIndex) {
-		case 18:
+		case 28:
 			STRING_action((RuleContext)_localctx, actionIndex);
 			break;
 		}
@@ -134,145 +141,252 @@ public class EqlLexer extends Lexer {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0000\u0014\u00e8\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002"+
+		"\u0004\u0000\u001e\u0196\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002"+
 		"\u0001\u0007\u0001\u0002\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002"+
 		"\u0004\u0007\u0004\u0002\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002"+
 		"\u0007\u0007\u0007\u0002\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002"+
 		"\u000b\u0007\u000b\u0002\f\u0007\f\u0002\r\u0007\r\u0002\u000e\u0007\u000e"+
 		"\u0002\u000f\u0007\u000f\u0002\u0010\u0007\u0010\u0002\u0011\u0007\u0011"+
-		"\u0002\u0012\u0007\u0012\u0002\u0013\u0007\u0013\u0001\u0000\u0001\u0000"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0002"+
+		"\u0002\u0012\u0007\u0012\u0002\u0013\u0007\u0013\u0002\u0014\u0007\u0014"+
+		"\u0002\u0015\u0007\u0015\u0002\u0016\u0007\u0016\u0002\u0017\u0007\u0017"+
+		"\u0002\u0018\u0007\u0018\u0002\u0019\u0007\u0019\u0002\u001a\u0007\u001a"+
+		"\u0002\u001b\u0007\u001b\u0002\u001c\u0007\u001c\u0002\u001d\u0007\u001d"+
+		"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0002\u0001\u0002"+
 		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0003\u0001\u0003"+
-		"\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001\u0005\u0001\u0005"+
-		"\u0001\u0006\u0001\u0006\u0001\u0007\u0001\u0007\u0001\u0007\u0001\b\u0001"+
-		"\b\u0001\b\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001\t\u0001"+
-		"\t\u0001\n\u0001\n\u0001\n\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b"+
-		"\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\f\u0001"+
-		"\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\f\u0001\r\u0001"+
-		"\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001\r\u0001"+
-		"\r\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e"+
-		"\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000e\u0003\u000e"+
-		"\u00a3\b\u000e\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u000f"+
-		"\u0001\u000f\u0001\u000f\u0001\u000f\u0003\u000f\u00cb\b\u000f\u0001\u0010"+
-		"\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0010\u0001\u0010"+
-		"\u0003\u0010\u00d4\b\u0010\u0001\u0011\u0004\u0011\u00d7\b\u0011\u000b"+
-		"\u0011\f\u0011\u00d8\u0001\u0012\u0001\u0012\u0004\u0012\u00dd\b\u0012"+
-		"\u000b\u0012\f\u0012\u00de\u0001\u0012\u0001\u0012\u0001\u0012\u0001\u0013"+
-		"\u0004\u0013\u00e5\b\u0013\u000b\u0013\f\u0013\u00e6\u0000\u0000\u0014"+
-		"\u0001\u0001\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006\r"+
-		"\u0007\u000f\b\u0011\t\u0013\n\u0015\u000b\u0017\f\u0019\r\u001b\u000e"+
-		"\u001d\u000f\u001f\u0010!\u0011#\u0012%\u0013\'\u0014\u0001\u0000\u0002"+
-		"\u0005\u0000  -:AZ__az\u0002\u0000\t\t  \u00f2\u0000\u0001\u0001\u0000"+
-		"\u0000\u0000\u0000\u0003\u0001\u0000\u0000\u0000\u0000\u0005\u0001\u0000"+
-		"\u0000\u0000\u0000\u0007\u0001\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000"+
-		"\u0000\u0000\u000b\u0001\u0000\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000"+
-		"\u0000\u000f\u0001\u0000\u0000\u0000\u0000\u0011\u0001\u0000\u0000\u0000"+
-		"\u0000\u0013\u0001\u0000\u0000\u0000\u0000\u0015\u0001\u0000\u0000\u0000"+
-		"\u0000\u0017\u0001\u0000\u0000\u0000\u0000\u0019\u0001\u0000\u0000\u0000"+
-		"\u0000\u001b\u0001\u0000\u0000\u0000\u0000\u001d\u0001\u0000\u0000\u0000"+
-		"\u0000\u001f\u0001\u0000\u0000\u0000\u0000!\u0001\u0000\u0000\u0000\u0000"+
-		"#\u0001\u0000\u0000\u0000\u0000%\u0001\u0000\u0000\u0000\u0000\'\u0001"+
-		"\u0000\u0000\u0000\u0001)\u0001\u0000\u0000\u0000\u0003+\u0001\u0000\u0000"+
-		"\u0000\u0005B\u0001\u0000\u0000\u0000\u0007_\u0001\u0000\u0000\u0000\t"+
-		"c\u0001\u0000\u0000\u0000\u000be\u0001\u0000\u0000\u0000\rg\u0001\u0000"+
-		"\u0000\u0000\u000fi\u0001\u0000\u0000\u0000\u0011l\u0001\u0000\u0000\u0000"+
-		"\u0013o\u0001\u0000\u0000\u0000\u0015w\u0001\u0000\u0000\u0000\u0017z"+
-		"\u0001\u0000\u0000\u0000\u0019\u0083\u0001\u0000\u0000\u0000\u001b\u008c"+
-		"\u0001\u0000\u0000\u0000\u001d\u00a2\u0001\u0000\u0000\u0000\u001f\u00ca"+
-		"\u0001\u0000\u0000\u0000!\u00d3\u0001\u0000\u0000\u0000#\u00d6\u0001\u0000"+
-		"\u0000\u0000%\u00da\u0001\u0000\u0000\u0000\'\u00e4\u0001\u0000\u0000"+
-		"\u0000)*\u0005;\u0000\u0000*\u0002\u0001\u0000\u0000\u0000+,\u0005s\u0000"+
-		"\u0000,-\u0005e\u0000\u0000-.\u0005l\u0000\u0000./\u0005e\u0000\u0000"+
-		"/0\u0005c\u0000\u000001\u0005t\u0000\u000012\u0005 \u0000\u000023\u0005"+
-		"*\u0000\u000034\u0005 \u0000\u000045\u0005f\u0000\u000056\u0005r\u0000"+
-		"\u000067\u0005o\u0000\u000078\u0005m\u0000\u000089\u0005 \u0000\u0000"+
-		"9:\u0005e\u0000\u0000:;\u0005n\u0000\u0000;<\u0005t\u0000\u0000<=\u0005"+
-		"i\u0000\u0000=>\u0005t\u0000\u0000>?\u0005i\u0000\u0000?@\u0005e\u0000"+
-		"\u0000@A\u0005s\u0000\u0000A\u0004\u0001\u0000\u0000\u0000BC\u0005s\u0000"+
-		"\u0000CD\u0005e\u0000\u0000DE\u0005l\u0000\u0000EF\u0005e\u0000\u0000"+
-		"FG\u0005c\u0000\u0000GH\u0005t\u0000\u0000HI\u0005 \u0000\u0000IJ\u0005"+
-		"*\u0000\u0000JK\u0005 \u0000\u0000KL\u0005f\u0000\u0000LM\u0005r\u0000"+
-		"\u0000MN\u0005o\u0000\u0000NO\u0005m\u0000\u0000OP\u0005 \u0000\u0000"+
-		"PQ\u0005e\u0000\u0000QR\u0005n\u0000\u0000RS\u0005t\u0000\u0000ST\u0005"+
-		"i\u0000\u0000TU\u0005t\u0000\u0000UV\u0005i\u0000\u0000VW\u0005e\u0000"+
-		"\u0000WX\u0005s\u0000\u0000XY\u0005 \u0000\u0000YZ\u0005w\u0000\u0000"+
-		"Z[\u0005h\u0000\u0000[\\\u0005e\u0000\u0000\\]\u0005r\u0000\u0000]^\u0005"+
-		"e\u0000\u0000^\u0006\u0001\u0000\u0000\u0000_`\u0005a\u0000\u0000`a\u0005"+
-		"n\u0000\u0000ab\u0005d\u0000\u0000b\b\u0001\u0000\u0000\u0000cd\u0005"+
-		"=\u0000\u0000d\n\u0001\u0000\u0000\u0000ef\u0005>\u0000\u0000f\f\u0001"+
-		"\u0000\u0000\u0000gh\u0005<\u0000\u0000h\u000e\u0001\u0000\u0000\u0000"+
-		"ij\u0005>\u0000\u0000jk\u0005=\u0000\u0000k\u0010\u0001\u0000\u0000\u0000"+
-		"lm\u0005<\u0000\u0000mn\u0005=\u0000\u0000n\u0012\u0001\u0000\u0000\u0000"+
-		"op\u0005b\u0000\u0000pq\u0005e\u0000\u0000qr\u0005t\u0000\u0000rs\u0005"+
-		"w\u0000\u0000st\u0005e\u0000\u0000tu\u0005e\u0000\u0000uv\u0005n\u0000"+
-		"\u0000v\u0014\u0001\u0000\u0000\u0000wx\u0005!\u0000\u0000xy\u0005=\u0000"+
-		"\u0000y\u0016\u0001\u0000\u0000\u0000z{\u0005o\u0000\u0000{|\u0005r\u0000"+
-		"\u0000|}\u0005d\u0000\u0000}~\u0005e\u0000\u0000~\u007f\u0005r\u0000\u0000"+
-		"\u007f\u0080\u0005 \u0000\u0000\u0080\u0081\u0005b\u0000\u0000\u0081\u0082"+
-		"\u0005y\u0000\u0000\u0082\u0018\u0001\u0000\u0000\u0000\u0083\u0084\u0005"+
-		"m\u0000\u0000\u0084\u0085\u0005e\u0000\u0000\u0085\u0086\u0005t\u0000"+
-		"\u0000\u0086\u0087\u0005a\u0000\u0000\u0087\u0088\u0005d\u0000\u0000\u0088"+
-		"\u0089\u0005a\u0000\u0000\u0089\u008a\u0005t\u0000\u0000\u008a\u008b\u0005"+
-		"a\u0000\u0000\u008b\u001a\u0001\u0000\u0000\u0000\u008c\u008d\u0005c\u0000"+
-		"\u0000\u008d\u008e\u0005o\u0000\u0000\u008e\u008f\u0005n\u0000\u0000\u008f"+
-		"\u0090\u0005f\u0000\u0000\u0090\u0091\u0005i\u0000\u0000\u0091\u0092\u0005"+
-		"d\u0000\u0000\u0092\u0093\u0005e\u0000\u0000\u0093\u0094\u0005n\u0000"+
-		"\u0000\u0094\u0095\u0005c\u0000\u0000\u0095\u0096\u0005e\u0000\u0000\u0096"+
-		"\u001c\u0001\u0000\u0000\u0000\u0097\u0098\u0005l\u0000\u0000\u0098\u0099"+
-		"\u0005i\u0000\u0000\u0099\u009a\u0005m\u0000\u0000\u009a\u009b\u0005i"+
-		"\u0000\u0000\u009b\u00a3\u0005t\u0000\u0000\u009c\u009d\u0005o\u0000\u0000"+
-		"\u009d\u009e\u0005f\u0000\u0000\u009e\u009f\u0005f\u0000\u0000\u009f\u00a0"+
-		"\u0005s\u0000\u0000\u00a0\u00a1\u0005e\u0000\u0000\u00a1\u00a3\u0005t"+
-		"\u0000\u0000\u00a2\u0097\u0001\u0000\u0000\u0000\u00a2\u009c\u0001\u0000"+
-		"\u0000\u0000\u00a3\u001e\u0001\u0000\u0000\u0000\u00a4\u00a5\u0005i\u0000"+
-		"\u0000\u00a5\u00cb\u0005d\u0000\u0000\u00a6\u00a7\u0005c\u0000\u0000\u00a7"+
-		"\u00a8\u0005o\u0000\u0000\u00a8\u00a9\u0005n\u0000\u0000\u00a9\u00aa\u0005"+
-		"t\u0000\u0000\u00aa\u00ab\u0005e\u0000\u0000\u00ab\u00ac\u0005x\u0000"+
-		"\u0000\u00ac\u00cb\u0005t\u0000\u0000\u00ad\u00ae\u0005d\u0000\u0000\u00ae"+
-		"\u00af\u0005o\u0000\u0000\u00af\u00b0\u0005c\u0000\u0000\u00b0\u00b1\u0005"+
-		"u\u0000\u0000\u00b1\u00b2\u0005m\u0000\u0000\u00b2\u00b3\u0005e\u0000"+
-		"\u0000\u00b3\u00b4\u0005n\u0000\u0000\u00b4\u00b5\u0005t\u0000\u0000\u00b5"+
-		"\u00b6\u0005i\u0000\u0000\u00b6\u00cb\u0005d\u0000\u0000\u00b7\u00b8\u0005"+
-		"t\u0000\u0000\u00b8\u00b9\u0005e\u0000\u0000\u00b9\u00ba\u0005x\u0000"+
-		"\u0000\u00ba\u00cb\u0005t\u0000\u0000\u00bb\u00bc\u0005t\u0000\u0000\u00bc"+
-		"\u00bd\u0005y\u0000\u0000\u00bd\u00be\u0005p\u0000\u0000\u00be\u00cb\u0005"+
-		"e\u0000\u0000\u00bf\u00c0\u0005u\u0000\u0000\u00c0\u00c1\u0005r\u0000"+
-		"\u0000\u00c1\u00cb\u0005i\u0000\u0000\u00c2\u00c3\u0005l\u0000\u0000\u00c3"+
-		"\u00c4\u0005a\u0000\u0000\u00c4\u00c5\u0005n\u0000\u0000\u00c5\u00c6\u0005"+
-		"g\u0000\u0000\u00c6\u00c7\u0005u\u0000\u0000\u00c7\u00c8\u0005a\u0000"+
-		"\u0000\u00c8\u00c9\u0005g\u0000\u0000\u00c9\u00cb\u0005e\u0000\u0000\u00ca"+
-		"\u00a4\u0001\u0000\u0000\u0000\u00ca\u00a6\u0001\u0000\u0000\u0000\u00ca"+
-		"\u00ad\u0001\u0000\u0000\u0000\u00ca\u00b7\u0001\u0000\u0000\u0000\u00ca"+
-		"\u00bb\u0001\u0000\u0000\u0000\u00ca\u00bf\u0001\u0000\u0000\u0000\u00ca"+
-		"\u00c2\u0001\u0000\u0000\u0000\u00cb \u0001\u0000\u0000\u0000\u00cc\u00cd"+
-		"\u0005a\u0000\u0000\u00cd\u00ce\u0005s\u0000\u0000\u00ce\u00d4\u0005c"+
-		"\u0000\u0000\u00cf\u00d0\u0005d\u0000\u0000\u00d0\u00d1\u0005e\u0000\u0000"+
-		"\u00d1\u00d2\u0005s\u0000\u0000\u00d2\u00d4\u0005c\u0000\u0000\u00d3\u00cc"+
-		"\u0001\u0000\u0000\u0000\u00d3\u00cf\u0001\u0000\u0000\u0000\u00d4\"\u0001"+
-		"\u0000\u0000\u0000\u00d5\u00d7\u000209\u0000\u00d6\u00d5\u0001\u0000\u0000"+
-		"\u0000\u00d7\u00d8\u0001\u0000\u0000\u0000\u00d8\u00d6\u0001\u0000\u0000"+
-		"\u0000\u00d8\u00d9\u0001\u0000\u0000\u0000\u00d9$\u0001\u0000\u0000\u0000"+
-		"\u00da\u00dc\u0005\"\u0000\u0000\u00db\u00dd\u0007\u0000\u0000\u0000\u00dc"+
-		"\u00db\u0001\u0000\u0000\u0000\u00dd\u00de\u0001\u0000\u0000\u0000\u00de"+
-		"\u00dc\u0001\u0000\u0000\u0000\u00de\u00df\u0001\u0000\u0000\u0000\u00df"+
-		"\u00e0\u0001\u0000\u0000\u0000\u00e0\u00e1\u0005\"\u0000\u0000\u00e1\u00e2"+
-		"\u0006\u0012\u0000\u0000\u00e2&\u0001\u0000\u0000\u0000\u00e3\u00e5\u0007"+
-		"\u0001\u0000\u0000\u00e4\u00e3\u0001\u0000\u0000\u0000\u00e5\u00e6\u0001"+
-		"\u0000\u0000\u0000\u00e6\u00e4\u0001\u0000\u0000\u0000\u00e6\u00e7\u0001"+
-		"\u0000\u0000\u0000\u00e7(\u0001\u0000\u0000\u0000\b\u0000\u00a2\u00ca"+
-		"\u00d3\u00d8\u00dc\u00de\u00e6\u0001\u0001\u0012\u0000";
+		"\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003"+
+		"\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003"+
+		"\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003"+
+		"\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0001\u0005\u0001\u0005"+
+		"\u0001\u0005\u0001\u0005\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006"+
+		"\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0007\u0001\u0007\u0001\u0007"+
+		"\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007"+
+		"\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\u0007\u0001\b\u0001"+
+		"\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001"+
+		"\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001\b\u0001"+
+		"\b\u0001\t\u0001\t\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001"+
+		"\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001"+
+		"\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001"+
+		"\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\n\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001"+
+		"\u000b\u0001\u000b\u0001\u000b\u0001\u000b\u0001\f\u0001\f\u0001\r\u0001"+
+		"\r\u0001\u000e\u0001\u000e\u0001\u000f\u0001\u000f\u0001\u000f\u0001\u0010"+
+		"\u0001\u0010\u0001\u0010\u0001\u0011\u0001\u0011\u0001\u0011\u0001\u0011"+
+		"\u0001\u0011\u0001\u0011\u0001\u0011\u0001\u0011\u0001\u0012\u0001\u0012"+
+		"\u0001\u0012\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013"+
+		"\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0014\u0001\u0014"+
+		"\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014\u0001\u0014"+
+		"\u0001\u0014\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015"+
+		"\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0016\u0001\u0016"+
+		"\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0016"+
+		"\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0017"+
+		"\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017"+
+		"\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0017"+
+		"\u0001\u0017\u0001\u0017\u0001\u0017\u0003\u0017\u0144\b\u0017\u0001\u0018"+
+		"\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018"+
+		"\u0001\u0018\u0001\u0018\u0001\u0018\u0001\u0018\u0003\u0018\u0151\b\u0018"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u0019"+
+		"\u0001\u0019\u0001\u0019\u0003\u0019\u0179\b\u0019\u0001\u001a\u0001\u001a"+
+		"\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001a\u0001\u001a\u0003\u001a"+
+		"\u0182\b\u001a\u0001\u001b\u0004\u001b\u0185\b\u001b\u000b\u001b\f\u001b"+
+		"\u0186\u0001\u001c\u0001\u001c\u0004\u001c\u018b\b\u001c\u000b\u001c\f"+
+		"\u001c\u018c\u0001\u001c\u0001\u001c\u0001\u001c\u0001\u001d\u0004\u001d"+
+		"\u0193\b\u001d\u000b\u001d\f\u001d\u0194\u0000\u0000\u001e\u0001\u0001"+
+		"\u0003\u0002\u0005\u0003\u0007\u0004\t\u0005\u000b\u0006\r\u0007\u000f"+
+		"\b\u0011\t\u0013\n\u0015\u000b\u0017\f\u0019\r\u001b\u000e\u001d\u000f"+
+		"\u001f\u0010!\u0011#\u0012%\u0013\'\u0014)\u0015+\u0016-\u0017/\u0018"+
+		"1\u00193\u001a5\u001b7\u001c9\u001d;\u001e\u0001\u0000\u0002\u0007\u0000"+
+		"  **-:??AZ__az\u0002\u0000\t\t  \u01a1\u0000\u0001\u0001\u0000\u0000\u0000"+
+		"\u0000\u0003\u0001\u0000\u0000\u0000\u0000\u0005\u0001\u0000\u0000\u0000"+
+		"\u0000\u0007\u0001\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000\u0000\u0000"+
+		"\u000b\u0001\u0000\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000\u0000\u000f"+
+		"\u0001\u0000\u0000\u0000\u0000\u0011\u0001\u0000\u0000\u0000\u0000\u0013"+
+		"\u0001\u0000\u0000\u0000\u0000\u0015\u0001\u0000\u0000\u0000\u0000\u0017"+
+		"\u0001\u0000\u0000\u0000\u0000\u0019\u0001\u0000\u0000\u0000\u0000\u001b"+
+		"\u0001\u0000\u0000\u0000\u0000\u001d\u0001\u0000\u0000\u0000\u0000\u001f"+
+		"\u0001\u0000\u0000\u0000\u0000!\u0001\u0000\u0000\u0000\u0000#\u0001\u0000"+
+		"\u0000\u0000\u0000%\u0001\u0000\u0000\u0000\u0000\'\u0001\u0000\u0000"+
+		"\u0000\u0000)\u0001\u0000\u0000\u0000\u0000+\u0001\u0000\u0000\u0000\u0000"+
+		"-\u0001\u0000\u0000\u0000\u0000/\u0001\u0000\u0000\u0000\u00001\u0001"+
+		"\u0000\u0000\u0000\u00003\u0001\u0000\u0000\u0000\u00005\u0001\u0000\u0000"+
+		"\u0000\u00007\u0001\u0000\u0000\u0000\u00009\u0001\u0000\u0000\u0000\u0000"+
+		";\u0001\u0000\u0000\u0000\u0001=\u0001\u0000\u0000\u0000\u0003?\u0001"+
+		"\u0000\u0000\u0000\u0005G\u0001\u0000\u0000\u0000\u0007O\u0001\u0000\u0000"+
+		"\u0000\tf\u0001\u0000\u0000\u0000\u000b\u0083\u0001\u0000\u0000\u0000"+
+		"\r\u0087\u0001\u0000\u0000\u0000\u000f\u008e\u0001\u0000\u0000\u0000\u0011"+
+		"\u009c\u0001\u0000\u0000\u0000\u0013\u00b0\u0001\u0000\u0000\u0000\u0015"+
+		"\u00b2\u0001\u0000\u0000\u0000\u0017\u00d0\u0001\u0000\u0000\u0000\u0019"+
+		"\u00f4\u0001\u0000\u0000\u0000\u001b\u00f6\u0001\u0000\u0000\u0000\u001d"+
+		"\u00f8\u0001\u0000\u0000\u0000\u001f\u00fa\u0001\u0000\u0000\u0000!\u00fd"+
+		"\u0001\u0000\u0000\u0000#\u0100\u0001\u0000\u0000\u0000%\u0108\u0001\u0000"+
+		"\u0000\u0000\'\u010b\u0001\u0000\u0000\u0000)\u0114\u0001\u0000\u0000"+
+		"\u0000+\u011d\u0001\u0000\u0000\u0000-\u0126\u0001\u0000\u0000\u0000/"+
+		"\u0143\u0001\u0000\u0000\u00001\u0150\u0001\u0000\u0000\u00003\u0178\u0001"+
+		"\u0000\u0000\u00005\u0181\u0001\u0000\u0000\u00007\u0184\u0001\u0000\u0000"+
+		"\u00009\u0188\u0001\u0000\u0000\u0000;\u0192\u0001\u0000\u0000\u0000="+
+		">\u0005;\u0000\u0000>\u0002\u0001\u0000\u0000\u0000?@\u0005e\u0000\u0000"+
+		"@A\u0005x\u0000\u0000AB\u0005p\u0000\u0000BC\u0005l\u0000\u0000CD\u0005"+
+		"a\u0000\u0000DE\u0005i\u0000\u0000EF\u0005n\u0000\u0000F\u0004\u0001\u0000"+
+		"\u0000\u0000GH\u0005p\u0000\u0000HI\u0005r\u0000\u0000IJ\u0005o\u0000"+
+		"\u0000JK\u0005f\u0000\u0000KL\u0005i\u0000\u0000LM\u0005l\u0000\u0000"+
+		"MN\u0005e\u0000\u0000N\u0006\u0001\u0000\u0000\u0000OP\u0005s\u0000\u0000"+
+		"PQ\u0005e\u0000\u0000QR\u0005l\u0000\u0000RS\u0005e\u0000\u0000ST\u0005"+
+		"c\u0000\u0000TU\u0005t\u0000\u0000UV\u0005 \u0000\u0000VW\u0005*\u0000"+
+		"\u0000WX\u0005 \u0000\u0000XY\u0005f\u0000\u0000YZ\u0005r\u0000\u0000"+
+		"Z[\u0005o\u0000\u0000[\\\u0005m\u0000\u0000\\]\u0005 \u0000\u0000]^\u0005"+
+		"e\u0000\u0000^_\u0005n\u0000\u0000_`\u0005t\u0000\u0000`a\u0005i\u0000"+
+		"\u0000ab\u0005t\u0000\u0000bc\u0005i\u0000\u0000cd\u0005e\u0000\u0000"+
+		"de\u0005s\u0000\u0000e\b\u0001\u0000\u0000\u0000fg\u0005s\u0000\u0000"+
+		"gh\u0005e\u0000\u0000hi\u0005l\u0000\u0000ij\u0005e\u0000\u0000jk\u0005"+
+		"c\u0000\u0000kl\u0005t\u0000\u0000lm\u0005 \u0000\u0000mn\u0005*\u0000"+
+		"\u0000no\u0005 \u0000\u0000op\u0005f\u0000\u0000pq\u0005r\u0000\u0000"+
+		"qr\u0005o\u0000\u0000rs\u0005m\u0000\u0000st\u0005 \u0000\u0000tu\u0005"+
+		"e\u0000\u0000uv\u0005n\u0000\u0000vw\u0005t\u0000\u0000wx\u0005i\u0000"+
+		"\u0000xy\u0005t\u0000\u0000yz\u0005i\u0000\u0000z{\u0005e\u0000\u0000"+
+		"{|\u0005s\u0000\u0000|}\u0005 \u0000\u0000}~\u0005w\u0000\u0000~\u007f"+
+		"\u0005h\u0000\u0000\u007f\u0080\u0005e\u0000\u0000\u0080\u0081\u0005r"+
+		"\u0000\u0000\u0081\u0082\u0005e\u0000\u0000\u0082\n\u0001\u0000\u0000"+
+		"\u0000\u0083\u0084\u0005a\u0000\u0000\u0084\u0085\u0005n\u0000\u0000\u0085"+
+		"\u0086\u0005d\u0000\u0000\u0086\f\u0001\u0000\u0000\u0000\u0087\u0088"+
+		"\u0005s\u0000\u0000\u0088\u0089\u0005e\u0000\u0000\u0089\u008a\u0005l"+
+		"\u0000\u0000\u008a\u008b\u0005e\u0000\u0000\u008b\u008c\u0005c\u0000\u0000"+
+		"\u008c\u008d\u0005t\u0000\u0000\u008d\u000e\u0001\u0000\u0000\u0000\u008e"+
+		"\u008f\u0005f\u0000\u0000\u008f\u0090\u0005r\u0000\u0000\u0090\u0091\u0005"+
+		"o\u0000\u0000\u0091\u0092\u0005m\u0000\u0000\u0092\u0093\u0005 \u0000"+
+		"\u0000\u0093\u0094\u0005e\u0000\u0000\u0094\u0095\u0005n\u0000\u0000\u0095"+
+		"\u0096\u0005t\u0000\u0000\u0096\u0097\u0005i\u0000\u0000\u0097\u0098\u0005"+
+		"t\u0000\u0000\u0098\u0099\u0005i\u0000\u0000\u0099\u009a\u0005e\u0000"+
+		"\u0000\u009a\u009b\u0005s\u0000\u0000\u009b\u0010\u0001\u0000\u0000\u0000"+
+		"\u009c\u009d\u0005f\u0000\u0000\u009d\u009e\u0005r\u0000\u0000\u009e\u009f"+
+		"\u0005o\u0000\u0000\u009f\u00a0\u0005m\u0000\u0000\u00a0\u00a1\u0005 "+
+		"\u0000\u0000\u00a1\u00a2\u0005e\u0000\u0000\u00a2\u00a3\u0005n\u0000\u0000"+
+		"\u00a3\u00a4\u0005t\u0000\u0000\u00a4\u00a5\u0005i\u0000\u0000\u00a5\u00a6"+
+		"\u0005t\u0000\u0000\u00a6\u00a7\u0005i\u0000\u0000\u00a7\u00a8\u0005e"+
+		"\u0000\u0000\u00a8\u00a9\u0005s\u0000\u0000\u00a9\u00aa\u0005 \u0000\u0000"+
+		"\u00aa\u00ab\u0005w\u0000\u0000\u00ab\u00ac\u0005h\u0000\u0000\u00ac\u00ad"+
+		"\u0005e\u0000\u0000\u00ad\u00ae\u0005r\u0000\u0000\u00ae\u00af\u0005e"+
+		"\u0000\u0000\u00af\u0012\u0001\u0000\u0000\u0000\u00b0\u00b1\u0005,\u0000"+
+		"\u0000\u00b1\u0014\u0001\u0000\u0000\u0000\u00b2\u00b3\u0005s\u0000\u0000"+
+		"\u00b3\u00b4\u0005e\u0000\u0000\u00b4\u00b5\u0005l\u0000\u0000\u00b5\u00b6"+
+		"\u0005e\u0000\u0000\u00b6\u00b7\u0005c\u0000\u0000\u00b7\u00b8\u0005t"+
+		"\u0000\u0000\u00b8\u00b9\u0005 \u0000\u0000\u00b9\u00ba\u0005c\u0000\u0000"+
+		"\u00ba\u00bb\u0005o\u0000\u0000\u00bb\u00bc\u0005u\u0000\u0000\u00bc\u00bd"+
+		"\u0005n\u0000\u0000\u00bd\u00be\u0005t\u0000\u0000\u00be\u00bf\u0005("+
+		"\u0000\u0000\u00bf\u00c0\u0005*\u0000\u0000\u00c0\u00c1\u0005)\u0000\u0000"+
+		"\u00c1\u00c2\u0005 \u0000\u0000\u00c2\u00c3\u0005f\u0000\u0000\u00c3\u00c4"+
+		"\u0005r\u0000\u0000\u00c4\u00c5\u0005o\u0000\u0000\u00c5\u00c6\u0005m"+
+		"\u0000\u0000\u00c6\u00c7\u0005 \u0000\u0000\u00c7\u00c8\u0005e\u0000\u0000"+
+		"\u00c8\u00c9\u0005n\u0000\u0000\u00c9\u00ca\u0005t\u0000\u0000\u00ca\u00cb"+
+		"\u0005i\u0000\u0000\u00cb\u00cc\u0005t\u0000\u0000\u00cc\u00cd\u0005i"+
+		"\u0000\u0000\u00cd\u00ce\u0005e\u0000\u0000\u00ce\u00cf\u0005s\u0000\u0000"+
+		"\u00cf\u0016\u0001\u0000\u0000\u0000\u00d0\u00d1\u0005s\u0000\u0000\u00d1"+
+		"\u00d2\u0005e\u0000\u0000\u00d2\u00d3\u0005l\u0000\u0000\u00d3\u00d4\u0005"+
+		"e\u0000\u0000\u00d4\u00d5\u0005c\u0000\u0000\u00d5\u00d6\u0005t\u0000"+
+		"\u0000\u00d6\u00d7\u0005 \u0000\u0000\u00d7\u00d8\u0005c\u0000\u0000\u00d8"+
+		"\u00d9\u0005o\u0000\u0000\u00d9\u00da\u0005u\u0000\u0000\u00da\u00db\u0005"+
+		"n\u0000\u0000\u00db\u00dc\u0005t\u0000\u0000\u00dc\u00dd\u0005(\u0000"+
+		"\u0000\u00dd\u00de\u0005*\u0000\u0000\u00de\u00df\u0005)\u0000\u0000\u00df"+
+		"\u00e0\u0005 \u0000\u0000\u00e0\u00e1\u0005f\u0000\u0000\u00e1\u00e2\u0005"+
+		"r\u0000\u0000\u00e2\u00e3\u0005o\u0000\u0000\u00e3\u00e4\u0005m\u0000"+
+		"\u0000\u00e4\u00e5\u0005 \u0000\u0000\u00e5\u00e6\u0005e\u0000\u0000\u00e6"+
+		"\u00e7\u0005n\u0000\u0000\u00e7\u00e8\u0005t\u0000\u0000\u00e8\u00e9\u0005"+
+		"i\u0000\u0000\u00e9\u00ea\u0005t\u0000\u0000\u00ea\u00eb\u0005i\u0000"+
+		"\u0000\u00eb\u00ec\u0005e\u0000\u0000\u00ec\u00ed\u0005s\u0000\u0000\u00ed"+
+		"\u00ee\u0005 \u0000\u0000\u00ee\u00ef\u0005w\u0000\u0000\u00ef\u00f0\u0005"+
+		"h\u0000\u0000\u00f0\u00f1\u0005e\u0000\u0000\u00f1\u00f2\u0005r\u0000"+
+		"\u0000\u00f2\u00f3\u0005e\u0000\u0000\u00f3\u0018\u0001\u0000\u0000\u0000"+
+		"\u00f4\u00f5\u0005=\u0000\u0000\u00f5\u001a\u0001\u0000\u0000\u0000\u00f6"+
+		"\u00f7\u0005>\u0000\u0000\u00f7\u001c\u0001\u0000\u0000\u0000\u00f8\u00f9"+
+		"\u0005<\u0000\u0000\u00f9\u001e\u0001\u0000\u0000\u0000\u00fa\u00fb\u0005"+
+		">\u0000\u0000\u00fb\u00fc\u0005=\u0000\u0000\u00fc \u0001\u0000\u0000"+
+		"\u0000\u00fd\u00fe\u0005<\u0000\u0000\u00fe\u00ff\u0005=\u0000\u0000\u00ff"+
+		"\"\u0001\u0000\u0000\u0000\u0100\u0101\u0005b\u0000\u0000\u0101\u0102"+
+		"\u0005e\u0000\u0000\u0102\u0103\u0005t\u0000\u0000\u0103\u0104\u0005w"+
+		"\u0000\u0000\u0104\u0105\u0005e\u0000\u0000\u0105\u0106\u0005e\u0000\u0000"+
+		"\u0106\u0107\u0005n\u0000\u0000\u0107$\u0001\u0000\u0000\u0000\u0108\u0109"+
+		"\u0005!\u0000\u0000\u0109\u010a\u0005=\u0000\u0000\u010a&\u0001\u0000"+
+		"\u0000\u0000\u010b\u010c\u0005g\u0000\u0000\u010c\u010d\u0005r\u0000\u0000"+
+		"\u010d\u010e\u0005o\u0000\u0000\u010e\u010f\u0005u\u0000\u0000\u010f\u0110"+
+		"\u0005p\u0000\u0000\u0110\u0111\u0005 \u0000\u0000\u0111\u0112\u0005b"+
+		"\u0000\u0000\u0112\u0113\u0005y\u0000\u0000\u0113(\u0001\u0000\u0000\u0000"+
+		"\u0114\u0115\u0005o\u0000\u0000\u0115\u0116\u0005r\u0000\u0000\u0116\u0117"+
+		"\u0005d\u0000\u0000\u0117\u0118\u0005e\u0000\u0000\u0118\u0119\u0005r"+
+		"\u0000\u0000\u0119\u011a\u0005 \u0000\u0000\u011a\u011b\u0005b\u0000\u0000"+
+		"\u011b\u011c\u0005y\u0000\u0000\u011c*\u0001\u0000\u0000\u0000\u011d\u011e"+
+		"\u0005m\u0000\u0000\u011e\u011f\u0005e\u0000\u0000\u011f\u0120\u0005t"+
+		"\u0000\u0000\u0120\u0121\u0005a\u0000\u0000\u0121\u0122\u0005d\u0000\u0000"+
+		"\u0122\u0123\u0005a\u0000\u0000\u0123\u0124\u0005t\u0000\u0000\u0124\u0125"+
+		"\u0005a\u0000\u0000\u0125,\u0001\u0000\u0000\u0000\u0126\u0127\u0005c"+
+		"\u0000\u0000\u0127\u0128\u0005o\u0000\u0000\u0128\u0129\u0005n\u0000\u0000"+
+		"\u0129\u012a\u0005f\u0000\u0000\u012a\u012b\u0005i\u0000\u0000\u012b\u012c"+
+		"\u0005d\u0000\u0000\u012c\u012d\u0005e\u0000\u0000\u012d\u012e\u0005n"+
+		"\u0000\u0000\u012e\u012f\u0005c\u0000\u0000\u012f\u0130\u0005e\u0000\u0000"+
+		"\u0130.\u0001\u0000\u0000\u0000\u0131\u0132\u0005e\u0000\u0000\u0132\u0133"+
+		"\u0005x\u0000\u0000\u0133\u0134\u0005t\u0000\u0000\u0134\u0135\u0005r"+
+		"\u0000\u0000\u0135\u0136\u0005a\u0000\u0000\u0136\u0137\u0005c\u0000\u0000"+
+		"\u0137\u0138\u0005t\u0000\u0000\u0138\u0139\u0005i\u0000\u0000\u0139\u013a"+
+		"\u0005o\u0000\u0000\u013a\u013b\u0005n\u0000\u0000\u013b\u013c\u0005d"+
+		"\u0000\u0000\u013c\u013d\u0005a\u0000\u0000\u013d\u013e\u0005t\u0000\u0000"+
+		"\u013e\u0144\u0005e\u0000\u0000\u013f\u0140\u0005t\u0000\u0000\u0140\u0141"+
+		"\u0005i\u0000\u0000\u0141\u0142\u0005m\u0000\u0000\u0142\u0144\u0005e"+
+		"\u0000\u0000\u0143\u0131\u0001\u0000\u0000\u0000\u0143\u013f\u0001\u0000"+
+		"\u0000\u0000\u01440\u0001\u0000\u0000\u0000\u0145\u0146\u0005l\u0000\u0000"+
+		"\u0146\u0147\u0005i\u0000\u0000\u0147\u0148\u0005m\u0000\u0000\u0148\u0149"+
+		"\u0005i\u0000\u0000\u0149\u0151\u0005t\u0000\u0000\u014a\u014b\u0005o"+
+		"\u0000\u0000\u014b\u014c\u0005f\u0000\u0000\u014c\u014d\u0005f\u0000\u0000"+
+		"\u014d\u014e\u0005s\u0000\u0000\u014e\u014f\u0005e\u0000\u0000\u014f\u0151"+
+		"\u0005t\u0000\u0000\u0150\u0145\u0001\u0000\u0000\u0000\u0150\u014a\u0001"+
+		"\u0000\u0000\u0000\u01512\u0001\u0000\u0000\u0000\u0152\u0153\u0005i\u0000"+
+		"\u0000\u0153\u0179\u0005d\u0000\u0000\u0154\u0155\u0005c\u0000\u0000\u0155"+
+		"\u0156\u0005o\u0000\u0000\u0156\u0157\u0005n\u0000\u0000\u0157\u0158\u0005"+
+		"t\u0000\u0000\u0158\u0159\u0005e\u0000\u0000\u0159\u015a\u0005x\u0000"+
+		"\u0000\u015a\u0179\u0005t\u0000\u0000\u015b\u015c\u0005d\u0000\u0000\u015c"+
+		"\u015d\u0005o\u0000\u0000\u015d\u015e\u0005c\u0000\u0000\u015e\u015f\u0005"+
+		"u\u0000\u0000\u015f\u0160\u0005m\u0000\u0000\u0160\u0161\u0005e\u0000"+
+		"\u0000\u0161\u0162\u0005n\u0000\u0000\u0162\u0163\u0005t\u0000\u0000\u0163"+
+		"\u0164\u0005i\u0000\u0000\u0164\u0179\u0005d\u0000\u0000\u0165\u0166\u0005"+
+		"t\u0000\u0000\u0166\u0167\u0005e\u0000\u0000\u0167\u0168\u0005x\u0000"+
+		"\u0000\u0168\u0179\u0005t\u0000\u0000\u0169\u016a\u0005t\u0000\u0000\u016a"+
+		"\u016b\u0005y\u0000\u0000\u016b\u016c\u0005p\u0000\u0000\u016c\u0179\u0005"+
+		"e\u0000\u0000\u016d\u016e\u0005u\u0000\u0000\u016e\u016f\u0005r\u0000"+
+		"\u0000\u016f\u0179\u0005i\u0000\u0000\u0170\u0171\u0005l\u0000\u0000\u0171"+
+		"\u0172\u0005a\u0000\u0000\u0172\u0173\u0005n\u0000\u0000\u0173\u0174\u0005"+
+		"g\u0000\u0000\u0174\u0175\u0005u\u0000\u0000\u0175\u0176\u0005a\u0000"+
+		"\u0000\u0176\u0177\u0005g\u0000\u0000\u0177\u0179\u0005e\u0000\u0000\u0178"+
+		"\u0152\u0001\u0000\u0000\u0000\u0178\u0154\u0001\u0000\u0000\u0000\u0178"+
+		"\u015b\u0001\u0000\u0000\u0000\u0178\u0165\u0001\u0000\u0000\u0000\u0178"+
+		"\u0169\u0001\u0000\u0000\u0000\u0178\u016d\u0001\u0000\u0000\u0000\u0178"+
+		"\u0170\u0001\u0000\u0000\u0000\u01794\u0001\u0000\u0000\u0000\u017a\u017b"+
+		"\u0005a\u0000\u0000\u017b\u017c\u0005s\u0000\u0000\u017c\u0182\u0005c"+
+		"\u0000\u0000\u017d\u017e\u0005d\u0000\u0000\u017e\u017f\u0005e\u0000\u0000"+
+		"\u017f\u0180\u0005s\u0000\u0000\u0180\u0182\u0005c\u0000\u0000\u0181\u017a"+
+		"\u0001\u0000\u0000\u0000\u0181\u017d\u0001\u0000\u0000\u0000\u01826\u0001"+
+		"\u0000\u0000\u0000\u0183\u0185\u000209\u0000\u0184\u0183\u0001\u0000\u0000"+
+		"\u0000\u0185\u0186\u0001\u0000\u0000\u0000\u0186\u0184\u0001\u0000\u0000"+
+		"\u0000\u0186\u0187\u0001\u0000\u0000\u0000\u01878\u0001\u0000\u0000\u0000"+
+		"\u0188\u018a\u0005\"\u0000\u0000\u0189\u018b\u0007\u0000\u0000\u0000\u018a"+
+		"\u0189\u0001\u0000\u0000\u0000\u018b\u018c\u0001\u0000\u0000\u0000\u018c"+
+		"\u018a\u0001\u0000\u0000\u0000\u018c\u018d\u0001\u0000\u0000\u0000\u018d"+
+		"\u018e\u0001\u0000\u0000\u0000\u018e\u018f\u0005\"\u0000\u0000\u018f\u0190"+
+		"\u0006\u001c\u0000\u0000\u0190:\u0001\u0000\u0000\u0000\u0191\u0193\u0007"+
+		"\u0001\u0000\u0000\u0192\u0191\u0001\u0000\u0000\u0000\u0193\u0194\u0001"+
+		"\u0000\u0000\u0000\u0194\u0192\u0001\u0000\u0000\u0000\u0194\u0195\u0001"+
+		"\u0000\u0000\u0000\u0195<\u0001\u0000\u0000\u0000\t\u0000\u0143\u0150"+
+		"\u0178\u0181\u0186\u018a\u018c\u0194\u0001\u0001\u001c\u0000";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
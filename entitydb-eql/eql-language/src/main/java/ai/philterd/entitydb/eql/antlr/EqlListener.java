@@ -19,6 +19,16 @@ public interface EqlListener extends ParseTreeListener {
 	 * @param ctx the parse tree
 	 */
 	void exitCommand(EqlParser.CommandContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link EqlParser#explain}.
+	 * @param ctx the parse tree
+	 */
+	void enterExplain(EqlParser.ExplainContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link EqlParser#explain}.
+	 * @param ctx the parse tree
+	 */
+	void exitExplain(EqlParser.ExplainContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link EqlParser#select}.
 	 * @param ctx the parse tree
@@ -29,6 +39,26 @@ public interface EqlListener extends ParseTreeListener {
 	 * @param ctx the parse tree
 	 */
 	void exitSelect(EqlParser.SelectContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link EqlParser#projection}.
+	 * @param ctx the parse tree
+	 */
+	void enterProjection(EqlParser.ProjectionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link EqlParser#projection}.
+	 * @param ctx the parse tree
+	 */
+	void exitProjection(EqlParser.ProjectionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link EqlParser#aggregate}.
+	 * @param ctx the parse tree
+	 */
+	void enterAggregate(EqlParser.AggregateContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link EqlParser#aggregate}.
+	 * @param ctx the parse tree
+	 */
+	void exitAggregate(EqlParser.AggregateContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link EqlParser#condition}.
 	 * @param ctx the parse tree
@@ -49,6 +79,16 @@ public interface EqlListener extends ParseTreeListener {
 	 * @param ctx the parse tree
 	 */
 	void exitOption(EqlParser.OptionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link EqlParser#group}.
+	 * @param ctx the parse tree
+	 */
+	void enterGroup(EqlParser.GroupContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link EqlParser#group}.
+	 * @param ctx the parse tree
+	 */
+	void exitGroup(EqlParser.GroupContext ctx);
 	/**
 	 * Enter a parse tree produced by {@link EqlParser#sort}.
 	 * @param ctx the parse tree
@@ -20,31 +20,38 @@ public class EqlParser extends Parser {
 		new PredictionContextCache();
 	public static final int
 		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
-		T__9=10, T__10=11, T__11=12, METADATA_FIELD=13, NUMERIC_FIELD=14, OPTION_FIELD=15, 
-		STRING_FIELD=16, SORT_ORDER_FIELD=17, INTEGERS=18, STRING=19, WS=20;
+		T__9=10, T__10=11, T__11=12, T__12=13, T__13=14, T__14=15, T__15=16, T__16=17, 
+		T__17=18, T__18=19, T__19=20, T__20=21, METADATA_FIELD=22, NUMERIC_FIELD=23, 
+		DATE_FIELD=24, OPTION_FIELD=25, STRING_FIELD=26, SORT_ORDER_FIELD=27, 
+		INTEGERS=28, STRING=29, WS=30;
 	public static final int
-		RULE_command = 0, RULE_select = 1, RULE_condition = 2, RULE_option = 3, 
-		RULE_sort = 4;
+		RULE_command = 0, RULE_explain = 1, RULE_select = 2, RULE_projection = 3, 
+		RULE_aggregate = 4, RULE_condition = 5, RULE_option = 6, RULE_group = 7, 
+		RULE_sort = 8;
 	private static String[] makeRuleNames() {
 		return new String[] {
-			"command", "select", "condition", "option", "sort"
+			"command", "explain", "select", "projection", "aggregate", "condition", 
+			"option", "group", "sort"
 		};
 	}
 	public static final String[] ruleNames = makeRuleNames();
 
 	private static String[] makeLiteralNames() {
 		return new String[] {
-			null, "';'", "'select * from entities'", "'select * from entities where'", 
-			"'and'", "'='", "'>'", "'<'", "'>='", "'<='", "'between'", "'!='", "'order by'", 
-			"'metadata'", "'confidence'"
+			null, "';'", "'explain'", "'profile'", "'select * from entities'", "'select * from entities where'", 
+			"'and'", "'select'", "'from entities'", "'from entities where'", "','", 
+			"'select count(*) from entities'", "'select count(*) from entities where'", 
+			"'='", "'>'", "'<'", "'>='", "'<='", "'between'", "'!='", "'group by'", 
+			"'order by'", "'metadata'", "'confidence'"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
 			null, null, null, null, null, null, null, null, null, null, null, null, 
-			null, "METADATA_FIELD", "NUMERIC_FIELD", "OPTION_FIELD", "STRING_FIELD", 
-			"SORT_ORDER_FIELD", "INTEGERS", "STRING", "WS"
+			null, null, null, null, null, null, null, null, null, null, "METADATA_FIELD", 
+			"NUMERIC_FIELD", "DATE_FIELD", "OPTION_FIELD", "STRING_FIELD", "SORT_ORDER_FIELD", 
+			"INTEGERS", "STRING", "WS"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -103,9 +110,15 @@ public class EqlParser extends Parser {
 		public SelectContext select() {
 			return getRuleContext(SelectContext.class,0);
 		}
+		public ExplainContext explain() {
+			return getRuleContext(ExplainContext.class,0);
+		}
 		public SortContext sort() {
 			return getRuleContext(SortContext.class,0);
 		}
+		public AggregateContext aggregate() {
+			return getRuleContext(AggregateContext.class,0);
+		}
 		public CommandContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -125,30 +138,125 @@ public class EqlParser extends Parser {
 		enterRule(_localctx, 0, RULE_command);
 		int _la;
 		try {
-			enterOuterAlt(_localctx, 1);
-			{
-			setState(10);
-			select();
-			setState(12);
+			setState(32);
 			_errHandler.sync(this);
-			_la = _input.LA(1);
-			if (_la==WS) {
+			switch (_input.LA(1)) {
+			case T__1:
+			case T__3:
+			case T__4:
+			case T__6:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(19);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==T__1) {
+					{
+					setState(18);
+					explain();
+					}
+				}
+
+				setState(21);
+				select();
+				setState(23);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==WS) {
+					{
+					setState(22);
+					sort();
+					}
+				}
+
+				setState(26);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==T__0) {
+					{
+					setState(25);
+					match(T__0);
+					}
+				}
+
+				}
+				break;
+			case T__10:
+			case T__11:
+				enterOuterAlt(_localctx, 2);
 				{
-				setState(11);
-				sort();
+				setState(28);
+				aggregate();
+				setState(30);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==T__0) {
+					{
+					setState(29);
+					match(T__0);
+					}
 				}
+
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
 			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
 
-			setState(15);
+	@SuppressWarnings("CheckReturnValue")
+	public static class ExplainContext extends ParserRuleContext {
+		public Token p;
+		public List<TerminalNode> WS() { return getTokens(EqlParser.WS); }
+		public TerminalNode WS(int i) {
+			return getToken(EqlParser.WS, i);
+		}
+		public ExplainContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_explain; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).enterExplain(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).exitExplain(this);
+		}
+	}
+
+	public final ExplainContext explain() throws RecognitionException {
+		ExplainContext _localctx = new ExplainContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_explain);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(34);
+			match(T__1);
+			setState(37);
 			_errHandler.sync(this);
-			_la = _input.LA(1);
-			if (_la==T__0) {
+			switch ( getInterpreter().adaptivePredict(_input,5,_ctx) ) {
+			case 1:
 				{
-				setState(14);
-				match(T__0);
+				setState(35);
+				match(WS);
+				setState(36);
+				((ExplainContext)_localctx).p = match(T__2);
 				}
+				break;
 			}
-
+			setState(39);
+			match(WS);
 			}
 		}
 		catch (RecognitionException re) {
@@ -180,6 +288,9 @@ public class EqlParser extends Parser {
 		public TerminalNode WS(int i) {
 			return getToken(EqlParser.WS, i);
 		}
+		public ProjectionContext projection() {
+			return getRuleContext(ProjectionContext.class,0);
+		}
 		public SelectContext(ParserRuleContext parent, int invokingState) {
 			super(parent, invokingState);
 		}
@@ -196,116 +307,452 @@ public class EqlParser extends Parser {
 
 	public final SelectContext select() throws RecognitionException {
 		SelectContext _localctx = new SelectContext(_ctx, getState());
-		enterRule(_localctx, 2, RULE_select);
+		enterRule(_localctx, 4, RULE_select);
 		try {
 			int _alt;
-			setState(51);
+			setState(106);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,6,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,13,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(17);
-				match(T__1);
+				setState(41);
+				match(T__3);
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(18);
-				match(T__1);
-				setState(22);
+				setState(42);
+				match(T__3);
+				setState(46);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,2,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,6,_ctx);
 				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 					if ( _alt==1 ) {
 						{
 						{
-						setState(19);
+						setState(43);
 						option();
 						}
 						} 
 					}
-					setState(24);
+					setState(48);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input,2,_ctx);
+					_alt = getInterpreter().adaptivePredict(_input,6,_ctx);
 				}
 				}
 				break;
 			case 3:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(25);
-				match(T__2);
-				setState(26);
+				setState(49);
+				match(T__4);
+				setState(50);
 				condition();
-				setState(32);
+				setState(56);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,3,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,7,_ctx);
 				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 					if ( _alt==1 ) {
 						{
 						{
-						setState(27);
+						setState(51);
 						match(WS);
-						setState(28);
-						match(T__3);
-						setState(29);
+						setState(52);
+						match(T__5);
+						setState(53);
 						condition();
 						}
 						} 
 					}
-					setState(34);
+					setState(58);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input,3,_ctx);
+					_alt = getInterpreter().adaptivePredict(_input,7,_ctx);
 				}
 				}
 				break;
 			case 4:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(35);
-				match(T__2);
-				setState(36);
+				setState(59);
+				match(T__4);
+				setState(60);
 				condition();
-				setState(42);
+				setState(66);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,4,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,8,_ctx);
 				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 					if ( _alt==1 ) {
 						{
 						{
-						setState(37);
+						setState(61);
 						match(WS);
-						setState(38);
-						match(T__3);
-						setState(39);
+						setState(62);
+						match(T__5);
+						setState(63);
 						condition();
 						}
 						} 
 					}
-					setState(44);
+					setState(68);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input,4,_ctx);
+					_alt = getInterpreter().adaptivePredict(_input,8,_ctx);
 				}
-				setState(48);
+				setState(72);
 				_errHandler.sync(this);
-				_alt = getInterpreter().adaptivePredict(_input,5,_ctx);
+				_alt = getInterpreter().adaptivePredict(_input,9,_ctx);
 				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
 					if ( _alt==1 ) {
 						{
 						{
-						setState(45);
+						setState(69);
 						option();
 						}
 						} 
 					}
-					setState(50);
+					setState(74);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,9,_ctx);
+				}
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(75);
+				match(T__6);
+				setState(76);
+				match(WS);
+				setState(77);
+				projection();
+				setState(78);
+				match(WS);
+				setState(79);
+				match(T__7);
+				setState(83);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,10,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(80);
+						option();
+						}
+						} 
+					}
+					setState(85);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,10,_ctx);
+				}
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(86);
+				match(T__6);
+				setState(87);
+				match(WS);
+				setState(88);
+				projection();
+				setState(89);
+				match(WS);
+				setState(90);
+				match(T__8);
+				setState(91);
+				condition();
+				setState(97);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,11,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(92);
+						match(WS);
+						setState(93);
+						match(T__5);
+						setState(94);
+						condition();
+						}
+						} 
+					}
+					setState(99);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,11,_ctx);
+				}
+				setState(103);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,12,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(100);
+						option();
+						}
+						} 
+					}
+					setState(105);
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,12,_ctx);
+				}
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	@SuppressWarnings("CheckReturnValue")
+	public static class ProjectionContext extends ParserRuleContext {
+		public List<TerminalNode> STRING_FIELD() { return getTokens(EqlParser.STRING_FIELD); }
+		public TerminalNode STRING_FIELD(int i) {
+			return getToken(EqlParser.STRING_FIELD, i);
+		}
+		public List<TerminalNode> NUMERIC_FIELD() { return getTokens(EqlParser.NUMERIC_FIELD); }
+		public TerminalNode NUMERIC_FIELD(int i) {
+			return getToken(EqlParser.NUMERIC_FIELD, i);
+		}
+		public List<TerminalNode> METADATA_FIELD() { return getTokens(EqlParser.METADATA_FIELD); }
+		public TerminalNode METADATA_FIELD(int i) {
+			return getToken(EqlParser.METADATA_FIELD, i);
+		}
+		public List<TerminalNode> WS() { return getTokens(EqlParser.WS); }
+		public TerminalNode WS(int i) {
+			return getToken(EqlParser.WS, i);
+		}
+		public ProjectionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_projection; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).enterProjection(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).exitProjection(this);
+		}
+	}
+
+	public final ProjectionContext projection() throws RecognitionException {
+		ProjectionContext _localctx = new ProjectionContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_projection);
+		int _la;
+		try {
+			int _alt;
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(108);
+			_la = _input.LA(1);
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 79691776L) != 0)) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			setState(119);
+			_errHandler.sync(this);
+			_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+				if ( _alt==1 ) {
+					{
+					{
+					setState(110);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					if (_la==WS) {
+						{
+						setState(109);
+						match(WS);
+						}
+					}
+
+					setState(112);
+					match(T__9);
+					setState(114);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					if (_la==WS) {
+						{
+						setState(113);
+						match(WS);
+						}
+					}
+
+					setState(116);
+					_la = _input.LA(1);
+					if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 79691776L) != 0)) ) {
+					_errHandler.recoverInline(this);
+					}
+					else {
+						if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+						_errHandler.reportMatch(this);
+						consume();
+					}
+					}
+					} 
+				}
+				setState(121);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,16,_ctx);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	@SuppressWarnings("CheckReturnValue")
+	public static class AggregateContext extends ParserRuleContext {
+		public GroupContext group() {
+			return getRuleContext(GroupContext.class,0);
+		}
+		public List<OptionContext> option() {
+			return getRuleContexts(OptionContext.class);
+		}
+		public OptionContext option(int i) {
+			return getRuleContext(OptionContext.class,i);
+		}
+		public List<ConditionContext> condition() {
+			return getRuleContexts(ConditionContext.class);
+		}
+		public ConditionContext condition(int i) {
+			return getRuleContext(ConditionContext.class,i);
+		}
+		public List<TerminalNode> WS() { return getTokens(EqlParser.WS); }
+		public TerminalNode WS(int i) {
+			return getToken(EqlParser.WS, i);
+		}
+		public AggregateContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_aggregate; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).enterAggregate(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).exitAggregate(this);
+		}
+	}
+
+	public final AggregateContext aggregate() throws RecognitionException {
+		AggregateContext _localctx = new AggregateContext(_ctx, getState());
+		enterRule(_localctx, 8, RULE_aggregate);
+		int _la;
+		try {
+			int _alt;
+			setState(151);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__10:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(122);
+				match(T__10);
+				setState(124);
+				_errHandler.sync(this);
+				switch ( getInterpreter().adaptivePredict(_input,17,_ctx) ) {
+				case 1:
+					{
+					setState(123);
+					group();
+					}
+					break;
+				}
+				setState(129);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==WS) {
+					{
+					{
+					setState(126);
+					option();
+					}
+					}
+					setState(131);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			case T__11:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(132);
+				match(T__11);
+				setState(133);
+				condition();
+				setState(139);
+				_errHandler.sync(this);
+				_alt = getInterpreter().adaptivePredict(_input,19,_ctx);
+				while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER ) {
+					if ( _alt==1 ) {
+						{
+						{
+						setState(134);
+						match(WS);
+						setState(135);
+						match(T__5);
+						setState(136);
+						condition();
+						}
+						} 
+					}
+					setState(141);
 					_errHandler.sync(this);
-					_alt = getInterpreter().adaptivePredict(_input,5,_ctx);
+					_alt = getInterpreter().adaptivePredict(_input,19,_ctx);
+				}
+				setState(143);
+				_errHandler.sync(this);
+				switch ( getInterpreter().adaptivePredict(_input,20,_ctx) ) {
+				case 1:
+					{
+					setState(142);
+					group();
+					}
+					break;
+				}
+				setState(148);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==WS) {
+					{
+					{
+					setState(145);
+					option();
+					}
+					}
+					setState(150);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
 				}
 				}
 				break;
+			default:
+				throw new NoViableAltException(this);
 			}
 		}
 		catch (RecognitionException re) {
@@ -334,6 +781,7 @@ public class EqlParser extends Parser {
 		public TerminalNode INTEGERS(int i) {
 			return getToken(EqlParser.INTEGERS, i);
 		}
+		public TerminalNode DATE_FIELD() { return getToken(EqlParser.DATE_FIELD, 0); }
 		public TerminalNode STRING_FIELD() { return getToken(EqlParser.STRING_FIELD, 0); }
 		public List<TerminalNode> STRING() { return getTokens(EqlParser.STRING); }
 		public TerminalNode STRING(int i) {
@@ -356,33 +804,33 @@ public class EqlParser extends Parser {
 
 	public final ConditionContext condition() throws RecognitionException {
 		ConditionContext _localctx = new ConditionContext(_ctx, getState());
-		enterRule(_localctx, 4, RULE_condition);
+		enterRule(_localctx, 10, RULE_condition);
 		int _la;
 		try {
-			setState(95);
+			setState(215);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,13,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,31,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(53);
+				setState(153);
 				match(WS);
-				setState(54);
+				setState(154);
 				match(NUMERIC_FIELD);
-				setState(56);
+				setState(156);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(55);
+					setState(155);
 					match(WS);
 					}
 				}
 
-				setState(58);
+				setState(158);
 				((ConditionContext)_localctx).operator = _input.LT(1);
 				_la = _input.LA(1);
-				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 992L) != 0)) ) {
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 253952L) != 0)) ) {
 					((ConditionContext)_localctx).operator = (Token)_errHandler.recoverInline(this);
 				}
 				else {
@@ -390,66 +838,66 @@ public class EqlParser extends Parser {
 					_errHandler.reportMatch(this);
 					consume();
 				}
-				setState(60);
+				setState(160);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(59);
+					setState(159);
 					match(WS);
 					}
 				}
 
-				setState(62);
+				setState(162);
 				((ConditionContext)_localctx).value = match(INTEGERS);
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(63);
+				setState(163);
 				match(WS);
-				setState(64);
+				setState(164);
 				match(NUMERIC_FIELD);
-				setState(65);
+				setState(165);
 				match(WS);
-				setState(66);
-				match(T__9);
-				setState(67);
+				setState(166);
+				match(T__17);
+				setState(167);
 				match(WS);
-				setState(68);
+				setState(168);
 				((ConditionContext)_localctx).value1 = match(INTEGERS);
-				setState(69);
+				setState(169);
 				match(WS);
-				setState(70);
-				match(T__3);
-				setState(71);
+				setState(170);
+				match(T__5);
+				setState(171);
 				match(WS);
-				setState(72);
+				setState(172);
 				((ConditionContext)_localctx).value2 = match(INTEGERS);
 				}
 				break;
 			case 3:
 				enterOuterAlt(_localctx, 3);
 				{
-				setState(73);
+				setState(173);
 				match(WS);
-				setState(74);
-				match(STRING_FIELD);
-				setState(76);
+				setState(174);
+				match(DATE_FIELD);
+				setState(176);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(75);
+					setState(175);
 					match(WS);
 					}
 				}
 
-				setState(78);
+				setState(178);
 				((ConditionContext)_localctx).operator = _input.LT(1);
 				_la = _input.LA(1);
-				if ( !(_la==T__4 || _la==T__10) ) {
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 253952L) != 0)) ) {
 					((ConditionContext)_localctx).operator = (Token)_errHandler.recoverInline(this);
 				}
 				else {
@@ -457,54 +905,121 @@ public class EqlParser extends Parser {
 					_errHandler.reportMatch(this);
 					consume();
 				}
-				setState(80);
+				setState(180);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(79);
+					setState(179);
 					match(WS);
 					}
 				}
 
-				setState(82);
-				((ConditionContext)_localctx).value = match(STRING);
+				setState(182);
+				((ConditionContext)_localctx).value = match(INTEGERS);
 				}
 				break;
 			case 4:
 				enterOuterAlt(_localctx, 4);
 				{
-				setState(83);
+				setState(183);
+				match(WS);
+				setState(184);
+				match(DATE_FIELD);
+				setState(185);
+				match(WS);
+				setState(186);
+				match(T__17);
+				setState(187);
+				match(WS);
+				setState(188);
+				((ConditionContext)_localctx).value1 = match(INTEGERS);
+				setState(189);
+				match(WS);
+				setState(190);
+				match(T__5);
+				setState(191);
+				match(WS);
+				setState(192);
+				((ConditionContext)_localctx).value2 = match(INTEGERS);
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(193);
+				match(WS);
+				setState(194);
+				match(STRING_FIELD);
+				setState(196);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==WS) {
+					{
+					setState(195);
+					match(WS);
+					}
+				}
+
+				setState(198);
+				((ConditionContext)_localctx).operator = _input.LT(1);
+				_la = _input.LA(1);
+				if ( !(_la==T__12 || _la==T__18) ) {
+					((ConditionContext)_localctx).operator = (Token)_errHandler.recoverInline(this);
+				}
+				else {
+					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+					_errHandler.reportMatch(this);
+					consume();
+				}
+				setState(200);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==WS) {
+					{
+					setState(199);
+					match(WS);
+					}
+				}
+
+				setState(202);
+				((ConditionContext)_localctx).value = match(STRING);
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(203);
 				match(WS);
-				setState(84);
+				setState(204);
 				match(METADATA_FIELD);
-				setState(85);
+				setState(205);
 				match(WS);
-				setState(86);
+				setState(206);
 				((ConditionContext)_localctx).value1 = match(STRING);
-				setState(88);
+				setState(208);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(87);
+					setState(207);
 					match(WS);
 					}
 				}
 
-				setState(90);
-				match(T__4);
-				setState(92);
+				setState(210);
+				match(T__12);
+				setState(212);
 				_errHandler.sync(this);
 				_la = _input.LA(1);
 				if (_la==WS) {
 					{
-					setState(91);
+					setState(211);
 					match(WS);
 					}
 				}
 
-				setState(94);
+				setState(214);
 				((ConditionContext)_localctx).value2 = match(STRING);
 				}
 				break;
@@ -546,34 +1061,34 @@ public class EqlParser extends Parser {
 
 	public final OptionContext option() throws RecognitionException {
 		OptionContext _localctx = new OptionContext(_ctx, getState());
-		enterRule(_localctx, 6, RULE_option);
+		enterRule(_localctx, 12, RULE_option);
 		try {
-			setState(105);
+			setState(225);
 			_errHandler.sync(this);
-			switch ( getInterpreter().adaptivePredict(_input,14,_ctx) ) {
+			switch ( getInterpreter().adaptivePredict(_input,32,_ctx) ) {
 			case 1:
 				enterOuterAlt(_localctx, 1);
 				{
-				setState(97);
+				setState(217);
 				match(WS);
-				setState(98);
+				setState(218);
 				match(OPTION_FIELD);
-				setState(99);
+				setState(219);
 				match(WS);
-				setState(100);
+				setState(220);
 				((OptionContext)_localctx).value = match(INTEGERS);
 				}
 				break;
 			case 2:
 				enterOuterAlt(_localctx, 2);
 				{
-				setState(101);
+				setState(221);
 				match(WS);
-				setState(102);
+				setState(222);
 				match(OPTION_FIELD);
-				setState(103);
+				setState(223);
 				match(WS);
-				setState(104);
+				setState(224);
 				((OptionContext)_localctx).value = match(INTEGERS);
 				}
 				break;
@@ -590,6 +1105,54 @@ public class EqlParser extends Parser {
 		return _localctx;
 	}
 
+	@SuppressWarnings("CheckReturnValue")
+	public static class GroupContext extends ParserRuleContext {
+		public List<TerminalNode> WS() { return getTokens(EqlParser.WS); }
+		public TerminalNode WS(int i) {
+			return getToken(EqlParser.WS, i);
+		}
+		public TerminalNode STRING_FIELD() { return getToken(EqlParser.STRING_FIELD, 0); }
+		public GroupContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_group; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).enterGroup(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof EqlListener ) ((EqlListener)listener).exitGroup(this);
+		}
+	}
+
+	public final GroupContext group() throws RecognitionException {
+		GroupContext _localctx = new GroupContext(_ctx, getState());
+		enterRule(_localctx, 14, RULE_group);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(227);
+			match(WS);
+			setState(228);
+			match(T__19);
+			setState(229);
+			match(WS);
+			setState(230);
+			match(STRING_FIELD);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
 	@SuppressWarnings("CheckReturnValue")
 	public static class SortContext extends ParserRuleContext {
 		public List<TerminalNode> WS() { return getTokens(EqlParser.WS); }
@@ -615,18 +1178,18 @@ public class EqlParser extends Parser {
 
 	public final SortContext sort() throws RecognitionException {
 		SortContext _localctx = new SortContext(_ctx, getState());
-		enterRule(_localctx, 8, RULE_sort);
+		enterRule(_localctx, 16, RULE_sort);
 		int _la;
 		try {
 			enterOuterAlt(_localctx, 1);
 			{
-			setState(107);
+			setState(232);
 			match(WS);
-			setState(108);
-			match(T__11);
-			setState(109);
+			setState(233);
+			match(T__20);
+			setState(234);
 			match(WS);
-			setState(110);
+			setState(235);
 			_la = _input.LA(1);
 			if ( !(_la==NUMERIC_FIELD || _la==STRING_FIELD) ) {
 			_errHandler.recoverInline(this);
@@ -636,14 +1199,14 @@ public class EqlParser extends Parser {
 				_errHandler.reportMatch(this);
 				consume();
 			}
-			setState(113);
+			setState(238);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
 			if (_la==WS) {
 				{
-				setState(111);
+				setState(236);
 				match(WS);
-				setState(112);
+				setState(237);
 				match(SORT_ORDER_FIELD);
 				}
 			}
@@ -662,79 +1225,169 @@ public class EqlParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001\u0014t\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
-		"\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004\u0001"+
-		"\u0000\u0001\u0000\u0003\u0000\r\b\u0000\u0001\u0000\u0003\u0000\u0010"+
-		"\b\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0005\u0001\u0015\b\u0001"+
-		"\n\u0001\f\u0001\u0018\t\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0005\u0001\u001f\b\u0001\n\u0001\f\u0001\"\t\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0005\u0001"+
-		")\b\u0001\n\u0001\f\u0001,\t\u0001\u0001\u0001\u0005\u0001/\b\u0001\n"+
-		"\u0001\f\u00012\t\u0001\u0003\u00014\b\u0001\u0001\u0002\u0001\u0002\u0001"+
-		"\u0002\u0003\u00029\b\u0002\u0001\u0002\u0001\u0002\u0003\u0002=\b\u0002"+
-		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
+		"\u0004\u0001\u001e\u00f1\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001"+
+		"\u0002\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004\u0007\u0004"+
+		"\u0002\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007\u0007\u0007"+
+		"\u0002\b\u0007\b\u0001\u0000\u0003\u0000\u0014\b\u0000\u0001\u0000\u0001"+
+		"\u0000\u0003\u0000\u0018\b\u0000\u0001\u0000\u0003\u0000\u001b\b\u0000"+
+		"\u0001\u0000\u0001\u0000\u0003\u0000\u001f\b\u0000\u0003\u0000!\b\u0000"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0003\u0001&\b\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0002\u0001\u0002\u0001\u0002\u0005\u0002-\b\u0002"+
+		"\n\u0002\f\u00020\t\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
+		"\u0001\u0002\u0005\u00027\b\u0002\n\u0002\f\u0002:\t\u0002\u0001\u0002"+
+		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0005\u0002A\b\u0002"+
+		"\n\u0002\f\u0002D\t\u0002\u0001\u0002\u0005\u0002G\b\u0002\n\u0002\f\u0002"+
+		"J\t\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
+		"\u0001\u0002\u0005\u0002R\b\u0002\n\u0002\f\u0002U\t\u0002\u0001\u0002"+
 		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0003\u0002M\b\u0002\u0001\u0002\u0001\u0002"+
-		"\u0003\u0002Q\b\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002"+
-		"\u0001\u0002\u0001\u0002\u0003\u0002Y\b\u0002\u0001\u0002\u0001\u0002"+
-		"\u0003\u0002]\b\u0002\u0001\u0002\u0003\u0002`\b\u0002\u0001\u0003\u0001"+
-		"\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0003\u0001"+
-		"\u0003\u0003\u0003j\b\u0003\u0001\u0004\u0001\u0004\u0001\u0004\u0001"+
-		"\u0004\u0001\u0004\u0001\u0004\u0003\u0004r\b\u0004\u0001\u0004\u0000"+
-		"\u0000\u0005\u0000\u0002\u0004\u0006\b\u0000\u0003\u0001\u0000\u0005\t"+
-		"\u0002\u0000\u0005\u0005\u000b\u000b\u0002\u0000\u000e\u000e\u0010\u0010"+
-		"\u0082\u0000\n\u0001\u0000\u0000\u0000\u00023\u0001\u0000\u0000\u0000"+
-		"\u0004_\u0001\u0000\u0000\u0000\u0006i\u0001\u0000\u0000\u0000\bk\u0001"+
-		"\u0000\u0000\u0000\n\f\u0003\u0002\u0001\u0000\u000b\r\u0003\b\u0004\u0000"+
-		"\f\u000b\u0001\u0000\u0000\u0000\f\r\u0001\u0000\u0000\u0000\r\u000f\u0001"+
-		"\u0000\u0000\u0000\u000e\u0010\u0005\u0001\u0000\u0000\u000f\u000e\u0001"+
-		"\u0000\u0000\u0000\u000f\u0010\u0001\u0000\u0000\u0000\u0010\u0001\u0001"+
-		"\u0000\u0000\u0000\u00114\u0005\u0002\u0000\u0000\u0012\u0016\u0005\u0002"+
-		"\u0000\u0000\u0013\u0015\u0003\u0006\u0003\u0000\u0014\u0013\u0001\u0000"+
-		"\u0000\u0000\u0015\u0018\u0001\u0000\u0000\u0000\u0016\u0014\u0001\u0000"+
-		"\u0000\u0000\u0016\u0017\u0001\u0000\u0000\u0000\u00174\u0001\u0000\u0000"+
-		"\u0000\u0018\u0016\u0001\u0000\u0000\u0000\u0019\u001a\u0005\u0003\u0000"+
-		"\u0000\u001a \u0003\u0004\u0002\u0000\u001b\u001c\u0005\u0014\u0000\u0000"+
-		"\u001c\u001d\u0005\u0004\u0000\u0000\u001d\u001f\u0003\u0004\u0002\u0000"+
-		"\u001e\u001b\u0001\u0000\u0000\u0000\u001f\"\u0001\u0000\u0000\u0000 "+
-		"\u001e\u0001\u0000\u0000\u0000 !\u0001\u0000\u0000\u0000!4\u0001\u0000"+
-		"\u0000\u0000\" \u0001\u0000\u0000\u0000#$\u0005\u0003\u0000\u0000$*\u0003"+
-		"\u0004\u0002\u0000%&\u0005\u0014\u0000\u0000&\'\u0005\u0004\u0000\u0000"+
-		"\')\u0003\u0004\u0002\u0000(%\u0001\u0000\u0000\u0000),\u0001\u0000\u0000"+
-		"\u0000*(\u0001\u0000\u0000\u0000*+\u0001\u0000\u0000\u0000+0\u0001\u0000"+
-		"\u0000\u0000,*\u0001\u0000\u0000\u0000-/\u0003\u0006\u0003\u0000.-\u0001"+
-		"\u0000\u0000\u0000/2\u0001\u0000\u0000\u00000.\u0001\u0000\u0000\u0000"+
-		"01\u0001\u0000\u0000\u000014\u0001\u0000\u0000\u000020\u0001\u0000\u0000"+
-		"\u00003\u0011\u0001\u0000\u0000\u00003\u0012\u0001\u0000\u0000\u00003"+
-		"\u0019\u0001\u0000\u0000\u00003#\u0001\u0000\u0000\u00004\u0003\u0001"+
-		"\u0000\u0000\u000056\u0005\u0014\u0000\u000068\u0005\u000e\u0000\u0000"+
-		"79\u0005\u0014\u0000\u000087\u0001\u0000\u0000\u000089\u0001\u0000\u0000"+
-		"\u00009:\u0001\u0000\u0000\u0000:<\u0007\u0000\u0000\u0000;=\u0005\u0014"+
-		"\u0000\u0000<;\u0001\u0000\u0000\u0000<=\u0001\u0000\u0000\u0000=>\u0001"+
-		"\u0000\u0000\u0000>`\u0005\u0012\u0000\u0000?@\u0005\u0014\u0000\u0000"+
-		"@A\u0005\u000e\u0000\u0000AB\u0005\u0014\u0000\u0000BC\u0005\n\u0000\u0000"+
-		"CD\u0005\u0014\u0000\u0000DE\u0005\u0012\u0000\u0000EF\u0005\u0014\u0000"+
-		"\u0000FG\u0005\u0004\u0000\u0000GH\u0005\u0014\u0000\u0000H`\u0005\u0012"+
-		"\u0000\u0000IJ\u0005\u0014\u0000\u0000JL\u0005\u0010\u0000\u0000KM\u0005"+
-		"\u0014\u0000\u0000LK\u0001\u0000\u0000\u0000LM\u0001\u0000\u0000\u0000"+
-		"MN\u0001\u0000\u0000\u0000NP\u0007\u0001\u0000\u0000OQ\u0005\u0014\u0000"+
-		"\u0000PO\u0001\u0000\u0000\u0000PQ\u0001\u0000\u0000\u0000QR\u0001\u0000"+
-		"\u0000\u0000R`\u0005\u0013\u0000\u0000ST\u0005\u0014\u0000\u0000TU\u0005"+
-		"\r\u0000\u0000UV\u0005\u0014\u0000\u0000VX\u0005\u0013\u0000\u0000WY\u0005"+
-		"\u0014\u0000\u0000XW\u0001\u0000\u0000\u0000XY\u0001\u0000\u0000\u0000"+
-		"YZ\u0001\u0000\u0000\u0000Z\\\u0005\u0005\u0000\u0000[]\u0005\u0014\u0000"+
-		"\u0000\\[\u0001\u0000\u0000\u0000\\]\u0001\u0000\u0000\u0000]^\u0001\u0000"+
-		"\u0000\u0000^`\u0005\u0013\u0000\u0000_5\u0001\u0000\u0000\u0000_?\u0001"+
-		"\u0000\u0000\u0000_I\u0001\u0000\u0000\u0000_S\u0001\u0000\u0000\u0000"+
-		"`\u0005\u0001\u0000\u0000\u0000ab\u0005\u0014\u0000\u0000bc\u0005\u000f"+
-		"\u0000\u0000cd\u0005\u0014\u0000\u0000dj\u0005\u0012\u0000\u0000ef\u0005"+
-		"\u0014\u0000\u0000fg\u0005\u000f\u0000\u0000gh\u0005\u0014\u0000\u0000"+
-		"hj\u0005\u0012\u0000\u0000ia\u0001\u0000\u0000\u0000ie\u0001\u0000\u0000"+
-		"\u0000j\u0007\u0001\u0000\u0000\u0000kl\u0005\u0014\u0000\u0000lm\u0005"+
-		"\f\u0000\u0000mn\u0005\u0014\u0000\u0000nq\u0007\u0002\u0000\u0000op\u0005"+
-		"\u0014\u0000\u0000pr\u0005\u0011\u0000\u0000qo\u0001\u0000\u0000\u0000"+
-		"qr\u0001\u0000\u0000\u0000r\t\u0001\u0000\u0000\u0000\u0010\f\u000f\u0016"+
-		" *038<LPX\\_iq";
+		"\u0001\u0002\u0001\u0002\u0005\u0002`\b\u0002\n\u0002\f\u0002c\t\u0002"+
+		"\u0001\u0002\u0005\u0002f\b\u0002\n\u0002\f\u0002i\t\u0002\u0003\u0002"+
+		"k\b\u0002\u0001\u0003\u0001\u0003\u0003\u0003o\b\u0003\u0001\u0003\u0001"+
+		"\u0003\u0003\u0003s\b\u0003\u0001\u0003\u0005\u0003v\b\u0003\n\u0003\f"+
+		"\u0003y\t\u0003\u0001\u0004\u0001\u0004\u0003\u0004}\b\u0004\u0001\u0004"+
+		"\u0005\u0004\u0080\b\u0004\n\u0004\f\u0004\u0083\t\u0004\u0001\u0004\u0001"+
+		"\u0004\u0001\u0004\u0001\u0004\u0001\u0004\u0005\u0004\u008a\b\u0004\n"+
+		"\u0004\f\u0004\u008d\t\u0004\u0001\u0004\u0003\u0004\u0090\b\u0004\u0001"+
+		"\u0004\u0005\u0004\u0093\b\u0004\n\u0004\f\u0004\u0096\t\u0004\u0003\u0004"+
+		"\u0098\b\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u009d\b"+
+		"\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u00a1\b\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0003\u0005\u00b1\b\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u00b5"+
+		"\b\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u00c5\b\u0005\u0001\u0005\u0001"+
+		"\u0005\u0003\u0005\u00c9\b\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001"+
+		"\u0005\u0001\u0005\u0001\u0005\u0003\u0005\u00d1\b\u0005\u0001\u0005\u0001"+
+		"\u0005\u0003\u0005\u00d5\b\u0005\u0001\u0005\u0003\u0005\u00d8\b\u0005"+
+		"\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006"+
+		"\u0001\u0006\u0001\u0006\u0003\u0006\u00e2\b\u0006\u0001\u0007\u0001\u0007"+
+		"\u0001\u0007\u0001\u0007\u0001\u0007\u0001\b\u0001\b\u0001\b\u0001\b\u0001"+
+		"\b\u0001\b\u0003\b\u00ef\b\b\u0001\b\u0000\u0000\t\u0000\u0002\u0004\u0006"+
+		"\b\n\f\u000e\u0010\u0000\u0004\u0002\u0000\u0016\u0017\u001a\u001a\u0001"+
+		"\u0000\r\u0011\u0002\u0000\r\r\u0013\u0013\u0002\u0000\u0017\u0017\u001a"+
+		"\u001a\u0111\u0000 \u0001\u0000\u0000\u0000\u0002\"\u0001\u0000\u0000"+
+		"\u0000\u0004j\u0001\u0000\u0000\u0000\u0006l\u0001\u0000\u0000\u0000\b"+
+		"\u0097\u0001\u0000\u0000\u0000\n\u00d7\u0001\u0000\u0000\u0000\f\u00e1"+
+		"\u0001\u0000\u0000\u0000\u000e\u00e3\u0001\u0000\u0000\u0000\u0010\u00e8"+
+		"\u0001\u0000\u0000\u0000\u0012\u0014\u0003\u0002\u0001\u0000\u0013\u0012"+
+		"\u0001\u0000\u0000\u0000\u0013\u0014\u0001\u0000\u0000\u0000\u0014\u0015"+
+		"\u0001\u0000\u0000\u0000\u0015\u0017\u0003\u0004\u0002\u0000\u0016\u0018"+
+		"\u0003\u0010\b\u0000\u0017\u0016\u0001\u0000\u0000\u0000\u0017\u0018\u0001"+
+		"\u0000\u0000\u0000\u0018\u001a\u0001\u0000\u0000\u0000\u0019\u001b\u0005"+
+		"\u0001\u0000\u0000\u001a\u0019\u0001\u0000\u0000\u0000\u001a\u001b\u0001"+
+		"\u0000\u0000\u0000\u001b!\u0001\u0000\u0000\u0000\u001c\u001e\u0003\b"+
+		"\u0004\u0000\u001d\u001f\u0005\u0001\u0000\u0000\u001e\u001d\u0001\u0000"+
+		"\u0000\u0000\u001e\u001f\u0001\u0000\u0000\u0000\u001f!\u0001\u0000\u0000"+
+		"\u0000 \u0013\u0001\u0000\u0000\u0000 \u001c\u0001\u0000\u0000\u0000!"+
+		"\u0001\u0001\u0000\u0000\u0000\"%\u0005\u0002\u0000\u0000#$\u0005\u001e"+
+		"\u0000\u0000$&\u0005\u0003\u0000\u0000%#\u0001\u0000\u0000\u0000%&\u0001"+
+		"\u0000\u0000\u0000&\'\u0001\u0000\u0000\u0000\'(\u0005\u001e\u0000\u0000"+
+		"(\u0003\u0001\u0000\u0000\u0000)k\u0005\u0004\u0000\u0000*.\u0005\u0004"+
+		"\u0000\u0000+-\u0003\f\u0006\u0000,+\u0001\u0000\u0000\u0000-0\u0001\u0000"+
+		"\u0000\u0000.,\u0001\u0000\u0000\u0000./\u0001\u0000\u0000\u0000/k\u0001"+
+		"\u0000\u0000\u00000.\u0001\u0000\u0000\u000012\u0005\u0005\u0000\u0000"+
+		"28\u0003\n\u0005\u000034\u0005\u001e\u0000\u000045\u0005\u0006\u0000\u0000"+
+		"57\u0003\n\u0005\u000063\u0001\u0000\u0000\u00007:\u0001\u0000\u0000\u0000"+
+		"86\u0001\u0000\u0000\u000089\u0001\u0000\u0000\u00009k\u0001\u0000\u0000"+
+		"\u0000:8\u0001\u0000\u0000\u0000;<\u0005\u0005\u0000\u0000<B\u0003\n\u0005"+
+		"\u0000=>\u0005\u001e\u0000\u0000>?\u0005\u0006\u0000\u0000?A\u0003\n\u0005"+
+		"\u0000@=\u0001\u0000\u0000\u0000AD\u0001\u0000\u0000\u0000B@\u0001\u0000"+
+		"\u0000\u0000BC\u0001\u0000\u0000\u0000CH\u0001\u0000\u0000\u0000DB\u0001"+
+		"\u0000\u0000\u0000EG\u0003\f\u0006\u0000FE\u0001\u0000\u0000\u0000GJ\u0001"+
+		"\u0000\u0000\u0000HF\u0001\u0000\u0000\u0000HI\u0001\u0000\u0000\u0000"+
+		"Ik\u0001\u0000\u0000\u0000JH\u0001\u0000\u0000\u0000KL\u0005\u0007\u0000"+
+		"\u0000LM\u0005\u001e\u0000\u0000MN\u0003\u0006\u0003\u0000NO\u0005\u001e"+
+		"\u0000\u0000OS\u0005\b\u0000\u0000PR\u0003\f\u0006\u0000QP\u0001\u0000"+
+		"\u0000\u0000RU\u0001\u0000\u0000\u0000SQ\u0001\u0000\u0000\u0000ST\u0001"+
+		"\u0000\u0000\u0000Tk\u0001\u0000\u0000\u0000US\u0001\u0000\u0000\u0000"+
+		"VW\u0005\u0007\u0000\u0000WX\u0005\u001e\u0000\u0000XY\u0003\u0006\u0003"+
+		"\u0000YZ\u0005\u001e\u0000\u0000Z[\u0005\t\u0000\u0000[a\u0003\n\u0005"+
+		"\u0000\\]\u0005\u001e\u0000\u0000]^\u0005\u0006\u0000\u0000^`\u0003\n"+
+		"\u0005\u0000_\\\u0001\u0000\u0000\u0000`c\u0001\u0000\u0000\u0000a_\u0001"+
+		"\u0000\u0000\u0000ab\u0001\u0000\u0000\u0000bg\u0001\u0000\u0000\u0000"+
+		"ca\u0001\u0000\u0000\u0000df\u0003\f\u0006\u0000ed\u0001\u0000\u0000\u0000"+
+		"fi\u0001\u0000\u0000\u0000ge\u0001\u0000\u0000\u0000gh\u0001\u0000\u0000"+
+		"\u0000hk\u0001\u0000\u0000\u0000ig\u0001\u0000\u0000\u0000j)\u0001\u0000"+
+		"\u0000\u0000j*\u0001\u0000\u0000\u0000j1\u0001\u0000\u0000\u0000j;\u0001"+
+		"\u0000\u0000\u0000jK\u0001\u0000\u0000\u0000jV\u0001\u0000\u0000\u0000"+
+		"k\u0005\u0001\u0000\u0000\u0000lw\u0007\u0000\u0000\u0000mo\u0005\u001e"+
+		"\u0000\u0000nm\u0001\u0000\u0000\u0000no\u0001\u0000\u0000\u0000op\u0001"+
+		"\u0000\u0000\u0000pr\u0005\n\u0000\u0000qs\u0005\u001e\u0000\u0000rq\u0001"+
+		"\u0000\u0000\u0000rs\u0001\u0000\u0000\u0000st\u0001\u0000\u0000\u0000"+
+		"tv\u0007\u0000\u0000\u0000un\u0001\u0000\u0000\u0000vy\u0001\u0000\u0000"+
+		"\u0000wu\u0001\u0000\u0000\u0000wx\u0001\u0000\u0000\u0000x\u0007\u0001"+
+		"\u0000\u0000\u0000yw\u0001\u0000\u0000\u0000z|\u0005\u000b\u0000\u0000"+
+		"{}\u0003\u000e\u0007\u0000|{\u0001\u0000\u0000\u0000|}\u0001\u0000\u0000"+
+		"\u0000}\u0081\u0001\u0000\u0000\u0000~\u0080\u0003\f\u0006\u0000\u007f"+
+		"~\u0001\u0000\u0000\u0000\u0080\u0083\u0001\u0000\u0000\u0000\u0081\u007f"+
+		"\u0001\u0000\u0000\u0000\u0081\u0082\u0001\u0000\u0000\u0000\u0082\u0098"+
+		"\u0001\u0000\u0000\u0000\u0083\u0081\u0001\u0000\u0000\u0000\u0084\u0085"+
+		"\u0005\f\u0000\u0000\u0085\u008b\u0003\n\u0005\u0000\u0086\u0087\u0005"+
+		"\u001e\u0000\u0000\u0087\u0088\u0005\u0006\u0000\u0000\u0088\u008a\u0003"+
+		"\n\u0005\u0000\u0089\u0086\u0001\u0000\u0000\u0000\u008a\u008d\u0001\u0000"+
+		"\u0000\u0000\u008b\u0089\u0001\u0000\u0000\u0000\u008b\u008c\u0001\u0000"+
+		"\u0000\u0000\u008c\u008f\u0001\u0000\u0000\u0000\u008d\u008b\u0001\u0000"+
+		"\u0000\u0000\u008e\u0090\u0003\u000e\u0007\u0000\u008f\u008e\u0001\u0000"+
+		"\u0000\u0000\u008f\u0090\u0001\u0000\u0000\u0000\u0090\u0094\u0001\u0000"+
+		"\u0000\u0000\u0091\u0093\u0003\f\u0006\u0000\u0092\u0091\u0001\u0000\u0000"+
+		"\u0000\u0093\u0096\u0001\u0000\u0000\u0000\u0094\u0092\u0001\u0000\u0000"+
+		"\u0000\u0094\u0095\u0001\u0000\u0000\u0000\u0095\u0098\u0001\u0000\u0000"+
+		"\u0000\u0096\u0094\u0001\u0000\u0000\u0000\u0097z\u0001\u0000\u0000\u0000"+
+		"\u0097\u0084\u0001\u0000\u0000\u0000\u0098\t\u0001\u0000\u0000\u0000\u0099"+
+		"\u009a\u0005\u001e\u0000\u0000\u009a\u009c\u0005\u0017\u0000\u0000\u009b"+
+		"\u009d\u0005\u001e\u0000\u0000\u009c\u009b\u0001\u0000\u0000\u0000\u009c"+
+		"\u009d\u0001\u0000\u0000\u0000\u009d\u009e\u0001\u0000\u0000\u0000\u009e"+
+		"\u00a0\u0007\u0001\u0000\u0000\u009f\u00a1\u0005\u001e\u0000\u0000\u00a0"+
+		"\u009f\u0001\u0000\u0000\u0000\u00a0\u00a1\u0001\u0000\u0000\u0000\u00a1"+
+		"\u00a2\u0001\u0000\u0000\u0000\u00a2\u00d8\u0005\u001c\u0000\u0000\u00a3"+
+		"\u00a4\u0005\u001e\u0000\u0000\u00a4\u00a5\u0005\u0017\u0000\u0000\u00a5"+
+		"\u00a6\u0005\u001e\u0000\u0000\u00a6\u00a7\u0005\u0012\u0000\u0000\u00a7"+
+		"\u00a8\u0005\u001e\u0000\u0000\u00a8\u00a9\u0005\u001c\u0000\u0000\u00a9"+
+		"\u00aa\u0005\u001e\u0000\u0000\u00aa\u00ab\u0005\u0006\u0000\u0000\u00ab"+
+		"\u00ac\u0005\u001e\u0000\u0000\u00ac\u00d8\u0005\u001c\u0000\u0000\u00ad"+
+		"\u00ae\u0005\u001e\u0000\u0000\u00ae\u00b0\u0005\u0018\u0000\u0000\u00af"+
+		"\u00b1\u0005\u001e\u0000\u0000\u00b0\u00af\u0001\u0000\u0000\u0000\u00b0"+
+		"\u00b1\u0001\u0000\u0000\u0000\u00b1\u00b2\u0001\u0000\u0000\u0000\u00b2"+
+		"\u00b4\u0007\u0001\u0000\u0000\u00b3\u00b5\u0005\u001e\u0000\u0000\u00b4"+
+		"\u00b3\u0001\u0000\u0000\u0000\u00b4\u00b5\u0001\u0000\u0000\u0000\u00b5"+
+		"\u00b6\u0001\u0000\u0000\u0000\u00b6\u00d8\u0005\u001c\u0000\u0000\u00b7"+
+		"\u00b8\u0005\u001e\u0000\u0000\u00b8\u00b9\u0005\u0018\u0000\u0000\u00b9"+
+		"\u00ba\u0005\u001e\u0000\u0000\u00ba\u00bb\u0005\u0012\u0000\u0000\u00bb"+
+		"\u00bc\u0005\u001e\u0000\u0000\u00bc\u00bd\u0005\u001c\u0000\u0000\u00bd"+
+		"\u00be\u0005\u001e\u0000\u0000\u00be\u00bf\u0005\u0006\u0000\u0000\u00bf"+
+		"\u00c0\u0005\u001e\u0000\u0000\u00c0\u00d8\u0005\u001c\u0000\u0000\u00c1"+
+		"\u00c2\u0005\u001e\u0000\u0000\u00c2\u00c4\u0005\u001a\u0000\u0000\u00c3"+
+		"\u00c5\u0005\u001e\u0000\u0000\u00c4\u00c3\u0001\u0000\u0000\u0000\u00c4"+
+		"\u00c5\u0001\u0000\u0000\u0000\u00c5\u00c6\u0001\u0000\u0000\u0000\u00c6"+
+		"\u00c8\u0007\u0002\u0000\u0000\u00c7\u00c9\u0005\u001e\u0000\u0000\u00c8"+
+		"\u00c7\u0001\u0000\u0000\u0000\u00c8\u00c9\u0001\u0000\u0000\u0000\u00c9"+
+		"\u00ca\u0001\u0000\u0000\u0000\u00ca\u00d8\u0005\u001d\u0000\u0000\u00cb"+
+		"\u00cc\u0005\u001e\u0000\u0000\u00cc\u00cd\u0005\u0016\u0000\u0000\u00cd"+
+		"\u00ce\u0005\u001e\u0000\u0000\u00ce\u00d0\u0005\u001d\u0000\u0000\u00cf"+
+		"\u00d1\u0005\u001e\u0000\u0000\u00d0\u00cf\u0001\u0000\u0000\u0000\u00d0"+
+		"\u00d1\u0001\u0000\u0000\u0000\u00d1\u00d2\u0001\u0000\u0000\u0000\u00d2"+
+		"\u00d4\u0005\r\u0000\u0000\u00d3\u00d5\u0005\u001e\u0000\u0000\u00d4\u00d3"+
+		"\u0001\u0000\u0000\u0000\u00d4\u00d5\u0001\u0000\u0000\u0000\u00d5\u00d6"+
+		"\u0001\u0000\u0000\u0000\u00d6\u00d8\u0005\u001d\u0000\u0000\u00d7\u0099"+
+		"\u0001\u0000\u0000\u0000\u00d7\u00a3\u0001\u0000\u0000\u0000\u00d7\u00ad"+
+		"\u0001\u0000\u0000\u0000\u00d7\u00b7\u0001\u0000\u0000\u0000\u00d7\u00c1"+
+		"\u0001\u0000\u0000\u0000\u00d7\u00cb\u0001\u0000\u0000\u0000\u00d8\u000b"+
+		"\u0001\u0000\u0000\u0000\u00d9\u00da\u0005\u001e\u0000\u0000\u00da\u00db"+
+		"\u0005\u0019\u0000\u0000\u00db\u00dc\u0005\u001e\u0000\u0000\u00dc\u00e2"+
+		"\u0005\u001c\u0000\u0000\u00dd\u00de\u0005\u001e\u0000\u0000\u00de\u00df"+
+		"\u0005\u0019\u0000\u0000\u00df\u00e0\u0005\u001e\u0000\u0000\u00e0\u00e2"+
+		"\u0005\u001c\u0000\u0000\u00e1\u00d9\u0001\u0000\u0000\u0000\u00e1\u00dd"+
+		"\u0001\u0000\u0000\u0000\u00e2\r\u0001\u0000\u0000\u0000\u00e3\u00e4\u0005"+
+		"\u001e\u0000\u0000\u00e4\u00e5\u0005\u0014\u0000\u0000\u00e5\u00e6\u0005"+
+		"\u001e\u0000\u0000\u00e6\u00e7\u0005\u001a\u0000\u0000\u00e7\u000f\u0001"+
+		"\u0000\u0000\u0000\u00e8\u00e9\u0005\u001e\u0000\u0000\u00e9\u00ea\u0005"+
+		"\u0015\u0000\u0000\u00ea\u00eb\u0005\u001e\u0000\u0000\u00eb\u00ee\u0007"+
+		"\u0003\u0000\u0000\u00ec\u00ed\u0005\u001e\u0000\u0000\u00ed\u00ef\u0005"+
+		"\u001b\u0000\u0000\u00ee\u00ec\u0001\u0000\u0000\u0000\u00ee\u00ef\u0001"+
+		"\u0000\u0000\u0000\u00ef\u0011\u0001\u0000\u0000\u0000\"\u0013\u0017\u001a"+
+		"\u001e %.8BHSagjnrw|\u0081\u008b\u008f\u0094\u0097\u009c\u00a0\u00b0\u00b4"+
+		"\u00c4\u00c8\u00d0\u00d4\u00d7\u00e1\u00ee";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
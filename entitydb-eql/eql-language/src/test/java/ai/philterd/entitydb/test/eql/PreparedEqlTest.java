@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.test.eql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.PreparedEql;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+
+public class PreparedEqlTest {
+
+	@Test
+	public void bind() throws Exception {
+		
+		PreparedEql preparedEql = PreparedEql.prepare("select * from entities where text = ? and context = ? and confidence > 50 limit 10");
+		
+		assertEquals(2, preparedEql.getParameterCount());
+		
+		EntityQuery entityQuery1 = preparedEql.bind(Arrays.asList("George Washington", "context1"));
+		EntityQuery entityQuery2 = preparedEql.bind(Arrays.asList("John Adams", "context2"));
+		
+		assertEquals("George Washington", entityQuery1.getText());
+		assertEquals("context1", entityQuery1.getContext());
+		assertEquals("John Adams", entityQuery2.getText());
+		assertEquals("context2", entityQuery2.getContext());
+		assertEquals(0.51, entityQuery2.getConfidenceRange().getMinimum(), 0);
+		assertEquals(10, entityQuery2.getLimit());
+		assertNull(entityQuery2.getType());
+		
+	}
+	
+	@Test
+	public void bindNotAndMetadata() throws Exception {
+		
+		PreparedEql preparedEql = PreparedEql.prepare("select * from entities where type != ? and metadata \"key\" = ? and text = \"wash?ngton\"");
+		
+		EntityQuery entityQuery = preparedEql.bind(Arrays.asList("place", "value"));
+		
+		assertEquals("place", entityQuery.getNotType());
+		assertEquals("key", entityQuery.getEntityMetadataFilters().get(0).getName());
+		assertEquals("value", entityQuery.getEntityMetadataFilters().get(0).getValue());
+		
+		// A question mark in a quoted value is not a parameter.
+		assertEquals("wash?ngton", entityQuery.getText());
+		
+	}
+	
+	@Test
+	public void noParameters() throws Exception {
+		
+		PreparedEql preparedEql = PreparedEql.prepare("select * from entities");
+		
+		assertEquals(0, preparedEql.getParameterCount());
+		assertEquals(25, preparedEql.bind(Collections.<String>emptyList()).getLimit());
+		
+	}
+	
+	@Test(expected = QueryGenerationException.class)
+	public void wrongNumberOfValues() throws Exception {
+		
+		PreparedEql.prepare("select * from entities where text = ?").bind(Arrays.asList("a", "b"));
+		
+	}
+	
+	@Test(expected = QueryGenerationException.class)
+	public void numericParameter() throws Exception {
+		
+		PreparedEql.prepare("select * from entities where confidence > ?");
+		
+	}
+	
+}
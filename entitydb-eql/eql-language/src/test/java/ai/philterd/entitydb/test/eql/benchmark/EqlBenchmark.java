@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.test.eql.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+
+/**
+ * Measures the time taken to generate an {@link EntityQuery} from an
+ * EQL statement when the statement is parsed and when it is cached.
+ * 
+ * Run with <code>mvn test-compile</code> and then the <code>main</code>
+ * method with the module's test classpath. Add <code>-prof gc</code>
+ * to the JMH options to also measure the allocations.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EqlBenchmark {
+	
+	@Param({
+		"select * from entities",
+		"select * from entities where type = \"person\" and confidence > 50 order by text asc",
+		"select * from entities where text = \"George Washington\" and context = \"context\" and documentid = \"document\" and metadata \"key\" = \"value\" limit 10 offset 20"
+	})
+	private String eql;
+	
+	@Benchmark
+	public EntityQuery parse() throws Exception {
+		
+		Eql.clearCache();
+		
+		return Eql.generate(eql);
+		
+	}
+	
+	@Benchmark
+	public EntityQuery cached() throws Exception {
+		
+		return Eql.generate(eql);
+		
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		
+		new Runner(new OptionsBuilder().include(EqlBenchmark.class.getSimpleName()).build()).run();
+		
+	}
+	
+}
@@ -19,7 +19,10 @@ package ai.philterd.entitydb.test.eql.model.test;
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.eql.EntityGroup;
 import ai.philterd.entitydb.model.eql.EntityOrder;
 import ai.philterd.entitydb.model.eql.SortOrder;
 import org.apache.commons.lang3.StringUtils;
@@ -485,6 +488,69 @@ public class EntityQueryTest {
 
 		}
 
+		@Test
+		public void extractionDate1() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select * from entities where extractiondate between 1500000000000 and 1600000000000");
+
+			assertNotNull(entityQuery.getExtractionDateRange());
+			assertEquals(1500000000000L, entityQuery.getExtractionDateRange().getMinimum());
+			assertEquals(1600000000000L, entityQuery.getExtractionDateRange().getMaximum());
+			assertNull(entityQuery.getTimeRange());
+
+		}
+
+		@Test
+		public void extractionDate2() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select * from entities where extractiondate > 1500000000000 and type = \"person\"");
+
+			assertEquals(1500000000001L, entityQuery.getExtractionDateRange().getMinimum());
+			assertEquals(Long.MAX_VALUE, entityQuery.getExtractionDateRange().getMaximum());
+			assertEquals("person", entityQuery.getType());
+
+		}
+
+		@Test
+		public void time() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select * from entities where time <= 1600000000000 and extractiondate = 1500000000000");
+
+			assertEquals(Long.MIN_VALUE, entityQuery.getTimeRange().getMinimum());
+			assertEquals(1600000000000L, entityQuery.getTimeRange().getMaximum());
+			assertEquals(1500000000000L, entityQuery.getExtractionDateRange().getMinimum());
+			assertEquals(1500000000000L, entityQuery.getExtractionDateRange().getMaximum());
+
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void extractionDateMinGreaterThanMax() throws Exception {
+
+			Eql.generate("select * from entities where extractiondate between 1600000000000 and 1500000000000");
+
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void timeOutOfRange() throws Exception {
+
+			Eql.generate("select * from entities where time > 99999999999999999999");
+
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void timeGreaterThanMaximum() throws Exception {
+
+			Eql.generate("select * from entities where time > " + Long.MAX_VALUE);
+
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void confidenceMinGreaterThanMax() throws Exception {
+
+			Eql.generate("select * from entities where confidence between 80 and 20");
+
+		}
+
 		@Test
 		public void context() throws Exception {
 
@@ -539,5 +605,110 @@ public class EntityQueryTest {
 
 		}
 
+		@Test
+		public void normalize() throws Exception {
+
+			assertEquals("select * from entities where text = \"George  Washington\" limit 10",
+					Eql.normalize("  select  *\tfrom entities  where text =  \"George  Washington\"\n limit 10 "));
+
+		}
+
+		@Test
+		public void whitespace() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select *  from entities where  text = \"George  Washington\"   limit 10");
+
+			assertEquals("George  Washington", entityQuery.getText());
+			assertEquals(10, entityQuery.getLimit());
+
+		}
+
+		@Test
+		public void cachedCopy() throws Exception {
+
+			final String eql = "select * from entities where type = \"person\" and metadata \"key\" = \"value\"";
+
+			EntityQuery entityQuery1 = Eql.generate(eql);
+			entityQuery1.setType("place");
+			entityQuery1.setLimit(5);
+			entityQuery1.getEntityMetadataFilters().get(0).setValue("changed");
+
+			// Changes to a generated query do not change the cached query.
+			EntityQuery entityQuery2 = Eql.generate(eql);
+
+			assertEquals("person", entityQuery2.getType());
+			assertEquals(25, entityQuery2.getLimit());
+			assertEquals("value", entityQuery2.getEntityMetadataFilters().get(0).getValue());
+
+		}
+
+		@Test
+		public void count() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select count(*) from entities where type = \"person\"");
+
+			assertTrue(entityQuery.isCount());
+			assertEquals("person", entityQuery.getType());
+			assertNull(entityQuery.getEntityGroup());
+
+		}
+
+		@Test
+		public void countGroupBy() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select count(*) from entities where confidence > 50 group by context limit 10");
+
+			assertTrue(entityQuery.isCount());
+			assertEquals(EntityGroup.CONTEXT, entityQuery.getEntityGroup());
+			assertEquals(10, entityQuery.getLimit());
+
+			entityQuery = Eql.generate("select count(*) from entities group by language");
+
+			assertEquals(EntityGroup.LANGUAGE, entityQuery.getEntityGroup());
+			assertFalse(Eql.generate("select * from entities").isCount());
+
+		}
+
+		@Test(expected = IllegalStateException.class)
+		public void countGroupByText() throws Exception {
+
+			Eql.generate("select count(*) from entities group by text");
+
+		}
+
+		@Test
+		public void explain() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("explain select * from entities where type = \"person\" order by text asc");
+
+			assertTrue(entityQuery.isExplain());
+			assertFalse(entityQuery.isProfile());
+			assertEquals("person", entityQuery.getType());
+			assertEquals(EntityOrder.TEXT, entityQuery.getEntityOrder());
+
+			entityQuery = Eql.generate("explain profile select * from entities");
+
+			assertTrue(entityQuery.isExplain());
+			assertTrue(entityQuery.isProfile());
+			assertFalse(Eql.generate("select * from entities").isExplain());
+
+		}
+
+		@Test
+		public void projection() throws Exception {
+
+			EntityQuery entityQuery = Eql.generate("select text, type,confidence , language from entities where type = \"person\" limit 5");
+
+			assertEquals(Arrays.asList("text", "type", "confidence", "languageCode"), entityQuery.getFields());
+			assertEquals("person", entityQuery.getType());
+			assertEquals(5, entityQuery.getLimit());
+
+			entityQuery = Eql.generate("select id, documentid from entities");
+
+			assertEquals(Arrays.asList("entityId", "documentId"), entityQuery.getFields());
+			assertNull(Eql.generate("select * from entities").getFields());
+
+		}
+
 	}
 }
@@ -21,7 +21,9 @@
 package ai.philterd.entitydb.driver;
 
 import java.util.Collection;
+import java.util.List;
 
+import ai.philterd.entitydb.driver.model.PreparedQuery;
 import ai.philterd.entitydb.driver.model.QueryResult;
 import ai.philterd.entitydb.model.entity.Entity;
 
@@ -29,7 +31,9 @@ import retrofit.client.Response;
 import retrofit.http.Body;
 import retrofit.http.GET;
 import retrofit.http.POST;
+import retrofit.http.Path;
 import retrofit.http.Query;
+import retrofit.mime.TypedString;
 
 public interface EntityDb {
 	
@@ -42,4 +46,22 @@ public interface EntityDb {
 	public QueryResult eql(
 			@Query("query") String query);			
 	
+	@GET("/api/eql")
+	public QueryResult page(
+			@Query("query") String query,
+			@Query("cursor") String cursor);
+	
+	@POST("/api/eql/batch")
+	public List<QueryResult> eql(
+			@Body List<String> queries);
+	
+	@POST("/api/eql/prepared")
+	public PreparedQuery prepare(
+			@Body TypedString query);
+	
+	@POST("/api/eql/prepared/{id}")
+	public QueryResult execute(
+			@Path("id") String id,
+			@Body List<String> parameters);
+	
 }
\ No newline at end of file
@@ -20,9 +20,16 @@
  */
 package ai.philterd.entitydb.driver;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
+import ai.philterd.entitydb.driver.model.IndexedEntity;
+import ai.philterd.entitydb.driver.model.PreparedQuery;
 import ai.philterd.entitydb.driver.model.QueryResult;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -36,6 +43,7 @@ import retrofit.RestAdapter;
 import retrofit.RetrofitError;
 import retrofit.client.OkClient;
 import retrofit.client.Response;
+import retrofit.mime.TypedString;
 
 public class EntityDbClient implements EntityDb {
 	
@@ -118,5 +126,198 @@ public class EntityDbClient implements EntityDb {
 		}
 		
 	}
+	
+	/**
+	 * Executes the next page of an EQL query.
+	 * @param query The EQL query.
+	 * @param cursor The {@link QueryResult#getNextCursor() cursor} returned with the previous page.
+	 * @return The {@link QueryResult result}. Its cursor is <code>null</code> on the last page.
+	 * @throws EntityDbClientException Thrown if the query cannot be executed.
+	 */
+	@Override
+	public QueryResult page(String query, String cursor) throws EntityDbClientException {
+		
+		try {
+		
+			return entityDbApi.page(query, cursor);
+		
+		} catch (RetrofitError ex) {
+			
+			LOGGER.error("Unable to execute EQL query: " + ex.getMessage(), ex.getCause());
+			
+			throw new EntityDbClientException("Unable to execute EQL query: " + ex.getMessage())
+				.withHttpResponseCode(ex.getResponse().getStatus());
+			
+		}
+		
+	}
+	
+	/**
+	 * Iterates over all of the entities of an EQL query. The pages are executed
+	 * as they are needed by following each page's {@link QueryResult#getNextCursor() cursor},
+	 * and the query's <code>limit</code> is the size of a page.
+	 * 
+	 * The pages after the first are only complete once the search index has been
+	 * reindexed with the unanalyzed <code>entityId.raw</code> field. The entities
+	 * indexed before that field existed are returned on the first page but not
+	 * after a cursor. EntityDB reindexes them on startup.
+	 * @param query The EQL query.
+	 * @return The {@link IndexedEntity entities}. Each iterator executes the query from its first page.
+	 * The iterator throws an {@link EntityDbClientException} if a page cannot be executed.
+	 */
+	public Iterable<IndexedEntity> iterate(final String query) {
+		
+		return () -> new PageIterator(query);
+		
+	}
+	
+	/**
+	 * Executes EQL queries together with a single request.
+	 * @param queries The EQL queries.
+	 * @return The {@link QueryResult results} in the order of the queries.
+	 * @throws EntityDbClientException Thrown if the queries cannot be executed.
+	 */
+	public List<QueryResult> eql(String... queries) throws EntityDbClientException {
+		
+		return eql(Arrays.asList(queries));
+		
+	}
+	
+	@Override
+	public List<QueryResult> eql(List<String> queries) throws EntityDbClientException {
+		
+		try {
+		
+			return entityDbApi.eql(queries);
+		
+		} catch (RetrofitError ex) {
+			
+			LOGGER.error("Unable to execute EQL queries: " + ex.getMessage(), ex.getCause());
+			
+			throw new EntityDbClientException("Unable to execute EQL queries: " + ex.getMessage())
+				.withHttpResponseCode(ex.getResponse().getStatus());
+			
+		}
+		
+	}
+	
+	/**
+	 * Prepares an EQL query having parameters. Each <code>?</code> outside
+	 * of a quoted value is a parameter that takes the place of a string value.
+	 * @param query The EQL query.
+	 * @return The {@link PreparedQuery prepared query}.
+	 * @throws EntityDbClientException Thrown if the query cannot be prepared.
+	 */
+	public PreparedQuery prepare(String query) throws EntityDbClientException {
+		
+		return prepare(new TypedString(query));
+		
+	}
+	
+	@Override
+	public PreparedQuery prepare(TypedString query) throws EntityDbClientException {
+		
+		try {
+		
+			return entityDbApi.prepare(query);
+		
+		} catch (RetrofitError ex) {
+			
+			LOGGER.error("Unable to prepare EQL query: " + ex.getMessage(), ex.getCause());
+			
+			throw new EntityDbClientException("Unable to prepare EQL query: " + ex.getMessage())
+				.withHttpResponseCode(ex.getResponse().getStatus());
+			
+		}
+		
+	}
+	
+	/**
+	 * Executes a prepared EQL query.
+	 * @param preparedQuery The {@link PreparedQuery prepared query}.
+	 * @param parameters The values of the parameters in the order the parameters appear in the query.
+	 * @return The {@link QueryResult result}.
+	 * @throws EntityDbClientException Thrown if the query cannot be executed. A response code
+	 * of <code>404</code> means the prepared query no longer exists and must be prepared again.
+	 */
+	public QueryResult execute(PreparedQuery preparedQuery, String... parameters) throws EntityDbClientException {
+		
+		return execute(preparedQuery.getId(), Arrays.asList(parameters));
+		
+	}
+	
+	@Override
+	public QueryResult execute(String id, List<String> parameters) throws EntityDbClientException {
+		
+		try {
+		
+			return entityDbApi.execute(id, parameters);
+		
+		} catch (RetrofitError ex) {
+			
+			LOGGER.error("Unable to execute prepared EQL query: " + ex.getMessage(), ex.getCause());
+			
+			throw new EntityDbClientException("Unable to execute prepared EQL query: " + ex.getMessage())
+				.withHttpResponseCode(ex.getResponse().getStatus());
+			
+		}
+		
+	}
+	
+	/**
+	 * Iterates over the entities of a query's pages, executing the next page
+	 * when the entities of the current page have been returned.
+	 */
+	private class PageIterator implements Iterator<IndexedEntity> {
+		
+		private final String query;
+		
+		private Iterator<IndexedEntity> entities = Collections.emptyIterator();
+		private String cursor;
+		private boolean executed;
+		
+		private PageIterator(String query) {
+			
+			this.query = query;
+			
+		}
+		
+		@Override
+		public boolean hasNext() {
+			
+			// A page can be empty even if it has a cursor.
+			while(!entities.hasNext()) {
+				
+				if(executed && cursor == null) {
+					return false;
+				}
+				
+				final QueryResult queryResult = executed ? page(query, cursor) : eql(query);
+				
+				executed = true;
+				cursor = queryResult.getNextCursor();
+				
+				if(queryResult.getEntities() != null) {
+					entities = queryResult.getEntities().iterator();
+				}
+				
+			}
+			
+			return true;
+			
+		}
+		
+		@Override
+		public IndexedEntity next() {
+			
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			
+			return entities.next();
+			
+		}
+		
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.driver.model;
+
+import java.util.Map;
+
+/**
+ * The counts of the entities matching a
+ * <code>select count(*)</code> query.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class AggregationResult {
+
+	private long count;
+	private long distinct;
+	private Map<String, Long> groups;
+
+	/**
+	 * Gets the number of matching entities.
+	 * @return The number of matching entities.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Sets the number of matching entities.
+	 * @param count The number of matching entities.
+	 */
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	/**
+	 * Gets the approximate number of distinct values of the grouped field.
+	 * @return The number of distinct values, or <code>-1</code> if the entities are not grouped.
+	 */
+	public long getDistinct() {
+		return distinct;
+	}
+
+	/**
+	 * Sets the approximate number of distinct values of the grouped field.
+	 * @param distinct The number of distinct values.
+	 */
+	public void setDistinct(long distinct) {
+		this.distinct = distinct;
+	}
+
+	/**
+	 * Gets the number of matching entities for each value of the grouped field.
+	 * @return A map of the grouped field's values to the counts, or <code>null</code>
+	 * if the entities are not grouped.
+	 */
+	public Map<String, Long> getGroups() {
+		return groups;
+	}
+
+	/**
+	 * Sets the number of matching entities for each value of the grouped field.
+	 * @param groups A map of the grouped field's values to the counts.
+	 */
+	public void setGroups(Map<String, Long> groups) {
+		this.groups = groups;
+	}
+
+}
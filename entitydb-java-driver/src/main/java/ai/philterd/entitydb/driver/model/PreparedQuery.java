@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.driver.model;
+
+/**
+ * A prepared EQL query. A prepared query is executed
+ * by its ID with values for its parameters.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class PreparedQuery {
+
+	private String id;
+	private String query;
+	private int parameters;
+	
+	/**
+	 * Gets the ID of the prepared query.
+	 * @return The ID of the prepared query.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * Sets the ID of the prepared query.
+	 * @param id The ID of the prepared query.
+	 */
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	/**
+	 * Gets the normalized query.
+	 * @return The normalized query.
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * Sets the normalized query.
+	 * @param query The normalized query.
+	 */
+	public void setQuery(String query) {
+		this.query = query;
+	}
+
+	/**
+	 * Gets the number of parameters in the query.
+	 * @return The number of parameters in the query.
+	 */
+	public int getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Sets the number of parameters in the query.
+	 * @param parameters The number of parameters in the query.
+	 */
+	public void setParameters(int parameters) {
+		this.parameters = parameters;
+	}
+	
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.driver.model;
+
+import java.util.Map;
+
+/**
+ * The explanation of an <code>explain</code> query.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class QueryExplanation {
+
+	private Map<String, Object> query;
+	private Map<String, Object> search;
+	private Map<String, Object> sort;
+	private Map<String, Object> profile;
+	private Map<String, Long> timings;
+
+	/**
+	 * Gets the parsed query.
+	 * @return The parsed query.
+	 */
+	public Map<String, Object> getQuery() {
+		return query;
+	}
+
+	/**
+	 * Sets the parsed query.
+	 * @param query The parsed query.
+	 */
+	public void setQuery(Map<String, Object> query) {
+		this.query = query;
+	}
+
+	/**
+	 * Gets the search sent to the search index.
+	 * @return The search sent to the search index.
+	 */
+	public Map<String, Object> getSearch() {
+		return search;
+	}
+
+	/**
+	 * Sets the search sent to the search index.
+	 * @param search The search sent to the search index.
+	 */
+	public void setSearch(Map<String, Object> search) {
+		this.search = search;
+	}
+
+	/**
+	 * Gets the sort of the search.
+	 * @return The sort of the search.
+	 */
+	public Map<String, Object> getSort() {
+		return sort;
+	}
+
+	/**
+	 * Sets the sort of the search.
+	 * @param sort The sort of the search.
+	 */
+	public void setSort(Map<String, Object> sort) {
+		this.sort = sort;
+	}
+
+	/**
+	 * Gets the search index's profile of the query's execution.
+	 * @return The profile, or <code>null</code> if the query was not profiled.
+	 */
+	public Map<String, Object> getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Sets the search index's profile of the query's execution.
+	 * @param profile The profile.
+	 */
+	public void setProfile(Map<String, Object> profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Gets the time taken by each stage of the query in microseconds.
+	 * @return A map of the stages to their times in microseconds, or
+	 * <code>null</code> if the query was not profiled.
+	 */
+	public Map<String, Long> getTimings() {
+		return timings;
+	}
+
+	/**
+	 * Sets the time taken by each stage of the query in microseconds.
+	 * @param timings A map of the stages to their times in microseconds.
+	 */
+	public void setTimings(Map<String, Long> timings) {
+		this.timings = timings;
+	}
+
+}
@@ -31,6 +31,9 @@ public class QueryResult {
 
 	private List<IndexedEntity> entities;
 	private String queryId;
+	private AggregationResult aggregation;
+	private QueryExplanation explanation;
+	private String nextCursor;
 		
 	/**
 	 * Gets the list of {@link IndexedEntity entities}.
@@ -64,4 +67,52 @@ public class QueryResult {
 		this.queryId = queryId;
 	}
 	
+	/**
+	 * Gets the counts of the matching entities of a <code>select count(*)</code> query.
+	 * @return The {@link AggregationResult}, or <code>null</code> if the query is not a count query.
+	 */
+	public AggregationResult getAggregation() {
+		return aggregation;
+	}
+
+	/**
+	 * Sets the counts of the matching entities of a <code>select count(*)</code> query.
+	 * @param aggregation The {@link AggregationResult}.
+	 */
+	public void setAggregation(AggregationResult aggregation) {
+		this.aggregation = aggregation;
+	}
+	
+	/**
+	 * Gets the explanation of an <code>explain</code> query.
+	 * @return The {@link QueryExplanation}, or <code>null</code> if the query is not an explain query.
+	 */
+	public QueryExplanation getExplanation() {
+		return explanation;
+	}
+
+	/**
+	 * Sets the explanation of an <code>explain</code> query.
+	 * @param explanation The {@link QueryExplanation}.
+	 */
+	public void setExplanation(QueryExplanation explanation) {
+		this.explanation = explanation;
+	}
+
+	/**
+	 * Gets the cursor of the next page of the query's entities.
+	 * @return The cursor, or <code>null</code> if this is the last page.
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Sets the cursor of the next page of the query's entities.
+	 * @param nextCursor The cursor.
+	 */
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+	
 }
\ No newline at end of file
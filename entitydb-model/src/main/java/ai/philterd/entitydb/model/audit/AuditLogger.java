@@ -20,6 +20,8 @@
  */
 package ai.philterd.entitydb.model.audit;
 
+import java.util.List;
+
 /**
  * Interface for audit log stores.
  * 
@@ -52,6 +54,15 @@ public interface AuditLogger {
 	 */
 	public boolean audit(String query, long timestamp, String userName);
 	
+	/**
+	 * Write the audit log of queries executed together.
+	 * @param queries The queries.
+	 * @param timestamp When the event took place.
+	 * @param userName The user's name.
+	 * @return <code>true</code> when the audit operation succeeds for every query; <code>false</code> otherwise.
+	 */
+	public boolean audit(List<String> queries, long timestamp, String userName);
+	
 	/**
 	 * Closes and releases any resources.
 	 * Implementing this function may not be required for all implementations.
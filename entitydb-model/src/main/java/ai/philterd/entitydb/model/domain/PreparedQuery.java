@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.domain;
+
+import java.io.Serializable;
+
+/**
+ * A prepared EQL query. A prepared query is parsed once and
+ * is executed by its ID with values for its parameters.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class PreparedQuery implements Serializable {
+
+	private static final long serialVersionUID = 4621794506281373615L;
+	
+	private String id;
+	private String query;
+	private int parameters;
+
+	/**
+	 * Creates a new prepared query.
+	 */
+	public PreparedQuery() {
+		
+	}
+	
+	/**
+	 * Creates a new prepared query.
+	 * @param id The ID of the prepared query.
+	 * @param query The normalized (EQL) query.
+	 * @param parameters The number of parameters in the query.
+	 */
+	public PreparedQuery(String id, String query, int parameters) {
+		
+		this.id = id;
+		this.query = query;
+		this.parameters = parameters;
+		
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public void setQuery(String query) {
+		this.query = query;
+	}
+
+	public int getParameters() {
+		return parameters;
+	}
+
+	public void setParameters(int parameters) {
+		this.parameters = parameters;
+	}
+	
+}
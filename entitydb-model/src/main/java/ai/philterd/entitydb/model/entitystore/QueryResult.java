@@ -20,9 +20,12 @@
  */
 package ai.philterd.entitydb.model.entitystore;
 
+import java.util.Collections;
 import java.util.List;
 
+import ai.philterd.entitydb.model.search.AggregationResult;
 import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.model.search.QueryExplanation;
 
 /**
  * The result of an entity query. An instance of this class
@@ -37,6 +40,12 @@ public class QueryResult {
 
 	private List<IndexedEntity> entities;
 	private String queryId;
+	private AggregationResult aggregation;
+	private QueryExplanation explanation;
+	private String nextCursor;
+	
+	// Not serialized. See QueryResultTypeAdapterFactory.
+	private transient List<String> fields;
 	
 	/**
 	 * Creates a query result.
@@ -49,6 +58,19 @@ public class QueryResult {
 		this.queryId = queryId;
 		
 	}
+	
+	/**
+	 * Creates a query result for a <code>select count(*)</code> query.
+	 * @param aggregation The {@link AggregationResult counts} of the matching entities.
+	 * @param queryId The ID of the query.
+	 */
+	public QueryResult(AggregationResult aggregation, String queryId) {
+		
+		this.entities = Collections.emptyList();
+		this.aggregation = aggregation;
+		this.queryId = queryId;
+		
+	}
 
 	/**
 	 * Gets the query's ID.
@@ -82,4 +104,71 @@ public class QueryResult {
 		this.entities = entities;
 	}
 
+	/**
+	 * Gets the counts of the matching entities of a <code>select count(*)</code> query.
+	 * @return The {@link AggregationResult}, or <code>null</code> if the query is not a count query.
+	 */
+	public AggregationResult getAggregation() {
+		return aggregation;
+	}
+
+	/**
+	 * Sets the counts of the matching entities of a <code>select count(*)</code> query.
+	 * @param aggregation The {@link AggregationResult}.
+	 */
+	public void setAggregation(AggregationResult aggregation) {
+		this.aggregation = aggregation;
+	}
+
+	/**
+	 * Gets the explanation of an <code>explain</code> query.
+	 * @return The {@link QueryExplanation}, or <code>null</code> if the query is not an explain query.
+	 */
+	public QueryExplanation getExplanation() {
+		return explanation;
+	}
+
+	/**
+	 * Sets the explanation of an <code>explain</code> query.
+	 * @param explanation The {@link QueryExplanation}.
+	 */
+	public void setExplanation(QueryExplanation explanation) {
+		this.explanation = explanation;
+	}
+
+	/**
+	 * Gets the cursor of the next page of results.
+	 * @return The cursor to pass with the same query to get the next page
+	 * of results, or <code>null</code> if there are no more results.
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * Sets the cursor of the next page of results.
+	 * @param nextCursor The cursor of the next page of results.
+	 */
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Gets the names of the entity properties that are serialized.
+	 * @return The names of the properties, or <code>null</code> if all
+	 * of the properties are serialized.
+	 */
+	public List<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Sets the names of the entity properties that are serialized.
+	 * @param fields The names of the properties, or <code>null</code> to
+	 * serialize all of the properties.
+	 */
+	public void setFields(List<String> fields) {
+		this.fields = fields;
+	}
+
 }
\ No newline at end of file
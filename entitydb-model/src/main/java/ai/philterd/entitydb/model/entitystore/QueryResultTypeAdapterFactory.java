@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.entitystore;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * A Gson {@link TypeAdapterFactory} that serializes only the projected
+ * properties of the entities of a {@link QueryResult}. A query such as
+ * <code>select text, type from entities</code> only returns the entities'
+ * IDs and the selected properties instead of the full entities.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class QueryResultTypeAdapterFactory implements TypeAdapterFactory {
+
+	private static final String ENTITIES = "entities";
+	private static final String ENTITY_ID = "entityId";
+	
+	@Override
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		
+		if(!QueryResult.class.isAssignableFrom(type.getRawType())) {
+			return null;
+		}
+		
+		final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+		final TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+		
+		return new TypeAdapter<T>() {
+
+			@Override
+			public void write(JsonWriter out, T value) throws IOException {
+				
+				// Without a projection the query result is streamed as it is.
+				if(value == null || ((QueryResult) value).getFields() == null) {
+					
+					delegate.write(out, value);
+					
+					return;
+					
+				}
+				
+				final JsonElement json = delegate.toJsonTree(value);
+				
+				if(json.getAsJsonObject().has(ENTITIES)) {
+					
+					final Set<String> fields = new HashSet<String>(((QueryResult) value).getFields());
+					fields.add(ENTITY_ID);
+					
+					for(JsonElement entity : json.getAsJsonObject().getAsJsonArray(ENTITIES)) {
+						
+						final Iterator<Map.Entry<String, JsonElement>> it = entity.getAsJsonObject().entrySet().iterator();
+						
+						while(it.hasNext()) {
+							
+							if(!fields.contains(it.next().getKey())) {
+								it.remove();
+							}
+							
+						}
+						
+					}
+					
+				}
+				
+				elementAdapter.write(out, json);
+				
+			}
+
+			@Override
+			public T read(JsonReader in) throws IOException {
+				
+				return delegate.read(in);
+				
+			}
+			
+		};
+		
+	}
+
+}
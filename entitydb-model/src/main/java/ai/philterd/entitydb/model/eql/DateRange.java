@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.eql;
+
+/**
+ * A range of dates for a query. The dates are
+ * milliseconds since the epoch.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class DateRange {
+
+	private long minimum = Long.MIN_VALUE;
+	private long maximum = Long.MAX_VALUE;
+	
+	@Override
+	public String toString() {
+		return "Minimum: " + minimum + "; Maximum: " + maximum;
+	}
+	
+	/**
+	 * Creates a new date range that includes
+	 * every date.
+	 */
+	public DateRange() {
+		
+	}
+	
+	/**
+	 * Creates a new date range using a single date.
+	 * @param date The date.
+	 */
+	public DateRange(long date) {
+		
+		this.minimum = date;
+		this.maximum = date;
+		
+	}
+	
+	/**
+	 * Creates a new date range. The provided
+	 * minimum and maximum values are inclusive.
+	 * @param minimum The minimum date.
+	 * @param maximum The maximum date.
+	 */
+	public DateRange(long minimum, long maximum) {
+		
+		this.minimum = minimum;
+		this.maximum = maximum;
+		
+	}
+	
+	/**
+	 * Determines if a date is within this range.
+	 * @param date The date.
+	 * @return <code>true</code> if the date is within the range.
+	 */
+	public boolean contains(long date) {
+		return date >= minimum && date <= maximum;
+	}
+	
+	/**
+	 * Gets the minimum date. When used in a query this value
+	 * is used as "greater than or equal to" this value.
+	 * @return The minimum date.
+	 */
+	public long getMinimum() {
+		return minimum;
+	}
+	
+	/**
+	 * Gets the maximum date. When used in a query this value
+	 * is used as "less than or equal to" this value.
+	 * @return The maximum date.
+	 */
+	public long getMaximum() {
+		return maximum;
+	}
+	
+}
@@ -41,10 +41,12 @@
  */
 package ai.philterd.entitydb.model.eql;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.model.entitystore.EntityStore;
+import ai.philterd.entitydb.model.search.IndexedEntity;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.logging.log4j.LogManager;
@@ -64,6 +66,8 @@ public class EntityQuery {
 	private static final Logger LOGGER = LogManager.getLogger(EntityQuery.class);
 
 	private ConfidenceRange confidenceRange;
+	private DateRange extractionDateRange;
+	private DateRange timeRange;
 	
 	private String text;
 	private String notText;
@@ -90,106 +94,189 @@ public class EntityQuery {
 	private EntityOrder entityOrder = EntityOrder.ID;
 	private SortOrder sortOrder = SortOrder.DESC;
 	
+	private boolean count;
+	private EntityGroup entityGroup;
+	
+	private boolean explain;
+	private boolean profile;
+	
+	private List<String> fields;
+	
+	private String cursor;
+	
+	// The conditions compiled when they are set. They are shared by every
+	// evaluation of the query, including the search index's query.
+	private transient WildcardPattern textPattern;
+	private transient WildcardPattern notTextPattern;
+	private transient WildcardPattern typePattern;
+	private transient WildcardPattern notTypePattern;
+	private transient WildcardPattern languageCodePattern;
+	private transient WildcardPattern notLanguageCodePattern;
+	private transient WildcardPattern contextPattern;
+	private transient WildcardPattern notContextPattern;
+	private transient WildcardPattern documentIdPattern;
+	private transient WildcardPattern notDocumentIdPattern;
+	private transient WildcardPattern uriPattern;
+	private transient WildcardPattern notUriPattern;
+	
+	/**
+	 * Determines if an entity satisfies the conditions of this query. Every
+	 * condition that is set must be satisfied for the entity to match, and
+	 * string comparisons are not case-sensitive. The text, type, context, document
+	 * ID, URI and language conditions are {@link WildcardPattern wildcard patterns}
+	 * as they are when the query is executed by the search index. The time range is
+	 * compared to the entity's <code>time</code> metadata and an entity without a
+	 * valid time does not satisfy it. The NOT conditions are not evaluated by this
+	 * function.
+	 * @param entity The {@link Entity entity}.
+	 * @return <code>true</code> if the entity satisfies all of the conditions
+	 * of the query; otherwise <code>false</code>.
+	 */
 	public boolean isMatch(Entity entity) {
 				
-		boolean match = false;
-		
-		if(confidenceRange != null
-				&& confidenceRange.getMinimum() <= entity.getConfidence()
-				&& entity.getConfidence() <= confidenceRange.getMaximum()) {
+		if(confidenceRange != null) {
 
-				LOGGER.debug("Entity confidence: {}", entity.getConfidence());
-				LOGGER.debug("Range: {} to {}", confidenceRange.getMinimum(), confidenceRange.getMaximum());
-				
-				match = true;
+			LOGGER.debug("Entity confidence: {}", entity.getConfidence());
+			LOGGER.debug("Range: {} to {}", confidenceRange.getMinimum(), confidenceRange.getMaximum());
+			
+			if(entity.getConfidence() < confidenceRange.getMinimum() || entity.getConfidence() > confidenceRange.getMaximum()) {
+				return false;
+			}
 				
 		}
 		
-		if(StringUtils.isNotEmpty(text)) {
-			
-			if(StringUtils.equalsIgnoreCase(text, entity.getText())) {
-				
-				match = true;
-			
-			} else {
-				
-				match = false;
-				
-			}
-			
+		if(extractionDateRange != null && !extractionDateRange.contains(entity.getExtractionDate())) {
+			return false;
 		}
 		
-		if(StringUtils.isNotEmpty(type)) {
-			
-			if(StringUtils.equalsIgnoreCase(text, entity.getType())) {
+		if(timeRange != null) {
 			
-				match = true;
+			final Long time = IndexedEntity.timeOf(entity);
 			
-			} else {
-				
-				match = false;
-				
+			if(time == null || !timeRange.contains(time)) {
+				return false;
 			}
 			
 		}
 		
-		if(StringUtils.isNotEmpty(context)) {
-			
-			if(StringUtils.equalsIgnoreCase(context, entity.getContext())) {
-			
-				match = true;
-			
-			} else {
-				
-				match = false;
-				
-			}
-			
+		if(textPattern != null && !textPattern.matches(entity.getText())) {
+			return false;
 		}
 		
-		if(StringUtils.isNotEmpty(documentId)) {
-			
-			if(StringUtils.equalsIgnoreCase(documentId, entity.getDocumentId())) {
-			
-				match = true;
-			
-			} else {
-				
-				match = false;
-				
-			}
-			
+		if(typePattern != null && !typePattern.matches(entity.getType())) {
+			return false;
 		}
 		
-		if(StringUtils.isNotEmpty(uri)) {
-			
-			if(StringUtils.equalsIgnoreCase(uri, entity.getUri())) {
-			
-				match = true;
+		if(contextPattern != null && !contextPattern.matches(entity.getContext())) {
+			return false;
+		}
+		
+		if(documentIdPattern != null && !documentIdPattern.matches(entity.getDocumentId())) {
+			return false;
+		}
+		
+		if(uriPattern != null && !uriPattern.matches(entity.getUri())) {
+			return false;
+		}
+		
+		if(languageCodePattern != null && !languageCodePattern.matches(entity.getLanguageCode())) {
+			return false;
+		}
+		
+		if(entityMetadataFilters != null) {
 			
-			} else {
+			for(EntityMetadataFilter entityMetadataFilter : entityMetadataFilters) {
+				
+				final String value = entity.getMetadata() == null ? null : entity.getMetadata().get(entityMetadataFilter.getName());
 				
-				match = false;
+				if(entityMetadataFilter.isCaseSensitive()) {
+					
+					if(!StringUtils.equals(entityMetadataFilter.getValue(), value)) {
+						return false;
+					}
+					
+				} else if(!StringUtils.equalsIgnoreCase(entityMetadataFilter.getValue(), value)) {
+					
+					return false;
+					
+				}
 				
 			}
 			
 		}
 		
-		if(StringUtils.isNotEmpty(languageCode)) {
-			
-			if(StringUtils.equalsIgnoreCase(languageCode, entity.getLanguageCode())) {
+		return true;
+		
+	}
+	
+	/**
+	 * Creates a copy of this query. The copy does not share
+	 * any mutable state with this query.
+	 * @return A copy of this query.
+	 */
+	public EntityQuery copy() {
+		
+		final EntityQuery entityQuery = new EntityQuery();
+		
+		// The ranges are immutable.
+		entityQuery.confidenceRange = confidenceRange;
+		entityQuery.extractionDateRange = extractionDateRange;
+		entityQuery.timeRange = timeRange;
+		
+		entityQuery.text = text;
+		entityQuery.notText = notText;
+		entityQuery.type = type;
+		entityQuery.notType = notType;
+		entityQuery.languageCode = languageCode;
+		entityQuery.notLanguageCode = notLanguageCode;
+		entityQuery.context = context;
+		entityQuery.notContext = notContext;
+		entityQuery.documentId = documentId;
+		entityQuery.notDocumentId = notDocumentId;
+		entityQuery.uri = uri;
+		entityQuery.notUri = notUri;
+
+		entityQuery.textPattern = textPattern;
+		entityQuery.notTextPattern = notTextPattern;
+		entityQuery.typePattern = typePattern;
+		entityQuery.notTypePattern = notTypePattern;
+		entityQuery.languageCodePattern = languageCodePattern;
+		entityQuery.notLanguageCodePattern = notLanguageCodePattern;
+		entityQuery.contextPattern = contextPattern;
+		entityQuery.notContextPattern = notContextPattern;
+		entityQuery.documentIdPattern = documentIdPattern;
+		entityQuery.notDocumentIdPattern = notDocumentIdPattern;
+		entityQuery.uriPattern = uriPattern;
+		entityQuery.notUriPattern = notUriPattern;
+		
+		entityQuery.limit = limit;
+		entityQuery.offset = offset;
+		entityQuery.entityOrder = entityOrder;
+		entityQuery.sortOrder = sortOrder;
+		entityQuery.count = count;
+		entityQuery.entityGroup = entityGroup;
+		entityQuery.explain = explain;
+		entityQuery.profile = profile;
+		entityQuery.cursor = cursor;
+		
+		if(fields != null) {
+			entityQuery.fields = new ArrayList<String>(fields);
+		}
+		
+		if(entityMetadataFilters != null) {
 			
-				match = true;
+			entityQuery.entityMetadataFilters = new ArrayList<EntityMetadataFilter>(entityMetadataFilters.size());
 			
-			} else {
+			for(EntityMetadataFilter entityMetadataFilter : entityMetadataFilters) {
 				
-				match = false;
+				entityQuery.entityMetadataFilters.add(new EntityMetadataFilter(entityMetadataFilter.getName(), entityMetadataFilter.getValue(),
+						entityMetadataFilter.isCaseSensitive(), entityMetadataFilter.getComparator()));
 				
 			}
 			
 		}
 		
-		return match;
+		return entityQuery;
 		
 	}
 	
@@ -223,6 +310,38 @@ public class EntityQuery {
 	public void setConfidenceRange(double minimum, double maximum) {		
 		this.confidenceRange = new ConfidenceRange(minimum, maximum);		
 	}
+	
+	/**
+	 * Gets the range of the entities' extraction dates for the query.
+	 * @return The extraction date {@link DateRange range}.
+	 */
+	public DateRange getExtractionDateRange() {
+		return extractionDateRange;
+	}
+	
+	/**
+	 * Sets the range of the entities' extraction dates for the query.
+	 * @param extractionDateRange The extraction date {@link DateRange range}.
+	 */
+	public void setExtractionDateRange(DateRange extractionDateRange) {
+		this.extractionDateRange = extractionDateRange;
+	}
+	
+	/**
+	 * Gets the range of the entities' <code>time</code> metadata for the query.
+	 * @return The time {@link DateRange range}.
+	 */
+	public DateRange getTimeRange() {
+		return timeRange;
+	}
+	
+	/**
+	 * Sets the range of the entities' <code>time</code> metadata for the query.
+	 * @param timeRange The time {@link DateRange range}.
+	 */
+	public void setTimeRange(DateRange timeRange) {
+		this.timeRange = timeRange;
+	}
 
 	/**
 	 * Gets the entity text for the query.
@@ -240,6 +359,7 @@ public class EntityQuery {
 	 */
 	public void setText(String text) {
 		this.text = text;
+		this.textPattern = compile(text);
 	}
 
 	/**
@@ -256,6 +376,7 @@ public class EntityQuery {
 	 */
 	public void setType(String type) {
 		this.type = type.toLowerCase();
+		this.typePattern = compile(this.type);
 	}
 
 	/**
@@ -293,6 +414,7 @@ public class EntityQuery {
 	 */
 	public void setContext(String context) {
 		this.context = context;
+		this.contextPattern = compile(context);
 	}
 
 	/**
@@ -325,6 +447,7 @@ public class EntityQuery {
 	 */
 	public void setDocumentId(String documentId) {
 		this.documentId = documentId;
+		this.documentIdPattern = compile(documentId);
 	}
 
 	/**
@@ -373,6 +496,7 @@ public class EntityQuery {
 	 */
 	public void setUri(String uri) {
 		this.uri = uri;
+		this.uriPattern = compile(uri);
 	}
 
 	/**
@@ -389,6 +513,7 @@ public class EntityQuery {
 	 */
 	public void setLanguageCode(String languageCode) {
 		this.languageCode = languageCode;
+		this.languageCodePattern = compile(languageCode);
 	}
 
 	public String getNotContext() {
@@ -397,6 +522,7 @@ public class EntityQuery {
 
 	public void setNotContext(String notContext) {
 		this.notContext = notContext;
+		this.notContextPattern = compile(notContext);
 	}
 
 	public String getNotDocumentId() {
@@ -405,6 +531,7 @@ public class EntityQuery {
 
 	public void setNotDocumentId(String notDocumentId) {
 		this.notDocumentId = notDocumentId;
+		this.notDocumentIdPattern = compile(notDocumentId);
 	}
 
 	public String getNotText() {
@@ -413,6 +540,7 @@ public class EntityQuery {
 
 	public void setNotText(String notText) {
 		this.notText = notText;
+		this.notTextPattern = compile(notText);
 	}
 
 	public String getNotType() {
@@ -421,6 +549,7 @@ public class EntityQuery {
 
 	public void setNotType(String notType) {
 		this.notType = notType;
+		this.notTypePattern = compile(notType);
 	}
 
 	public String getNotUri() {
@@ -429,6 +558,7 @@ public class EntityQuery {
 
 	public void setNotUri(String notUri) {
 		this.notUri = notUri;
+		this.notUriPattern = compile(notUri);
 	}
 
 	public String getNotLanguageCode() {
@@ -437,6 +567,107 @@ public class EntityQuery {
 
 	public void setNotLanguageCode(String notLanguage) {
 		this.notLanguageCode = notLanguage;
+		this.notLanguageCodePattern = compile(notLanguage);
+	}
+	
+	/**
+	 * Gets the compiled text condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no text condition.
+	 */
+	public WildcardPattern getTextPattern() {
+		return textPattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT text condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT text condition.
+	 */
+	public WildcardPattern getNotTextPattern() {
+		return notTextPattern;
+	}
+	
+	/**
+	 * Gets the compiled type condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no type condition.
+	 */
+	public WildcardPattern getTypePattern() {
+		return typePattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT type condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT type condition.
+	 */
+	public WildcardPattern getNotTypePattern() {
+		return notTypePattern;
+	}
+	
+	/**
+	 * Gets the compiled language code condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no language code condition.
+	 */
+	public WildcardPattern getLanguageCodePattern() {
+		return languageCodePattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT language code condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT language code condition.
+	 */
+	public WildcardPattern getNotLanguageCodePattern() {
+		return notLanguageCodePattern;
+	}
+	
+	/**
+	 * Gets the compiled context condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no context condition.
+	 */
+	public WildcardPattern getContextPattern() {
+		return contextPattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT context condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT context condition.
+	 */
+	public WildcardPattern getNotContextPattern() {
+		return notContextPattern;
+	}
+	
+	/**
+	 * Gets the compiled document ID condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no document ID condition.
+	 */
+	public WildcardPattern getDocumentIdPattern() {
+		return documentIdPattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT document ID condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT document ID condition.
+	 */
+	public WildcardPattern getNotDocumentIdPattern() {
+		return notDocumentIdPattern;
+	}
+	
+	/**
+	 * Gets the compiled URI condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no URI condition.
+	 */
+	public WildcardPattern getUriPattern() {
+		return uriPattern;
+	}
+	
+	/**
+	 * Gets the compiled NOT URI condition.
+	 * @return The {@link WildcardPattern pattern}, or <code>null</code> if there is no NOT URI condition.
+	 */
+	public WildcardPattern getNotUriPattern() {
+		return notUriPattern;
+	}
+	
+	private static WildcardPattern compile(String value) {
+		return StringUtils.isEmpty(value) ? null : WildcardPattern.compile(value);
 	}
 	
 	/**
@@ -461,4 +692,105 @@ public class EntityQuery {
 		this.sortOrder = sortOrder;
 	}
 	
+	/**
+	 * Gets if the query counts the matching entities instead of returning them.
+	 * @return <code>true</code> if the query is a <code>select count(*)</code> query.
+	 */
+	public boolean isCount() {
+		return count;
+	}
+
+	/**
+	 * Sets if the query counts the matching entities instead of returning them.
+	 * @param count <code>true</code> to count the matching entities.
+	 */
+	public void setCount(boolean count) {
+		this.count = count;
+	}
+
+	/**
+	 * Gets the {@link EntityGroup field} the counted entities are grouped by.
+	 * @return The {@link EntityGroup}, or <code>null</code> if the entities are not grouped.
+	 */
+	public EntityGroup getEntityGroup() {
+		return entityGroup;
+	}
+
+	/**
+	 * Sets the {@link EntityGroup field} the counted entities are grouped by.
+	 * @param entityGroup The {@link EntityGroup}.
+	 */
+	public void setEntityGroup(EntityGroup entityGroup) {
+		this.entityGroup = entityGroup;
+	}
+	
+	/**
+	 * Gets if the query is explained instead of being executed.
+	 * @return <code>true</code> if the query is an <code>explain</code> query.
+	 */
+	public boolean isExplain() {
+		return explain;
+	}
+
+	/**
+	 * Sets if the query is explained instead of being executed.
+	 * @param explain <code>true</code> to explain the query.
+	 */
+	public void setExplain(boolean explain) {
+		this.explain = explain;
+	}
+
+	/**
+	 * Gets if an explained query is also executed and profiled.
+	 * @return <code>true</code> if the query is an <code>explain profile</code> query.
+	 */
+	public boolean isProfile() {
+		return profile;
+	}
+
+	/**
+	 * Sets if an explained query is also executed and profiled.
+	 * @param profile <code>true</code> to profile the query.
+	 */
+	public void setProfile(boolean profile) {
+		this.profile = profile;
+	}
+	
+	/**
+	 * Gets the names of the entity properties returned by the query.
+	 * @return The names of the properties, or <code>null</code> if all
+	 * of the properties are returned.
+	 */
+	public List<String> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Sets the names of the entity properties returned by the query.
+	 * @param fields The names of the properties, or <code>null</code> to
+	 * return all of the properties.
+	 */
+	public void setFields(List<String> fields) {
+		this.fields = fields;
+	}
+	
+	/**
+	 * Gets the cursor of the page of results to return.
+	 * @return The cursor returned with the previous page of results, or
+	 * <code>null</code> to return the first page.
+	 */
+	public String getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Sets the cursor of the page of results to return. The results
+	 * continue after the last entity of the previous page and the
+	 * offset is not used.
+	 * @param cursor The cursor returned with the previous page of results.
+	 */
+	public void setCursor(String cursor) {
+		this.cursor = cursor;
+	}
+	
 }
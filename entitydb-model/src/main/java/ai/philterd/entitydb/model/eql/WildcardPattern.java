@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.eql;
+
+/**
+ * A case-insensitive wildcard pattern in which <code>*</code> matches any
+ * sequence of characters, including an empty sequence, and <code>?</code>
+ * matches any single character. These are the wildcards accepted by the
+ * search index. A pattern without wildcards matches values that are equal
+ * to it ignoring case.
+ * 
+ * The pattern is compiled once into an automaton whose states are the number
+ * of the pattern's characters matched so far. All of the states are kept in
+ * the bits of a <code>long</code> and advanced together for each character of
+ * the value, so a value is matched in a single pass without backtracking and
+ * without allocating. Patterns longer than 63 characters are matched by
+ * backtracking to the last <code>*</code>, also without allocating.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class WildcardPattern {
+
+	public static final char ANY_SEQUENCE = '*';
+	public static final char ANY_CHARACTER = '?';
+	
+	// The longest pattern whose states fit in a long, one bit being the accepting state.
+	private static final int MAXIMUM_STATES = Long.SIZE - 1;
+	
+	private final String pattern;
+	private final boolean wildcard;
+	
+	// The case-folded pattern with consecutive '*' collapsed into one.
+	private final char[] folded;
+	
+	// Bit i is set in the masks when the i-th character of the pattern is a '*',
+	// a '?', or the ASCII character. Empty when the pattern is too long.
+	private final long sequenceMask;
+	private final long characterMask;
+	private final long[] asciiMasks;
+	private final boolean automaton;
+	
+	private WildcardPattern(String pattern) {
+		
+		this.pattern = pattern;
+		this.wildcard = isWildcard(pattern);
+		
+		final StringBuilder sb = new StringBuilder(pattern.length());
+		
+		for(int i = 0; i < pattern.length(); i++) {
+			
+			final char c = fold(pattern.charAt(i));
+			
+			if(c != ANY_SEQUENCE || sb.length() == 0 || sb.charAt(sb.length() - 1) != ANY_SEQUENCE) {
+				sb.append(c);
+			}
+			
+		}
+		
+		this.folded = sb.toString().toCharArray();
+		this.automaton = wildcard && folded.length <= MAXIMUM_STATES;
+		this.asciiMasks = new long[automaton ? 128 : 0];
+		
+		long sequences = 0;
+		long characters = 0;
+		
+		if(automaton) {
+			
+			for(int i = 0; i < folded.length; i++) {
+				
+				if(folded[i] == ANY_SEQUENCE) {
+					sequences |= 1L << i;
+				} else if(folded[i] == ANY_CHARACTER) {
+					characters |= 1L << i;
+				} else if(folded[i] < asciiMasks.length) {
+					asciiMasks[folded[i]] |= 1L << i;
+				}
+				
+			}
+			
+		}
+		
+		this.sequenceMask = sequences;
+		this.characterMask = characters;
+		
+	}
+	
+	/**
+	 * Compiles a pattern.
+	 * @param pattern The pattern.
+	 * @return A {@link WildcardPattern}.
+	 */
+	public static WildcardPattern compile(String pattern) {
+		return new WildcardPattern(pattern);
+	}
+	
+	/**
+	 * Determines if a value contains wildcards.
+	 * @param value The value.
+	 * @return <code>true</code> if the value contains a wildcard.
+	 */
+	public static boolean isWildcard(String value) {
+		return value != null && (value.indexOf(ANY_SEQUENCE) != -1 || value.indexOf(ANY_CHARACTER) != -1);
+	}
+	
+	/**
+	 * Folds the case of a value such that two values are equal after folding
+	 * if and only if they are equal according to {@link String#equalsIgnoreCase(String)}.
+	 * @param value The value.
+	 * @return The case-folded value.
+	 */
+	public static String fold(String value) {
+		
+		final char[] chars = value.toCharArray();
+		
+		for(int i = 0; i < chars.length; i++) {
+			chars[i] = fold(chars[i]);
+		}
+		
+		return new String(chars);
+		
+	}
+	
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+	
+	/**
+	 * Determines if the value matches the pattern.
+	 * @param value The value.
+	 * @return <code>true</code> if the value matches the pattern.
+	 */
+	public boolean matches(String value) {
+		
+		if(value == null) {
+			return false;
+		}
+		
+		if(!wildcard) {
+			return pattern.equalsIgnoreCase(value);
+		}
+		
+		if(!automaton) {
+			return backtrack(value);
+		}
+		
+		// A '*' also matches an empty sequence so the state after it is active too.
+		long state = 1L;
+		state |= (state & sequenceMask) << 1;
+		
+		for(int i = 0; i < value.length(); i++) {
+			
+			final char c = fold(value.charAt(i));
+			
+			// The states followed by the character advance, and the states at a '*' stay.
+			state = ((state & (characterMask | literalMask(c))) << 1) | (state & sequenceMask);
+			state |= (state & sequenceMask) << 1;
+			
+			if(state == 0) {
+				return false;
+			}
+			
+		}
+		
+		return (state & (1L << folded.length)) != 0;
+		
+	}
+	
+	/**
+	 * Gets the states followed by a case-folded literal character.
+	 */
+	private long literalMask(char c) {
+		
+		if(c < asciiMasks.length) {
+			return asciiMasks[c];
+		}
+		
+		long mask = 0;
+		
+		for(int i = 0; i < folded.length; i++) {
+			
+			if(folded[i] == c) {
+				mask |= 1L << i;
+			}
+			
+		}
+		
+		return mask;
+		
+	}
+	
+	/**
+	 * Matches a value against a pattern too long for the automaton.
+	 */
+	private boolean backtrack(String value) {
+		
+		int p = 0;
+		int t = 0;
+		
+		// The position after the last '*' and the value position it is matched up to.
+		int star = -1;
+		int starText = 0;
+		
+		while(t < value.length()) {
+			
+			final char c = fold(value.charAt(t));
+			
+			if(p < folded.length && folded[p] != ANY_SEQUENCE && (folded[p] == ANY_CHARACTER || folded[p] == c)) {
+				
+				p++;
+				t++;
+				
+			} else if(p < folded.length && folded[p] == ANY_SEQUENCE) {
+				
+				star = ++p;
+				starText = t;
+				
+			} else if(star != -1) {
+				
+				// Let the last '*' consume one more character.
+				p = star;
+				t = ++starText;
+				
+			} else {
+				
+				return false;
+				
+			}
+			
+		}
+		
+		while(p < folded.length && folded[p] == ANY_SEQUENCE) {
+			p++;
+		}
+		
+		return p == folded.length;
+		
+	}
+	
+	/**
+	 * Gets the pattern.
+	 * @return The pattern.
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+	
+	/**
+	 * Gets if the pattern contains wildcards.
+	 * @return <code>true</code> if the pattern contains wildcards.
+	 */
+	public boolean isWildcard() {
+		return wildcard;
+	}
+	
+	/**
+	 * Gets if the pattern begins with a wildcard. The search
+	 * index does not allow such patterns.
+	 * @return <code>true</code> if the pattern begins with a wildcard.
+	 */
+	public boolean isLeadingWildcard() {
+		return !pattern.isEmpty() && (pattern.charAt(0) == ANY_SEQUENCE || pattern.charAt(0) == ANY_CHARACTER);
+	}
+	
+	@Override
+	public String toString() {
+		return pattern;
+	}
+	
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.exceptions;
+
+/**
+ * Thrown when a query is not admitted because the user or EntityDB
+ * is already executing as many queries as it allows. The query can
+ * be retried later.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class QueryRejectedException extends QueryExecutionException {
+
+	private static final long serialVersionUID = -2791561390815467720L;
+	
+	private final long retryAfter;
+
+	/**
+	 * Creates a new exception.
+	 * @param message The message of the exception.
+	 * @param retryAfter The number of seconds after which the query can be retried.
+	 */
+	public QueryRejectedException(String message, long retryAfter) {
+		
+		super(message);
+		
+		this.retryAfter = retryAfter;
+		
+	}
+
+	/**
+	 * Gets the number of seconds after which the query can be retried.
+	 * @return The number of seconds after which the query can be retried.
+	 */
+	public long getRetryAfter() {
+		return retryAfter;
+	}
+	 
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.executors;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.metrics.Unit;
+
+/**
+ * A named thread pool with a fixed number of threads and a bounded queue.
+ * When the queue is full the pool's {@link SaturationPolicy} decides what
+ * happens to the task so that a burst of work slows down, or is shed by,
+ * the submitter instead of growing the queue without limit.
+ * 
+ * The pool records how long each task waited in the queue, how long it ran
+ * and how many tasks found the queue full. The recorded values are returned
+ * and reset by {@link #getMetrics()}.
+ * 
+ * A task shed with the {@link SaturationPolicy#SHED} policy is never executed.
+ * <code>execute</code> throws a {@link RejectedExecutionException} for that task
+ * so the submitter knows the task was dropped.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+	private static final Logger LOGGER = LogManager.getLogger(BoundedExecutor.class);
+	
+	private final String name;
+	private final SaturationPolicy saturationPolicy;
+	
+	private final LongAdder queueWaitTime = new LongAdder();
+	private final LongAccumulator maxQueueWaitTime = new LongAccumulator(Long::max, 0);
+	private final LongAdder runTime = new LongAdder();
+	private final LongAccumulator maxRunTime = new LongAccumulator(Long::max, 0);
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	
+	/**
+	 * Creates a new bounded executor.
+	 * @param name The name of the pool. Threads are named <code>name-N</code>.
+	 * @param threads The number of threads.
+	 * @param queueSize The maximum number of tasks waiting for a thread.
+	 * @param saturationPolicy The {@link SaturationPolicy} applied when the queue is full.
+	 */
+	public BoundedExecutor(String name, int threads, int queueSize, SaturationPolicy saturationPolicy) {
+		
+		super(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueSize), new NamedThreadFactory(name), new SaturationHandler(saturationPolicy));
+		
+		this.name = name;
+		this.saturationPolicy = saturationPolicy;
+		
+		// Idle pools give their threads back.
+		allowCoreThreadTimeOut(true);
+		
+		LOGGER.info("Created executor {} with {} threads, a queue size of {} and the {} saturation policy.", name, threads, queueSize, saturationPolicy);
+		
+	}
+	
+	@Override
+	public void execute(Runnable command) {
+		
+		if(command == null) {
+			throw new NullPointerException();
+		}
+		
+		super.execute(new TimedTask(command));
+		
+	}
+	
+	/**
+	 * Gets the pool's metrics and resets the recorded times and counts.
+	 * Each metric's name is prefixed with the name of the pool.
+	 * @return A list of {@link Metric metrics}.
+	 */
+	public List<Metric> getMetrics() {
+		
+		final long count = completed.sumThenReset();
+		final long wait = queueWaitTime.sumThenReset();
+		final long run = runTime.sumThenReset();
+		
+		final List<Metric> metrics = new LinkedList<Metric>();
+		
+		metrics.add(new Metric(name + ".completed", count, Unit.COUNT));
+		metrics.add(new Metric(name + ".rejected", rejected.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric(name + ".queueWaitTime", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(wait / count), Unit.MILLISECONDS));
+		metrics.add(new Metric(name + ".maxQueueWaitTime", TimeUnit.NANOSECONDS.toMillis(maxQueueWaitTime.getThenReset()), Unit.MILLISECONDS));
+		metrics.add(new Metric(name + ".runTime", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(run / count), Unit.MILLISECONDS));
+		metrics.add(new Metric(name + ".maxRunTime", TimeUnit.NANOSECONDS.toMillis(maxRunTime.getThenReset()), Unit.MILLISECONDS));
+		metrics.add(new Metric(name + ".activeThreads", getActiveCount(), Unit.COUNT));
+		metrics.add(new Metric(name + ".queued", getQueue().size(), Unit.COUNT));
+		
+		return metrics;
+		
+	}
+	
+	/**
+	 * Gets the name of the pool.
+	 * @return The name of the pool.
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the pool's {@link SaturationPolicy}.
+	 * @return The pool's {@link SaturationPolicy}.
+	 */
+	public SaturationPolicy getSaturationPolicy() {
+		return saturationPolicy;
+	}
+	
+	/**
+	 * A task that records how long it waited to run and how long it ran.
+	 */
+	private class TimedTask implements Runnable {
+		
+		private final Runnable task;
+		private final long queuedTime = System.nanoTime();
+		
+		public TimedTask(Runnable task) {
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			
+			final long startTime = System.nanoTime();
+			
+			queueWaitTime.add(startTime - queuedTime);
+			maxQueueWaitTime.accumulate(startTime - queuedTime);
+			
+			try {
+			
+				task.run();
+				
+			} finally {
+				
+				final long elapsed = System.nanoTime() - startTime;
+				
+				runTime.add(elapsed);
+				maxRunTime.accumulate(elapsed);
+				completed.increment();
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Applies the {@link SaturationPolicy} to a task that does not fit in the queue.
+	 */
+	private static class SaturationHandler implements RejectedExecutionHandler {
+		
+		private final SaturationPolicy saturationPolicy;
+		
+		public SaturationHandler(SaturationPolicy saturationPolicy) {
+			this.saturationPolicy = saturationPolicy;
+		}
+		
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			
+			final BoundedExecutor boundedExecutor = (BoundedExecutor) executor;
+			
+			if(executor.isShutdown()) {
+				throw new RejectedExecutionException("Executor " + boundedExecutor.getName() + " has been shut down.");
+			}
+			
+			boundedExecutor.rejected.increment();
+			
+			if(saturationPolicy == SaturationPolicy.CALLER_RUNS) {
+				
+				task.run();
+				
+			} else if(saturationPolicy == SaturationPolicy.BLOCK) {
+				
+				try {
+					
+					executor.getQueue().put(task);
+					
+				} catch (InterruptedException ex) {
+					
+					Thread.currentThread().interrupt();
+					
+					throw new RejectedExecutionException("Interrupted while waiting for space in executor " + boundedExecutor.getName() + ".", ex);
+					
+				}
+				
+				// The executor may have been shut down while waiting for space. The
+				// task is withdrawn unless a worker has already taken it.
+				if(executor.isShutdown() && executor.remove(task)) {
+					throw new RejectedExecutionException("Executor " + boundedExecutor.getName() + " has been shut down.");
+				}
+				
+				// Idle threads time out, so make sure a thread runs the queued task.
+				executor.prestartCoreThread();
+				
+			} else {
+				
+				LOGGER.debug("Executor {} is saturated. The task was shed.", boundedExecutor.getName());
+				
+				throw new RejectedExecutionException("Executor " + boundedExecutor.getName() + " is saturated. The task was shed.");
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Names the pool's threads after the pool.
+	 */
+	private static class NamedThreadFactory implements ThreadFactory {
+		
+		private final String name;
+		private final AtomicInteger count = new AtomicInteger();
+		
+		public NamedThreadFactory(String name) {
+			this.name = name;
+		}
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			
+			return new Thread(runnable, name + "-" + count.incrementAndGet());
+			
+		}
+		
+	}
+	
+}
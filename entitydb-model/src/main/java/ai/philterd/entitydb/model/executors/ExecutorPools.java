@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.executors;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.metrics.MetricReporter;
+
+/**
+ * The named {@link BoundedExecutor executors} of the application. Each kind
+ * of background work has its own pool so a burst of one kind of work cannot
+ * starve the others.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ExecutorPools {
+
+	/**
+	 * The pool that executes continuous queries against ingested entities.
+	 */
+	public static final String CONTINUOUS_QUERIES = "continuous-queries";
+	
+	/**
+	 * The pool that evaluates entities against the rules engines.
+	 */
+	public static final String RULES = "rules";
+	
+	/**
+	 * The pool that indexes entities in the search index.
+	 */
+	public static final String INDEXING = "indexing";
+	
+	private final Map<String, BoundedExecutor> executors = new LinkedHashMap<String, BoundedExecutor>();
+	
+	/**
+	 * Adds an executor.
+	 * @param executor The {@link BoundedExecutor executor}. It is
+	 * registered under its name.
+	 * @return This object.
+	 */
+	public ExecutorPools add(BoundedExecutor executor) {
+		
+		executors.put(executor.getName(), executor);
+		
+		return this;
+		
+	}
+	
+	/**
+	 * Gets an executor by name.
+	 * @param name The name of the executor.
+	 * @return The {@link BoundedExecutor executor}.
+	 * @throws IllegalArgumentException Thrown if there is no executor with the name.
+	 */
+	public BoundedExecutor get(String name) {
+		
+		final BoundedExecutor executor = executors.get(name);
+		
+		if(executor == null) {
+			throw new IllegalArgumentException("No executor named " + name);
+		}
+		
+		return executor;
+		
+	}
+	
+	/**
+	 * Gets all of the executors.
+	 * @return A collection of {@link BoundedExecutor executors}.
+	 */
+	public Collection<BoundedExecutor> getExecutors() {
+		
+		return Collections.unmodifiableCollection(executors.values());
+		
+	}
+	
+	/**
+	 * Reports the metrics of all of the executors.
+	 * @param metricReporter The {@link MetricReporter}.
+	 */
+	public void report(MetricReporter metricReporter) {
+		
+		final List<Metric> metrics = new LinkedList<Metric>();
+		
+		for(BoundedExecutor executor : executors.values()) {
+			metrics.addAll(executor.getMetrics());
+		}
+		
+		metricReporter.report(MetricReporter.MEASUREMENT_EXECUTOR, metrics);
+		
+	}
+	
+	/**
+	 * Shuts down all of the executors. Queued tasks are still executed.
+	 */
+	public void shutdown() {
+		
+		for(BoundedExecutor executor : executors.values()) {
+			executor.shutdown();
+		}
+		
+	}
+	
+}
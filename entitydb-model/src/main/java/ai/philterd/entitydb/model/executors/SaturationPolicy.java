@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.executors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * What a {@link BoundedExecutor} does with a task when its queue is full.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public enum SaturationPolicy {
+
+	/**
+	 * The task is executed by the thread that submitted it. This slows
+	 * down the submitter until the pool catches up.
+	 */
+	CALLER_RUNS("caller-runs"),
+	
+	/**
+	 * The task is discarded.
+	 */
+	SHED("shed"),
+	
+	/**
+	 * The submitter waits until there is space in the queue.
+	 */
+	BLOCK("block");
+	
+	private String policy;
+	
+	private SaturationPolicy(String policy) {
+		this.policy = policy;
+	}
+	
+	/**
+	 * Gets the saturation policy for a configured value.
+	 * @param policy The configured value, e.g. <code>caller-runs</code>.
+	 * @return The {@link SaturationPolicy}.
+	 * @throws IllegalArgumentException Thrown if the value is not a valid policy.
+	 */
+	public static SaturationPolicy fromString(String policy) {
+		
+		for(SaturationPolicy saturationPolicy : values()) {
+			
+			if(StringUtils.equalsIgnoreCase(saturationPolicy.policy, StringUtils.trim(policy))) {
+				return saturationPolicy;
+			}
+			
+		}
+		
+		throw new IllegalArgumentException("Invalid saturation policy: " + policy);
+		
+	}
+	
+	@Override
+	public String toString() {
+		return policy;
+	}
+	
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent histogram of non-negative values with power of two buckets.
+ * Bucket <code>0</code> counts zeros and bucket <code>b</code> counts the
+ * values from <code>2^(b-1)</code> to <code>2^b - 1</code>, so a percentile
+ * is accurate to within a factor of two. That is enough to tell a query that
+ * takes microseconds from one that takes milliseconds while keeping the
+ * histogram small enough to have one per continuous query.
+ * 
+ * Values can be counted locally with {@link #getBucket(long)} and added in
+ * bulk with {@link #add(long[], int)} so that concurrent writers do not
+ * contend on every value.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class Histogram {
+
+	/**
+	 * The number of buckets.
+	 */
+	public static final int BUCKETS = 64;
+	
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	
+	/**
+	 * Gets the bucket of a value.
+	 * @param value The value. Negative values are counted as zero.
+	 * @return The index of the bucket.
+	 */
+	public static int getBucket(long value) {
+		
+		return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+		
+	}
+	
+	/**
+	 * Records a value.
+	 * @param value The value.
+	 */
+	public void record(long value) {
+		
+		buckets.incrementAndGet(getBucket(value));
+		
+	}
+	
+	/**
+	 * Adds counts that were collected locally.
+	 * @param counts The count of each bucket.
+	 * @param offset The position of the count of bucket <code>0</code> in the array.
+	 */
+	public void add(long[] counts, int offset) {
+		
+		for(int b = 0; b < BUCKETS; b++) {
+			
+			if(counts[offset + b] != 0) {
+				buckets.addAndGet(b, counts[offset + b]);
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Gets the number of recorded values.
+	 * @return The number of recorded values.
+	 */
+	public long getCount() {
+		
+		long count = 0;
+		
+		for(int b = 0; b < BUCKETS; b++) {
+			count += buckets.get(b);
+		}
+		
+		return count;
+		
+	}
+	
+	/**
+	 * Gets an upper bound of a percentile of the recorded values.
+	 * @param percentile The percentile, from <code>0</code> to <code>100</code>.
+	 * @return The largest value of the bucket that contains the percentile,
+	 * or <code>0</code> if no values have been recorded.
+	 */
+	public long getPercentile(double percentile) {
+		
+		final long[] counts = new long[BUCKETS];
+		long count = 0;
+		
+		// Take a snapshot so the percentile is computed from consistent counts.
+		for(int b = 0; b < BUCKETS; b++) {
+			counts[b] = buckets.get(b);
+			count += counts[b];
+		}
+		
+		if(count == 0) {
+			return 0;
+		}
+		
+		final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+		
+		long seen = 0;
+		
+		for(int b = 0; b < BUCKETS; b++) {
+			
+			seen += counts[b];
+			
+			if(seen >= rank) {
+				return getUpperBound(b);
+			}
+			
+		}
+		
+		return Long.MAX_VALUE;
+		
+	}
+	
+	private static long getUpperBound(int bucket) {
+		
+		return bucket == 0 ? 0 : bucket == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+		
+	}
+	
+}
@@ -49,6 +49,11 @@ public interface MetricReporter {
 	 * A measurement for metrics related to continuous queries.
 	 */
 	public static final String MEASUREMENT_CONTINUOUS_QUERY = "ContinuousQuery";
+	
+	/**
+	 * A measurement for metrics related to the executors.
+	 */
+	public static final String MEASUREMENT_EXECUTOR = "Executor";
 		
 	/**
 	 * Report the metrics.
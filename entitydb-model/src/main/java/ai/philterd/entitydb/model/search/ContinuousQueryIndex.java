@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
+
+/**
+ * An index of continuous queries that is kept outside of EntityDB, such as
+ * in a search cluster, and that matches entities against all of the
+ * registered continuous queries at once.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public interface ContinuousQueryIndex {
+
+	/**
+	 * Registers a continuous query, replacing the continuous query having the same ID.
+	 * @param id The ID of the continuous query.
+	 * @param entityQuery The continuous query's {@link EntityQuery}.
+	 * @param user The owner of the continuous query. Only entities visible
+	 * to the owner match the continuous query.
+	 * @return <code>true</code> if the continuous query was registered; otherwise <code>false</code>.
+	 * @throws InvalidQueryException Thrown if the query cannot be registered.
+	 */
+	public boolean register(long id, EntityQuery entityQuery, User user) throws InvalidQueryException;
+	
+	/**
+	 * Unregisters a continuous query.
+	 * @param id The ID of the continuous query.
+	 * @return <code>true</code> if the continuous query was unregistered; otherwise <code>false</code>.
+	 */
+	public boolean unregister(long id);
+	
+	/**
+	 * Registers continuous queries, replacing the continuous queries having
+	 * the same IDs. The continuous queries are registered in as few requests
+	 * as possible and are matched once this function returns.
+	 * @param registrations The {@link ContinuousQueryRegistration continuous queries}.
+	 * @return The IDs of the continuous queries that were registered.
+	 */
+	public Set<Long> register(Collection<ContinuousQueryRegistration> registrations);
+	
+	/**
+	 * Unregisters the continuous queries that are not in the given IDs.
+	 * @param ids The IDs of the continuous queries to keep.
+	 * @return The number of continuous queries that were unregistered.
+	 */
+	public int retain(Set<Long> ids);
+	
+	/**
+	 * Matches entities against the registered continuous queries.
+	 * @param indexedEntities The {@link IndexedEntity entities}.
+	 * @return For each entity, in the same order, the IDs of the
+	 * continuous queries the entity matched, or <code>null</code> if
+	 * the entities could not be matched.
+	 */
+	public List<List<Long>> match(List<IndexedEntity> indexedEntities);
+	
+	/**
+	 * Closes the index.
+	 */
+	public void close();
+	
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.search;
+
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+
+/**
+ * A continuous query to register with a {@link ContinuousQueryIndex}.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ContinuousQueryRegistration {
+
+	private final long id;
+	private final EntityQuery entityQuery;
+	private final User user;
+	
+	/**
+	 * Creates a continuous query registration.
+	 * @param id The ID of the continuous query.
+	 * @param entityQuery The continuous query's {@link EntityQuery}.
+	 * @param user The owner of the continuous query. Only entities visible
+	 * to the owner match the continuous query.
+	 */
+	public ContinuousQueryRegistration(long id, EntityQuery entityQuery, User user) {
+		
+		this.id = id;
+		this.entityQuery = entityQuery;
+		this.user = user;
+		
+	}
+
+	/**
+	 * Gets the ID of the continuous query.
+	 * @return The ID of the continuous query.
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Gets the continuous query's {@link EntityQuery}.
+	 * @return The continuous query's {@link EntityQuery}.
+	 */
+	public EntityQuery getEntityQuery() {
+		return entityQuery;
+	}
+
+	/**
+	 * Gets the owner of the continuous query.
+	 * @return The owner of the continuous query.
+	 */
+	public User getUser() {
+		return user;
+	}
+	
+}
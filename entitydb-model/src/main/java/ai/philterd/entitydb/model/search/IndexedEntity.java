@@ -29,6 +29,7 @@ import io.searchbox.annotations.JestVersion;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * An entity indexed in Elasticsearch. It is the same as an
@@ -39,6 +40,10 @@ import java.io.Serializable;
  * annotated to be set to the document's ID. See:
  * http://stackoverflow.com/a/33662542
  * 
+ * The <code>time</code> metadata value is also kept in a typed
+ * <code>time</code> property when the metadata is set so the
+ * search index can execute range queries on it.
+ * 
  * @author Philterd, LLC
  *
  */
@@ -47,6 +52,12 @@ public class IndexedEntity extends Entity implements Serializable {
 	@Serial
 	private static final long serialVersionUID = 7914241851081226141L;
 	
+	/**
+	 * The name of the metadata that holds the time of the entity
+	 * in milliseconds since the epoch.
+	 */
+	public static final String TIME = "time";
+	
 	@JestId
 	private String entityId;
 	
@@ -55,6 +66,7 @@ public class IndexedEntity extends Entity implements Serializable {
 	
 	private long transactionId;
 	private Acl acl;
+	private Long time;
 	
 	public IndexedEntity(String entityId) {
 		this.entityId = entityId;
@@ -78,6 +90,7 @@ public class IndexedEntity extends Entity implements Serializable {
 		indexedEntity.setDocumentId(entity.getDocumentId());
 		indexedEntity.setText(entity.getText());
 		indexedEntity.setConfidence(entity.getConfidence());
+		indexedEntity.setExtractionDate(entity.getExtractionDate());
 		indexedEntity.setLanguageCode(entity.getLanguageCode());
 		indexedEntity.setUri(entity.getUri());
 		indexedEntity.setMetadata(entity.getMetadata());
@@ -89,6 +102,60 @@ public class IndexedEntity extends Entity implements Serializable {
 		
 	}
 
+	/**
+	 * Gets the time of an entity from its metadata.
+	 * @param metadata The entity's metadata.
+	 * @return The time in milliseconds since the epoch, or <code>null</code>
+	 * if the metadata does not contain a valid time.
+	 */
+	public static Long parseTime(Map<String, String> metadata) {
+		
+		if(metadata == null) {
+			return null;
+		}
+		
+		final String time = metadata.get(TIME);
+		
+		if(time == null) {
+			return null;
+		}
+		
+		try {
+			
+			return Long.valueOf(time.trim());
+			
+		} catch (NumberFormatException ex) {
+			
+			return null;
+			
+		}
+		
+	}
+	
+	/**
+	 * Gets the time of an entity. The typed time of an indexed
+	 * entity is used when it is available so the metadata does
+	 * not have to be parsed again.
+	 * @param entity The {@link Entity entity}.
+	 * @return The time in milliseconds since the epoch, or <code>null</code>
+	 * if the entity does not have a valid time.
+	 */
+	public static Long timeOf(Entity entity) {
+		
+		if(entity instanceof IndexedEntity && ((IndexedEntity) entity).time != null) {
+			return ((IndexedEntity) entity).time;
+		}
+		
+		return parseTime(entity.getMetadata());
+		
+	}
+	
+	@Override
+	public void setMetadata(Map<String, String> metadata) {
+		super.setMetadata(metadata);
+		this.time = parseTime(metadata);
+	}
+
 	public String getEntityId() {
 		return entityId;
 	}
@@ -121,4 +188,12 @@ public class IndexedEntity extends Entity implements Serializable {
 		this.transactionId = transactionId;
 	}
 
+	public Long getTime() {
+		return time;
+	}
+
+	public void setTime(Long time) {
+		this.time = time;
+	}
+
 }
\ No newline at end of file
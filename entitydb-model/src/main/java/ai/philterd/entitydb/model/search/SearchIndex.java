@@ -26,6 +26,7 @@ import java.util.Set;
 import ai.philterd.entitydb.model.domain.User;
 import ai.philterd.entitydb.model.eql.EntityQuery;
 import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
+import ai.philterd.entitydb.model.metrics.Metric;
 
 /**
  * Interface to a search index.
@@ -55,6 +56,23 @@ public interface SearchIndex {
 	 */
 	public Set<String> index(Set<IndexedEntity> indexedEntities);
 	
+	/**
+	 * Indexes all of the entities in the search index again so they
+	 * are indexed with the search index's current mapping. Entities
+	 * indexed before the mapping changed are not visible to queries
+	 * filtered by a changed field until they are reindexed.
+	 * @param batchSize The number of entities to reindex in a batch.
+	 * @return The number of entities that were reindexed.
+	 */
+	public long reindex(int batchSize);
+	
+	/**
+	 * Determines if any of the entities were indexed before a field
+	 * was added to the search index's mapping.
+	 * @return <code>true</code> if the entities need to be reindexed.
+	 */
+	public boolean isReindexRequired();
+	
 	/**
 	 * Gets a count of indexed entities.
 	 * @return Count of indexed entities, or <code>-1</code> if an error occurred
@@ -86,6 +104,58 @@ public interface SearchIndex {
 	 */
 	public List<IndexedEntity> queryForIndexedEntities(EntityQuery entityQuery, User user) throws InvalidQueryException;
 	
+	/**
+	 * Execute queries against the index with a single request.
+	 * @param entityQueries The {@link EntityQuery queries} to execute.
+	 * @param user The user executing the queries.
+	 * @return The {@link IndexedEntity entities} of each query in the order of the
+	 * queries. The entities of a query that could not be executed are <code>null</code>.
+	 * @throws InvalidQueryException Thrown if a query is invalid.
+	 */
+	public List<List<IndexedEntity>> queryForIndexedEntities(List<EntityQuery> entityQueries, User user) throws InvalidQueryException;
+	
+	/**
+	 * Gets the cursor of the page of results that follows a page of a query's results.
+	 * Executing the query with the cursor returns the entities after the last entity
+	 * of the page.
+	 * @param entityQuery The {@link EntityQuery query} that returned the page.
+	 * @param indexedEntities The {@link IndexedEntity entities} of the page.
+	 * @return The cursor of the next page, or <code>null</code> if the page was the last page.
+	 */
+	public String getNextCursor(EntityQuery entityQuery, List<IndexedEntity> indexedEntities);
+	
+	/**
+	 * Counts the entities matching a query in the index, optionally
+	 * grouped by the query's {@link ai.philterd.entitydb.model.eql.EntityGroup group}.
+	 * Only the entities visible to the user are counted.
+	 * @param entityQuery The {@link EntityQuery query} to execute.
+	 * @param user The user executing the query.
+	 * @return The {@link AggregationResult counts}, or <code>null</code> if the
+	 * entities could not be counted.
+	 * @throws InvalidQueryException Thrown if the query is invalid.
+	 */
+	public AggregationResult aggregate(EntityQuery entityQuery, User user) throws InvalidQueryException;
+	
+	/**
+	 * Explains how a query is executed against the index without executing it.
+	 * @param entityQuery The {@link EntityQuery query} to explain.
+	 * @param user The user executing the query.
+	 * @return The {@link QueryExplanation explanation} of the query.
+	 * @throws InvalidQueryException Thrown if the query is invalid.
+	 */
+	public QueryExplanation explain(EntityQuery entityQuery, User user) throws InvalidQueryException;
+	
+	/**
+	 * Execute a query against the index and profile its execution.
+	 * @param entityQuery The {@link EntityQuery query} to execute.
+	 * @param user The user executing the query.
+	 * @param queryExplanation The {@link QueryExplanation explanation} of the
+	 * query that receives the index's profile of the query.
+	 * @return A list of {@link IndexedEntity entities}.
+	 * @throws InvalidQueryException Thrown if the query is invalid.
+	 */
+	public List<IndexedEntity> profile(EntityQuery entityQuery, User user, QueryExplanation queryExplanation) throws InvalidQueryException;
+	
 	/**
 	 * Gets a single entity from the index.
 	 * @param entityId The entity's ID.
@@ -108,6 +178,21 @@ public interface SearchIndex {
 	 */
 	public boolean delete(String entityId);
 	
+	/**
+	 * Gets the generation of the search index. The generation changes
+	 * each time entities are indexed, updated or deleted so results
+	 * cached at a generation are out of date at a later generation.
+	 * @return The generation.
+	 */
+	public long getGeneration();
+	
+	/**
+	 * Gets the metrics of the entities indexed since
+	 * the metrics were last gotten and resets them.
+	 * @return A list of {@link Metric metrics}.
+	 */
+	public List<Metric> getMetrics();
+	
 	/**
 	 * Closes and releases resources.
 	 */
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.security;
+
+import java.util.BitSet;
+
+/**
+ * An {@link Acl} whose users and groups are encoded by a {@link PrincipalDictionary}.
+ * Checking visibility against principals encoded by the same dictionary is a bit
+ * set intersection and does not allocate. Principals encoded by another dictionary
+ * are checked against the {@link Acl} itself.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class EncodedAcl {
+
+	private final BitSet principals;
+	private final boolean world;
+	private final PrincipalDictionary principalDictionary;
+	private final Acl acl;
+	
+	EncodedAcl(BitSet principals, boolean world, PrincipalDictionary principalDictionary, Acl acl) {
+		
+		this.principals = principals;
+		this.world = world;
+		this.principalDictionary = principalDictionary;
+		this.acl = acl;
+		
+	}
+	
+	/**
+	 * Determines if an entity having this ACL is visible to the principals.
+	 * This is equivalent to {@link Acl#isEntityVisibleToUser(ai.philterd.entitydb.model.domain.User)}
+	 * for the user from which the principals were encoded.
+	 * @param principalSet The {@link PrincipalSet principals} of a user.
+	 * @return <code>true</code> if the entity is visible; otherwise <code>false</code>.
+	 */
+	public boolean isVisibleTo(PrincipalSet principalSet) {
+		
+		if(world) {
+			return true;
+		}
+		
+		if(principalSet.getPrincipalDictionary() == principalDictionary) {
+			return principalSet.intersects(principals);
+		}
+		
+		// The bits of different dictionaries are not comparable.
+		return acl.isEntityVisibleToUser(principalSet.getUser());
+		
+	}
+	
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.security;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import ai.philterd.entitydb.model.domain.User;
+
+/**
+ * Assigns compact integer IDs to principals (users and groups) so a
+ * {@link User user's} principals and the principals of an {@link Acl}
+ * can be encoded as {@link BitSet bit sets} and compared by intersection.
+ * 
+ * IDs are only assigned to the principals of users. Principals in an ACL that
+ * are not in the dictionary cannot belong to any encoded user and are ignored.
+ * 
+ * A dictionary only grows. To drop the principals of users that are no longer
+ * needed, encode the remaining users with a new dictionary and replace the old one.
+ * An {@link EncodedAcl} and a {@link PrincipalSet} from different dictionaries can
+ * still be compared.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class PrincipalDictionary {
+
+	private static final String USER_PREFIX = "u:";
+	private static final String GROUP_PREFIX = "g:";
+	
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+	private final AtomicInteger nextId = new AtomicInteger();
+	
+	/**
+	 * Encodes the principals of a user, its ID and its groups.
+	 * @param user The {@link User user}.
+	 * @return The user's {@link PrincipalSet principals}.
+	 */
+	public PrincipalSet encode(User user) {
+		
+		final BitSet principals = new BitSet();
+		
+		principals.set(assign(USER_PREFIX + user.getId()));
+		
+		if(user.getGroups() != null) {
+		
+			for(String group : user.getGroups()) {
+				principals.set(assign(GROUP_PREFIX + group));
+			}
+			
+		}
+		
+		return new PrincipalSet(principals, this, user);
+		
+	}
+	
+	/**
+	 * Encodes the principals of an ACL.
+	 * @param acl The {@link Acl}.
+	 * @return The {@link EncodedAcl}.
+	 */
+	public EncodedAcl encode(Acl acl) {
+		
+		final BitSet principals = new BitSet();
+		
+		set(principals, USER_PREFIX, acl.getUsers());
+		set(principals, GROUP_PREFIX, acl.getGroups());
+		
+		return new EncodedAcl(principals, acl.getWorld() == 1, this, acl);
+		
+	}
+	
+	/**
+	 * Gets the number of principals in the dictionary.
+	 * @return The number of principals in the dictionary.
+	 */
+	public int size() {
+		return ids.size();
+	}
+	
+	private void set(BitSet principals, String prefix, String[] names) {
+		
+		if(names != null) {
+			
+			for(String name : names) {
+				
+				if(StringUtils.isNotEmpty(name)) {
+					
+					final Integer id = ids.get(prefix + name);
+					
+					if(id != null) {
+						principals.set(id);
+					}
+					
+				}
+				
+			}
+			
+		}
+		
+	}
+	
+	private int assign(String principal) {
+		
+		return ids.computeIfAbsent(principal, p -> nextId.getAndIncrement());
+		
+	}
+	
+}
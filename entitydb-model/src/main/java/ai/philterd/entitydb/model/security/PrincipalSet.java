@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.security;
+
+import java.util.BitSet;
+
+import ai.philterd.entitydb.model.domain.User;
+
+/**
+ * The principals of a user, its ID and its groups, encoded
+ * by a {@link PrincipalDictionary}. The user is kept so visibility
+ * can still be checked against an {@link EncodedAcl} encoded by
+ * another dictionary.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class PrincipalSet {
+
+	private final BitSet principals;
+	private final PrincipalDictionary principalDictionary;
+	private final User user;
+	
+	PrincipalSet(BitSet principals, PrincipalDictionary principalDictionary, User user) {
+		
+		this.principals = principals;
+		this.principalDictionary = principalDictionary;
+		this.user = user;
+		
+	}
+	
+	/**
+	 * Determines if any of the principals are in the bit set.
+	 * @param bits A {@link BitSet} of principals.
+	 * @return <code>true</code> if any of the principals are in the bit set.
+	 */
+	boolean intersects(BitSet bits) {
+		return principals.intersects(bits);
+	}
+	
+	/**
+	 * Gets the dictionary that encoded the principals.
+	 * @return The {@link PrincipalDictionary}.
+	 */
+	PrincipalDictionary getPrincipalDictionary() {
+		return principalDictionary;
+	}
+	
+	/**
+	 * Gets the user whose principals were encoded.
+	 * @return The {@link User user}.
+	 */
+	User getUser() {
+		return user;
+	}
+	
+}
@@ -26,11 +26,15 @@ import java.util.List;
 import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
 import ai.philterd.entitydb.model.datastore.entities.UserEntity;
+import ai.philterd.entitydb.model.domain.PreparedQuery;
 import ai.philterd.entitydb.model.entitystore.QueryResult;
 import ai.philterd.entitydb.model.exceptions.MalformedQueryException;
+import ai.philterd.entitydb.model.exceptions.NonexistantPreparedQueryException;
 import ai.philterd.entitydb.model.exceptions.QueryExecutionException;
+import ai.philterd.entitydb.model.exceptions.QueryRejectedException;
 import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
 import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.model.status.ContinuousQueryCost;
 
 /**
  * Interface for the entity query service. Implementations of this interface
@@ -74,9 +78,55 @@ public interface EntityQueryService {
 	 * @param continuous <code>1</code> if the query is to be a continuous query. 
 	 * @param days The number of days to be continuous.
 	 * @return The {@link QueryResult result}.
+	 * @throws QueryExecutionException Thrown if the query cannot be executed. A
+	 * {@link QueryRejectedException} is thrown if the query was not admitted because
+	 * too many queries are being executed and can be retried later.
 	 */
 	public QueryResult eql(String query, String apiKey, int continuous, int days) throws MalformedQueryException, QueryExecutionException;
 	
+	/**
+	 * Executes the next page of an EQL query. The page continues after the
+	 * last entity of the page the cursor was returned with.
+	 * @param query The EQL query.
+	 * @param cursor The {@link QueryResult#getNextCursor() cursor} of the previous page.
+	 * @param apiKey The user's API key.
+	 * @return The {@link QueryResult result}.
+	 * @throws MalformedQueryException Thrown if the query is malformed or the cursor is not valid for it.
+	 * @throws QueryExecutionException Thrown if the query cannot be executed.
+	 */
+	public QueryResult eql(String query, String cursor, String apiKey) throws MalformedQueryException, QueryExecutionException;
+	
+	/**
+	 * Executes EQL queries together. The user is looked up once, the queries
+	 * are audited together, and the queries returning entities are executed
+	 * with a single request to the search index.
+	 * @param queries The EQL queries.
+	 * @param apiKey The user's API key.
+	 * @return The {@link QueryResult results} in the order of the queries.
+	 * @throws MalformedQueryException Thrown if a query is malformed or there are too many queries.
+	 * @throws QueryExecutionException Thrown if the queries cannot be executed.
+	 */
+	public List<QueryResult> eql(List<String> queries, String apiKey) throws MalformedQueryException, QueryExecutionException;
+	
+	/**
+	 * Prepares an EQL query having parameters. Each <code>?</code> outside
+	 * of a quoted value is a parameter that takes the place of a string value.
+	 * The prepared query can only be executed by the same user.
+	 * @param query The EQL query.
+	 * @param apiKey The user's API key.
+	 * @return The {@link PreparedQuery prepared query}.
+	 */
+	public PreparedQuery prepare(String query, String apiKey) throws MalformedQueryException, QueryExecutionException;
+	
+	/**
+	 * Executes a prepared EQL query.
+	 * @param id The ID of the {@link PreparedQuery prepared query}.
+	 * @param parameters The values of the parameters in the order the parameters appear in the query.
+	 * @param apiKey The user's API key.
+	 * @return The {@link QueryResult result}.
+	 */
+	public QueryResult execute(String id, List<String> parameters, String apiKey) throws NonexistantPreparedQueryException, MalformedQueryException, QueryExecutionException;
+	
 	/**
 	 * Executes all continuous queries against the entity.
 	 * @param entities A collection {@link Entity entities}.
@@ -85,4 +135,12 @@ public interface EntityQueryService {
 	 */
 	public void executeContinuousQueries(Collection<Entity> entities, Acl acl, long entitiesReceivedTimestamp);
 	
+	/**
+	 * Gets a user's continuous queries that have taken the most time to execute.
+	 * @param limit The maximum number of continuous queries to return.
+	 * @param apiKey The API key of the user owning the continuous queries.
+	 * @return A list of {@link ContinuousQueryCost} in descending order of total evaluation time.
+	 */
+	public List<ContinuousQueryCost> getMostExpensiveContinuousQueries(int limit, String apiKey);
+	
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.model.status;
+
+/**
+ * The cost of executing a continuous query since it was loaded. Percentiles
+ * are accurate to within a factor of two.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ContinuousQueryCost {
+
+	private long id;
+	private String query;
+	private long evaluations;
+	private long matches;
+	private long evaluationTime;
+	private long medianEvaluationTime;
+	private long p99EvaluationTime;
+	private long alerts;
+	private long medianTimeToAlert;
+	private long p99TimeToAlert;
+	
+	/**
+	 * Creates a new continuous query cost.
+	 * @param id The ID of the continuous query.
+	 * @param query The continuous query's EQL statement.
+	 * @param evaluations The number of times the continuous query was evaluated against an entity.
+	 * @param matches The number of evaluations that matched.
+	 * @param evaluationTime The total evaluation time in nanoseconds.
+	 * @param medianEvaluationTime The median evaluation time in nanoseconds.
+	 * @param p99EvaluationTime The 99th percentile evaluation time in nanoseconds.
+	 * @param alerts The number of matches the owner was alerted of.
+	 * @param medianTimeToAlert The median time to alert in milliseconds.
+	 * @param p99TimeToAlert The 99th percentile time to alert in milliseconds.
+	 */
+	public ContinuousQueryCost(long id, String query, long evaluations, long matches, long evaluationTime,
+			long medianEvaluationTime, long p99EvaluationTime, long alerts, long medianTimeToAlert, long p99TimeToAlert) {
+		
+		this.id = id;
+		this.query = query;
+		this.evaluations = evaluations;
+		this.matches = matches;
+		this.evaluationTime = evaluationTime;
+		this.medianEvaluationTime = medianEvaluationTime;
+		this.p99EvaluationTime = p99EvaluationTime;
+		this.alerts = alerts;
+		this.medianTimeToAlert = medianTimeToAlert;
+		this.p99TimeToAlert = p99TimeToAlert;
+		
+	}
+	
+	public long getId() {
+		return id;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	public long getMatches() {
+		return matches;
+	}
+	
+	/**
+	 * Gets the fraction of evaluations that matched.
+	 * @return The fraction of evaluations that matched, or <code>0</code>
+	 * if the continuous query has not been evaluated.
+	 */
+	public double getMatchRate() {
+		return evaluations == 0 ? 0 : (double) matches / evaluations;
+	}
+
+	public long getEvaluationTime() {
+		return evaluationTime;
+	}
+
+	public long getMedianEvaluationTime() {
+		return medianEvaluationTime;
+	}
+
+	public long getP99EvaluationTime() {
+		return p99EvaluationTime;
+	}
+
+	public long getAlerts() {
+		return alerts;
+	}
+
+	public long getMedianTimeToAlert() {
+		return medianTimeToAlert;
+	}
+
+	public long getP99TimeToAlert() {
+		return p99TimeToAlert;
+	}
+	
+}
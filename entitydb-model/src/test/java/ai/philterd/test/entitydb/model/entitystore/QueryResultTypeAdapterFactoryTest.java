@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.model.entitystore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.entitystore.QueryResult;
+import ai.philterd.entitydb.model.entitystore.QueryResultTypeAdapterFactory;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+public class QueryResultTypeAdapterFactoryTest {
+	
+	private final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new QueryResultTypeAdapterFactory()).create();
+
+	@Test
+	public void projection() throws Exception {
+		
+		final IndexedEntity indexedEntity = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), "id", "user:group:1");
+		
+		final QueryResult queryResult = new QueryResult(Collections.singletonList(indexedEntity), "query");
+		queryResult.setFields(Arrays.asList("text", "confidence"));
+		
+		final JsonObject json = gson.toJsonTree(queryResult).getAsJsonObject();
+		final JsonObject entity = json.getAsJsonArray("entities").get(0).getAsJsonObject();
+		
+		assertEquals("query", json.get("queryId").getAsString());
+		assertFalse(json.has("fields"));
+		
+		assertEquals(3, entity.entrySet().size());
+		assertEquals("id", entity.get("entityId").getAsString());
+		assertEquals(indexedEntity.getText(), entity.get("text").getAsString());
+		assertTrue(entity.has("confidence"));
+		
+	}
+	
+	@Test
+	public void noProjection() throws Exception {
+		
+		final IndexedEntity indexedEntity = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), "id", "user:group:1");
+		
+		final QueryResult queryResult = new QueryResult(Collections.singletonList(indexedEntity), "query");
+		
+		final JsonObject entity = gson.toJsonTree(queryResult).getAsJsonObject().getAsJsonArray("entities").get(0).getAsJsonObject();
+		
+		assertTrue(entity.has("text"));
+		assertTrue(entity.has("acl"));
+		
+	}
+	
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.model.eql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.eql.WildcardPattern;
+
+public class WildcardPatternTest {
+
+	@Test
+	public void matches() {
+		
+		assertTrue(WildcardPattern.compile("geo?ge wash*").matches("George Washington"));
+		assertTrue(WildcardPattern.compile("g*e").matches("ge"));
+		assertTrue(WildcardPattern.compile("g**e").matches("GEORGE"));
+		assertTrue(WildcardPattern.compile("*").matches(""));
+		assertTrue(WildcardPattern.compile("é*").matches("Élan"));
+		assertFalse(WildcardPattern.compile("g?e").matches("ge"));
+		assertFalse(WildcardPattern.compile("g*e").matches("george washington"));
+		assertFalse(WildcardPattern.compile("g*").matches(null));
+		
+		// A '*' in the value is not a wildcard.
+		assertFalse(WildcardPattern.compile("a?c").matches("a*"));
+		
+	}
+	
+	@Test
+	public void sameAsDynamicProgramming() {
+		
+		final Random random = new Random(1);
+		final char[] alphabet = {'a', 'B', 'é', '*', '?'};
+		
+		for(int i = 0; i < 5000; i++) {
+			
+			// Some of the patterns are too long for the automaton.
+			final String pattern = random(random, alphabet, random.nextInt(10) == 0 ? 64 + random.nextInt(16) : random.nextInt(8));
+			final String value = random(random, alphabet, random.nextInt(10) == 0 ? 80 : random.nextInt(10)).replace('*', 'a').replace('?', 'b');
+			
+			assertEquals(pattern + " " + value, matches(pattern, value), WildcardPattern.compile(pattern).matches(value));
+			
+		}
+		
+	}
+	
+	@Test
+	public void entityQuery() {
+		
+		final EntityQuery entityQuery = new EntityQuery();
+		entityQuery.setText("George*");
+		entityQuery.setContext("ctx?");
+		entityQuery.setType("PER*");
+		
+		assertTrue(entityQuery.isMatch(new Entity("george washington", 0.5, "person", "[0, 2)", "CTX1", "docid")));
+		assertFalse(entityQuery.isMatch(new Entity("george washington", 0.5, "person", "[0, 2)", "ctx10", "docid")));
+		assertFalse(entityQuery.isMatch(new Entity("john adams", 0.5, "person", "[0, 2)", "ctx1", "docid")));
+		
+		// The copy shares the compiled patterns.
+		assertTrue(entityQuery.getTextPattern() == entityQuery.copy().getTextPattern());
+		
+	}
+	
+	/**
+	 * Matches a value by filling in which prefixes of the
+	 * pattern match which prefixes of the value.
+	 */
+	private static boolean matches(String pattern, String value) {
+		
+		final String p = WildcardPattern.fold(pattern);
+		final String v = WildcardPattern.fold(value);
+		
+		final boolean[][] matched = new boolean[p.length() + 1][v.length() + 1];
+		matched[0][0] = true;
+		
+		for(int i = 1; i <= p.length(); i++) {
+			
+			for(int j = 0; j <= v.length(); j++) {
+				
+				if(p.charAt(i - 1) == '*') {
+					matched[i][j] = matched[i - 1][j] || (j > 0 && matched[i][j - 1]);
+				} else {
+					matched[i][j] = j > 0 && matched[i - 1][j - 1] && (p.charAt(i - 1) == '?' || p.charAt(i - 1) == v.charAt(j - 1));
+				}
+				
+			}
+			
+		}
+		
+		return matched[p.length()][v.length()];
+		
+	}
+	
+	private static String random(Random random, char[] alphabet, int length) {
+		
+		final StringBuilder sb = new StringBuilder(length);
+		
+		for(int i = 0; i < length; i++) {
+			sb.append(alphabet[random.nextInt(alphabet.length)]);
+		}
+		
+		return sb.toString();
+		
+	}
+	
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.model.executors;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.model.executors.BoundedExecutor;
+import ai.philterd.entitydb.model.executors.SaturationPolicy;
+import ai.philterd.entitydb.model.metrics.Metric;
+
+public class BoundedExecutorTest {
+
+	@Test
+	public void callerRuns() throws InterruptedException {
+		
+		final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, SaturationPolicy.CALLER_RUNS);
+		final CountDownLatch latch = new CountDownLatch(1);
+		
+		try {
+		
+			executor.execute(() -> await(latch));
+			executor.execute(() -> {});
+			
+			// The pool's thread is busy and the queue is full.
+			final Thread caller = Thread.currentThread();
+			final AtomicInteger ranOnCaller = new AtomicInteger();
+			
+			executor.execute(() -> { if(Thread.currentThread() == caller) ranOnCaller.incrementAndGet(); });
+			
+			assertEquals(1, ranOnCaller.get());
+			
+			latch.countDown();
+			
+		} finally {
+			
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			
+		}
+		
+		final Map<String, Long> metrics = getMetrics(executor);
+		
+		assertEquals(1, metrics.get("test.rejected").longValue());
+		assertEquals(3, metrics.get("test.completed").longValue());
+		
+	}
+	
+	@Test
+	public void shed() throws InterruptedException {
+		
+		final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, SaturationPolicy.SHED);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicInteger executed = new AtomicInteger();
+		final AtomicInteger shed = new AtomicInteger();
+		
+		try {
+		
+			executor.execute(() -> await(latch));
+			
+			for(int x = 0; x < 5; x++) {
+				
+				try {
+					executor.execute(() -> executed.incrementAndGet());
+				} catch (RejectedExecutionException ex) {
+					shed.incrementAndGet();
+				}
+				
+			}
+			
+			latch.countDown();
+			
+		} finally {
+			
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			
+		}
+		
+		assertEquals(1, executed.get());
+		assertEquals(4, shed.get());
+		assertEquals(4, getMetrics(executor).get("test.rejected").longValue());
+		
+	}
+	
+	@Test
+	public void block() throws InterruptedException {
+		
+		final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, SaturationPolicy.BLOCK);
+		final AtomicInteger executed = new AtomicInteger();
+		
+		try {
+		
+			for(int x = 0; x < 10; x++) {
+				executor.execute(() -> { sleep(5); executed.incrementAndGet(); });
+			}
+			
+		} finally {
+			
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+			
+		}
+		
+		final Map<String, Long> metrics = getMetrics(executor);
+		
+		assertEquals(10, executed.get());
+		assertEquals(10, metrics.get("test.completed").longValue());
+		assertTrue(metrics.get("test.rejected") > 0);
+		assertTrue(metrics.get("test.maxQueueWaitTime") > 0);
+		
+		// The metrics are reset when they are read.
+		assertEquals(0, getMetrics(executor).get("test.completed").longValue());
+		
+	}
+	
+	@Test
+	public void blockAfterShutdown() throws InterruptedException {
+		
+		final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, SaturationPolicy.BLOCK);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicInteger rejected = new AtomicInteger();
+		
+		executor.execute(() -> await(latch));
+		executor.execute(() -> {});
+		
+		// Blocks until the executor is shut down.
+		final Thread submitter = new Thread(() -> {
+			
+			try {
+				executor.execute(() -> {});
+			} catch (RejectedExecutionException ex) {
+				rejected.incrementAndGet();
+			}
+			
+		});
+		
+		submitter.start();
+		
+		while(submitter.getState() != Thread.State.WAITING) {
+			sleep(1);
+		}
+		
+		executor.shutdown();
+		latch.countDown();
+		
+		submitter.join(10000);
+		
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		
+		// The blocked task either ran before the shutdown completed or was rejected.
+		final Map<String, Long> metrics = getMetrics(executor);
+		
+		assertEquals(3, metrics.get("test.completed") + rejected.get());
+		
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidPolicy() {
+		
+		SaturationPolicy.fromString("wait");
+		
+	}
+	
+	@Test
+	public void policy() {
+		
+		assertEquals(SaturationPolicy.CALLER_RUNS, SaturationPolicy.fromString("Caller-Runs"));
+		assertEquals(SaturationPolicy.SHED, SaturationPolicy.fromString("shed"));
+		assertEquals(SaturationPolicy.BLOCK, SaturationPolicy.fromString(" block"));
+		
+	}
+	
+	private Map<String, Long> getMetrics(BoundedExecutor executor) {
+		
+		final Map<String, Long> metrics = new HashMap<String, Long>();
+		
+		for(Metric metric : executor.getMetrics()) {
+			metrics.put(metric.getName(), metric.getValue());
+		}
+		
+		return metrics;
+		
+	}
+	
+	private void await(CountDownLatch latch) {
+		
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		
+	}
+	
+	private void sleep(long millis) {
+		
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		
+	}
+	
+}
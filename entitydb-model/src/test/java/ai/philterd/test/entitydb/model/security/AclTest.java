@@ -33,6 +33,9 @@ import org.junit.Test;
 import ai.philterd.entitydb.model.domain.User;
 import ai.philterd.entitydb.model.exceptions.MalformedAclException;
 import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.model.security.EncodedAcl;
+import ai.philterd.entitydb.model.security.PrincipalDictionary;
+import ai.philterd.entitydb.model.security.PrincipalSet;
 
 public class AclTest {
 
@@ -182,4 +185,59 @@ public class AclTest {
 		
 	}
 
+	@Test
+	public void encodedAclMatchesAcl() throws MalformedAclException {
+		
+		PrincipalDictionary principalDictionary = new PrincipalDictionary();
+		
+		Set<String> groups = new HashSet<String>(Arrays.asList("group1", "group2"));
+		
+		User user1 = new User(1, "user1", "", "", "", groups);
+		User user2 = new User(2, "user2", "", "", "", new HashSet<String>());
+		
+		PrincipalSet principals1 = principalDictionary.encode(user1);
+		PrincipalSet principals2 = principalDictionary.encode(user2);
+		
+		String[] acls = {"1::0", "2::0", ":group1:0", ":group3:0", "3:group2:0", "3:group3:0", "::1", "::0"};
+		
+		for(String aclString : acls) {
+		
+			Acl acl = new Acl(aclString);
+			EncodedAcl encodedAcl = principalDictionary.encode(acl);
+			
+			assertEquals(aclString, acl.isEntityVisibleToUser(user1), encodedAcl.isVisibleTo(principals1));
+			assertEquals(aclString, acl.isEntityVisibleToUser(user2), encodedAcl.isVisibleTo(principals2));
+			
+		}
+		
+	}
+	
+	@Test
+	public void encodedAclFromAnotherDictionary() throws MalformedAclException {
+		
+		PrincipalDictionary principalDictionary = new PrincipalDictionary();
+		
+		User user1 = new User(1, "user1", "", "", "", new HashSet<String>(Arrays.asList("group1")));
+		User user2 = new User(2, "user2", "", "", "", new HashSet<String>(Arrays.asList("group2")));
+		
+		PrincipalSet principals1 = principalDictionary.encode(user1);
+		
+		// The replacement dictionary only has the principals of user 2 so its IDs differ.
+		PrincipalDictionary replacement = new PrincipalDictionary();
+		replacement.encode(user2);
+		
+		assertEquals(2, replacement.size());
+		
+		String[] acls = {"1::0", "2::0", ":group1:0", ":group2:0", "::1", "::0"};
+		
+		for(String aclString : acls) {
+		
+			Acl acl = new Acl(aclString);
+			
+			assertEquals(aclString, acl.isEntityVisibleToUser(user1), replacement.encode(acl).isVisibleTo(principals1));
+			
+		}
+		
+	}
+	
 }
\ No newline at end of file
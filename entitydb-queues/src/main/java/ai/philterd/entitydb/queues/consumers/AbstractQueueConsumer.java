@@ -21,8 +21,14 @@
 package ai.philterd.entitydb.queues.consumers;
 
 import java.io.IOException;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
 import org.apache.commons.lang3.StringUtils;
@@ -58,6 +64,7 @@ public abstract class AbstractQueueConsumer {
 	
 	private EntityStore<?> entityStore;
 	private List<RulesEngine> rulesEngines;
+	private Executor rulesExecutor;
 	private AuditLogger auditLogger;	
 	private MetricReporter metricReporter;
 	private ConcurrentLinkedQueue<IndexedEntity> indexerCache;
@@ -66,16 +73,18 @@ public abstract class AbstractQueueConsumer {
 	 * Base constructor for queue consumers.
 	 * @param entityStore An {@link EntityStore}.
 	 * @param rulesEngines A list of rules engines.
+	 * @param rulesExecutor The {@link Executor} that evaluates entities against the rules engines.
 	 * @param auditLogger An {@link AuditLogger}.
 	 * @param metricReporter A {@link MetricReporter}.
 	 * @param indexerCache The indexer's cache.
 	 */
-	public AbstractQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines,
+	public AbstractQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor,
 			AuditLogger auditLogger, MetricReporter metricReporter,
 			ConcurrentLinkedQueue<IndexedEntity> indexerCache) {
 		
 		this.entityStore = entityStore;
 		this.rulesEngines = rulesEngines;
+		this.rulesExecutor = rulesExecutor;
 		this.auditLogger = auditLogger;
 		this.metricReporter = metricReporter;
 		this.indexerCache = indexerCache;
@@ -128,18 +137,58 @@ public abstract class AbstractQueueConsumer {
 	
 	/**
 	 * Process the entity through the rules engine, store the entity, and index it.
+	 * The entity is evaluated against the rules engines on the calling thread.
 	 * @param queueIngestMessage The {@link QueueIngestMessage} containing the entity to ingest.
 	 * @return <code>true</code> if the entity was successfully ingested; otherwise <code>false</code>.
 	 * @throws MalformedAclException 
 	 */
 	protected boolean ingestEntity(QueueIngestMessage queueIngestMessage) throws MalformedAclException {
+		
+		return ingestEntity(queueIngestMessage, executeRulesEngines(queueIngestMessage));
+		
+	}
+	
+	/**
+	 * Store the entity and index it once it was processed through the rules engine.
+	 * @param queueIngestMessage The {@link QueueIngestMessage} containing the entity to ingest.
+	 * @param rulesEvaluation The entity's evaluation from {@link #executeRulesEngines(List)}.
+	 * @return <code>true</code> if the entity was successfully ingested; otherwise <code>false</code>.
+	 * @throws MalformedAclException 
+	 */
+	protected boolean ingestEntity(QueueIngestMessage queueIngestMessage, CompletableFuture<String> rulesEvaluation) throws MalformedAclException {
 			
 		long startTime = System.currentTimeMillis();
 		
 		boolean ingested = true;
 		
 		// The rules engine should execute whether or not the entity exists in the store.
-		String updatedAcl = executeRulesEngine(queueIngestMessage.getEntity());
+		final String updatedAcl;
+		
+		try {
+		
+			updatedAcl = rulesEvaluation.join();
+			
+		} catch (CompletionException ex) {
+			
+			if(ex.getCause() instanceof RejectedExecutionException) {
+			
+				LOGGER.warn("The rules executor did not accept the entity. It will be left on the queue.", ex.getCause());
+				
+				metricReporter.report(MetricReporter.MEASUREMENT_INGEST, "rulesRejected", 1L, Unit.COUNT);
+				
+				// This will leave the entity on the queue.
+				return false;
+				
+			}
+			
+			// Fail the same way as a rules engine evaluated on the calling thread.
+			if(ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			
+			throw ex;
+			
+		}
 		
 		// Set the ACL to a string for easier reference.
 		String acl = queueIngestMessage.getAcl();
@@ -208,16 +257,73 @@ public abstract class AbstractQueueConsumer {
 	}
 	
 	/**
-	 * Executes the rules engines on the entity.
-	 * @param entity An {@link Entity entity}.
-	 * @return An updated ACL for the entity or <code>null</code>.
+	 * Executes the rules engines on the entities of a batch of messages. Each entity is
+	 * evaluated as a task on the rules executor so the entities of the batch are evaluated
+	 * at the same time, and this returns once all of them were evaluated. When more than
+	 * one rules engine returns an ACL the ACL of the last rules engine in the list is used.
+	 * @param queueIngestMessages The {@link QueueIngestMessage messages} of the batch.
+	 * @return The completed evaluation of each message's entity keyed by the message. An evaluation
+	 * that the rules executor did not accept completed with a {@link RejectedExecutionException}.
 	 */
-	private String executeRulesEngine(Entity entity) {
+	protected Map<QueueIngestMessage, CompletableFuture<String>> executeRulesEngines(List<QueueIngestMessage> queueIngestMessages) {
 		
-		LOGGER.trace("Evaluating the entity against the rules.");
+		LOGGER.trace("Evaluating {} entities against the rules.", queueIngestMessages.size());
 		
 		long startTime = System.currentTimeMillis();
+		
+		final Map<QueueIngestMessage, CompletableFuture<String>> evaluations = new IdentityHashMap<>();
+		
+		for(QueueIngestMessage queueIngestMessage : queueIngestMessages) {
+			
+			CompletableFuture<String> evaluation;
+			
+			try {
+				
+				evaluation = CompletableFuture.supplyAsync(() -> evaluate(queueIngestMessage.getEntity()), rulesExecutor);
+				
+			} catch (RejectedExecutionException ex) {
 				
+				// The executor shed the task so nothing will complete the evaluation.
+				evaluation = new CompletableFuture<>();
+				evaluation.completeExceptionally(ex);
+				
+			}
+			
+			evaluations.put(queueIngestMessage, evaluation);
+			
+		}
+		
+		// Wait once for the whole batch. Failed evaluations are reported when each entity is ingested.
+		CompletableFuture.allOf(evaluations.values().toArray(new CompletableFuture<?>[0])).handle((result, ex) -> null).join();
+		
+		metricReporter.reportElapsedTime("RulesEngine", "time", startTime);
+		
+		return evaluations;
+		
+	}
+	
+	/**
+	 * Executes the rules engines on the entity on the calling thread since
+	 * there is nothing to evaluate at the same time.
+	 * @param queueIngestMessage The {@link QueueIngestMessage} containing the entity.
+	 * @return The completed evaluation of the entity.
+	 */
+	private CompletableFuture<String> executeRulesEngines(QueueIngestMessage queueIngestMessage) {
+		
+		LOGGER.trace("Evaluating the entity against the rules.");
+		
+		long startTime = System.currentTimeMillis();
+		
+		final String acl = evaluate(queueIngestMessage.getEntity());
+		
+		metricReporter.reportElapsedTime("RulesEngine", "time", startTime);
+		
+		return CompletableFuture.completedFuture(acl);
+		
+	}
+	
+	private String evaluate(Entity entity) {
+		
 		String acl = StringUtils.EMPTY;
 		
 		for(RulesEngine rulesEngine : rulesEngines) {
@@ -232,12 +338,14 @@ public abstract class AbstractQueueConsumer {
 				}
 
 			} catch (QueryGenerationException ex) {
-				// TODO: Handle this exception.
+				
+				LOGGER.error("Unable to evaluate the entity against the rules engine " + rulesEngine.getClass().getSimpleName() + ".", ex);
+				
+				metricReporter.report("RulesEngine", "evaluationException", 1L, Unit.COUNT);
+				
 			}
 		
-		}	
-		
-		metricReporter.reportElapsedTime("RulesEngine", "time", startTime);
+		}
 		
 		return acl;
 		
@@ -23,6 +23,7 @@ package ai.philterd.entitydb.queues.consumers;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 import javax.annotation.PreDestroy;
 import javax.jms.Connection;
@@ -77,6 +78,7 @@ public class ActiveMQQueueConsumer extends AbstractQueueConsumer implements Queu
 	 * Creates a new ActiveMQ consumer.
 	 * @param entityStore The {@link EntityStore}.
 	 * @param rulesEngines The list of {@link RulesEngine rules engines}.
+	 * @param rulesExecutor The {@link Executor} that evaluates entities against the rules engines.
 	 * @param searchIndex The {@link SearchIndex}.
 	 * @param brokerURL The ActiveMQ broker URL.
 	 * @param queueName The name of the queue.
@@ -84,11 +86,11 @@ public class ActiveMQQueueConsumer extends AbstractQueueConsumer implements Queu
 	 * at https://docs.oracle.com/javaee/7/api/javax/jms/MessageConsumer.html#receive-long- for a full description.
 	 * @throws JMSException Thrown if the ActiveMQ consumer cannot be created.
 	 */
-	public ActiveMQQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines,
+	public ActiveMQQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor,
 			AuditLogger auditLogger, MetricReporter metricReporter,
 			String brokerURL, String queueName, int timeout, ConcurrentLinkedQueue<IndexedEntity> indexerCache) throws JMSException {
 		
-		super(entityStore, rulesEngines, auditLogger, metricReporter, indexerCache);
+		super(entityStore, rulesEngines, rulesExecutor, auditLogger, metricReporter, indexerCache);
 
 		gson = new Gson();
 		
@@ -114,16 +116,17 @@ public class ActiveMQQueueConsumer extends AbstractQueueConsumer implements Queu
 	 * Creates a new ActiveMQ consumer with the default timeout value of 100.
 	 * @param entityStore The {@link EntityStore}.
 	 * @param rulesEngines The list of {@link RulesEngine rules engines}.
+	 * @param rulesExecutor The {@link Executor} that evaluates entities against the rules engines.
 	 * @param searchIndex The {@link SearchIndex}.
 	 * @param brokerURL The ActiveMQ broker URL.
 	 * @param queueName The name of the queue.	
 	 * @throws JMSException Thrown if the ActiveMQ consumer cannot be created.
 	 */
-	public ActiveMQQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines,
+	public ActiveMQQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor,
 			AuditLogger auditLogger, MetricReporter metricReporter, String brokerURL, String queueName,
 			ConcurrentLinkedQueue<IndexedEntity> indexerCache) throws JMSException {
 	
-		this(entityStore, rulesEngines, auditLogger, metricReporter, brokerURL, queueName, DEFAULT_TIMEOUT, indexerCache);
+		this(entityStore, rulesEngines, rulesExecutor, auditLogger, metricReporter, brokerURL, queueName, DEFAULT_TIMEOUT, indexerCache);
 		
 	}
 	
@@ -22,6 +22,7 @@ package ai.philterd.entitydb.queues.consumers;
 
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -57,13 +58,14 @@ public class InternalQueueConsumer extends AbstractQueueConsumer implements Queu
 	 * Creates a new internal queue consumer.
 	 * @param entityStore The {@link EntityStore}.
 	 * @param rulesEngines A list of {@link RulesEngine rules engines}.
+	 * @param rulesExecutor The {@link Executor} that evaluates entities against the rules engines.
 	 * @param searchIndex A {@link SearchIndex search index}.
 	 */
-	public InternalQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, 
+	public InternalQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor, 
 			AuditLogger auditLogger, MetricReporter metricReporter,
 			ConcurrentLinkedQueue<IndexedEntity> indexerCache) {
 		
-		super(entityStore, rulesEngines, auditLogger, metricReporter, indexerCache);
+		super(entityStore, rulesEngines, rulesExecutor, auditLogger, metricReporter, indexerCache);
 		
 		this.metricReporter = metricReporter;
 		
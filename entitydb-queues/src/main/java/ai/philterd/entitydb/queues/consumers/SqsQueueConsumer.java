@@ -21,12 +21,16 @@
 package ai.philterd.entitydb.queues.consumers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
@@ -76,11 +80,11 @@ public class SqsQueueConsumer extends AbstractQueueConsumer implements QueueCons
 	
 	private int visibilityTimeout;
 	
-	public SqsQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines,
+	public SqsQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor,
 			AuditLogger auditLogger, MetricReporter metricReporter, String endpoint, String queueUrl, int visibilityTimeout,
 			ConcurrentLinkedQueue<IndexedEntity> indexerCache) {
 		
-		super(entityStore, rulesEngines,  auditLogger, metricReporter, indexerCache);
+		super(entityStore, rulesEngines, rulesExecutor, auditLogger, metricReporter, indexerCache);
 		
 		client = new AmazonSQSClient(getClientConfiguration());
 		client.setEndpoint(endpoint);
@@ -91,12 +95,12 @@ public class SqsQueueConsumer extends AbstractQueueConsumer implements QueueCons
 		
 	}
 	
-	public SqsQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, 
+	public SqsQueueConsumer(EntityStore<?> entityStore, List<RulesEngine> rulesEngines, Executor rulesExecutor, 
 			AuditLogger auditLogger, MetricReporter metricReporter, String endpoint, String queueUrl, 
 			String accessKey, String secretKey, int visibilityTimeout,
 			ConcurrentLinkedQueue<IndexedEntity> indexerCache) {
 			
-		super(entityStore, rulesEngines, auditLogger, metricReporter, indexerCache);
+		super(entityStore, rulesEngines, rulesExecutor, auditLogger, metricReporter, indexerCache);
 		
 		client = new AmazonSQSClient(new BasicAWSCredentials(accessKey, secretKey), getClientConfiguration());
 		client.setEndpoint(endpoint);
@@ -133,6 +137,19 @@ public class SqsQueueConsumer extends AbstractQueueConsumer implements QueueCons
 	
 		LOGGER.info("Consumed {} messages from the queue.", messages.size());
 		
+		final Map<Message, QueueIngestMessage> queueIngestMessages = new IdentityHashMap<>();
+		
+		for(Message message : messages) {
+			
+			if(StringUtils.equalsIgnoreCase(message.getMessageAttributes().get(QueueConstants.ACTION).getStringValue(), QueueConstants.ACTION_INGEST)) {
+				queueIngestMessages.put(message, gson.fromJson(message.getBody(), QueueIngestMessage.class));
+			}
+			
+		}
+		
+		// The entities of the batch are evaluated against the rules engines at the same time.
+		final Map<QueueIngestMessage, CompletableFuture<String>> rulesEvaluations = executeRulesEngines(new ArrayList<>(queueIngestMessages.values()));
+		
 		for(Message message : messages) {
 			
 			boolean processed = false;
@@ -142,11 +159,11 @@ public class SqsQueueConsumer extends AbstractQueueConsumer implements QueueCons
 			if(StringUtils.equalsIgnoreCase(action, QueueConstants.ACTION_INGEST)) {
 			
 				// Ingest the entity.
-				QueueIngestMessage queueIngestMessage = gson.fromJson(message.getBody(), QueueIngestMessage.class);						
+				QueueIngestMessage queueIngestMessage = queueIngestMessages.get(message);
 				
 				try {
 				
-					processed = ingestEntity(queueIngestMessage);					
+					processed = ingestEntity(queueIngestMessage, rulesEvaluations.get(queueIngestMessage));					
 				
 				} catch (IOException ex) {
 										
@@ -34,7 +34,7 @@ public class InternalQueueTest extends AbstractQueueTest {
 		
 		super.before();
 		
-		consumer = new InternalQueueConsumer(entityStore, rulesEngines, auditLogger, metricReporter, indexerCache);
+		consumer = new InternalQueueConsumer(entityStore, rulesEngines, Runnable::run, auditLogger, metricReporter, indexerCache);
 		publisher = new InternalQueuePublisher(metricReporter);				
 		
 	}
@@ -52,7 +52,7 @@ public class SqsQueueTest extends AbstractQueueTest {
 				
 		final int visibilityTimeout = 10;
 			
-		consumer = new SqsQueueConsumer(entityStore, rulesEngines, auditLogger, metricReporter, endpoint, result.getQueueUrl(), "a", "s", visibilityTimeout, indexerCache);
+		consumer = new SqsQueueConsumer(entityStore, rulesEngines, Runnable::run, auditLogger, metricReporter, endpoint, result.getQueueUrl(), "a", "s", visibilityTimeout, indexerCache);
 		publisher = new SqsQueuePublisher(result.getQueueUrl(), endpoint, "a", "s", metricReporter);				
 		
 	}
@@ -0,0 +1,451 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+
+import ai.philterd.entitydb.model.executors.BoundedExecutor;
+import ai.philterd.entitydb.model.executors.SaturationPolicy;
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.metrics.Unit;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.BulkResult.BulkResultItem;
+import io.searchbox.core.Index;
+import io.searchbox.params.Parameters;
+
+/**
+ * Indexes entities in Elasticsearch with bulk requests. The entities are
+ * split into bulk requests having at most a number of entities and a number
+ * of bytes, and a number of bulk requests are executed at the same time.
+ * 
+ * Only the entities that Elasticsearch rejected because it was busy
+ * (<code>429</code> or <code>503</code>) or whose bulk request could not be
+ * sent are retried, after a backoff that doubles with each attempt. An entity
+ * that failed for any other reason is not retried and does not fail the other
+ * entities of its bulk request.
+ * 
+ * Entities can be indexed with the versions they were read with. Such an
+ * entity is skipped, and counted as a conflict, when it was changed after it
+ * was read.
+ * 
+ * The numbers of indexed, failed, retried, rejected and conflicting entities are returned
+ * and reset by {@link #getMetrics()}.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ElasticSearchBulkIndexer {
+
+	private static final Logger LOGGER = LogManager.getLogger(ElasticSearchBulkIndexer.class);
+	
+	public static final int DEFAULT_MAX_ACTIONS = 500;
+	public static final long DEFAULT_MAX_BYTES = 5 * 1024 * 1024;
+	public static final int DEFAULT_CONCURRENCY = 2;
+	public static final int DEFAULT_MAX_RETRIES = 3;
+	public static final long DEFAULT_BACKOFF = 100;
+	
+	private static final String EXTERNAL_GTE = "external_gte";
+	private static final int CONFLICT = 409;
+	
+	private static final Gson GSON = new Gson();
+	
+	private final JestClient jestClient;
+	private final String indexName;
+	private final String typeName;
+	private final int maxActions;
+	private final long maxBytes;
+	private final int maxRetries;
+	private final long backoff;
+	private final BoundedExecutor executor;
+	
+	private final LongAdder indexed = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder retried = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder conflicts = new LongAdder();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder requestTime = new LongAdder();
+	
+	private long lastMetricsTime = System.nanoTime();
+	
+	/**
+	 * Creates a new bulk indexer.
+	 * @param jestClient The {@link JestClient}.
+	 * @param indexName The name of the index.
+	 * @param typeName The name of the type of the entities.
+	 * @param maxActions The maximum number of entities in a bulk request.
+	 * @param maxBytes The maximum size in bytes of the entities in a bulk request. An entity
+	 * larger than this is indexed in a bulk request by itself.
+	 * @param concurrency The maximum number of bulk requests executing at the same time.
+	 * @param maxRetries The maximum number of times a rejected entity is retried.
+	 * @param backoff The time in milliseconds to wait before the first retry.
+	 */
+	public ElasticSearchBulkIndexer(JestClient jestClient, String indexName, String typeName, int maxActions, long maxBytes, int concurrency, int maxRetries, long backoff) {
+		
+		this.jestClient = jestClient;
+		this.indexName = indexName;
+		this.typeName = typeName;
+		this.maxActions = Math.max(1, maxActions);
+		this.maxBytes = Math.max(1, maxBytes);
+		this.maxRetries = Math.max(0, maxRetries);
+		this.backoff = Math.max(0, backoff);
+		
+		// Submitting a bulk request waits while the maximum number are executing.
+		this.executor = new BoundedExecutor("bulk-indexing", Math.max(1, concurrency), 1, SaturationPolicy.BLOCK);
+		
+	}
+	
+	/**
+	 * Indexes entities.
+	 * @param indexedEntities The {@link IndexedEntity entities}.
+	 * @return The IDs of the entities that were not indexed.
+	 */
+	public Set<String> index(Collection<IndexedEntity> indexedEntities) {
+		
+		return index(indexedEntities, Collections.<String, Long>emptyMap());
+		
+	}
+	
+	/**
+	 * Indexes entities only if they were not changed since they were read.
+	 * Elasticsearch's <code>external_gte</code> version type is used so an
+	 * entity is indexed with the same version it was read with, and is not
+	 * indexed if its version was incremented by another write since.
+	 * @param indexedEntities The {@link IndexedEntity entities}.
+	 * @param versions The versions the entities were read with keyed by their IDs. An
+	 * entity without a version is always indexed.
+	 * @return The IDs of the entities that were not indexed, not including the
+	 * entities that were skipped because they were changed.
+	 */
+	public Set<String> index(Collection<IndexedEntity> indexedEntities, Map<String, Long> versions) {
+		
+		final List<Future<Set<String>>> futures = new ArrayList<Future<Set<String>>>();
+		final List<Set<String>> batchEntityIds = new ArrayList<Set<String>>();
+		
+		Map<String, String> batch = new LinkedHashMap<String, String>();
+		long batchBytes = 0;
+		
+		for(IndexedEntity indexedEntity : indexedEntities) {
+			
+			// Each entity is serialized once to know its size.
+			final String source = GSON.toJson(indexedEntity);
+			final long size = source.getBytes(StandardCharsets.UTF_8).length;
+			
+			if(!batch.isEmpty() && (batch.size() >= maxActions || batchBytes + size > maxBytes)) {
+				
+				futures.add(submit(batch, batchBytes, versions));
+				batchEntityIds.add(batch.keySet());
+				
+				batch = new LinkedHashMap<String, String>();
+				batchBytes = 0;
+				
+			}
+			
+			batch.put(indexedEntity.getEntityId(), source);
+			batchBytes += size;
+			
+		}
+		
+		if(!batch.isEmpty()) {
+			
+			futures.add(submit(batch, batchBytes, versions));
+			batchEntityIds.add(batch.keySet());
+			
+		}
+		
+		final Set<String> failedEntityIds = new HashSet<String>();
+		
+		for(int x = 0; x < futures.size(); x++) {
+			
+			try {
+				
+				failedEntityIds.addAll(futures.get(x).get());
+				
+			} catch (InterruptedException ex) {
+				
+				Thread.currentThread().interrupt();
+				
+				LOGGER.error("Interrupted while waiting for the bulk requests.", ex);
+				
+				// The entities of the unfinished bulk requests are not known to be indexed.
+				for(int y = x; y < futures.size(); y++) {
+					failedEntityIds.addAll(batchEntityIds.get(y));
+				}
+				
+				break;
+				
+			} catch (ExecutionException ex) {
+				
+				LOGGER.error("Unable to execute a bulk request.", ex);
+				
+				failedEntityIds.addAll(batchEntityIds.get(x));
+				
+			}
+			
+		}
+		
+		return failedEntityIds;
+		
+	}
+	
+	/**
+	 * Gets the indexing metrics and resets them.
+	 * @return A list of {@link Metric metrics}.
+	 */
+	public List<Metric> getMetrics() {
+		
+		final long now = System.nanoTime();
+		final long elapsed = TimeUnit.NANOSECONDS.toMillis(now - lastMetricsTime);
+		lastMetricsTime = now;
+		
+		final long count = indexed.sumThenReset();
+		final long requestCount = requests.sumThenReset();
+		
+		final List<Metric> metrics = new LinkedList<Metric>();
+		
+		metrics.add(new Metric("bulk.indexed", count, Unit.COUNT));
+		metrics.add(new Metric("bulk.failed", failed.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric("bulk.retried", retried.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric("bulk.rejected", rejected.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric("bulk.conflicts", conflicts.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric("bulk.requests", requestCount, Unit.COUNT));
+		metrics.add(new Metric("bulk.bytes", bytes.sumThenReset(), Unit.COUNT));
+		metrics.add(new Metric("bulk.requestTime", requestCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(requestTime.sumThenReset() / requestCount), Unit.MILLISECONDS));
+		metrics.add(new Metric("bulk.indexedPerSecond", elapsed == 0 ? 0 : count * 1000 / elapsed, Unit.COUNT));
+		metrics.addAll(executor.getMetrics());
+		
+		return metrics;
+		
+	}
+	
+	/**
+	 * Stops the bulk indexer. Submitted bulk requests are still executed.
+	 */
+	public void close() {
+		
+		executor.shutdown();
+		
+	}
+	
+	private Future<Set<String>> submit(Map<String, String> batch, long batchBytes, Map<String, Long> versions) {
+		
+		bytes.add(batchBytes);
+		
+		return executor.submit(() -> execute(batch, versions));
+		
+	}
+	
+	/**
+	 * Executes a bulk request and retries the rejected entities.
+	 * @param batch The serialized entities keyed by their IDs.
+	 * @param versions The versions the entities were read with keyed by their IDs.
+	 * @return The IDs of the entities that were not indexed.
+	 */
+	private Set<String> execute(Map<String, String> batch, Map<String, Long> versions) {
+		
+		final Set<String> failedEntityIds = new HashSet<String>();
+		
+		Map<String, String> pending = batch;
+		
+		for(int attempt = 0; !pending.isEmpty(); attempt++) {
+			
+			if(attempt > 0) {
+				
+				if(attempt > maxRetries || !sleep(backoff << (attempt - 1))) {
+					
+					LOGGER.error("Unable to index {} entities in Elasticsearch after {} retries.", pending.size(), attempt - 1);
+					
+					failed.add(pending.size());
+					failedEntityIds.addAll(pending.keySet());
+					
+					break;
+					
+				}
+				
+				retried.add(pending.size());
+				
+			}
+			
+			pending = attempt(pending, versions, failedEntityIds);
+			
+		}
+		
+		return failedEntityIds;
+		
+	}
+	
+	/**
+	 * Sends a bulk request.
+	 * @param pending The serialized entities keyed by their IDs.
+	 * @param versions The versions the entities were read with keyed by their IDs.
+	 * @param failedEntityIds The IDs of the entities that failed and will not be retried.
+	 * @return The entities to retry.
+	 */
+	private Map<String, String> attempt(Map<String, String> pending, Map<String, Long> versions, Set<String> failedEntityIds) {
+		
+		final List<Index> indexes = new ArrayList<Index>(pending.size());
+		
+		for(Map.Entry<String, String> entry : pending.entrySet()) {
+			
+			final Index.Builder builder = new Index.Builder(entry.getValue()).id(entry.getKey());
+			
+			final Long version = versions.get(entry.getKey());
+			
+			if(version != null) {
+				builder.setParameter(Parameters.VERSION, version).setParameter(Parameters.VERSION_TYPE, EXTERNAL_GTE);
+			}
+			
+			indexes.add(builder.build());
+			
+		}
+		
+		final Bulk bulk = new Bulk.Builder()
+				.defaultIndex(indexName)
+				.defaultType(typeName)
+				.addAction(indexes)
+				.build();
+		
+		final BulkResult bulkResult;
+		
+		final long startTime = System.nanoTime();
+		
+		try {
+			
+			bulkResult = jestClient.execute(bulk);
+			
+		} catch (IOException ex) {
+			
+			// The request was not sent or its response was not received so all of it is retried.
+			LOGGER.warn("Unable to send a bulk request of {} entities to Elasticsearch: {}", pending.size(), ex.getMessage());
+			
+			return pending;
+			
+		} finally {
+			
+			requests.increment();
+			requestTime.add(System.nanoTime() - startTime);
+			
+		}
+		
+		if(bulkResult.getItems().isEmpty() && !bulkResult.isSucceeded()) {
+			
+			// The whole request failed.
+			if(isRetryable(bulkResult.getResponseCode())) {
+				
+				rejected.add(pending.size());
+				
+				return pending;
+				
+			}
+			
+			LOGGER.error("Unable to index {} entities in Elasticsearch. Reason: {}", pending.size(), bulkResult.getErrorMessage());
+			
+			failed.add(pending.size());
+			failedEntityIds.addAll(pending.keySet());
+			
+			return new LinkedHashMap<String, String>();
+			
+		}
+		
+		final Map<String, String> retry = new LinkedHashMap<String, String>();
+		
+		for(BulkResultItem item : bulkResult.getItems()) {
+			
+			if(item.error == null) {
+				
+				indexed.increment();
+				
+			} else if(item.status == CONFLICT) {
+				
+				// The entity was changed after it was read so its newer source is kept.
+				LOGGER.debug("Skipped entity changed since it was read. Entity ID: {}", item.id);
+				
+				conflicts.increment();
+				
+			} else if(isRetryable(item.status)) {
+				
+				rejected.increment();
+				
+				retry.put(item.id, pending.get(item.id));
+				
+			} else {
+				
+				LOGGER.error("Unable to index entity in Elasticsearch. Entity ID: {}. Reason: {}", item.id, item.error);
+				
+				failed.increment();
+				failedEntityIds.add(item.id);
+				
+			}
+			
+		}
+		
+		return retry;
+		
+	}
+	
+	private static boolean isRetryable(int status) {
+		
+		return status == 429 || status == 503;
+		
+	}
+	
+	private static boolean sleep(long millis) {
+		
+		try {
+			
+			Thread.sleep(millis);
+			
+			return true;
+			
+		} catch (InterruptedException ex) {
+			
+			Thread.currentThread().interrupt();
+			
+			return false;
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
+import ai.philterd.entitydb.model.search.ContinuousQueryIndex;
+import ai.philterd.entitydb.model.search.ContinuousQueryRegistration;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+import io.searchbox.action.BulkableAction;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestClientFactory;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.HttpClientConfig;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import io.searchbox.core.BulkResult.BulkResultItem;
+import io.searchbox.core.Delete;
+import io.searchbox.core.DocumentResult;
+import io.searchbox.core.Index;
+import io.searchbox.core.Search;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.mapping.PutMapping;
+
+/**
+ * Implementation of {@link ContinuousQueryIndex} that uses the
+ * Elasticsearch percolator. Each continuous query is registered
+ * as a percolator query built the same way the {@link ElasticSearchIndex}
+ * builds its search queries and a batch of entities is matched
+ * against all of the registered queries with a single multi
+ * percolate request.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ElasticSearchContinuousQueryIndex implements ContinuousQueryIndex {
+	
+	private static final Logger LOGGER = LogManager.getLogger(ElasticSearchContinuousQueryIndex.class);
+	
+	public static final String INDEX_NAME = "continuousqueries";
+	private static final String PERCOLATOR_TYPE_NAME = ".percolator";
+	private static final int CONNECTION_TIMEOUT = 120000;
+	private static final int BULK_SIZE = 500;
+	
+	// The percolated documents are parsed using the mapping of the entity
+	// type so the fields referenced by the queries must be mapped. The wildcard
+	// fields and the ACL's users and groups have the same lower-cased and
+	// unanalyzed fields as the entity index, and the dates are numeric so their
+	// ranges are not compared as strings.
+	private static final String MAPPING = "{\"" + ElasticSearchIndex.TYPE_NAME + "\":{\"properties\":{"
+			+ "\"text\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"type\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"context\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"documentId\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"uri\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"languageCode\":{\"type\":\"string\",\"fields\":{" + ElasticSearchIndex.LOWERCASE_MAPPING + "}},"
+			+ "\"confidence\":{\"type\":\"double\"},"
+			+ "\"extractionDate\":{\"type\":\"long\"},"
+			+ "\"" + IndexedEntity.TIME + "\":{\"type\":\"long\"},"
+			+ "\"acl\":{\"properties\":{"
+			+ "\"users\":{\"type\":\"string\",\"fields\":{\"raw\":{\"type\":\"string\",\"index\":\"not_analyzed\"}}},"
+			+ "\"groups\":{\"type\":\"string\",\"fields\":{\"raw\":{\"type\":\"string\",\"index\":\"not_analyzed\"}}},"
+			+ "\"world\":{\"type\":\"long\"}}}"
+			+ "}}}";
+	
+	private static final String SETTINGS = "{"
+			+ "\"settings\":{\"number_of_shards\":1,\"index.percolator.map_unmapped_fields_as_string\":true," + ElasticSearchIndex.ANALYSIS + "},"
+			+ "\"mappings\":" + MAPPING
+			+ "}";
+	
+	private JestClient jestClient;
+	
+	/**
+	 * Creates a new Elasticsearch continuous query index.
+	 * @param host The hostname of the Elasticsearch cluster.
+	 */
+	public ElasticSearchContinuousQueryIndex(String host) {
+		
+		HttpClientConfig clientConfig = new HttpClientConfig.Builder(trim(host))
+				.connTimeout(CONNECTION_TIMEOUT)
+				.readTimeout(CONNECTION_TIMEOUT)
+				.multiThreaded(true)
+				.build();
+		
+		JestClientFactory factory = new JestClientFactory();
+		factory.setHttpClientConfig(clientConfig);
+	
+		jestClient = factory.getObject();
+		
+		createIndex();
+				
+	}
+	
+	/**
+	 * Creates a new Elasticsearch continuous query index with authentication.
+	 * @param host The hostname of the Elasticsearch cluster.
+	 * @param username The Elasticsearch username.
+	 * @param password The Elasticsearch password.
+	 */
+	public ElasticSearchContinuousQueryIndex(String host, String username, String password) {
+		
+		HttpClientConfig clientConfig = new HttpClientConfig.Builder(trim(host))
+				.connTimeout(CONNECTION_TIMEOUT)
+				.readTimeout(CONNECTION_TIMEOUT)
+				.multiThreaded(true)
+				.defaultCredentials(username, password)
+				.build();
+		
+		JestClientFactory factory = new JestClientFactory();
+		factory.setHttpClientConfig(clientConfig);
+	
+		jestClient = factory.getObject();
+				
+		createIndex();
+		
+	}
+	
+
+	@Override
+	public boolean register(long id, EntityQuery entityQuery, User user) throws InvalidQueryException {
+		
+		final String query = "{\"query\":" + ElasticSearchIndex.buildQuery(entityQuery, user).toString() + "}";
+		
+		Index index = new Index.Builder(query).id(String.valueOf(id)).index(INDEX_NAME).type(PERCOLATOR_TYPE_NAME).refresh(true).build();
+		
+		try {
+			
+			DocumentResult documentResult = jestClient.execute(index);
+			
+			if(!documentResult.isSucceeded()) {
+				
+				LOGGER.error("Unable to register continuous query {}. Reason: {}", id, documentResult.getErrorMessage());
+				
+			}
+			
+			return documentResult.isSucceeded();
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to register continuous query " + id, ex);
+			
+			return false;
+			
+		}
+		
+	}
+	
+
+	@Override
+	public boolean unregister(long id) {
+		
+		Delete delete = new Delete.Builder(String.valueOf(id)).index(INDEX_NAME).type(PERCOLATOR_TYPE_NAME).refresh(true).build();
+		
+		try {
+			
+			return jestClient.execute(delete).isSucceeded();
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to unregister continuous query " + id, ex);
+			
+			return false;
+			
+		}
+		
+	}
+	
+
+	@Override
+	public Set<Long> register(Collection<ContinuousQueryRegistration> registrations) {
+		
+		final Set<Long> registered = new HashSet<Long>();
+		final List<Index> indexes = new ArrayList<Index>(Math.min(registrations.size(), BULK_SIZE));
+		
+		for(ContinuousQueryRegistration registration : registrations) {
+			
+			try {
+				
+				final String query = "{\"query\":" + ElasticSearchIndex.buildQuery(registration.getEntityQuery(), registration.getUser()).toString() + "}";
+				
+				indexes.add(new Index.Builder(query).id(String.valueOf(registration.getId())).build());
+				
+			} catch (InvalidQueryException ex) {
+				
+				LOGGER.warn("Unable to register continuous query {}. Reason: {}", registration.getId(), ex.getMessage());
+				
+			}
+			
+			if(indexes.size() == BULK_SIZE) {
+				
+				registered.addAll(bulk(indexes));
+				indexes.clear();
+				
+			}
+			
+		}
+		
+		if(!indexes.isEmpty()) {
+			registered.addAll(bulk(indexes));
+		}
+		
+		// Refresh once instead of once for each continuous query.
+		refresh();
+		
+		return registered;
+		
+	}
+	
+
+	@Override
+	public int retain(Set<Long> ids) {
+		
+		final JsonArray values = new JsonArray();
+		
+		for(Long id : ids) {
+			values.add(String.valueOf(id));
+		}
+		
+		final String query = "{\"query\":{\"bool\":{\"must_not\":{\"ids\":{\"values\":" + values.toString() + "}}}},"
+				+ "\"_source\":false,\"size\":" + BULK_SIZE + "}";
+		
+		int unregistered = 0;
+		
+		try {
+			
+			while(true) {
+				
+				final JestResult jestResult = jestClient.execute(new Search.Builder(query).addIndex(INDEX_NAME).addType(PERCOLATOR_TYPE_NAME).build());
+				
+				if(!jestResult.isSucceeded()) {
+					
+					LOGGER.error("Unable to find the stale continuous queries. Reason: {}", jestResult.getErrorMessage());
+					
+					break;
+					
+				}
+				
+				final List<Delete> deletes = new ArrayList<Delete>();
+				
+				for(JsonElement hit : jestResult.getJsonObject().getAsJsonObject("hits").getAsJsonArray("hits")) {
+					deletes.add(new Delete.Builder(hit.getAsJsonObject().get("_id").getAsString()).build());
+				}
+				
+				if(deletes.isEmpty()) {
+					break;
+				}
+				
+				final int deleted = bulk(deletes).size();
+				
+				unregistered += deleted;
+				
+				refresh();
+				
+				// Stop if none could be deleted instead of finding them again.
+				if(deleted == 0) {
+					break;
+				}
+				
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to unregister the stale continuous queries.", ex);
+			
+		}
+		
+		LOGGER.info("Unregistered {} stale continuous queries.", unregistered);
+		
+		return unregistered;
+		
+	}
+	
+
+	@Override
+	public List<List<Long>> match(List<IndexedEntity> indexedEntities) {
+		
+		final List<List<Long>> matches = new ArrayList<List<Long>>(indexedEntities.size());
+		
+		if(indexedEntities.isEmpty()) {
+			return matches;
+		}
+		
+		try {
+			
+			JestResult jestResult = jestClient.execute(new MultiPercolate(INDEX_NAME, ElasticSearchIndex.TYPE_NAME, indexedEntities));
+			
+			if(!jestResult.isSucceeded()) {
+				
+				LOGGER.error("Unable to percolate entities. Reason: {}", jestResult.getErrorMessage());
+				
+				return null;
+				
+			}
+			
+			final JsonArray responses = jestResult.getJsonObject().getAsJsonArray("responses");
+			
+			for(JsonElement response : responses) {
+				
+				final List<Long> ids = new LinkedList<Long>();
+				final JsonObject responseObject = response.getAsJsonObject();
+				
+				if(responseObject.has("error")) {
+					
+					LOGGER.error("Unable to percolate entity. Reason: {}", responseObject.get("error"));
+					
+				} else if(responseObject.has("matches")) {
+					
+					for(JsonElement match : responseObject.getAsJsonArray("matches")) {
+						ids.add(match.getAsJsonObject().get("_id").getAsLong());
+					}
+					
+				}
+				
+				matches.add(ids);
+				
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to percolate entities.", ex);
+			
+			return null;
+			
+		}
+		
+		return matches;
+		
+	}
+	
+
+	@Override
+	public void close() {
+		
+		jestClient.shutdownClient();
+		
+	}
+	
+	/**
+	 * Adds the analyzer of the lower-cased fields to the index if it was created
+	 * without it, and maps the lower-cased fields. The index is closed while the
+	 * analyzer is added so percolating fails until it is opened again.
+	 * @return <code>true</code> if the index has the analyzer; otherwise <code>false</code>.
+	 * @throws IOException Thrown if the index cannot be changed.
+	 */
+	public boolean migrateAnalysis() throws IOException {
+		
+		if(ElasticSearchIndex.hasAnalysis(jestClient, INDEX_NAME)) {
+			return true;
+		}
+		
+		ElasticSearchIndex.updateAnalysis(jestClient, INDEX_NAME);
+		
+		final JestResult mappingResult = jestClient.execute(new PutMapping.Builder(INDEX_NAME, ElasticSearchIndex.TYPE_NAME, MAPPING).build());
+		
+		if(!mappingResult.isSucceeded()) {
+			LOGGER.warn("Unable to add the lower-cased fields to the continuous query index mapping: {}", mappingResult.getErrorMessage());
+		}
+		
+		return mappingResult.isSucceeded();
+		
+	}
+	
+	private boolean createIndex() {
+		
+		LOGGER.info("Creating Elasticsearch index: {}", INDEX_NAME);
+		
+		boolean result = true;
+		
+		try {
+			
+			CreateIndex createIndex = new CreateIndex.Builder(INDEX_NAME)
+					.payload(SETTINGS)
+					.build();
+			
+			JestResult jestResult = jestClient.execute(createIndex);
+			
+			result = jestResult.isSucceeded();
+			
+			LOGGER.info("Elasticsearch index creation status: " + jestResult.getJsonString());
+			
+			if(!result && !ElasticSearchIndex.hasAnalysis(jestClient, INDEX_NAME)) {
+				
+				LOGGER.warn("The index {} does not have the lower-cased fields' analyzer so the continuous queries cannot be registered. "
+						+ "See the search.index.migrate.analysis property to add it.", INDEX_NAME);
+				
+			}
+			
+			// Add the lower-cased and date fields to an index created before they were mapped. The
+			// percolator queries are parsed against them again when the registry registers them at
+			// its first load.
+			PutMapping putMapping = new PutMapping.Builder(INDEX_NAME, ElasticSearchIndex.TYPE_NAME, MAPPING).build();
+			
+			JestResult mappingResult = jestClient.execute(putMapping);
+			
+			if(!mappingResult.isSucceeded()) {
+				LOGGER.warn("Unable to add the lower-cased and date fields to the continuous query index mapping: {}", mappingResult.getErrorMessage());
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to check for or create index.", ex);
+			
+		}
+		
+		return result;
+		
+	}
+	
+	/**
+	 * Executes a bulk request of percolator queries.
+	 * @param actions The index or delete actions.
+	 * @return The IDs of the continuous queries whose action succeeded.
+	 */
+	private Set<Long> bulk(List<? extends BulkableAction<?>> actions) {
+		
+		final Set<Long> succeeded = new HashSet<Long>();
+		
+		final Bulk bulk = new Bulk.Builder()
+				.defaultIndex(INDEX_NAME)
+				.defaultType(PERCOLATOR_TYPE_NAME)
+				.addAction(actions)
+				.build();
+		
+		try {
+			
+			final BulkResult bulkResult = jestClient.execute(bulk);
+			
+			for(BulkResultItem item : bulkResult.getItems()) {
+				
+				if(item.error == null) {
+					
+					succeeded.add(Long.valueOf(item.id));
+					
+				} else {
+					
+					LOGGER.error("Unable to {} continuous query {}. Reason: {}", item.operation, item.id, item.error);
+					
+				}
+				
+			}
+			
+			if(bulkResult.getItems().isEmpty() && !bulkResult.isSucceeded()) {
+				
+				LOGGER.error("Unable to update {} continuous queries. Reason: {}", actions.size(), bulkResult.getErrorMessage());
+				
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to update " + actions.size() + " continuous queries.", ex);
+			
+		}
+		
+		return succeeded;
+		
+	}
+	
+	private void refresh() {
+		
+		try {
+			
+			jestClient.execute(new Refresh.Builder().addIndex(INDEX_NAME).build());
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to refresh the continuous query index.", ex);
+			
+		}
+		
+	}
+	
+	private static String trim(String host) {
+		
+		if(host.endsWith("/")) {
+			host = host.substring(0, host.length() -1);
+		}
+		
+		return host;
+		
+	}
+	
+}
@@ -22,34 +22,54 @@ package ai.philterd.entitydb.search;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ai.philterd.entitydb.model.eql.EntityOrder;
 import ai.philterd.entitydb.model.eql.SortOrder;
+import ai.philterd.entitydb.model.eql.WildcardPattern;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.query.WildcardQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+
 import ai.philterd.entitydb.model.domain.User;
 import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
+import ai.philterd.entitydb.model.search.AggregationResult;
 import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.model.search.QueryExplanation;
 import ai.philterd.entitydb.model.search.SearchIndex;
 import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.metrics.Metric;
 
 import io.searchbox.client.JestClient;
 import io.searchbox.client.JestClientFactory;
 import io.searchbox.client.JestResult;
 import io.searchbox.client.config.HttpClientConfig;
-import io.searchbox.core.Bulk;
-import io.searchbox.core.BulkResult;
-import io.searchbox.core.BulkResult.BulkResultItem;
+import io.searchbox.client.http.JestHttpClient;
+import io.searchbox.core.ClearScroll;
 import io.searchbox.core.Count;
 import io.searchbox.core.CountResult;
 import io.searchbox.core.Delete;
@@ -58,14 +78,29 @@ import io.searchbox.core.Get;
 import io.searchbox.core.Index;
 import io.searchbox.core.Search;
 import io.searchbox.core.SearchResult;
+import io.searchbox.core.SearchScroll;
 import io.searchbox.core.Update;
+import io.searchbox.core.search.aggregation.CardinalityAggregation;
 import io.searchbox.core.search.aggregation.MaxAggregation;
+import io.searchbox.core.search.aggregation.TermsAggregation;
 import io.searchbox.core.search.sort.Sort;
+import io.searchbox.indices.CloseIndex;
 import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.OpenIndex;
+import io.searchbox.indices.mapping.PutMapping;
+import io.searchbox.indices.settings.GetSettings;
+import io.searchbox.indices.settings.UpdateSettings;
+import io.searchbox.params.Parameters;
 
 /**
  * Implementation of {@link SearchIndex} that uses Elasticsearch.
  * 
+ * The entities are always sorted by their IDs after the query's sort so the
+ * order is total. A page's cursor holds the sort values of the page's last
+ * entity and the next page is searched for the entities after those values,
+ * as Elasticsearch's <code>search_after</code> does, so a page costs the same
+ * however deep it is.
+ * 
  * @author Philterd, LLC
  *
  */
@@ -77,9 +112,58 @@ public class ElasticSearchIndex implements SearchIndex {
 	public static final String TYPE_NAME = "entity";
 	private static final int CONNECTION_TIMEOUT = 120000;
 	
+	private static final Gson GSON = new Gson();
+	
+	private static final String ENTITY_ID = "entityId";
+	private static final String TEXT = "text";
+	private static final String GROUPS = "groups";
+	private static final String DISTINCT = "distinct";
+	
+	// The fields that can be grouped by are also indexed without being analyzed
+	// so a terms aggregation counts whole values instead of their tokens. The
+	// sorted fields are also unanalyzed so each entity has a single sort value and
+	// the ACL's users and groups are unanalyzed so they are matched as exact terms.
+	// The dates are mapped as longs so the date conditions are range queries.
+	private static final String RAW_FIELD = "raw";
+	private static final String ENTITY_ID_RAW = ENTITY_ID + "." + RAW_FIELD;
+	private static final String ACL_USERS_RAW = "acl.users." + RAW_FIELD;
+	private static final String ACL_GROUPS_RAW = "acl.groups." + RAW_FIELD;
+	private static final String ACL_USERS = "acl.users";
+	private static final String ACL_GROUPS = "acl.groups";
+	private static final String ACL_WORLD = "acl.world";
+	private static final String RAW_MAPPING = "\"" + RAW_FIELD + "\":{\"type\":\"string\",\"index\":\"not_analyzed\"}";
+	
+	// The fields of the wildcard conditions are also indexed whole and lower-cased so a
+	// pattern is matched against the whole value, as WildcardPattern matches it, instead
+	// of against each of the value's tokens. The continuous query index maps them too.
+	private static final String LOWERCASE_FIELD = "lowercase";
+	private static final String LOWERCASE_ANALYZER = "lowercase_keyword";
+	static final String ANALYSIS = "\"analysis\":{\"analyzer\":{\"" + LOWERCASE_ANALYZER + "\":"
+			+ "{\"type\":\"custom\",\"tokenizer\":\"keyword\",\"filter\":[\"lowercase\"]}}}";
+	static final String LOWERCASE_MAPPING = "\"" + LOWERCASE_FIELD + "\":{\"type\":\"string\",\"analyzer\":\"" + LOWERCASE_ANALYZER + "\"}";
+	
+	private static final String AGGREGATION_MAPPING = getAggregationMapping("," + LOWERCASE_MAPPING);
+	
+	// The mapping of an index created before the analyzer of the lower-cased fields was added.
+	private static final String AGGREGATION_MAPPING_WITHOUT_LOWERCASE = getAggregationMapping("");
+	
+	// How long a scroll is kept between the batches of a reindex.
+	private static final String SCROLL_TIME = "5m";
+	
 	private JestClient jestClient;
 	private String host;
 	
+	// Created when first used so the default bulk indexer is not started when other settings are given.
+	private ElasticSearchBulkIndexer bulkIndexer;
+	private ElasticSearchStreamingSearch streamingSearch;
+	
+	// Changes after each write so cached query results can tell they are out of date.
+	private final AtomicLong generation = new AtomicLong();
+	
+	// Whether some entities were indexed before the lower-cased and unanalyzed fields were
+	// mapped. Until they are reindexed they are also matched against their original fields.
+	private volatile boolean reindexRequired = true;
+	
 	// A good Jest guide: 	http://docs.searchly.com/documentation/developer-api-guide/java-jest/
 	// Another: 			https://github.com/searchbox-io/Jest/tree/master/jest
 	
@@ -105,8 +189,10 @@ public class ElasticSearchIndex implements SearchIndex {
 		factory.setHttpClientConfig(clientConfig);
 	
 		jestClient = factory.getObject();
+		streamingSearch = new ElasticSearchStreamingSearch(((JestHttpClient) jestClient).getHttpClient(), host, INDEX_NAME, TYPE_NAME);
 		
 		createIndex();
+		isReindexRequired();
 				
 	}
 	
@@ -135,8 +221,10 @@ public class ElasticSearchIndex implements SearchIndex {
 		factory.setHttpClientConfig(clientConfig);
 	
 		jestClient = factory.getObject();
+		streamingSearch = new ElasticSearchStreamingSearch(((JestHttpClient) jestClient).getHttpClient(), host, INDEX_NAME, TYPE_NAME);
 				
 		createIndex();
+		isReindexRequired();
 		
 	}
 	
@@ -241,129 +329,471 @@ public class ElasticSearchIndex implements SearchIndex {
 		
 		List<IndexedEntity> indexedEntities = new LinkedList<IndexedEntity>();
 		
-		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-			
-		BoolQueryBuilder qb = QueryBuilders.boolQuery();				
+		Search search = buildSearch(entityQuery, user, buildSort(entityQuery), false);
 		
-		if(StringUtils.isNotEmpty(entityQuery.getText())) {
+		try {					
 			
-			if(entityQuery.getText().startsWith("*") || entityQuery.getText().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			// The hits are streamed from the response instead of parsing it with Jest.
+			indexedEntities = streamingSearch.search(search.getData(GSON));
+					
+		} catch (IOException ex) {
 			
-			qb.must(QueryBuilders.wildcardQuery("text", entityQuery.getText()));
+			LOGGER.error("Unable to execute query.", ex);
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotText())) {
+		return indexedEntities;
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The queries are executed with a single Elasticsearch multi search request.
+	 */
+	@Override
+	public List<List<IndexedEntity>> queryForIndexedEntities(List<EntityQuery> entityQueries, User user) throws InvalidQueryException {
+		
+		final List<String> searches = new ArrayList<String>(entityQueries.size());
+		
+		for(EntityQuery entityQuery : entityQueries) {
+			searches.add(buildSearch(entityQuery, user, buildSort(entityQuery), false).getData(GSON));
+		}
+		
+		List<List<IndexedEntity>> results = new ArrayList<List<IndexedEntity>>(entityQueries.size());
+		
+		try {
 			
-			if(entityQuery.getNotText().startsWith("*") || entityQuery.getNotText().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			// The hits are streamed from the response instead of parsing it with Jest.
+			results = streamingSearch.multiSearch(searches);
+			
+		} catch (IOException ex) {
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("text", entityQuery.getNotText()));
+			LOGGER.error("Unable to execute queries.", ex);
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getContext())) {
+		// None of the queries were executed.
+		while(results.size() < entityQueries.size()) {
+			results.add(null);
+		}
+		
+		return results;
+		
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getNextCursor(EntityQuery entityQuery, List<IndexedEntity> indexedEntities) {
+		
+		// A page having fewer entities than the limit is the last page.
+		if(indexedEntities == null || indexedEntities.isEmpty() || indexedEntities.size() < entityQuery.getLimit()) {
+			return null;
+		}
+		
+		final IndexedEntity indexedEntity = indexedEntities.get(indexedEntities.size() - 1);
+		
+		// The sort values of the last entity.
+		final List<String> values = new ArrayList<String>(2);
+		
+		if(getSortField(entityQuery.getEntityOrder()) != null) {
+			values.add(getSortValue(entityQuery.getEntityOrder(), indexedEntity));
+		}
+		
+		values.add(indexedEntity.getEntityId());
+		
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(GSON.toJson(values).getBytes(StandardCharsets.UTF_8));
+		
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The entities are counted by Elasticsearch with a terms aggregation and a
+	 * cardinality aggregation on the grouped field so no entities are returned.
+	 * The number of groups is limited by the query's limit.
+	 */
+	@Override
+	public AggregationResult aggregate(EntityQuery entityQuery, User user) throws InvalidQueryException {
+		
+		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+		
+		// The same query as queryForIndexedEntities so only visible entities are counted.
+		searchSourceBuilder.query(buildQuery(entityQuery, user, reindexRequired));
+		searchSourceBuilder.size(0);
+		
+		if(entityQuery.getEntityGroup() != null) {
 			
-			if(entityQuery.getContext().startsWith("*") || entityQuery.getContext().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			final String field = entityQuery.getEntityGroup().getProperty() + "." + RAW_FIELD;
 			
-			qb.must(QueryBuilders.wildcardQuery("context", entityQuery.getContext()));
+			searchSourceBuilder.aggregation(AggregationBuilders.terms(GROUPS).field(field).size(entityQuery.getLimit()));
+			searchSourceBuilder.aggregation(AggregationBuilders.cardinality(DISTINCT).field(field));
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotContext())) {
+		LOGGER.debug("Executing aggregation: " + searchSourceBuilder.toString());
+		
+		Search search = new Search.Builder(searchSourceBuilder.toString())
+			.addIndex(INDEX_NAME)
+			.addType(TYPE_NAME)
+			.build();
+		
+		try {
 			
-			if(entityQuery.getNotContext().startsWith("*") || entityQuery.getNotContext().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
+			SearchResult result = jestClient.execute(search);
+			
+			if(!result.isSucceeded()) {
+				
+				LOGGER.error("Unable to execute aggregation: {}", result.getErrorMessage());
+				
+				return null;
+				
 			}
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("context", entityQuery.getNotContext()));
+			if(entityQuery.getEntityGroup() == null) {
+				
+				return new AggregationResult(result.getTotal(), -1, null);
+				
+			}
 			
-		}
-		
-		if(StringUtils.isNotEmpty(entityQuery.getDocumentId())) {
+			// The buckets are in descending order of their counts.
+			final Map<String, Long> groups = new LinkedHashMap<String, Long>();
 			
-			if(entityQuery.getDocumentId().startsWith("*") || entityQuery.getDocumentId().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
+			for(TermsAggregation.Entry entry : result.getAggregations().getTermsAggregation(GROUPS).getBuckets()) {
+				groups.put(entry.getKey(), entry.getCount());
 			}
 			
-			qb.must(QueryBuilders.wildcardQuery("documentId", entityQuery.getDocumentId()));
+			final CardinalityAggregation distinct = result.getAggregations().getCardinalityAggregation(DISTINCT);
+			
+			return new AggregationResult(result.getTotal(), distinct.getCardinality(), groups);
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to execute aggregation.", ex);
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotDocumentId())) {
+		return null;
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public QueryExplanation explain(EntityQuery entityQuery, User user) throws InvalidQueryException {
+		
+		final List<Sort> sorts = buildSort(entityQuery);
+		final Search search = buildSearch(entityQuery, user, sorts, false);
+		
+		// The sorted fields in the order they are sorted by.
+		final JsonObject sort = new JsonObject();
+		
+		for(Sort s : sorts) {
 			
-			if(entityQuery.getNotDocumentId().startsWith("*") || entityQuery.getNotDocumentId().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
+			for(Map.Entry<String, com.google.gson.JsonElement> entry : s.toJsonObject().entrySet()) {
+				sort.add(entry.getKey(), entry.getValue());
 			}
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("documentId", entityQuery.getNotDocumentId()));
-			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getLanguageCode())) {
+		return new QueryExplanation(entityQuery, toMap(search.getData(GSON)), toMap(sort.toString()));
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The query is executed with Elasticsearch's profile API.
+	 */
+	@Override
+	public List<IndexedEntity> profile(EntityQuery entityQuery, User user, QueryExplanation queryExplanation) throws InvalidQueryException {
+		
+		List<IndexedEntity> indexedEntities = new LinkedList<IndexedEntity>();
+		
+		Search search = buildSearch(entityQuery, user, buildSort(entityQuery), true);
+		
+		queryExplanation.setSearch(toMap(search.getData(GSON)));
+		
+		try {
+			
+			JestResult result = jestClient.execute(search);
 			
-			if(entityQuery.getLanguageCode().startsWith("*") || entityQuery.getLanguageCode().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
+			if(result.getJsonObject() != null && result.getJsonObject().has("profile")) {
+				queryExplanation.setProfile(toMap(result.getJsonObject().get("profile").toString()));
 			}
 			
-			qb.must(QueryBuilders.wildcardQuery("language", entityQuery.getLanguageCode()));
+			indexedEntities = result.getSourceAsObjectList(IndexedEntity.class);
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to execute query.", ex);
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotLanguageCode())) {
+		return indexedEntities;
+		
+	}
+	
+	private Search buildSearch(EntityQuery entityQuery, User user, List<Sort> sort, boolean profile) throws InvalidQueryException {
+		
+		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 			
-			if(entityQuery.getNotLanguageCode().startsWith("*") || entityQuery.getNotLanguageCode().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+		final BoolQueryBuilder qb = buildQuery(entityQuery, user, reindexRequired);
+		
+		if(entityQuery.getCursor() != null) {
+			
+			// Continue after the last entity of the previous page instead of skipping the offset.
+			qb.filter(buildAfter(entityQuery));
+			
+		} else {
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("language", entityQuery.getNotLanguageCode()));
+			searchSourceBuilder.from(entityQuery.getOffset());
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getUri())) {
+		searchSourceBuilder.size(entityQuery.getLimit());
+		searchSourceBuilder.query(qb);
+		searchSourceBuilder.profile(profile);
+		
+		if(entityQuery.getFields() != null) {
 			
-			if(entityQuery.getUri().startsWith("*") || entityQuery.getUri().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
+			// Only fetch the projected fields. The entity's ID is always
+			// fetched because the returned entities are audited by their IDs.
+			final Set<String> includes = new LinkedHashSet<String>(entityQuery.getFields());
+			includes.add(ENTITY_ID);
+			
+			// The sorted property is fetched for the cursor of the next page.
+			if(getSortField(entityQuery.getEntityOrder()) != null) {
+				includes.add(entityQuery.getEntityOrder().getProperty());
 			}
 			
-			qb.must(QueryBuilders.wildcardQuery("uri", entityQuery.getUri()));
+			searchSourceBuilder.fetchSource(includes.toArray(new String[includes.size()]), null);
 			
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotUri())) {
+		LOGGER.debug("Executing query: " + searchSourceBuilder.toString());
+		
+		return new Search.Builder(searchSourceBuilder.toString())
+			.addIndex(INDEX_NAME)
+			.addType(TYPE_NAME)
+			.addSort(sort)
+			.build();
+		
+	}
+	
+	/**
+	 * Creates the sort of a query. The entities are sorted by their IDs after the
+	 * query's sort so the order is total and a cursor can continue after any entity.
+	 * @param entityQuery The {@link EntityQuery}.
+	 * @return The sorts in the order they are applied.
+	 */
+	private static List<Sort> buildSort(EntityQuery entityQuery) {
+		
+		final Sort.Sorting sorting = SortOrder.ASC.equals(entityQuery.getSortOrder()) ? Sort.Sorting.ASC : Sort.Sorting.DESC;
+		final String field = getSortField(entityQuery.getEntityOrder());
+		
+		final List<Sort> sorts = new ArrayList<Sort>(2);
+		
+		if(field != null) {
 			
-			if(entityQuery.getNotUri().startsWith("*") || entityQuery.getNotUri().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			sorts.add(new Sort(field, sorting));
+			sorts.add(new Sort(ENTITY_ID_RAW, Sort.Sorting.ASC));
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("uri", entityQuery.getNotUri()));
+		} else {
 			
+			sorts.add(new Sort(ENTITY_ID_RAW, sorting));
+			
+		}
+		
+		return sorts;
+		
+	}
+	
+	/**
+	 * Gets the field sorted by for an order other than the entities' IDs.
+	 * @param entityOrder The {@link EntityOrder}.
+	 * @return The field, or <code>null</code> if the entities are sorted by their IDs.
+	 */
+	private static String getSortField(EntityOrder entityOrder) {
+		
+		if(entityOrder == EntityOrder.TEXT) {
+			return TEXT + "." + RAW_FIELD;
+		} else if(entityOrder == EntityOrder.TYPE) {
+			return entityOrder.getProperty() + "." + RAW_FIELD;
+		} else if(entityOrder == EntityOrder.CONFIDENCE || entityOrder == EntityOrder.EXTRACTION_DATE) {
+			return entityOrder.getProperty();
+		} else {
+			return null;
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getType())) {
+	}
+	
+	/**
+	 * Gets the value of an entity's sorted field.
+	 * @param entityOrder The {@link EntityOrder}.
+	 * @param indexedEntity The {@link IndexedEntity entity}.
+	 * @return The value, or <code>null</code> if the entity does not have a value.
+	 */
+	private static String getSortValue(EntityOrder entityOrder, IndexedEntity indexedEntity) {
+		
+		if(entityOrder == EntityOrder.TEXT) {
+			return indexedEntity.getText();
+		} else if(entityOrder == EntityOrder.TYPE) {
+			return indexedEntity.getType();
+		} else if(entityOrder == EntityOrder.CONFIDENCE) {
+			return String.valueOf(indexedEntity.getConfidence());
+		} else {
+			return String.valueOf(indexedEntity.getExtractionDate());
+		}
+		
+	}
+	
+	/**
+	 * Creates the query for the entities after the last entity of the previous page.
+	 * @param entityQuery The {@link EntityQuery} having the cursor of the previous page.
+	 * @return The query.
+	 * @throws InvalidQueryException Thrown if the cursor is not valid for the query.
+	 */
+	private static QueryBuilder buildAfter(EntityQuery entityQuery) throws InvalidQueryException {
+		
+		final List<String> values;
+		
+		try {
 			
-			if(entityQuery.getType().startsWith("*") || entityQuery.getType().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			values = GSON.fromJson(new String(Base64.getUrlDecoder().decode(entityQuery.getCursor()), StandardCharsets.UTF_8), new TypeToken<List<String>>(){}.getType());
 			
-			qb.must(QueryBuilders.wildcardQuery("type", entityQuery.getType()));
+		} catch (IllegalArgumentException | JsonParseException ex) {
 			
+			throw new InvalidQueryException("The cursor is not valid.");
+			
+		}
+		
+		final boolean ascending = SortOrder.ASC.equals(entityQuery.getSortOrder());
+		final String field = getSortField(entityQuery.getEntityOrder());
+		
+		if(values == null || values.size() != (field == null ? 1 : 2) || values.get(values.size() - 1) == null) {
+			throw new InvalidQueryException("The cursor is not valid for the query.");
+		}
+		
+		if(field == null) {
+			return after(ENTITY_ID_RAW, values.get(0), ascending);
 		}
 		
-		if(StringUtils.isNotEmpty(entityQuery.getNotType())) {
+		// The entities having the same value are sorted by their IDs.
+		final BoolQueryBuilder sameValue = QueryBuilders.boolQuery().must(after(ENTITY_ID_RAW, values.get(1), true));
+		final BoolQueryBuilder after = QueryBuilders.boolQuery().should(sameValue).minimumNumberShouldMatch(1);
+		
+		// The entities without a value are sorted last in either order.
+		final QueryBuilder missing = QueryBuilders.boolQuery().mustNot(QueryBuilders.existsQuery(field));
+		
+		if(values.get(0) == null) {
 			
-			if(entityQuery.getNotType().startsWith("*") || entityQuery.getNotType().startsWith("?")) {
-				throw new InvalidQueryException("A field cannot begin with an asterisk.");
-			}
+			sameValue.must(missing);
+			
+		} else {
 			
-			qb.mustNot(QueryBuilders.wildcardQuery("type", entityQuery.getNotType()));
+			sameValue.must(QueryBuilders.termQuery(field, values.get(0)));
+			after.should(after(field, values.get(0), ascending));
+			after.should(missing);
 			
 		}
+		
+		return after;
+		
+	}
+	
+	private static RangeQueryBuilder after(String field, String value, boolean ascending) {
+		
+		return ascending ? QueryBuilders.rangeQuery(field).gt(value) : QueryBuilders.rangeQuery(field).lt(value);
+		
+	}
+	
+	private static Map<String, Object> toMap(String json) {
+		
+		return GSON.fromJson(json, new TypeToken<Map<String, Object>>(){}.getType());
+		
+	}
+	
+	/**
+	 * Translates an {@link EntityQuery} into an Elasticsearch query that
+	 * only matches entities visible to the user.
+	 * @param entityQuery The {@link EntityQuery}.
+	 * @param user The {@link User} executing the query.
+	 * @return The Elasticsearch query.
+	 * @throws InvalidQueryException Thrown if the query is invalid.
+	 */
+	static BoolQueryBuilder buildQuery(EntityQuery entityQuery, User user) throws InvalidQueryException {
+		
+		return buildQuery(entityQuery, user, false);
+		
+	}
+	
+	/**
+	 * Translates an {@link EntityQuery} into an Elasticsearch query that
+	 * only matches entities visible to the user.
+	 * @param entityQuery The {@link EntityQuery}.
+	 * @param user The {@link User} executing the query.
+	 * @param reindexRequired Whether the entities that do not have the lower-cased
+	 * fields are also matched against their original fields.
+	 * @return The Elasticsearch query.
+	 * @throws InvalidQueryException Thrown if the query is invalid.
+	 */
+	static BoolQueryBuilder buildQuery(EntityQuery entityQuery, User user, boolean reindexRequired) throws InvalidQueryException {
+		
+		BoolQueryBuilder qb = QueryBuilders.boolQuery();				
+		
+		// The conditions are the wildcard patterns compiled when the query
+		// was generated, so they are the same patterns that are matched by
+		// EntityQuery.isMatch and the EQL filters.
+		
+		if(entityQuery.getTextPattern() != null) {
+			qb.must(wildcardQuery("text", entityQuery.getTextPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotTextPattern() != null) {
+			qb.mustNot(wildcardQuery("text", entityQuery.getNotTextPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getContextPattern() != null) {
+			qb.must(wildcardQuery("context", entityQuery.getContextPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotContextPattern() != null) {
+			qb.mustNot(wildcardQuery("context", entityQuery.getNotContextPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getDocumentIdPattern() != null) {
+			qb.must(wildcardQuery("documentId", entityQuery.getDocumentIdPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotDocumentIdPattern() != null) {
+			qb.mustNot(wildcardQuery("documentId", entityQuery.getNotDocumentIdPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getLanguageCodePattern() != null) {
+			qb.must(wildcardQuery("languageCode", entityQuery.getLanguageCodePattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotLanguageCodePattern() != null) {
+			qb.mustNot(wildcardQuery("languageCode", entityQuery.getNotLanguageCodePattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getUriPattern() != null) {
+			qb.must(wildcardQuery("uri", entityQuery.getUriPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotUriPattern() != null) {
+			qb.mustNot(wildcardQuery("uri", entityQuery.getNotUriPattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getTypePattern() != null) {
+			qb.must(wildcardQuery("type", entityQuery.getTypePattern(), reindexRequired));
+		}
+		
+		if(entityQuery.getNotTypePattern() != null) {
+			qb.mustNot(wildcardQuery("type", entityQuery.getNotTypePattern(), reindexRequired));
+		}
 				
 		if(entityQuery.getConfidenceRange() != null) {
 			
@@ -371,97 +801,106 @@ public class ElasticSearchIndex implements SearchIndex {
 				.gte(entityQuery.getConfidenceRange().getMinimum())
 				.lte(entityQuery.getConfidenceRange().getMaximum()));
 			
-		}				
-		
-		StringBuilder sb = new StringBuilder();
-		for(String group : user.getGroups()) {
-			sb.append(String.format("[,]?%s[,]?|", group));
 		}
-
-		String groupRegEx = StringUtils.EMPTY;
 		
-		if(!sb.toString().isEmpty()) {
-			// Remove the last pipe in the regex.
-			groupRegEx = sb.toString().subSequence(0, sb.toString().length() - 1).toString();
+		if(entityQuery.getExtractionDateRange() != null) {
+			
+			qb.must(QueryBuilders.rangeQuery("extractionDate")
+				.gte(entityQuery.getExtractionDateRange().getMinimum())
+				.lte(entityQuery.getExtractionDateRange().getMaximum()));
+			
 		}
 		
-		// Set the ACL based on the user's permissions.
-		qb.must(QueryBuilders.boolQuery()
-				.should(QueryBuilders.regexpQuery("acl.users", String.format("[,]?%s[,]?", user.getUsername()))) 
-				.should(QueryBuilders.regexpQuery("acl.groups", groupRegEx))
-				.should(QueryBuilders.termQuery("acl.world", 1))
-				.minimumNumberShouldMatch(1)
-		);
+		if(entityQuery.getTimeRange() != null) {
+			
+			// The typed time that was copied from the metadata when the entity was indexed.
+			qb.must(QueryBuilders.rangeQuery(IndexedEntity.TIME)
+				.gte(entityQuery.getTimeRange().getMinimum())
+				.lte(entityQuery.getTimeRange().getMaximum()));
+			
+		}
 		
-		searchSourceBuilder.size(entityQuery.getLimit());
-		searchSourceBuilder.query(qb);
+		// Set the ACL based on the user's permissions. The user and groups are exact
+		// terms in filter context so the filter is not scored and can be cached.
+		final BoolQueryBuilder aclQuery = QueryBuilders.boolQuery()
+				.should(QueryBuilders.termQuery(ACL_WORLD, 1))
+				.minimumNumberShouldMatch(1);
 		
-		LOGGER.debug("Executing query: " + searchSourceBuilder.toString());
+		if(user.getUsername() != null) {
+			aclQuery.should(QueryBuilders.termsQuery(ACL_USERS_RAW, user.getUsername()));
+		}
 		
-		// The default sort is by rank.
-		Sort sort = new Sort("rank", Sort.Sorting.DESC);
+		if(CollectionUtils.isNotEmpty(user.getGroups())) {
+			aclQuery.should(QueryBuilders.termsQuery(ACL_GROUPS_RAW, user.getGroups()));
+		}
 		
-		if(entityQuery.getEntityOrder() == EntityOrder.TEXT) {
+		if(reindexRequired) {
 			
-			if(entityQuery.getSortOrder().equals(SortOrder.ASC)) {
+			// The entities indexed before the unanalyzed ACL fields were mapped are
+			// visible to the users and groups that could see them before.
+			final BoolQueryBuilder previousAclQuery = QueryBuilders.boolQuery()
+					.minimumNumberShouldMatch(1);
 			
-				sort = new Sort("text", Sort.Sorting.ASC);
-				
-			} else {
-				
-				sort = new Sort("text", Sort.Sorting.DESC);
-				
+			if(user.getUsername() != null) {
+				previousAclQuery.should(QueryBuilders.regexpQuery(ACL_USERS, String.format("[,]?%s[,]?", user.getUsername())));
 			}
-		
-		} else if(entityQuery.getEntityOrder() == EntityOrder.CONFIDENCE) {
 			
-			if(entityQuery.getSortOrder().equals(SortOrder.ASC)) {
-				
-				sort = new Sort("confidence", Sort.Sorting.ASC);
-				
-			} else {
-				
-				sort = new Sort("confidence", Sort.Sorting.DESC);
-				
+			for(String group : CollectionUtils.emptyIfNull(user.getGroups())) {
+				previousAclQuery.should(QueryBuilders.regexpQuery(ACL_GROUPS, String.format("[,]?%s[,]?", group)));
 			}
 			
-		} else if(entityQuery.getEntityOrder() == EntityOrder.ID) {
-			
-			if(entityQuery.getSortOrder().equals(SortOrder.ASC)) {
-				
-				sort = new Sort("id", Sort.Sorting.ASC);
+			if(previousAclQuery.hasClauses()) {
 				
-			} else {
+				aclQuery.should(QueryBuilders.boolQuery()
+						.mustNot(QueryBuilders.existsQuery(ACL_USERS_RAW))
+						.mustNot(QueryBuilders.existsQuery(ACL_GROUPS_RAW))
+						.must(previousAclQuery));
 				
-				sort = new Sort("id", Sort.Sorting.DESC);
-				
-			}			
+			}
 			
 		}
-						
-		Search search = new Search.Builder(searchSourceBuilder.toString())
-			.addIndex(INDEX_NAME)
-			.addType(TYPE_NAME)
-			.addSort(sort)
-			.build();
 		
-		try {					
-						
-			JestResult result = jestClient.execute(search);
-			
-			indexedEntities = result.getSourceAsObjectList(IndexedEntity.class);
-					
-		} catch (IOException ex) {
-			
-			LOGGER.error("Unable to execute query.", ex);
-			
+		qb.filter(aclQuery);
+		
+		return qb;
+		
+	}
+	
+	/**
+	 * Creates an Elasticsearch wildcard query for a condition.
+	 * @param field The field.
+	 * @param pattern The {@link WildcardPattern pattern} of the condition.
+	 * @param reindexRequired Whether the entities that do not have the lower-cased
+	 * field are matched against the tokens of the original field.
+	 * @return The wildcard query.
+	 * @throws InvalidQueryException Thrown if the pattern begins with a wildcard.
+	 */
+	private static QueryBuilder wildcardQuery(String field, WildcardPattern pattern, boolean reindexRequired) throws InvalidQueryException {
+		
+		if(pattern.isLeadingWildcard()) {
+			throw new InvalidQueryException("A field cannot begin with an asterisk.");
 		}
 		
-		return indexedEntities;
+		// Wildcard queries are not analyzed so the pattern is lower-cased like the field.
+		final String folded = WildcardPattern.fold(pattern.getPattern());
+		final String lowercaseField = field + "." + LOWERCASE_FIELD;
+		
+		final WildcardQueryBuilder wildcardQuery = QueryBuilders.wildcardQuery(lowercaseField, folded);
+		
+		if(!reindexRequired) {
+			return wildcardQuery;
+		}
+		
+		// The entities indexed before the lower-cased field was mapped are matched as they were before.
+		return QueryBuilders.boolQuery()
+				.should(wildcardQuery)
+				.should(QueryBuilders.boolQuery()
+						.mustNot(QueryBuilders.existsQuery(lowercaseField))
+						.must(QueryBuilders.wildcardQuery(field, folded)))
+				.minimumNumberShouldMatch(1);
 		
 	}
 	
-
 	@Override
 	public long getCount() {
 		
@@ -539,61 +978,240 @@ public class ElasticSearchIndex implements SearchIndex {
         
         	return false;
         	
+        } finally {
+        	
+        	generation.incrementAndGet();
+        	
         }
         
 	}
 	
 
+	/**
+	 * {@inheritDoc}
+	 * The entities are read with a scroll in index order and indexed again
+	 * with bulk requests. Each entity is indexed with the version it was read
+	 * with so an entity that was changed after it was read is skipped instead
+	 * of being overwritten with its older source.
+	 */
 	@Override
-	public Set<String> index(Set<IndexedEntity> indexedEntities) {
+	public long reindex(int batchSize) {
+		
+		LOGGER.info("Reindexing the entities in Elasticsearch.");
+		
+		long reindexed = 0;
+		
+		String scrollId = null;
+		
+		try {
+			
+			final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+					.query(QueryBuilders.matchAllQuery())
+					.sort("_doc")
+					.version(true)
+					.size(batchSize);
+			
+			final Search search = new Search.Builder(searchSourceBuilder.toString())
+					.addIndex(INDEX_NAME)
+					.addType(TYPE_NAME)
+					.setParameter(Parameters.SCROLL, SCROLL_TIME)
+					.build();
+			
+			JestResult result = jestClient.execute(search);
+			
+			while(result.isSucceeded()) {
 				
-		Set<String> failedEntityIds = new HashSet<String>();
-        
-        try {        	        	
-        	
-        	List<Index> indexes = new LinkedList<Index>();
-        	
-        	for(IndexedEntity indexedEntity : indexedEntities) {
-        		indexes.add(new Index.Builder(indexedEntity).build());
-        	}
-        	
-        	Bulk bulk = new Bulk.Builder()
-                    .defaultIndex(INDEX_NAME)
-                    .defaultType(TYPE_NAME)
-                    .addAction(indexes)
-                    .build();
-
-        	BulkResult bulkResult = jestClient.execute(bulk);
-        	
-        	boolean result = bulkResult.isSucceeded();
-        	
-        	if(!result) {
-        		        		
-        		LOGGER.error("Unable to index entities in Elasticsearch. Reason: " + bulkResult.getErrorMessage()); 
-        		
-        		for(BulkResultItem item : bulkResult.getFailedItems()) {        			
-        			failedEntityIds.add(item.id);        			
-        		}
-        		
-        	}
- 
-        } catch(IOException ex) {
-
-        	LOGGER.error("Unable to index entities in Elasticsearch.", ex);
-        	
-        	// This was a connection error. None of the entities were stored.
-        	
-        	for(IndexedEntity indexedEntity : indexedEntities) {
-        		failedEntityIds.add(indexedEntity.getEntityId());
-        	}
-        	
-        }
-        
-        return failedEntityIds;
-        
+				scrollId = result.getJsonObject().get("_scroll_id").getAsString();
+				
+				final List<IndexedEntity> indexedEntities = result.getSourceAsObjectList(IndexedEntity.class);
+				
+				if(indexedEntities.isEmpty()) {
+					break;
+				}
+				
+				// The versions the entities were read with. They are not part of the entities' sources.
+				final Map<String, Long> versions = new LinkedHashMap<String, Long>();
+				
+				for(IndexedEntity indexedEntity : indexedEntities) {
+					
+					versions.put(indexedEntity.getEntityId(), indexedEntity.getDocumentVersion());
+					indexedEntity.setDocumentVersion(null);
+					
+				}
+				
+				try {
+					
+					final Set<String> failedEntityIds = getBulkIndexer().index(indexedEntities, versions);
+					
+					reindexed += indexedEntities.size() - failedEntityIds.size();
+					
+				} finally {
+					
+					generation.incrementAndGet();
+					
+				}
+				
+				LOGGER.debug("Reindexed {} entities.", reindexed);
+				
+				result = jestClient.execute(new SearchScroll.Builder(scrollId, SCROLL_TIME).build());
+				
+			}
+			
+			if(!result.isSucceeded()) {
+				LOGGER.error("Unable to reindex the entities in Elasticsearch. Reason: " + result.getErrorMessage());
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.error("Unable to reindex the entities in Elasticsearch.", ex);
+			
+		} finally {
+			
+			clearScroll(scrollId);
+			
+		}
+		
+		LOGGER.info("Reindexed {} entities.", reindexed);
+		
+		// Stop matching the original fields once every entity has the new fields.
+		isReindexRequired();
+		
+		return reindexed;
+		
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * The entities without the unanalyzed ID or the lower-cased text were
+	 * indexed before those fields were added to the mapping. Until none are
+	 * left, queries also match the entities against their original fields.
+	 */
+	@Override
+	public boolean isReindexRequired() {
+		
+		final QueryBuilder query = QueryBuilders.boolQuery()
+				.should(QueryBuilders.boolQuery().mustNot(QueryBuilders.existsQuery(ENTITY_ID_RAW)))
+				.should(QueryBuilders.boolQuery().mustNot(QueryBuilders.existsQuery(TEXT + "." + LOWERCASE_FIELD)))
+				.minimumNumberShouldMatch(1);
+		
+		try {
+			
+			final CountResult result = jestClient.execute(new Count.Builder()
+					.query(new SearchSourceBuilder().query(query).toString())
+					.addIndex(INDEX_NAME)
+					.addType(TYPE_NAME)
+					.build());
+			
+			if(!result.isSucceeded()) {
+				
+				LOGGER.warn("Unable to count the entities that need to be reindexed. Reason: {}", result.getErrorMessage());
+				
+				return false;
+				
+			}
+			
+			final Double count = result.getCount();
+			
+			reindexRequired = count != null && count > 0;
+			
+			return reindexRequired;
+			
+		} catch (IOException ex) {
+			
+			LOGGER.warn("Unable to count the entities that need to be reindexed.", ex);
+			
+			return false;
+			
+		}
+		
+	}
+	
+	/**
+	 * Releases the resources of a scroll without waiting for it to time out.
+	 * @param scrollId The ID of the scroll, or <code>null</code> if there is no scroll.
+	 */
+	private void clearScroll(String scrollId) {
+		
+		if(scrollId == null) {
+			return;
+		}
+		
+		try {
+			
+			final JestResult result = jestClient.execute(new ClearScroll.Builder().addScrollId(scrollId).build());
+			
+			if(!result.isSucceeded()) {
+				LOGGER.warn("Unable to clear the reindex scroll. Reason: {}", result.getErrorMessage());
+			}
+			
+		} catch (IOException ex) {
+			
+			LOGGER.warn("Unable to clear the reindex scroll.", ex);
+			
+		}
+		
+	}
 
+	/**
+	 * {@inheritDoc}
+	 * The entities are indexed by the {@link ElasticSearchBulkIndexer}.
+	 */
+	@Override
+	public Set<String> index(Set<IndexedEntity> indexedEntities) {
+		
+		try {
+			
+			return getBulkIndexer().index(indexedEntities);
+			
+		} finally {
+			
+			generation.incrementAndGet();
+			
+		}
+		
+	}
+	
+	/**
+	 * Sets how entities are indexed with bulk requests.
+	 * @param maxActions The maximum number of entities in a bulk request.
+	 * @param maxBytes The maximum size in bytes of the entities in a bulk request.
+	 * @param concurrency The maximum number of bulk requests executing at the same time.
+	 * @param maxRetries The maximum number of times a rejected entity is retried.
+	 * @param backoff The time in milliseconds to wait before the first retry.
+	 * @return This {@link ElasticSearchIndex}.
+	 */
+	public synchronized ElasticSearchIndex withBulkIndexing(int maxActions, long maxBytes, int concurrency, int maxRetries, long backoff) {
+		
+		final ElasticSearchBulkIndexer previous = bulkIndexer;
+		
+		bulkIndexer = new ElasticSearchBulkIndexer(jestClient, INDEX_NAME, TYPE_NAME, maxActions, maxBytes, concurrency, maxRetries, backoff);
+		
+		if(previous != null) {
+			previous.close();
+		}
+		
+		return this;
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * The generation changes after each write, whether or not it succeeded.
+	 */
+	@Override
+	public long getGeneration() {
+		
+		return generation.get();
+		
+	}
+	
+	@Override
+	public List<Metric> getMetrics() {
+		
+		return getBulkIndexer().getMetrics();
+		
+	}
+	
 	@Override
 	public boolean update(IndexedEntity indexedEntity) {
 		
@@ -611,6 +1229,10 @@ public class ElasticSearchIndex implements SearchIndex {
         
         	return false;
         	
+        } finally {
+        	
+        	generation.incrementAndGet();
+        	
         }
 
 	}
@@ -637,6 +1259,10 @@ public class ElasticSearchIndex implements SearchIndex {
         
         	return false;
         	
+        } finally {
+        	
+        	generation.incrementAndGet();
+        	
         }
 		
 	}
@@ -645,10 +1271,37 @@ public class ElasticSearchIndex implements SearchIndex {
 	@Override
 	public void close() {
 		
+		synchronized(this) {
+			
+			if(bulkIndexer != null) {
+				bulkIndexer.close();
+			}
+			
+		}
+		
 		jestClient.shutdownClient();
 		
 	}
 	
+	/**
+	 * Gets the bulk indexer, creating one with the default settings
+	 * if {@link #withBulkIndexing(int, long, int, int, long)} was not used.
+	 * @return The {@link ElasticSearchBulkIndexer}.
+	 */
+	private synchronized ElasticSearchBulkIndexer getBulkIndexer() {
+		
+		if(bulkIndexer == null) {
+			
+			bulkIndexer = new ElasticSearchBulkIndexer(jestClient, INDEX_NAME, TYPE_NAME,
+					ElasticSearchBulkIndexer.DEFAULT_MAX_ACTIONS, ElasticSearchBulkIndexer.DEFAULT_MAX_BYTES, ElasticSearchBulkIndexer.DEFAULT_CONCURRENCY,
+					ElasticSearchBulkIndexer.DEFAULT_MAX_RETRIES, ElasticSearchBulkIndexer.DEFAULT_BACKOFF);
+			
+		}
+		
+		return bulkIndexer;
+		
+	}
+	
 	/**
 	 * Create the index on Elasticsearch.
 	 * @return <code>true</code> if the index was created or if the index already exists; otherwise <code>false</code>.
@@ -664,7 +1317,7 @@ public class ElasticSearchIndex implements SearchIndex {
 			final String settings = getSettings();
 			
 			CreateIndex createIndex = new CreateIndex.Builder(INDEX_NAME)
-					.settings(settings)
+					.settings(addAnalysis(settings))
 	                .build();
 			
 			JestResult jestResult = jestClient.execute(createIndex);
@@ -672,6 +1325,27 @@ public class ElasticSearchIndex implements SearchIndex {
 			result = jestResult.isSucceeded();
 			
 			LOGGER.info("Elasticsearch index creation status: " + jestResult.getJsonString());
+			
+			final boolean analysis = result || hasAnalysis(jestClient, INDEX_NAME);
+			
+			if(!analysis) {
+				
+				LOGGER.warn("The index {} does not have the {} analyzer so its wildcard conditions match the tokens of the entities' values. "
+						+ "See the search.index.migrate.analysis property to add it.", INDEX_NAME, LOWERCASE_ANALYZER);
+				
+			}
+			
+			// Add the unanalyzed and lower-cased fields used by aggregations, sorting, the ACL filter
+			// and the wildcard conditions and the date fields. This also adds them to an existing index
+			// but only entities indexed afterward have them. The existing entities get them when they
+			// are reindexed.
+			PutMapping putMapping = new PutMapping.Builder(INDEX_NAME, TYPE_NAME, analysis ? AGGREGATION_MAPPING : AGGREGATION_MAPPING_WITHOUT_LOWERCASE).build();
+			
+			JestResult mappingResult = jestClient.execute(putMapping);
+			
+			if(!mappingResult.isSucceeded()) {
+				LOGGER.warn("Unable to add the aggregation and date fields to the index mapping: {}", mappingResult.getErrorMessage());
+			}
 						
 		} catch (IOException ex) {
 			
@@ -683,6 +1357,143 @@ public class ElasticSearchIndex implements SearchIndex {
 		
 	}
 	
+	/**
+	 * Adds the analyzer of the lower-cased fields to the settings of a new index.
+	 * @param settings The settings read from the settings file.
+	 * @return The settings with the analyzer.
+	 */
+	private static String addAnalysis(String settings) {
+		
+		final JsonObject body = settings == null ? new JsonObject() : JsonParser.parseString(settings).getAsJsonObject();
+		
+		if(!body.has("settings")) {
+			body.add("settings", new JsonObject());
+		}
+		
+		body.getAsJsonObject("settings").add("analysis", JsonParser.parseString("{" + ANALYSIS + "}").getAsJsonObject().get("analysis"));
+		
+		return body.toString();
+		
+	}
+	
+	/**
+	 * Gets the mapping of the unanalyzed, lower-cased and date fields.
+	 * @param lowercaseMapping The mapping of the lower-cased subfield preceded by
+	 * a comma, or an empty string to not map the lower-cased fields.
+	 * @return The mapping.
+	 */
+	private static String getAggregationMapping(String lowercaseMapping) {
+		
+		return "{\"" + TYPE_NAME + "\":{\"properties\":{"
+				+ "\"" + ENTITY_ID + "\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + "}},"
+				+ "\"" + TEXT + "\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + lowercaseMapping + "}},"
+				+ "\"type\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + lowercaseMapping + "}},"
+				+ "\"context\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + lowercaseMapping + "}},"
+				+ "\"languageCode\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + lowercaseMapping + "}},"
+				+ "\"documentId\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + lowercaseMapping + "}},"
+				+ (lowercaseMapping.isEmpty() ? "" : "\"uri\":{\"type\":\"string\",\"fields\":{" + LOWERCASE_MAPPING + "}},")
+				+ "\"extractionDate\":{\"type\":\"long\"},"
+				+ "\"" + IndexedEntity.TIME + "\":{\"type\":\"long\"},"
+				+ "\"acl\":{\"properties\":{"
+					+ "\"users\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + "}},"
+					+ "\"groups\":{\"type\":\"string\",\"fields\":{" + RAW_MAPPING + "}}"
+				+ "}}"
+				+ "}}}";
+		
+	}
+	
+	/**
+	 * Adds the analyzer of the lower-cased fields to the index if it was created
+	 * without it, and maps the lower-cased fields. The index is closed while the
+	 * analyzer is added so the searches and writes of every EntityDB node using
+	 * the index fail until it is opened again. The entities get the lower-cased
+	 * fields when they are reindexed.
+	 * @return <code>true</code> if the index has the analyzer; otherwise <code>false</code>.
+	 * @throws IOException Thrown if the index cannot be changed.
+	 */
+	public boolean migrateAnalysis() throws IOException {
+		
+		if(hasAnalysis(jestClient, INDEX_NAME)) {
+			return true;
+		}
+		
+		updateAnalysis(jestClient, INDEX_NAME);
+		
+		final JestResult mappingResult = jestClient.execute(new PutMapping.Builder(INDEX_NAME, TYPE_NAME, AGGREGATION_MAPPING).build());
+		
+		if(!mappingResult.isSucceeded()) {
+			LOGGER.warn("Unable to add the lower-cased fields to the index mapping: {}", mappingResult.getErrorMessage());
+		}
+		
+		isReindexRequired();
+		
+		return mappingResult.isSucceeded();
+		
+	}
+	
+	/**
+	 * Determines if an index has the analyzer of the lower-cased fields.
+	 * @param jestClient The {@link JestClient}.
+	 * @param indexName The name of the index.
+	 * @return <code>false</code> if the index does not have the analyzer; otherwise
+	 * <code>true</code>, including when the settings of the index cannot be read.
+	 * @throws IOException Thrown if the settings cannot be read.
+	 */
+	static boolean hasAnalysis(JestClient jestClient, String indexName) throws IOException {
+		
+		final JestResult settingsResult = jestClient.execute(new GetSettings.Builder().addIndex(indexName).build());
+		
+		if(!settingsResult.isSucceeded()) {
+			LOGGER.warn("Unable to read the settings of the index {}: {}", indexName, settingsResult.getErrorMessage());
+			return true;
+		}
+		
+		JsonElement analyzers = settingsResult.getJsonObject();
+		
+		for(String name : new String[] {indexName, "settings", "index", "analysis", "analyzer"}) {
+			
+			if(analyzers == null || !analyzers.isJsonObject()) {
+				break;
+			}
+			
+			analyzers = analyzers.getAsJsonObject().get(name);
+			
+		}
+		
+		return analyzers != null && analyzers.isJsonObject() && analyzers.getAsJsonObject().has(LOWERCASE_ANALYZER);
+		
+	}
+	
+	/**
+	 * Adds the analyzer of the lower-cased fields to an index that was created
+	 * without it. The analysis settings can only be changed while the index is
+	 * closed so the index is closed and opened again.
+	 * @param jestClient The {@link JestClient}.
+	 * @param indexName The name of the index.
+	 * @throws IOException Thrown if the settings cannot be updated.
+	 */
+	static void updateAnalysis(JestClient jestClient, String indexName) throws IOException {
+		
+		LOGGER.warn("Closing the index {} to add the {} analyzer. Searches and writes to it fail until it is opened again.", indexName, LOWERCASE_ANALYZER);
+		
+		jestClient.execute(new CloseIndex.Builder(indexName).build());
+		
+		try {
+		
+			final JestResult updateResult = jestClient.execute(new UpdateSettings.Builder("{" + ANALYSIS + "}").addIndex(indexName).build());
+			
+			if(!updateResult.isSucceeded()) {
+				LOGGER.warn("Unable to add the {} analyzer to the index {}: {}", LOWERCASE_ANALYZER, indexName, updateResult.getErrorMessage());
+			}
+			
+		} finally {
+			
+			jestClient.execute(new OpenIndex.Builder(indexName).build());
+			
+		}
+		
+	}
+	
 	private String getSettings() {
 		
 		String settings = null;
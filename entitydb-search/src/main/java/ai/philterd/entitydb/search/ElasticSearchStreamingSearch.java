@@ -0,0 +1,290 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.search;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+/**
+ * Executes searches and reads their hits from the response stream with a
+ * pull parser. Each hit's <code>_source</code> is read directly into an
+ * {@link IndexedEntity} so the response is never held in memory as a string
+ * or as a JSON tree. Everything in the response other than the hits is skipped.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ElasticSearchStreamingSearch {
+
+	private static final Logger LOGGER = LogManager.getLogger(ElasticSearchStreamingSearch.class);
+	
+	private static final Gson GSON = new Gson();
+	
+	private final CloseableHttpClient httpClient;
+	private final String host;
+	private final String indexName;
+	private final String typeName;
+	
+	/**
+	 * Creates a new streaming search.
+	 * @param httpClient The HTTP client, which is shared with the Jest client and has its credentials.
+	 * @param host The Elasticsearch host without a trailing slash.
+	 * @param indexName The name of the index.
+	 * @param typeName The name of the type.
+	 */
+	public ElasticSearchStreamingSearch(CloseableHttpClient httpClient, String host, String indexName, String typeName) {
+		
+		this.httpClient = httpClient;
+		this.host = host;
+		this.indexName = indexName;
+		this.typeName = typeName;
+		
+	}
+	
+	/**
+	 * Executes a search.
+	 * @param search The body of the search.
+	 * @return The hits of the search. The list is empty when the search was not successful.
+	 * @throws IOException Thrown if the search cannot be sent or its response cannot be read.
+	 */
+	public List<IndexedEntity> search(String search) throws IOException {
+		
+		final HttpPost post = new HttpPost(host + "/" + indexName + "/" + typeName + "/_search");
+		post.setEntity(new StringEntity(search, ContentType.APPLICATION_JSON));
+		
+		try(CloseableHttpResponse response = httpClient.execute(post)) {
+			
+			final HttpEntity entity = response.getEntity();
+			
+			if(response.getStatusLine().getStatusCode() != 200) {
+				
+				LOGGER.error("Unable to execute query: {}", entity != null ? EntityUtils.toString(entity) : response.getStatusLine());
+				
+				return new ArrayList<IndexedEntity>();
+				
+			}
+			
+			try(JsonReader reader = new JsonReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+				
+				final List<IndexedEntity> indexedEntities = readSearchResponse(reader);
+				
+				return indexedEntities != null ? indexedEntities : new ArrayList<IndexedEntity>();
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Executes searches with a single multi search request.
+	 * @param searches The bodies of the searches.
+	 * @return The hits of each search in the order of the searches, or <code>null</code>
+	 * for a search that was not successful. The list is empty when the request was not successful.
+	 * @throws IOException Thrown if the request cannot be sent or its response cannot be read.
+	 */
+	public List<List<IndexedEntity>> multiSearch(List<String> searches) throws IOException {
+		
+		final String header = "{\"index\":\"" + indexName + "\",\"type\":\"" + typeName + "\"}\n";
+		
+		final StringBuilder body = new StringBuilder();
+		
+		for(String search : searches) {
+			
+			// Each search must be on a single line. JSON strings cannot contain line breaks.
+			body.append(header).append(search.replace('\n', ' ').replace('\r', ' ')).append('\n');
+			
+		}
+		
+		final HttpPost post = new HttpPost(host + "/_msearch");
+		post.setEntity(new StringEntity(body.toString(), ContentType.APPLICATION_JSON));
+		
+		final List<List<IndexedEntity>> results = new ArrayList<List<IndexedEntity>>(searches.size());
+		
+		try(CloseableHttpResponse response = httpClient.execute(post)) {
+			
+			final HttpEntity entity = response.getEntity();
+			
+			if(response.getStatusLine().getStatusCode() != 200) {
+				
+				LOGGER.error("Unable to execute queries: {}", entity != null ? EntityUtils.toString(entity) : response.getStatusLine());
+				
+				return results;
+				
+			}
+			
+			try(JsonReader reader = new JsonReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
+				
+				reader.beginObject();
+				
+				while(reader.hasNext()) {
+					
+					if("responses".equals(reader.nextName())) {
+						
+						reader.beginArray();
+						
+						// The responses are in the order of the searches.
+						while(reader.hasNext()) {
+							results.add(readSearchResponse(reader));
+						}
+						
+						reader.endArray();
+						
+					} else {
+						
+						reader.skipValue();
+						
+					}
+					
+				}
+				
+				reader.endObject();
+				
+			}
+			
+		}
+		
+		return results;
+		
+	}
+	
+	/**
+	 * Reads the hits of a search response.
+	 * @param reader The reader positioned at the start of the response.
+	 * @return The hits, or <code>null</code> if the response is an error.
+	 */
+	private List<IndexedEntity> readSearchResponse(JsonReader reader) throws IOException {
+		
+		List<IndexedEntity> indexedEntities = new ArrayList<IndexedEntity>();
+		boolean error = false;
+		
+		reader.beginObject();
+		
+		while(reader.hasNext()) {
+			
+			final String name = reader.nextName();
+			
+			if("hits".equals(name)) {
+				
+				reader.beginObject();
+				
+				while(reader.hasNext()) {
+					
+					if("hits".equals(reader.nextName())) {
+						indexedEntities = readHits(reader);
+					} else {
+						reader.skipValue();
+					}
+					
+				}
+				
+				reader.endObject();
+				
+			} else if("error".equals(name)) {
+				
+				// The error is small so it is read to be logged.
+				LOGGER.error("Unable to execute query: {}", GSON.fromJson(reader, JsonElement.class).toString());
+				
+				error = true;
+				
+			} else {
+				
+				reader.skipValue();
+				
+			}
+			
+		}
+		
+		reader.endObject();
+		
+		return error ? null : indexedEntities;
+		
+	}
+	
+	private List<IndexedEntity> readHits(JsonReader reader) throws IOException {
+		
+		final List<IndexedEntity> indexedEntities = new ArrayList<IndexedEntity>();
+		
+		reader.beginArray();
+		
+		while(reader.hasNext()) {
+			
+			String id = null;
+			IndexedEntity indexedEntity = null;
+			
+			reader.beginObject();
+			
+			while(reader.hasNext()) {
+				
+				final String name = reader.nextName();
+				
+				if("_id".equals(name) && reader.peek() == JsonToken.STRING) {
+					id = reader.nextString();
+				} else if("_source".equals(name)) {
+					indexedEntity = GSON.fromJson(reader, IndexedEntity.class);
+				} else {
+					reader.skipValue();
+				}
+				
+			}
+			
+			reader.endObject();
+			
+			if(indexedEntity != null) {
+				
+				// The entity ID may not be in the source when it was not projected.
+				if(indexedEntity.getEntityId() == null) {
+					indexedEntity.setEntityId(id);
+				}
+				
+				indexedEntities.add(indexedEntity);
+				
+			}
+			
+		}
+		
+		reader.endArray();
+		
+		return indexedEntities;
+		
+	}
+	
+}
@@ -74,7 +74,7 @@ public class EmbeddedElasticsearchServer {
 				.startObject().startObject("entity")
 					.startObject("properties")
 						.startObject("id").field("type", "string").field("store", "yes").field("index", "analyzed").endObject()
-						.startObject("text").field("type", "string").field("store", "yes").field("index", "analyzed").endObject()
+						.startObject("text").field("type", "string").field("index", "analyzed").endObject()
 						.endObject()
 						.endObject()
 					.endObject();
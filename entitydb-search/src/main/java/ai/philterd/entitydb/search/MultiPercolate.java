@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.search;
+
+import java.util.List;
+
+import com.google.gson.Gson;
+
+import io.searchbox.action.GenericResultAbstractAction;
+import io.searchbox.client.config.ElasticsearchVersion;
+
+/**
+ * A Jest action for the Elasticsearch multi percolate API which
+ * matches many documents against the registered percolator
+ * queries in a single request.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+class MultiPercolate extends GenericResultAbstractAction {
+
+	private final List<?> documents;
+	
+	/**
+	 * Creates a new multi percolate action.
+	 * @param index The index of the percolator queries.
+	 * @param type The document type whose mapping is used to parse the documents.
+	 * @param documents The documents to percolate.
+	 */
+	MultiPercolate(String index, String type, List<?> documents) {
+		
+		this.indexName = index;
+		this.typeName = type;
+		this.documents = documents;
+		
+	}
+	
+	@Override
+	public String getRestMethodName() {
+		return "POST";
+	}
+	
+	@Override
+	public String getData(Gson gson) {
+		
+		// Each document is preceded by a header. An empty header
+		// uses the index and type of the request's URI.
+		final StringBuilder sb = new StringBuilder();
+		
+		for(Object document : documents) {
+			
+			sb.append("{\"percolate\":{}}\n");
+			sb.append("{\"doc\":").append(gson.toJson(document)).append("}\n");
+			
+		}
+		
+		return sb.toString();
+		
+	}
+	
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		
+		return super.buildURI(elasticsearchVersion) + "/_mpercolate";
+		
+	}
+	
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.search;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.search.ContinuousQueryRegistration;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.search.ElasticSearchContinuousQueryIndex;
+import ai.philterd.entitydb.search.EmbeddedElasticsearchServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ElasticSearchContinuousQueryIndexTest {
+	
+	private static final String ELASTICSEARCH_HOST = "http://localhost:9200";
+	
+	private EmbeddedElasticsearchServer server;
+	private ElasticSearchContinuousQueryIndex continuousQueryIndex;
+	
+	@Before
+	public void before() throws IOException {
+	
+		server = new EmbeddedElasticsearchServer();
+		server.start();
+		
+		continuousQueryIndex = new ElasticSearchContinuousQueryIndex(ELASTICSEARCH_HOST);
+		
+	}
+	
+	@After
+	public void after() {
+		
+		continuousQueryIndex.close();
+		server.close();
+		
+	}
+	
+	@Test
+	public void match() throws Exception {
+		
+		final User user = getUser();
+		
+		assertTrue(continuousQueryIndex.register(1, Eql.generate("select * from entities where type = \"person\""), user));
+		assertTrue(continuousQueryIndex.register(2, Eql.generate("select * from entities where type = \"place\""), user));
+		assertTrue(continuousQueryIndex.register(3, Eql.generate("select * from entities where confidence > 50"), user));
+		
+		final Entity entity1 = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		final Entity entity2 = new Entity("morgantown", 0.1, "place", "[0, 10)", "context", "document");
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:0"),
+				IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:0")));
+		
+		assertNotNull(matches);
+		assertEquals(2, matches.size());
+		assertEquals(new HashSet<Long>(Arrays.asList(1L, 3L)), new HashSet<Long>(matches.get(0)));
+		assertEquals(Arrays.asList(2L), matches.get(1));
+		
+	}
+	
+	@Test
+	public void matchAcl() throws Exception {
+		
+		// The entity is not visible to the owner of the continuous query.
+		
+		assertTrue(continuousQueryIndex.register(1, Eql.generate("select * from entities"), getUser()));
+		
+		final Entity entity = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity, UUID.randomUUID().toString(), "notuser:notgroup:0")));
+		
+		assertNotNull(matches);
+		assertEquals(1, matches.size());
+		assertTrue(matches.get(0).isEmpty());
+		
+	}
+	
+	@Test
+	public void matchTime() throws Exception {
+		
+		// The times are compared as numbers and not as strings.
+		
+		assertTrue(continuousQueryIndex.register(1, Eql.generate("select * from entities where time between 100 and 1000"), getUser()));
+		
+		final Entity entity1 = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		entity1.setMetadata(Collections.singletonMap(IndexedEntity.TIME, "150"));
+		
+		final Entity entity2 = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		entity2.setMetadata(Collections.singletonMap(IndexedEntity.TIME, "2000"));
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:0"),
+				IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:0")));
+		
+		assertNotNull(matches);
+		assertEquals(Arrays.asList(1L), matches.get(0));
+		assertTrue(matches.get(1).isEmpty());
+		
+	}
+	
+	@Test
+	public void matchWholeValue() throws Exception {
+		
+		// The patterns are matched against the whole values ignoring case.
+		
+		assertTrue(continuousQueryIndex.register(1, Eql.generate("select * from entities where text = \"john smith\""), getUser()));
+		assertTrue(continuousQueryIndex.register(2, Eql.generate("select * from entities where text = \"smith\""), getUser()));
+		
+		final Entity entity = new Entity("John Smith", 0.9, "person", "[0, 10)", "context", "document");
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity, UUID.randomUUID().toString(), "user:group:0")));
+		
+		assertNotNull(matches);
+		assertEquals(Arrays.asList(1L), matches.get(0));
+		
+	}
+	
+	@Test
+	public void unregister() throws Exception {
+		
+		assertTrue(continuousQueryIndex.register(1, Eql.generate("select * from entities where type = \"person\""), getUser()));
+		assertTrue(continuousQueryIndex.unregister(1));
+		
+		final Entity entity = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity, UUID.randomUUID().toString(), "user:group:0")));
+		
+		assertNotNull(matches);
+		assertTrue(matches.get(0).isEmpty());
+		
+	}
+	
+	@Test
+	public void registerAllAndRetain() throws Exception {
+		
+		final User user = getUser();
+		
+		final Set<Long> registered = continuousQueryIndex.register(Arrays.asList(
+				new ContinuousQueryRegistration(1, Eql.generate("select * from entities where type = \"person\""), user),
+				new ContinuousQueryRegistration(2, Eql.generate("select * from entities where type = \"place\""), user),
+				new ContinuousQueryRegistration(3, Eql.generate("select * from entities where confidence > 50"), user)));
+		
+		assertEquals(new HashSet<Long>(Arrays.asList(1L, 2L, 3L)), registered);
+		
+		// Only query 2 is no longer wanted.
+		assertEquals(1, continuousQueryIndex.retain(new HashSet<Long>(Arrays.asList(1L, 3L))));
+		assertEquals(0, continuousQueryIndex.retain(new HashSet<Long>(Arrays.asList(1L, 3L))));
+		
+		final Entity entity1 = new Entity("john", 0.9, "person", "[0, 4)", "context", "document");
+		final Entity entity2 = new Entity("morgantown", 0.1, "place", "[0, 10)", "context", "document");
+		
+		final List<List<Long>> matches = continuousQueryIndex.match(Arrays.asList(
+				IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:0"),
+				IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:0")));
+		
+		assertNotNull(matches);
+		assertEquals(new HashSet<Long>(Arrays.asList(1L, 3L)), new HashSet<Long>(matches.get(0)));
+		assertTrue(matches.get(1).isEmpty());
+		
+	}
+	
+	private User getUser() {
+		
+		Set<String> groups = new HashSet<String>();
+		groups.add("g1");
+		
+		return new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", groups);
+		
+	}
+	
+}
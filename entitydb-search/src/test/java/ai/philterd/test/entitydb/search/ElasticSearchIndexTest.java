@@ -25,9 +25,25 @@ import ai.philterd.entitydb.model.domain.User;
 import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.model.eql.EntityQuery;
 import ai.philterd.entitydb.model.exceptions.MalformedAclException;
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.search.AggregationResult;
+import ai.philterd.entitydb.model.search.QueryExplanation;
 import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.search.ElasticSearchBulkIndexer;
 import ai.philterd.entitydb.search.ElasticSearchIndex;
+import ai.philterd.entitydb.search.ElasticSearchStreamingSearch;
 import ai.philterd.entitydb.search.EmbeddedElasticsearchServer;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+import io.searchbox.core.Bulk;
+import io.searchbox.core.BulkResult;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.After;
@@ -36,13 +52,23 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ElasticSearchIndexTest {
@@ -381,4 +407,583 @@ public class ElasticSearchIndexTest {
 		
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void aggregate() throws Exception {
+		
+		// Only the visible entities are counted.
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setType("person");
+		entity1.setContext("New York");
+		
+		Entity entity2 = Entity.createRandomPersonEntity();
+		entity2.setType("person");
+		entity2.setContext("New York");
+		
+		Entity entity3 = Entity.createRandomPersonEntity();
+		entity3.setType("place");
+		entity3.setContext("Morgantown");
+		
+		Entity entity4 = Entity.createRandomPersonEntity();
+		entity4.setType("place");
+		entity4.setContext("Boston");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:0")));
+		assertTrue(elasticSearchIndex.index(IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "notuser:g1:0")));
+		assertTrue(elasticSearchIndex.index(IndexedEntity.fromEntity(entity3, UUID.randomUUID().toString(), "notuser:notgroup:1")));
+		assertTrue(elasticSearchIndex.index(IndexedEntity.fromEntity(entity4, UUID.randomUUID().toString(), "notuser:notgroup:0")));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		Set<String> groups = new HashSet<String>();
+		groups.add("g1");
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", groups);
+		
+		AggregationResult aggregationResult = elasticSearchIndex.aggregate(Eql.generate("select count(*) from entities"), user);
+		
+		assertEquals(3, aggregationResult.getCount());
+		assertEquals(-1, aggregationResult.getDistinct());
+		
+		aggregationResult = elasticSearchIndex.aggregate(Eql.generate("select count(*) from entities group by context"), user);
+		
+		assertEquals(3, aggregationResult.getCount());
+		assertEquals(2, aggregationResult.getDistinct());
+		assertEquals(2, aggregationResult.getGroups().size());
+		assertEquals(Long.valueOf(2), aggregationResult.getGroups().get("New York"));
+		assertEquals(Long.valueOf(1), aggregationResult.getGroups().get("Morgantown"));
+		
+		aggregationResult = elasticSearchIndex.aggregate(Eql.generate("select count(*) from entities where type = \"place\" group by type"), user);
+		
+		assertEquals(1, aggregationResult.getCount());
+		assertEquals(Long.valueOf(1), aggregationResult.getGroups().get("place"));
+		
+	}
+
+	@Test
+	public void explainAndProfile() throws Exception {
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setText("john");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:1")));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		EntityQuery entityQuery = Eql.generate("explain profile select * from entities where text = \"john\" order by confidence asc");
+		
+		QueryExplanation queryExplanation = elasticSearchIndex.explain(entityQuery, user);
+		
+		assertNotNull(queryExplanation.getSearch().get("query"));
+		assertNotNull(queryExplanation.getSort().get("confidence"));
+		assertNull(queryExplanation.getProfile());
+		
+		List<IndexedEntity> indexedEntities = elasticSearchIndex.profile(entityQuery, user, queryExplanation);
+		
+		assertEquals(1, indexedEntities.size());
+		assertNotNull(queryExplanation.getProfile().get("shards"));
+		
+	}
+
+	@Test
+	public void projection() throws Exception {
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setText("john");
+		entity1.setType("person");
+		entity1.setContext("context");
+		
+		IndexedEntity indexedEntity1 = IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:1");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity1));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		List<IndexedEntity> indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select text, type from entities where text = \"john\""), user);
+		
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity1.getEntityId(), indexedEntities.get(0).getEntityId());
+		assertEquals("john", indexedEntities.get(0).getText());
+		assertEquals("person", indexedEntities.get(0).getType());
+		assertNull(indexedEntities.get(0).getContext());
+		assertNull(indexedEntities.get(0).getAcl());
+		
+	}
+
+	@Test
+	public void multiSearch() throws Exception {
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setText("george");
+		
+		Entity entity2 = Entity.createRandomPersonEntity();
+		entity2.setText("martha");
+		
+		IndexedEntity indexedEntity1 = IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:1");
+		IndexedEntity indexedEntity2 = IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:1");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity1));
+		assertTrue(elasticSearchIndex.index(indexedEntity2));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		List<List<IndexedEntity>> results = elasticSearchIndex.queryForIndexedEntities(Arrays.asList(
+				Eql.generate("select * from entities where text = \"martha\""),
+				Eql.generate("select * from entities where text = \"nobody\""),
+				Eql.generate("select text from entities where text = \"george\"")), user);
+		
+		// The results are in the order of the queries.
+		assertEquals(3, results.size());
+		assertEquals(1, results.get(0).size());
+		assertEquals(indexedEntity2.getEntityId(), results.get(0).get(0).getEntityId());
+		assertEquals(0, results.get(1).size());
+		assertEquals(1, results.get(2).size());
+		assertEquals(indexedEntity1.getEntityId(), results.get(2).get(0).getEntityId());
+		assertNull(results.get(2).get(0).getType());
+		
+	}
+	
+	@Test
+	public void dateRange() throws Exception {
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setExtractionDate(1500000000000L);
+		entity1.setMetadata(Collections.singletonMap("time", "1400000000000"));
+		
+		Entity entity2 = Entity.createRandomPersonEntity();
+		entity2.setExtractionDate(1600000000000L);
+		entity2.setMetadata(Collections.singletonMap("time", "not a time"));
+		
+		IndexedEntity indexedEntity1 = IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:1");
+		IndexedEntity indexedEntity2 = IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:1");
+		
+		assertEquals(Long.valueOf(1400000000000L), indexedEntity1.getTime());
+		assertNull(indexedEntity2.getTime());
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity1));
+		assertTrue(elasticSearchIndex.index(indexedEntity2));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		List<IndexedEntity> indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities where extractiondate > 1550000000000"), user);
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity2.getEntityId(), indexedEntities.get(0).getEntityId());
+		
+		indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities where time between 1300000000000 and 1450000000000"), user);
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity1.getEntityId(), indexedEntities.get(0).getEntityId());
+		assertEquals(Long.valueOf(1400000000000L), indexedEntities.get(0).getTime());
+		
+	}
+
+	@Test
+	public void wildcard() throws Exception {
+		
+		// The patterns are matched against the whole values ignoring case.
+		
+		Entity entity1 = Entity.createRandomPersonEntity();
+		entity1.setText("George Washington");
+		entity1.setLanguageCode("en");
+		
+		Entity entity2 = Entity.createRandomPersonEntity();
+		entity2.setText("Washington");
+		entity2.setLanguageCode("es");
+		
+		IndexedEntity indexedEntity1 = IndexedEntity.fromEntity(entity1, UUID.randomUUID().toString(), "user:group:1");
+		IndexedEntity indexedEntity2 = IndexedEntity.fromEntity(entity2, UUID.randomUUID().toString(), "user:group:1");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity1));
+		assertTrue(elasticSearchIndex.index(indexedEntity2));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		List<IndexedEntity> indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities where text = \"george washington\""), user);
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity1.getEntityId(), indexedEntities.get(0).getEntityId());
+		
+		indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities where text = \"wash*\""), user);
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity2.getEntityId(), indexedEntities.get(0).getEntityId());
+		
+		indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities where language = \"EN\""), user);
+		assertEquals(1, indexedEntities.size());
+		assertEquals(indexedEntity1.getEntityId(), indexedEntities.get(0).getEntityId());
+		
+	}
+
+	@Test
+	public void cursor() throws Exception {
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		
+		Set<String> entityIds = new HashSet<String>();
+		
+		for(int x = 0; x < 5; x++) {
+			
+			Entity entity = Entity.createRandomPersonEntity();
+			entity.setConfidence(x < 3 ? 0.5 : 0.9);
+			
+			IndexedEntity indexedEntity = IndexedEntity.fromEntity(entity, UUID.randomUUID().toString(), "user:group:1");
+			assertTrue(elasticSearchIndex.index(indexedEntity));
+			
+			entityIds.add(indexedEntity.getEntityId());
+			
+		}
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User user = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		
+		Set<String> pagedEntityIds = new HashSet<String>();
+		String cursor = null;
+		int pages = 0;
+		
+		do {
+			
+			EntityQuery entityQuery = Eql.generate("select * from entities limit 2 order by confidence desc");
+			entityQuery.setCursor(cursor);
+			
+			List<IndexedEntity> indexedEntities = elasticSearchIndex.queryForIndexedEntities(entityQuery, user);
+			
+			for(IndexedEntity indexedEntity : indexedEntities) {
+				assertTrue(pagedEntityIds.add(indexedEntity.getEntityId()));
+			}
+			
+			cursor = elasticSearchIndex.getNextCursor(entityQuery, indexedEntities);
+			pages++;
+			
+		} while(cursor != null);
+		
+		assertEquals(3, pages);
+		assertEquals(entityIds, pagedEntityIds);
+		
+		List<IndexedEntity> indexedEntities = elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities limit 2 offset 4 order by id"), user);
+		assertEquals(1, indexedEntities.size());
+		
+	}
+
+	@Test
+	public void acl() throws Exception {
+		
+		IndexedEntity indexedEntity1 = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), UUID.randomUUID().toString(), "alice:g1:0");
+		IndexedEntity indexedEntity2 = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), UUID.randomUUID().toString(), "bob:g2:0");
+		IndexedEntity indexedEntity3 = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), UUID.randomUUID().toString(), "carol:g3:1");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity1));
+		assertTrue(elasticSearchIndex.index(indexedEntity2));
+		assertTrue(elasticSearchIndex.index(indexedEntity3));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		User alice = new User(1, "alice", "alice@test-fake.com", "555-555-5555", "apikey", new HashSet<String>());
+		User user = new User(2, "user", "user@test-fake.com", "555-555-5555", "apikey", new HashSet<String>(Arrays.asList("g2", "g4")));
+		
+		Set<String> entityIds = new HashSet<String>();
+		
+		for(IndexedEntity indexedEntity : elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities"), alice)) {
+			entityIds.add(indexedEntity.getEntityId());
+		}
+		
+		assertEquals(new HashSet<String>(Arrays.asList(indexedEntity1.getEntityId(), indexedEntity3.getEntityId())), entityIds);
+		
+		entityIds.clear();
+		
+		for(IndexedEntity indexedEntity : elasticSearchIndex.queryForIndexedEntities(Eql.generate("select * from entities"), user)) {
+			entityIds.add(indexedEntity.getEntityId());
+		}
+		
+		assertEquals(new HashSet<String>(Arrays.asList(indexedEntity2.getEntityId(), indexedEntity3.getEntityId())), entityIds);
+		
+		// The entities have the fields of the current mapping. Reindexing keeps the entities.
+		assertFalse(elasticSearchIndex.isReindexRequired());
+		assertEquals(3, elasticSearchIndex.reindex(2));
+		assertEquals(3, elasticSearchIndex.getCount());
+		
+	}
+
+	@Test
+	public void streamingSearch() throws Exception {
+		
+		Entity entity = Entity.createRandomPersonEntity();
+		entity.setText("george");
+		
+		IndexedEntity indexedEntity = IndexedEntity.fromEntity(entity, UUID.randomUUID().toString(), "user:group:1");
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST);
+		assertTrue(elasticSearchIndex.index(indexedEntity));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		try(CloseableHttpClient httpClient = HttpClients.createDefault()) {
+			
+			ElasticSearchStreamingSearch streamingSearch = new ElasticSearchStreamingSearch(httpClient, ELASTICSEARCH_HOST, ElasticSearchIndex.INDEX_NAME, ElasticSearchIndex.TYPE_NAME);
+			
+			List<IndexedEntity> indexedEntities = streamingSearch.search("{\"query\":{\"match_all\":{}},\"aggs\":{\"types\":{\"terms\":{\"field\":\"type\"}}}}");
+			
+			// The other parts of the response are skipped.
+			assertEquals(1, indexedEntities.size());
+			assertEquals(indexedEntity.getEntityId(), indexedEntities.get(0).getEntityId());
+			assertEquals(indexedEntity.getText(), indexedEntities.get(0).getText());
+			assertEquals(indexedEntity.getConfidence(), indexedEntities.get(0).getConfidence(), 0);
+			
+			// A failed search is null and does not fail the other searches.
+			List<List<IndexedEntity>> results = streamingSearch.multiSearch(Arrays.asList(
+					"{\"query\":{\"unknown\":{}}}",
+					"{\n\"query\":{\n\"match_all\":{}}}"));
+			
+			assertEquals(2, results.size());
+			assertNull(results.get(0));
+			assertEquals(1, results.get(1).size());
+			
+			// A search that fails entirely has no hits.
+			assertTrue(streamingSearch.search("{\"query\":{\"unknown\":{}}}").isEmpty());
+			
+		}
+		
+	}
+	
+	@Test
+	public void bulkIndex() throws Exception {
+		
+		ElasticSearchIndex elasticSearchIndex = new ElasticSearchIndex(ELASTICSEARCH_HOST).withBulkIndexing(2, 1024 * 1024, 2, 1, 10);
+		
+		Set<IndexedEntity> indexedEntities = new LinkedHashSet<IndexedEntity>();
+		
+		for(int x = 0; x < 7; x++) {
+			indexedEntities.add(IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), UUID.randomUUID().toString(), "user:group:1"));
+		}
+		
+		assertTrue(elasticSearchIndex.index(indexedEntities).isEmpty());
+		
+		Map<String, Long> metrics = new HashMap<String, Long>();
+		
+		for(Metric metric : elasticSearchIndex.getMetrics()) {
+			metrics.put(metric.getName(), metric.getValue());
+		}
+		
+		// The entities were split into bulk requests of two entities.
+		assertEquals(Long.valueOf(4), metrics.get("bulk.requests"));
+		assertEquals(Long.valueOf(7), metrics.get("bulk.indexed"));
+		assertEquals(Long.valueOf(0), metrics.get("bulk.failed"));
+		
+		// Let things be indexed.
+		Thread.sleep(1500);
+		
+		assertEquals(7, elasticSearchIndex.getCount());
+		
+	}
+	
+	@Test
+	public void bulkIndexRetriesRejectedEntities() throws Exception {
+		
+		final Map<String, Integer> statuses = new HashMap<String, Integer>();
+		statuses.put("busy", 429);
+		statuses.put("unavailable", 503);
+		statuses.put("malformed", 400);
+		
+		// Elasticsearch is busy only the first time.
+		final BulkJestClient jestClient = new BulkJestClient(statuses, 1);
+		
+		final ElasticSearchBulkIndexer bulkIndexer = new ElasticSearchBulkIndexer(jestClient, "entities", "entity", 10, 1024 * 1024, 1, 3, 1);
+		
+		final Set<String> failedEntityIds = bulkIndexer.index(Arrays.asList(createIndexedEntity("indexed"), createIndexedEntity("busy"),
+				createIndexedEntity("unavailable"), createIndexedEntity("malformed")));
+		
+		bulkIndexer.close();
+		
+		// Only the rejected entities were retried and the malformed entity was not.
+		assertEquals(2, jestClient.requests.size());
+		assertEquals(new HashSet<String>(Arrays.asList("indexed", "busy", "unavailable", "malformed")), jestClient.requests.get(0));
+		assertEquals(new HashSet<String>(Arrays.asList("busy", "unavailable")), jestClient.requests.get(1));
+		assertEquals(Collections.singleton("malformed"), failedEntityIds);
+		
+		final Map<String, Long> metrics = getMetrics(bulkIndexer.getMetrics());
+		
+		assertEquals(Long.valueOf(2), metrics.get("bulk.requests"));
+		assertEquals(Long.valueOf(3), metrics.get("bulk.indexed"));
+		assertEquals(Long.valueOf(2), metrics.get("bulk.rejected"));
+		assertEquals(Long.valueOf(2), metrics.get("bulk.retried"));
+		assertEquals(Long.valueOf(1), metrics.get("bulk.failed"));
+		
+	}
+	
+	@Test
+	public void bulkIndexStopsRetrying() throws Exception {
+		
+		// Elasticsearch is always busy.
+		final BulkJestClient jestClient = new BulkJestClient(Collections.singletonMap("busy", 429), Integer.MAX_VALUE);
+		
+		final ElasticSearchBulkIndexer bulkIndexer = new ElasticSearchBulkIndexer(jestClient, "entities", "entity", 10, 1024 * 1024, 1, 2, 1);
+		
+		final Set<String> failedEntityIds = bulkIndexer.index(Arrays.asList(createIndexedEntity("indexed"), createIndexedEntity("busy")));
+		
+		bulkIndexer.close();
+		
+		// The first attempt and two retries.
+		assertEquals(3, jestClient.requests.size());
+		assertEquals(Collections.singleton("busy"), jestClient.requests.get(2));
+		assertEquals(Collections.singleton("busy"), failedEntityIds);
+		
+		final Map<String, Long> metrics = getMetrics(bulkIndexer.getMetrics());
+		
+		assertEquals(Long.valueOf(3), metrics.get("bulk.requests"));
+		assertEquals(Long.valueOf(1), metrics.get("bulk.indexed"));
+		assertEquals(Long.valueOf(3), metrics.get("bulk.rejected"));
+		assertEquals(Long.valueOf(2), metrics.get("bulk.retried"));
+		assertEquals(Long.valueOf(1), metrics.get("bulk.failed"));
+		
+	}
+	
+	private static IndexedEntity createIndexedEntity(String entityId) {
+		
+		return IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), entityId, "user:group:1");
+		
+	}
+	
+	private static Map<String, Long> getMetrics(List<Metric> metrics) {
+		
+		final Map<String, Long> values = new HashMap<String, Long>();
+		
+		for(Metric metric : metrics) {
+			values.put(metric.getName(), metric.getValue());
+		}
+		
+		return values;
+		
+	}
+	
+	/**
+	 * A {@link JestClient} that answers bulk requests with a status for each entity
+	 * instead of sending them to Elasticsearch.
+	 */
+	private static class BulkJestClient implements JestClient {
+		
+		private static final Gson GSON = new Gson();
+		private static final Pattern ID = Pattern.compile("\"_id\":\"([^\"]+)\"");
+		
+		// The IDs of the entities in each bulk request.
+		private final List<Set<String>> requests = new ArrayList<Set<String>>();
+		
+		private final Map<String, Integer> statuses;
+		private final int rejections;
+		
+		/**
+		 * @param statuses The status of the entities that are not indexed keyed by their IDs.
+		 * @param rejections The number of bulk requests that a retryable status is returned for.
+		 */
+		public BulkJestClient(Map<String, Integer> statuses, int rejections) {
+			
+			this.statuses = statuses;
+			this.rejections = rejections;
+			
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public synchronized <T extends JestResult> T execute(Action<T> clientRequest) throws IOException {
+			
+			final Set<String> entityIds = new HashSet<String>();
+			
+			final Matcher matcher = ID.matcher(((Bulk) clientRequest).getData(GSON));
+			
+			while(matcher.find()) {
+				entityIds.add(matcher.group(1));
+			}
+			
+			final boolean rejecting = requests.size() < rejections;
+			
+			requests.add(entityIds);
+			
+			final JsonArray items = new JsonArray();
+			boolean errors = false;
+			
+			for(String entityId : entityIds) {
+				
+				int status = statuses.containsKey(entityId) ? statuses.get(entityId) : 201;
+				
+				if(status != 400 && !rejecting) {
+					status = 201;
+				}
+				
+				final JsonObject item = new JsonObject();
+				item.addProperty("_index", "entities");
+				item.addProperty("_type", "entity");
+				item.addProperty("_id", entityId);
+				item.addProperty("status", status);
+				
+				if(status != 201) {
+					item.addProperty("error", "status " + status);
+					errors = true;
+				}
+				
+				final JsonObject action = new JsonObject();
+				action.add("index", item);
+				
+				items.add(action);
+				
+			}
+			
+			final JsonObject response = new JsonObject();
+			response.addProperty("errors", errors);
+			response.add("items", items);
+			
+			final BulkResult bulkResult = new BulkResult(GSON);
+			bulkResult.setJsonObject(response);
+			bulkResult.setJsonString(response.toString());
+			bulkResult.setResponseCode(200);
+			bulkResult.setSucceeded(true);
+			
+			return (T) bulkResult;
+			
+		}
+		
+		@Override
+		public <T extends JestResult> void executeAsync(Action<T> clientRequest, JestResultHandler<? super T> jestResultHandler) {
+			
+			throw new UnsupportedOperationException();
+			
+		}
+		
+		@Override
+		public void shutdownClient() {
+			
+		}
+		
+		@Override
+		public void setServers(Set<String> servers) {
+			
+		}
+		
+		public void close() {
+			
+		}
+		
+	}
+
+}
@@ -20,15 +20,24 @@
  */
 package ai.philterd.entitydb.services;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import ai.philterd.entitydb.eql.Eql;
-import ai.philterd.entitydb.eql.filters.EqlFilters;
+import ai.philterd.entitydb.eql.PreparedEql;
 import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
 import org.aeonbits.owner.ConfigFactory;
 import org.apache.commons.collections4.CollectionUtils;
@@ -43,31 +52,45 @@ import org.springframework.stereotype.Component;
 import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.configuration.EntityDbProperties;
 import ai.philterd.entitydb.datastore.repository.ContinuousQueryRepository;
-import ai.philterd.entitydb.datastore.repository.NotificationRepository;
 import ai.philterd.entitydb.datastore.repository.UserRepository;
 import ai.philterd.entitydb.model.audit.AuditAction;
 import ai.philterd.entitydb.model.audit.AuditLogger;
 import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
-import ai.philterd.entitydb.model.datastore.entities.NotificationEntity;
 import ai.philterd.entitydb.model.datastore.entities.UserEntity;
 import ai.philterd.entitydb.model.domain.ContinuousQuery;
+import ai.philterd.entitydb.model.domain.PreparedQuery;
 import ai.philterd.entitydb.model.domain.User;
 import ai.philterd.entitydb.model.entitystore.EntityIdGenerator;
 import ai.philterd.entitydb.model.entitystore.QueryResult;
 import ai.philterd.entitydb.model.exceptions.EntityStoreException;
 import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
 import ai.philterd.entitydb.model.exceptions.MalformedQueryException;
+import ai.philterd.entitydb.model.exceptions.NonexistantPreparedQueryException;
 import ai.philterd.entitydb.model.exceptions.QueryExecutionException;
+import ai.philterd.entitydb.model.exceptions.QueryRejectedException;
 import ai.philterd.entitydb.model.exceptions.UnableToAuditException;
 import ai.philterd.entitydb.model.metrics.MetricReporter;
 import ai.philterd.entitydb.model.metrics.Unit;
 import ai.philterd.entitydb.model.notifications.NotificationType;
+import ai.philterd.entitydb.model.search.AggregationResult;
 import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.model.search.QueryExplanation;
 import ai.philterd.entitydb.model.search.SearchIndex;
 import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.model.security.EncodedAcl;
 import ai.philterd.entitydb.model.services.EntityQueryService;
 import ai.philterd.entitydb.model.services.NotificationService;
+import ai.philterd.entitydb.model.status.ContinuousQueryCost;
 import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.services.admission.QueryAdmissionController;
+import ai.philterd.entitydb.services.admission.QueryCostEstimator;
+import ai.philterd.entitydb.services.cache.QueryResultCache;
+import ai.philterd.entitydb.services.continuousqueries.CompiledContinuousQuery;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryMatch;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryMatchTask;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryRegistry;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryStatistics;
+import ai.philterd.entitydb.services.notifications.NotificationWriter;
 
 /**
  * Default implementation of {@link EntityQueryService}.
@@ -81,6 +104,13 @@ public class DefaultEntityQueryService implements EntityQueryService {
 	private static final Logger LOGGER = LogManager.getLogger(DefaultEntityQueryService.class);
 	
 	private static final EntityDbProperties properties = ConfigFactory.create(EntityDbProperties.class);
+	
+	// The stages of a query that are timed by an explain profile query.
+	private static final String STAGE_PARSE = "parse";
+	private static final String STAGE_AUDIT = "audit";
+	private static final String STAGE_USER = "userLookup";
+	private static final String STAGE_SEARCH = "search";
+	private static final String STAGE_ACL = "aclMasking";
 			
 	@Autowired
 	private SearchIndex searchIndex;
@@ -95,13 +125,29 @@ public class DefaultEntityQueryService implements EntityQueryService {
 	private UserRepository userRepository;
 	
 	@Autowired
-	private NotificationRepository notificationRepository;
+	private NotificationWriter notificationWriter;
 	
 	@Autowired
 	private NotificationService notificationService;
 	
 	@Autowired
 	private MetricReporter metricReporter;
+	
+	@Autowired
+	private ContinuousQueryRegistry continuousQueryRegistry;
+	
+	@Autowired
+	private ForkJoinPool continuousQueryForkJoinPool;
+	
+	@Autowired
+	private QueryAdmissionController queryAdmissionController;
+	
+	@Autowired
+	private QueryResultCache queryResultCache;
+	
+	// The prepared queries of each user by ID. A user can only execute their own prepared
+	// queries and preparing queries only removes the user's least recently used queries.
+	private final Map<Long, Map<String, PreparedEql>> preparedQueries = new ConcurrentHashMap<Long, Map<String, PreparedEql>>();
 
 
 	@Override
@@ -121,30 +167,317 @@ public class DefaultEntityQueryService implements EntityQueryService {
 	@Override
 	@CachePut("nonExpiredContinuousQueries")
 	public ContinuousQueryEntity save(ContinuousQueryEntity continuousQueryEntity) {
-		return continuousQueryRepository.save(continuousQueryEntity);
+		
+		final ContinuousQueryEntity saved = continuousQueryRepository.save(continuousQueryEntity);
+		
+		continuousQueryRegistry.add(saved);
+		
+		return saved;
+		
 	}
 	
 
 	@Override
 	@CacheEvict(value = "nonExpiredContinuousQueries", allEntries=true)
 	public void delete(ContinuousQueryEntity continuousQueryEntity) {
+		
 		continuousQueryRepository.delete(continuousQueryEntity);
+		
+		continuousQueryRegistry.remove(continuousQueryEntity.getId());
+		
 	}
 	
 
 	@Override
 	public QueryResult eql(String query, String apiKey, int continuous, int days) throws MalformedQueryException, QueryExecutionException {
+		
+		return eql(query, null, null, apiKey, continuous, days);
+		
+	}
+	
+
+	@Override
+	public QueryResult eql(String query, String cursor, String apiKey) throws MalformedQueryException, QueryExecutionException {
+		
+		return eql(query, null, cursor, apiKey, 0, 0);
+		
+	}
+	
+
+	@Override
+	public List<QueryResult> eql(List<String> queries, String apiKey) throws MalformedQueryException, QueryExecutionException {
+		
+		final long startTime = System.currentTimeMillis();
+		
+		if(queries.size() > properties.getBatchQueries()) {
+			throw new MalformedQueryException("A batch cannot have more than " + properties.getBatchQueries() + " queries.");
+		}
+		
+		final List<QueryResult> queryResults = new ArrayList<QueryResult>(queries.size());
+		
+		QueryAdmissionController.Admission admission = null;
+		
+		try {
+			
+			final List<EntityQuery> entityQueries = new ArrayList<EntityQuery>(queries.size());
+			
+			for(String query : queries) {
+				entityQueries.add(Eql.generate(query));
+			}
+			
+			admission = admit(entityQueries, apiKey);
+			
+			// Audit the queries together.
+			if(!auditLogger.audit(queries, System.currentTimeMillis(), apiKey)) {
+				throw new UnableToAuditException("Unable to audit queries.");
+			}
+			
+			// Get the user from the API key once for all of the queries.
+			final User user = User.fromEntity(userRepository.getByApiKey(apiKey));
+			
+			// The queries returning entities that are not cached are executed with a single search.
+			final List<EntityQuery> searches = new ArrayList<EntityQuery>();
+			final Map<EntityQuery, String> keys = new IdentityHashMap<EntityQuery, String>();
+			final Map<EntityQuery, List<IndexedEntity>> cached = new IdentityHashMap<EntityQuery, List<IndexedEntity>>();
+			
+			// The generation is read before searching so entities indexed meanwhile make the results out of date.
+			final long generation = searchIndex.getGeneration();
+			
+			for(EntityQuery entityQuery : entityQueries) {
+				
+				if(!entityQuery.isCount() && !entityQuery.isExplain()) {
+					
+					if(queryResultCache.isEnabled()) {
+						
+						final String key = queryResultCache.key(entityQuery, user);
+						final List<IndexedEntity> indexedEntities = queryResultCache.get(key, generation);
+						
+						keys.put(entityQuery, key);
+						
+						if(indexedEntities != null) {
+							cached.put(entityQuery, indexedEntities);
+						} else {
+							searches.add(entityQuery);
+						}
+						
+					} else {
+						
+						searches.add(entityQuery);
+						
+					}
+					
+				}
+				
+			}
+			
+			final Iterator<List<IndexedEntity>> searched = searches.isEmpty() ? Collections.<List<IndexedEntity>>emptyIterator() : searchIndex.queryForIndexedEntities(searches, user).iterator();
+			
+			// The results are in the order of the queries.
+			for(EntityQuery entityQuery : entityQueries) {
+				
+				if(entityQuery.isExplain()) {
+					
+					queryResults.add(explainQuery(entityQuery, user, new LinkedHashMap<String, Long>()));
+					
+				} else if(entityQuery.isCount()) {
+					
+					queryResults.add(executeQuery(entityQuery, user));
+					
+				} else {
+					
+					List<IndexedEntity> indexedEntities = cached.get(entityQuery);
+					
+					if(indexedEntities == null) {
+						
+						indexedEntities = searched.next();
+						
+						if(indexedEntities == null) {
+							throw new QueryExecutionException("Unable to execute the query.");
+						}
+						
+						if(queryResultCache.isEnabled()) {
+							queryResultCache.put(keys.get(entityQuery), generation, indexedEntities);
+						}
+						
+					}
+					
+					// The entities are audited for each caller even if they were cached.
+					queryResults.add(toQueryResult(entityQuery, indexedEntities, user));
+					
+				}
+				
+			}
+			
+			// Report the execution time for successful batches.
+			metricReporter.reportElapsedTime(MetricReporter.MEASUREMENT_QUERY, "batchExecutionTime", startTime);
+			
+		} catch (QueryRejectedException ex) {
+			
+			metricReporter.report(MetricReporter.MEASUREMENT_QUERY, "rejected", 1, Unit.COUNT);
+			
+			throw ex;
+			
+		} catch (QueryGenerationException | IllegalStateException | InvalidQueryException ex) {
+			
+			LOGGER.error("Malformed query: " + ex.getMessage(), ex);
+			
+			throw new MalformedQueryException("Malformed query.");
+			
+		} catch (Exception ex) {
+			
+			LOGGER.error("Unable to execute queries.", ex);
+			
+			throw new QueryExecutionException("Unable to execute the queries. See the log for more information.");
+			
+		} finally {
+			
+			if(admission != null) {
+				admission.close();
+			}
+			
+		}
+		
+		return queryResults;
+		
+	}
+	
+
+	@Override
+	public PreparedQuery prepare(String query, String apiKey) throws MalformedQueryException, QueryExecutionException {
+		
+		final UserEntity userEntity = userRepository.getByApiKey(apiKey);
+		
+		if(userEntity == null) {
+			throw new QueryExecutionException("Unable to prepare the query. The user does not exist.");
+		}
+		
+		try {
+			
+			final PreparedEql preparedEql = PreparedEql.prepare(query);
+			
+			// The same statement always has the same ID so it is only kept once for a user.
+			final String id = UUID.nameUUIDFromBytes(preparedEql.getStatement().getBytes(StandardCharsets.UTF_8)).toString();
+			
+			getPreparedQueries(userEntity.getId()).putIfAbsent(id, preparedEql);
+			
+			return new PreparedQuery(id, preparedEql.getStatement(), preparedEql.getParameterCount());
+			
+		} catch (QueryGenerationException ex) {
+			
+			LOGGER.error("Malformed query: " + ex.getMessage(), ex);
+			
+			throw new MalformedQueryException("Malformed query.");
+			
+		}
+		
+	}
+	
+
+	@Override
+	public QueryResult execute(String id, List<String> parameters, String apiKey) throws NonexistantPreparedQueryException, MalformedQueryException, QueryExecutionException {
+		
+		final UserEntity userEntity = userRepository.getByApiKey(apiKey);
+		
+		final PreparedEql preparedEql = (userEntity == null) ? null : getPreparedQueries(userEntity.getId()).get(id);
+		
+		if(preparedEql == null) {
+			throw new NonexistantPreparedQueryException("The prepared query " + id + " does not exist.");
+		}
+		
+		final EntityQuery entityQuery;
+		
+		try {
+			
+			entityQuery = preparedEql.bind(parameters);
+			
+		} catch (QueryGenerationException ex) {
+			
+			LOGGER.error("Malformed query: " + ex.getMessage(), ex);
+			
+			throw new MalformedQueryException("Malformed query.");
+			
+		}
+		
+		// The statement and the values are audited.
+		return eql(preparedEql.getStatement() + " " + parameters, entityQuery, null, apiKey, 0, 0);
+		
+	}
+	
+	/**
+	 * Gets the prepared queries of a user.
+	 * @param userId The ID of the user.
+	 * @return The user's prepared queries by ID in least recently used order.
+	 */
+	private Map<String, PreparedEql> getPreparedQueries(long userId) {
+		
+		return preparedQueries.computeIfAbsent(userId, k -> Collections.synchronizedMap(new LinkedHashMap<String, PreparedEql>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedEql> eldest) {
+				return size() > properties.getPreparedQueries();
+			}
+			
+		}));
+		
+	}
+	
+	/**
+	 * Executes an EQL query.
+	 * @param query The EQL query.
+	 * @param generatedQuery The {@link EntityQuery} of the query if it has
+	 * already been generated; otherwise <code>null</code>.
+	 * @param cursor The cursor of the previous page, or <code>null</code> for the first page.
+	 * @param apiKey The user's API key.
+	 * @param continuous <code>1</code> if the query is to be a continuous query.
+	 * @param days The number of days to be continuous.
+	 * @return The {@link QueryResult result}.
+	 * @throws QueryRejectedException Thrown if the query was not admitted and can be retried later.
+	 */
+	private QueryResult eql(String query, EntityQuery generatedQuery, String cursor, String apiKey, int continuous, int days) throws MalformedQueryException, QueryExecutionException {
 				
 		long startTime = System.currentTimeMillis();
 
 		final QueryResult queryResult;
 		
+		// The time taken by each stage is kept for explain profile queries.
+		final Map<String, Long> timings = new LinkedHashMap<String, Long>();
+		
+		QueryAdmissionController.Admission admission = null;
+		
 		try {
 			
-			EntityQuery entityQuery = Eql.generate(query);
+			long stageTime = System.nanoTime();
+			
+			EntityQuery entityQuery = (generatedQuery != null) ? generatedQuery : Eql.generate(query);
+			
+			stageTime = recordStage(timings, STAGE_PARSE, stageTime);
+			
+			if(cursor != null) {
+				
+				if(continuous > 0 || entityQuery.isCount() || entityQuery.isExplain()) {
+					throw new QueryGenerationException("Only a query returning entities can have a cursor.");
+				}
+				
+				entityQuery.setCursor(cursor);
+				
+			}
+			
+			if(continuous > 0 && entityQuery.isCount()) {
+				throw new QueryGenerationException("A count query cannot be a continuous query.");
+			}
+			
+			if(continuous > 0 && entityQuery.isExplain()) {
+				throw new QueryGenerationException("An explain query cannot be a continuous query.");
+			}
+			
+			admission = admit(Collections.singletonList(entityQuery), apiKey);
 			
 				// Audit this query.
 			final boolean auditResult = auditLogger.audit(query, System.currentTimeMillis(), apiKey);
+			
+			stageTime = recordStage(timings, STAGE_AUDIT, stageTime);
 				
 				if(auditResult) {
 				
@@ -153,8 +486,14 @@ public class DefaultEntityQueryService implements EntityQueryService {
 					
 					User user = User.fromEntity(userEntity);
 					
+					recordStage(timings, STAGE_USER, stageTime);
+					
 					// Execute the query.
-					queryResult = executeQuery(entityQuery, user);
+					if(entityQuery.isExplain()) {
+						queryResult = explainQuery(entityQuery, user, timings);
+					} else {
+						queryResult = executeQuery(entityQuery, user);
+					}
 					
 					if(continuous > 0) {
 					
@@ -162,7 +501,10 @@ public class DefaultEntityQueryService implements EntityQueryService {
 						
 						// The query was validated and executed successfully.
 						// If it is set to be continuous we can now persist it.
-						continuousQueryRepository.save(new ContinuousQueryEntity(userEntity, query, new Date(), days, snsTopicArn));
+						final ContinuousQueryEntity continuousQueryEntity = continuousQueryRepository.save(new ContinuousQueryEntity(userEntity, query, new Date(), days, snsTopicArn));
+						
+						// Start executing it against ingested entities.
+						continuousQueryRegistry.add(continuousQueryEntity);
 					
 					}
 					
@@ -176,7 +518,13 @@ public class DefaultEntityQueryService implements EntityQueryService {
 					
 				}
 			
-		} catch (QueryGenerationException | IllegalStateException ex) {
+		} catch (QueryRejectedException ex) {
+			
+			metricReporter.report(MetricReporter.MEASUREMENT_QUERY, "rejected", 1, Unit.COUNT);
+			
+			throw ex;
+			
+		} catch (QueryGenerationException | IllegalStateException | InvalidQueryException ex) {
 			
 			LOGGER.error("Malformed query: " + ex.getMessage(), ex);
 			
@@ -188,6 +536,12 @@ public class DefaultEntityQueryService implements EntityQueryService {
 			
 			throw new QueryExecutionException("Unable to execute the query. See the log for more information.");
 			
+		} finally {
+			
+			if(admission != null) {
+				admission.close();
+			}
+			
 		}
 		
 		return queryResult;
@@ -199,63 +553,63 @@ public class DefaultEntityQueryService implements EntityQueryService {
 
 		final long startTime = System.currentTimeMillis();
 
-		final List<ContinuousQueryEntity> continuousQueryEntities = continuousQueryRepository.getNonExpiredContinuousQueries();
-		
 		// Report the number of continuous queries being executed.
-		metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "count", continuousQueryEntities.size(), Unit.COUNT);
+		metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "count", continuousQueryRegistry.size(), Unit.COUNT);
 		
-		for(final ContinuousQueryEntity continuousQueryEntity : continuousQueryEntities) {
-				
-			// Execute the query on each entity.
-			for(final Entity entity : entities) {
+		final List<Entity> entityList = (entities instanceof List) ? (List<Entity>) entities : new ArrayList<Entity>(entities);
+		
+		// Encode the ACL once for the batch. Visibility is checked against each owner's principals.
+		final EncodedAcl encodedAcl = continuousQueryRegistry.encode(acl);
+		
+		final List<ContinuousQueryMatch> matches;
+		
+		if(continuousQueryRegistry.isPercolating()) {
 			
-				// Generate the entity's ID.
-				final String entityId = EntityIdGenerator.generateEntityId(entity, acl.toString());
-				
-				// Get the user (owner) of the continuous query.
-				final UserEntity userEntity = continuousQueryEntity.getUser();
-				final User user = User.fromEntity(userEntity);
-				
-				// Make sure the owner of this continuous query is actually able to see this entity.
-				// This check is likely cheaper than evaluating the continuous query so do it first.
-				final boolean isVisible = Acl.isEntityVisibleToUser(acl, user);
-				
-				if(isVisible) {
-
-					try {
-
-						boolean match = EqlFilters.isMatch(entity, continuousQueryEntity.getQuery());
-
-						if (match) {
-
-							// Notify the owner of the continuous query of the match.
-
-							String notification = String.format("Continuous query %s matched on entity %s.", continuousQueryEntity.getId(), entityId);
-
-							NotificationEntity notificationEntity = new NotificationEntity();
-							notificationEntity.setUser(continuousQueryEntity.getUser());
-							notificationEntity.setType(NotificationType.CONTINUOUS_QUERY.getValue());
-							notificationEntity.setNotification(notification);
+			// Match the entities against the continuous queries with a single percolate request.
+			matches = continuousQueryRegistry.percolate(entityList, acl, encodedAcl);
+			
+		} else {
+		
+			// Match the entities against the continuous queries in parallel.
+			final ContinuousQueryMatchTask.Result result = continuousQueryForkJoinPool.invoke(new ContinuousQueryMatchTask(continuousQueryRegistry, entityList, encodedAcl, properties.getContinuousQueryChunkSize()));
+			
+			// Report how the work was split.
+			metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "chunks", result.getChunks(), Unit.COUNT);
+			metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "maxChunkSize", result.getMaxChunkSize(), Unit.COUNT);
+			metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "averageChunkTime", TimeUnit.NANOSECONDS.toMillis(result.getTotalChunkTime() / result.getChunks()), Unit.MILLISECONDS);
+			metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "maxChunkTime", TimeUnit.NANOSECONDS.toMillis(result.getMaxChunkTime()), Unit.MILLISECONDS);
+			
+			matches = result.getMatches();
+			
+		}
+		
+		for(final ContinuousQueryMatch match : matches) {
+			
+			final ContinuousQueryEntity continuousQueryEntity = match.getCompiledContinuousQuery().getContinuousQueryEntity();
+			final Entity entity = match.getEntity();
+			
+			// Only matches visible to the owner of the continuous query are returned.
 
-							notificationRepository.save(notificationEntity);
+			// Generate the entity's ID.
+			final String entityId = EntityIdGenerator.generateEntityId(entity, acl.toString());
+			
+			// Notify the owner of the continuous query of the match.
 
-							// Generate a notification for the user.
-							ContinuousQuery continuousQuery = ContinuousQuery.fromEntity(continuousQueryEntity);
-							notificationService.sendContinuousQueryNotification(continuousQuery, entity);
+			String notification = String.format("Continuous query %s matched on entity %s.", continuousQueryEntity.getId(), entityId);
 
-							// Record this time-to-alert metric.
-							metricReporter.reportElapsedTime(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "timeToAlert", entitiesReceivedTimestamp);
+			// The notification is written to the datastore in the background.
+			notificationWriter.write(continuousQueryEntity.getUser().getId(), notification, NotificationType.CONTINUOUS_QUERY.getValue());
 
-						}
+			// Generate a notification for the user.
+			ContinuousQuery continuousQuery = ContinuousQuery.fromEntity(continuousQueryEntity);
+			notificationService.sendContinuousQueryNotification(continuousQuery, entity);
 
-					} catch (QueryGenerationException ex) {
-						// TODO: Handle this exception.
-					}
-					
-				}
+			// Record this time-to-alert metric.
+			metricReporter.reportElapsedTime(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "timeToAlert", entitiesReceivedTimestamp);
+			
+			// And record it for the continuous query.
+			match.getCompiledContinuousQuery().getStatistics().recordTimeToAlert(System.currentTimeMillis() - entitiesReceivedTimestamp);
 			
-			}
-						
 		}
 		
 		// Report the time taken to execute the continuous queries.
@@ -263,54 +617,281 @@ public class DefaultEntityQueryService implements EntityQueryService {
 		
 	}
 	
-	private QueryResult executeQuery(EntityQuery entityQuery, User user) throws QueryGenerationException, EntityStoreException, InvalidQueryException {
-
-		final QueryResult queryResult;
-				
-		LOGGER.trace("Executing search against the search index.");
+	@Override
+	public List<ContinuousQueryCost> getMostExpensiveContinuousQueries(int limit, String apiKey) {
+		
+		final List<ContinuousQueryCost> costs = new ArrayList<>();
+		
+		final UserEntity userEntity = userRepository.getByApiKey(apiKey);
+		
+		if(userEntity == null) {
+			return costs;
+		}
+		
+		// Only the user's own continuous queries are returned.
+		for(final CompiledContinuousQuery compiledContinuousQuery : continuousQueryRegistry.getMostExpensive(limit, userEntity.getId())) {
+			
+			final ContinuousQueryStatistics statistics = compiledContinuousQuery.getStatistics();
+			
+			costs.add(new ContinuousQueryCost(compiledContinuousQuery.getId(), compiledContinuousQuery.getQuery(),
+					statistics.getEvaluations(), statistics.getMatches(), statistics.getEvaluationTime(),
+					statistics.getEvaluationTimes().getPercentile(50), statistics.getEvaluationTimes().getPercentile(99),
+					statistics.getTimesToAlert().getCount(), statistics.getTimesToAlert().getPercentile(50), statistics.getTimesToAlert().getPercentile(99)));
+			
+		}
+		
+		return costs;
+		
+	}
+	
+	/**
+	 * Admits queries for execution so that one user's expensive queries
+	 * cannot slow down the queries of other users and the ingest of entities.
+	 * Queries executed together are admitted together.
+	 * @param entityQueries The {@link EntityQuery queries}.
+	 * @param apiKey The API key of the user executing the queries.
+	 * @return The {@link QueryAdmissionController.Admission admission} to close when the
+	 * queries have been executed, or <code>null</code> if the queries do not need to be admitted.
+	 * @throws QueryRejectedException Thrown if the queries were not admitted.
+	 */
+	private QueryAdmissionController.Admission admit(List<EntityQuery> entityQueries, String apiKey) throws QueryRejectedException {
+		
+		if(!properties.isQueryAdmissionEnabled()) {
+			return null;
+		}
+		
+		long cost = 0;
+		
+		for(EntityQuery entityQuery : entityQueries) {
+			
+			// An explain query is not executed unless it is profiled.
+			if(!entityQuery.isExplain() || entityQuery.isProfile()) {
+				cost += QueryCostEstimator.estimate(entityQuery);
+			}
+			
+		}
+		
+		if(cost == 0) {
+			return null;
+		}
+		
+		metricReporter.report(MetricReporter.MEASUREMENT_QUERY, "cost", cost, Unit.COUNT);
+		
+		return queryAdmissionController.admit(apiKey, cost);
+		
+	}
+	
+	/**
+	 * Explains a query. An <code>explain profile</code> query is also executed
+	 * and the time taken by each stage of the query is recorded.
+	 * @param entityQuery The {@link EntityQuery query} to explain.
+	 * @param user The {@link User} executing the query.
+	 * @param timings The times of the stages that have been executed.
+	 * @return The {@link QueryResult result} with the {@link QueryExplanation explanation}.
+	 */
+	private QueryResult explainQuery(EntityQuery entityQuery, User user, Map<String, Long> timings) throws InvalidQueryException {
 		
-		// Give an ID to this query.
 		final String queryId = UUID.randomUUID().toString();
 		
-		// Execute the entity query against the search index.
-		final List<IndexedEntity> indexedEntities = searchIndex.queryForIndexedEntities(entityQuery, user);
-				
-		if(CollectionUtils.isNotEmpty(indexedEntities)) {
-
-			final Iterator<IndexedEntity> it = indexedEntities.iterator();
+		final QueryExplanation queryExplanation = searchIndex.explain(entityQuery, user);
+		
+		final QueryResult queryResult;
+		
+		if(entityQuery.isProfile()) {
+			
+			long stageTime = System.nanoTime();
+			
+			final List<IndexedEntity> indexedEntities = searchIndex.profile(entityQuery, user, queryExplanation);
+			
+			stageTime = recordStage(timings, STAGE_SEARCH, stageTime);
+			
+			auditAndMask(indexedEntities, user);
+			
+			recordStage(timings, STAGE_ACL, stageTime);
+			
+			queryExplanation.setTimings(timings);
 			
-			while(it.hasNext()) {
+			queryResult = new QueryResult(indexedEntities, queryId);
+			queryResult.setFields(entityQuery.getFields());
+			
+		} else {
+			
+			// The query is only explained.
+			queryResult = new QueryResult(Collections.<IndexedEntity>emptyList(), queryId);
+			
+		}
+		
+		queryResult.setExplanation(queryExplanation);
+		
+		return queryResult;
+		
+	}
+	
+	/**
+	 * Audits the entities returned by a query and masks their ACLs if configured.
+	 * Entities that cannot be audited are removed. The entities may be cached so
+	 * a masked entity is replaced by a copy instead of being changed.
+	 * @param indexedEntities The {@link IndexedEntity entities} returned by the query.
+	 * @param user The {@link User} executing the query.
+	 */
+	private void auditAndMask(List<IndexedEntity> indexedEntities, User user) {
+		
+		final ListIterator<IndexedEntity> it = indexedEntities.listIterator();
+		
+		while(it.hasNext()) {
+			
+			IndexedEntity indexedEntity = it.next();
+			
+			// Set to true by default in case auditing is not enabled.
+			boolean auditResult = true;
+			
+			if(properties.isAuditEnabled()) {				
+				auditResult = auditLogger.audit(indexedEntity.getEntityId(), System.currentTimeMillis(), user.getUsername(), AuditAction.SEARCH_RESULT);					
+			}
+							
+			if(!auditResult) {
+			
+				// If it can't be audited don't return it.					
+				it.remove();
 				
-				IndexedEntity indexedEntity = it.next();
+				LOGGER.warn("Entity ID {} could not be audited so it was not returned in query results.", indexedEntity.getEntityId());
 				
-				// Set to true by default in case auditing is not enabled.
-				boolean auditResult = true;
+			} else {
 				
-				if(properties.isAuditEnabled()) {				
-					auditResult = auditLogger.audit(indexedEntity.getEntityId(), System.currentTimeMillis(), user.getUsername(), AuditAction.SEARCH_RESULT);					
+				// It was audited successfully.
+			
+				//  Mask the entity ACLs?
+				if(properties.isMaskEntityAcl() && indexedEntity.getAcl() != null) {				
+					it.set(withoutAcl(indexedEntity));					
 				}
-								
-				if(!auditResult) {
 				
-					// If it can't be audited don't return it.					
-					it.remove();
-					
-					LOGGER.warn("Entity ID {} could not be audited so it was not returned in query results.", indexedEntity.getEntityId());
-					
-				} else {
-					
-					// It was audited successfully.
+			}								
+			
+		}
+		
+	}
+	
+	/**
+	 * Copies an entity without its ACL.
+	 * @param indexedEntity The {@link IndexedEntity entity}.
+	 * @return A copy of the entity whose ACL is <code>null</code>.
+	 */
+	private static IndexedEntity withoutAcl(IndexedEntity indexedEntity) {
+		
+		final IndexedEntity masked = IndexedEntity.fromEntity(indexedEntity, indexedEntity.getEntityId(), (Acl) null);
+		masked.setDocumentVersion(indexedEntity.getDocumentVersion());
+		masked.setTransactionId(indexedEntity.getTransactionId());
+		masked.setTime(indexedEntity.getTime());
+		
+		return masked;
+		
+	}
+	
+	/**
+	 * Records the time taken by a stage of a query.
+	 * @param timings The times of the stages in microseconds.
+	 * @param stage The name of the stage.
+	 * @param stageTime The start time of the stage in nanoseconds.
+	 * @return The end time of the stage in nanoseconds.
+	 */
+	private static long recordStage(Map<String, Long> timings, String stage, long stageTime) {
+		
+		final long now = System.nanoTime();
+		
+		timings.put(stage, TimeUnit.NANOSECONDS.toMicros(now - stageTime));
+		
+		return now;
+		
+	}
+	
+	private QueryResult executeQuery(EntityQuery entityQuery, User user) throws QueryGenerationException, QueryExecutionException, EntityStoreException, InvalidQueryException {
+
+		LOGGER.trace("Executing search against the search index.");
+		
+		// Give an ID to this query.
+		final String queryId = UUID.randomUUID().toString();
+		
+		if(entityQuery.isCount()) {
+			
+			// The entities are counted by the search index so none are returned.
+			final AggregationResult aggregationResult = searchIndex.aggregate(entityQuery, user);
+			
+			if(aggregationResult == null) {
+				throw new QueryExecutionException("Unable to count the entities.");
+			}
+			
+			return new QueryResult(aggregationResult, queryId);
+			
+		}
+		
+		// Execute the entity query against the search index unless its result is cached.
+		final List<IndexedEntity> indexedEntities = search(entityQuery, user);
 				
-					//  Mask the entity ACLs?
-					if(properties.isMaskEntityAcl()) {				
-						indexedEntity.setAcl(null);					
-					}
+		return toQueryResult(entityQuery, indexedEntities, user);
 					
-				}								
-				
+	}
+	
+	/**
+	 * Gets the entities of a query from the query result cache or, if they are
+	 * not cached or out of date, from the search index.
+	 * @param entityQuery The {@link EntityQuery query}.
+	 * @param user The {@link User} executing the query.
+	 * @return The {@link IndexedEntity entities}. They are not audited.
+	 * @throws InvalidQueryException Thrown if the query cannot be executed by the search index.
+	 */
+	private List<IndexedEntity> search(EntityQuery entityQuery, User user) throws InvalidQueryException {
+		
+		if(!queryResultCache.isEnabled()) {
+			return searchIndex.queryForIndexedEntities(entityQuery, user);
+		}
+		
+		final String key = queryResultCache.key(entityQuery, user);
+		
+		// The generation is read before searching so entities indexed meanwhile make the result out of date.
+		final long generation = searchIndex.getGeneration();
+		
+		List<IndexedEntity> indexedEntities = queryResultCache.get(key, generation);
+		
+		if(indexedEntities == null) {
+			
+			indexedEntities = searchIndex.queryForIndexedEntities(entityQuery, user);
+			
+			if(indexedEntities != null) {
+				queryResultCache.put(key, generation, indexedEntities);
 			}
 			
+		}
+		
+		return indexedEntities;
+		
+	}
+	
+	/**
+	 * Creates the result of a query from the entities returned by the search index.
+	 * The entities are audited and their ACLs masked if configured.
+	 * @param entityQuery The {@link EntityQuery query}.
+	 * @param indexedEntities The {@link IndexedEntity entities} returned by the search index.
+	 * @param user The {@link User} executing the query.
+	 * @return The {@link QueryResult result}.
+	 */
+	private QueryResult toQueryResult(EntityQuery entityQuery, List<IndexedEntity> indexedEntities, User user) {
+		
+		final QueryResult queryResult;
+		
+		// Give an ID to this query.
+		final String queryId = UUID.randomUUID().toString();
+		
+		if(CollectionUtils.isNotEmpty(indexedEntities)) {
+
+			auditAndMask(indexedEntities, user);
+			
 			queryResult = new QueryResult(indexedEntities, queryId);
+			
+			// Only the projected properties of the entities are returned.
+			queryResult.setFields(entityQuery.getFields());
+			
+			// The cursor of the next page if there can be one.
+			queryResult.setNextCursor(searchIndex.getNextCursor(entityQuery, indexedEntities));
 		
 		} else {
 			
@@ -321,7 +902,7 @@ public class DefaultEntityQueryService implements EntityQueryService {
 		}
 			
 		return queryResult;
-					
+		
 	}
 			
 }
\ No newline at end of file
@@ -21,15 +21,18 @@
 package ai.philterd.entitydb.services;
 
 import java.util.Collection;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
 
 import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import ai.philterd.entitydb.model.entity.Entity;
 import ai.philterd.entitydb.model.exceptions.EntityPublisherException;
 import ai.philterd.entitydb.model.exceptions.MalformedAclException;
+import ai.philterd.entitydb.model.executors.ExecutorPools;
 import ai.philterd.entitydb.model.queue.QueuePublisher;
 import ai.philterd.entitydb.model.security.Acl;
 import ai.philterd.entitydb.model.services.EntityQueryService;
@@ -44,6 +47,8 @@ import ai.philterd.entitydb.model.services.EntityQueueService;
 @Component
 public class DefaultEntityQueueService implements EntityQueueService {
 
+	private static final Logger LOGGER = LogManager.getLogger(DefaultEntityQueueService.class);
+
 	@Autowired
 	private QueuePublisher queuePublisher;
 	
@@ -51,13 +56,16 @@ public class DefaultEntityQueueService implements EntityQueueService {
 	private EntityQueryService entityQueryService;
 	
 	@Autowired
-	private ThreadPoolExecutor executor;
+	private ExecutorPools executorPools;
 	
 	/**
 	 * {@inheritDoc}
 	 * 
 	 * In addition to queuing the entities this function also executes
-	 * the continuous queries against the entities in a separate thread.
+	 * the continuous queries against the entities on the continuous
+	 * queries executor. When that executor is saturated its policy
+	 * determines whether the caller executes the continuous queries,
+	 * waits, or the entities are not matched against the continuous queries.
 	 */
 	@Override
 	public void queueIngest(final Collection<Entity> entities, final String acl, final String apiKey) throws MalformedAclException, EntityPublisherException {
@@ -67,7 +75,16 @@ public class DefaultEntityQueueService implements EntityQueueService {
 		
 		queuePublisher.queueIngest(entities, acl, apiKey);
 		
-		executor.execute(() -> executeContinuousQueries(entities, entityAcl));
+		try {
+		
+			executorPools.get(ExecutorPools.CONTINUOUS_QUERIES).execute(() -> executeContinuousQueries(entities, entityAcl));
+			
+		} catch (RejectedExecutionException ex) {
+			
+			// The entities are queued. Only the continuous queries were shed.
+			LOGGER.warn("The continuous queries were not executed against {} entities: {}", entities.size(), ex.getMessage());
+			
+		}
 		
 	}
 	
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.stereotype.Component;
+
+import ai.philterd.entitydb.configuration.EntityDbProperties;
+import ai.philterd.entitydb.model.exceptions.QueryRejectedException;
+
+/**
+ * Limits the queries executed at the same time. Each user may execute a
+ * limited number of queries at a time, and the total estimated cost of
+ * the queries being executed by all users may not exceed a budget. A query
+ * that is not admitted is rejected instead of waiting so that expensive
+ * queries do not slow down the ingest of entities and the continuous queries.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class QueryAdmissionController {
+
+	private static final Logger LOGGER = LogManager.getLogger(QueryAdmissionController.class);
+	
+	// The weight of the newest execution time in the average execution time.
+	private static final double EXECUTION_TIME_WEIGHT = 0.2;
+	
+	private final int userConcurrency;
+	private final long budget;
+	
+	// The number of queries being executed by each user.
+	private final ConcurrentMap<String, Integer> executing = new ConcurrentHashMap<String, Integer>();
+	
+	// The total cost of the queries being executed.
+	private long spent;
+	
+	// The moving average of the queries' execution times in milliseconds.
+	private volatile double averageExecutionTime;
+	
+	/**
+	 * Creates a new admission controller configured by the properties.
+	 */
+	public QueryAdmissionController() {
+		
+		this(ConfigFactory.create(EntityDbProperties.class).getQueryAdmissionUserConcurrency(),
+				ConfigFactory.create(EntityDbProperties.class).getQueryAdmissionBudget());
+		
+	}
+	
+	/**
+	 * Creates a new admission controller.
+	 * @param userConcurrency The number of queries each user may execute at a time.
+	 * @param budget The total cost of the queries that may be executed at a time.
+	 */
+	public QueryAdmissionController(int userConcurrency, long budget) {
+		
+		this.userConcurrency = userConcurrency;
+		this.budget = budget;
+		
+	}
+	
+	/**
+	 * Admits a query for execution. The returned {@link Admission} must
+	 * be closed when the query has been executed.
+	 * @param principal The user executing the query.
+	 * @param cost The estimated cost of the query. A query costing more than
+	 * the budget is only admitted when no other query is being executed.
+	 * @return The {@link Admission admission} of the query.
+	 * @throws QueryRejectedException Thrown if the user or EntityDB is
+	 * already executing as many queries as allowed.
+	 */
+	public Admission admit(String principal, long cost) throws QueryRejectedException {
+		
+		if(executing.merge(principal, 1, Integer::sum) > userConcurrency) {
+			
+			release(principal);
+			
+			LOGGER.warn("Rejected query costing {} because the user is executing {} queries.", cost, userConcurrency);
+			
+			throw new QueryRejectedException("Too many queries are being executed by the user.", getRetryAfter());
+			
+		}
+		
+		final long charged = Math.min(cost, budget);
+		
+		synchronized(this) {
+			
+			if(spent + charged > budget) {
+				
+				release(principal);
+				
+				LOGGER.warn("Rejected query costing {} because queries costing {} of {} are being executed.", cost, spent, budget);
+				
+				throw new QueryRejectedException("Too many queries are being executed.", getRetryAfter());
+				
+			}
+			
+			spent += charged;
+			
+		}
+		
+		return new Admission(principal, charged);
+		
+	}
+	
+	/**
+	 * Gets the total cost of the queries being executed.
+	 * @return The total cost of the queries being executed.
+	 */
+	public synchronized long getSpent() {
+		return spent;
+	}
+	
+	/**
+	 * Gets the number of seconds after which a rejected query should
+	 * be retried. It is the average execution time of the queries.
+	 * @return The number of seconds, at least <code>1</code>.
+	 */
+	public long getRetryAfter() {
+		return Math.max(1, (long) Math.ceil(averageExecutionTime / 1000));
+	}
+	
+	private void release(String principal) {
+		
+		// Users not executing queries are not kept.
+		executing.computeIfPresent(principal, (p, queries) -> queries == 1 ? null : queries - 1);
+		
+	}
+	
+	/**
+	 * A query admitted for execution. Closing it allows
+	 * other queries to be admitted.
+	 */
+	public final class Admission implements AutoCloseable {
+		
+		private final String principal;
+		private final long charged;
+		private final long admitted = System.currentTimeMillis();
+		private boolean closed;
+		
+		private Admission(String principal, long charged) {
+			
+			this.principal = principal;
+			this.charged = charged;
+			
+		}
+		
+		@Override
+		public void close() {
+			
+			synchronized(QueryAdmissionController.this) {
+				
+				if(closed) {
+					return;
+				}
+				
+				closed = true;
+				spent -= charged;
+				
+				final long executionTime = System.currentTimeMillis() - admitted;
+				averageExecutionTime += EXECUTION_TIME_WEIGHT * (executionTime - averageExecutionTime);
+				
+			}
+			
+			release(principal);
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.admission;
+
+import org.apache.commons.lang3.StringUtils;
+
+import ai.philterd.entitydb.model.eql.EntityMetadataFilter;
+import ai.philterd.entitydb.model.eql.EntityOrder;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+
+/**
+ * Estimates the cost of executing an {@link EntityQuery} against the
+ * search index. The cost is in units where a selective query for a
+ * single page of entities costs a few units. It grows with:
+ * <ul>
+ * <li>the number of terms a wildcard condition may expand to, which is
+ * larger the shorter the literal prefix before the first wildcard,</li>
+ * <li>the fraction of the indexed entities the conditions are expected
+ * to match, since each match is scored,</li>
+ * <li>the number of entities collected for the page, <code>offset + limit</code>,
+ * which is more expensive when not sorted by ID, and</li>
+ * <li>grouping the entities of a count query.</li>
+ * </ul>
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class QueryCostEstimator {
+
+	// The cost of every query.
+	private static final double BASE_COST = 1;
+	
+	// The cost of a wildcard condition and of each extra wildcard in it.
+	private static final double WILDCARD_COST = 2;
+	
+	// The cost of expanding a wildcard having a one character prefix.
+	private static final double PREFIX_EXPANSION_COST = 8;
+	
+	// The cost of scoring every indexed entity.
+	private static final double MATCH_COST = 20;
+	
+	// The number of collected entities that cost one unit.
+	private static final double WINDOW_SIZE = 50;
+	
+	// The cost of a group by.
+	private static final double GROUP_COST = 5;
+	
+	// The expected fraction of the entities matched by an exact condition on each field.
+	private static final double TEXT_SELECTIVITY = 0.001;
+	private static final double DOCUMENT_ID_SELECTIVITY = 0.01;
+	private static final double URI_SELECTIVITY = 0.01;
+	private static final double CONTEXT_SELECTIVITY = 0.1;
+	private static final double METADATA_SELECTIVITY = 0.1;
+	private static final double TYPE_SELECTIVITY = 0.3;
+	private static final double LANGUAGE_SELECTIVITY = 0.5;
+	
+	// The smallest fraction of the entities a confidence range is expected to match.
+	private static final double MINIMUM_CONFIDENCE_SELECTIVITY = 0.05;
+	
+	// The expected fraction of the entities matched by a date range. Most are time windows.
+	private static final double DATE_SELECTIVITY = 0.1;
+	
+	private QueryCostEstimator() {
+		// Only static functions.
+	}
+	
+	/**
+	 * Estimates the cost of a query.
+	 * @param entityQuery The {@link EntityQuery query}.
+	 * @return The estimated cost of the query. It is always at least <code>1</code>.
+	 */
+	public static long estimate(EntityQuery entityQuery) {
+		
+		double cost = BASE_COST;
+		
+		// The expected fraction of the entities matched by the query.
+		double selectivity = 1.0;
+		
+		selectivity *= condition(entityQuery.getText(), TEXT_SELECTIVITY);
+		selectivity *= condition(entityQuery.getDocumentId(), DOCUMENT_ID_SELECTIVITY);
+		selectivity *= condition(entityQuery.getUri(), URI_SELECTIVITY);
+		selectivity *= condition(entityQuery.getContext(), CONTEXT_SELECTIVITY);
+		selectivity *= condition(entityQuery.getType(), TYPE_SELECTIVITY);
+		selectivity *= condition(entityQuery.getLanguageCode(), LANGUAGE_SELECTIVITY);
+		
+		if(entityQuery.getEntityMetadataFilters() != null) {
+			
+			for(EntityMetadataFilter entityMetadataFilter : entityQuery.getEntityMetadataFilters()) {
+				selectivity *= condition(entityMetadataFilter.getValue(), METADATA_SELECTIVITY);
+			}
+			
+		}
+		
+		if(entityQuery.getConfidenceRange() != null) {
+			
+			final double width = entityQuery.getConfidenceRange().getMaximum() - entityQuery.getConfidenceRange().getMinimum();
+			
+			selectivity *= Math.min(1.0, Math.max(MINIMUM_CONFIDENCE_SELECTIVITY, width));
+			
+		}
+		
+		if(entityQuery.getExtractionDateRange() != null) {
+			selectivity *= DATE_SELECTIVITY;
+		}
+		
+		if(entityQuery.getTimeRange() != null) {
+			selectivity *= DATE_SELECTIVITY;
+		}
+		
+		cost += MATCH_COST * selectivity;
+		
+		// The wildcard conditions. The NOT conditions do not narrow the query but are expanded too.
+		cost += wildcard(entityQuery.getText()) + wildcard(entityQuery.getNotText());
+		cost += wildcard(entityQuery.getDocumentId()) + wildcard(entityQuery.getNotDocumentId());
+		cost += wildcard(entityQuery.getUri()) + wildcard(entityQuery.getNotUri());
+		cost += wildcard(entityQuery.getContext()) + wildcard(entityQuery.getNotContext());
+		cost += wildcard(entityQuery.getType()) + wildcard(entityQuery.getNotType());
+		cost += wildcard(entityQuery.getLanguageCode()) + wildcard(entityQuery.getNotLanguageCode());
+		
+		if(entityQuery.isCount()) {
+			
+			// No entities are collected.
+			if(entityQuery.getEntityGroup() != null) {
+				cost += GROUP_COST;
+			}
+			
+		} else {
+			
+			double window = ((double) entityQuery.getOffset() + entityQuery.getLimit()) / WINDOW_SIZE;
+			
+			if(entityQuery.getEntityOrder() != null && entityQuery.getEntityOrder() != EntityOrder.ID) {
+				window *= 2;
+			}
+			
+			cost += window;
+			
+		}
+		
+		return Math.max(1, (long) Math.ceil(cost));
+		
+	}
+	
+	/**
+	 * Gets the expected fraction of the entities matched by a condition. A
+	 * wildcard condition matches more entities than an exact condition.
+	 * @param value The value of the condition.
+	 * @param selectivity The expected fraction of the entities matched by
+	 * an exact condition on the field.
+	 * @return The expected fraction of the entities matched by the condition.
+	 */
+	private static double condition(String value, double selectivity) {
+		
+		if(StringUtils.isEmpty(value)) {
+			return 1.0;
+		}
+		
+		if(StringUtils.containsAny(value, '*', '?')) {
+			return Math.sqrt(selectivity);
+		}
+		
+		return selectivity;
+		
+	}
+	
+	/**
+	 * Gets the cost of expanding a wildcard condition.
+	 * @param value The value of the condition.
+	 * @return The cost of expanding the condition, or <code>0</code>
+	 * if the value does not have a wildcard.
+	 */
+	private static double wildcard(String value) {
+		
+		if(StringUtils.isEmpty(value)) {
+			return 0;
+		}
+		
+		final int prefix = StringUtils.indexOfAny(value, '*', '?');
+		
+		if(prefix == -1) {
+			return 0;
+		}
+		
+		// Each extra wildcard adds to the cost.
+		final int wildcards = StringUtils.countMatches(value, "*") + StringUtils.countMatches(value, "?");
+		
+		// A leading wildcard is rejected by the search index but is costed as a one character prefix.
+		return WILDCARD_COST * wildcards + PREFIX_EXPANSION_COST / Math.max(1, prefix);
+		
+	}
+	
+}
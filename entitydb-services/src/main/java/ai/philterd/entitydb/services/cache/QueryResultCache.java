@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.Gson;
+
+import ai.philterd.entitydb.configuration.EntityDbProperties;
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.eql.EntityQuery;
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.metrics.Unit;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+
+/**
+ * Caches the entities returned by the search index for EQL queries. An entry
+ * is keyed by the query as parsed, so queries differing only in whitespace
+ * share an entry, and by a hash of the principals the search index filters
+ * the entities' ACLs by, so users having the same name and groups share an
+ * entry. The user's name is a principal because an ACL can name a user.
+ * 
+ * An entry is only returned if the search index's generation has not changed
+ * since the entry was cached and the entry has not expired. The least recently
+ * used entry is removed when the cache is full.
+ * 
+ * The generation changes when an entity is written but the search index only
+ * returns the entity after its next refresh. A result is not cached until the
+ * generation it was executed at has been seen for the refresh interval, so a
+ * result that may be missing the latest writes is not served for the whole ttl.
+ * 
+ * The cached entities are not copied. Each caller gets its own copy of the list
+ * so the entities it cannot audit can be removed, and a masked entity is
+ * replaced by a copy so the cached entities must not be changed.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class QueryResultCache {
+
+	private static final Gson GSON = new Gson();
+	
+	private final int size;
+	private final long ttl;
+	private final long refreshInterval;
+	
+	// The latest generation seen and when it was first seen.
+	private long observedGeneration = -1;
+	private long observedTime;
+	
+	private final Map<String, Entry> entries;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	
+	/**
+	 * Creates a new query result cache configured by the properties.
+	 */
+	public QueryResultCache() {
+		
+		this(ConfigFactory.create(EntityDbProperties.class).getQueryCacheSize(),
+				ConfigFactory.create(EntityDbProperties.class).getQueryCacheTtl(),
+				ConfigFactory.create(EntityDbProperties.class).getQueryCacheRefreshInterval());
+		
+	}
+	
+	/**
+	 * Creates a new query result cache.
+	 * @param size The maximum number of entries. The cache is disabled if less than one.
+	 * @param ttl The time in milliseconds an entry is kept.
+	 * @param refreshInterval The time in milliseconds after the search index's generation
+	 * changes during which results are not cached.
+	 */
+	public QueryResultCache(int size, long ttl, long refreshInterval) {
+		
+		this.size = size;
+		this.ttl = ttl;
+		this.refreshInterval = refreshInterval;
+		
+		// The entries in least recently used order.
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > QueryResultCache.this.size;
+			}
+			
+		});
+		
+	}
+	
+	/**
+	 * Gets if the cache is enabled.
+	 * @return <code>true</code> if query results are cached.
+	 */
+	public boolean isEnabled() {
+		
+		return size > 0 && ttl > 0;
+		
+	}
+	
+	/**
+	 * Creates the key of a query executed by a user.
+	 * @param entityQuery The {@link EntityQuery query}.
+	 * @param user The {@link User user} executing the query.
+	 * @return The key.
+	 */
+	public String key(EntityQuery entityQuery, User user) {
+		
+		final StringBuilder principals = new StringBuilder("u:").append(user.getUsername());
+		
+		if(user.getGroups() != null) {
+			
+			for(String group : new TreeSet<String>(user.getGroups())) {
+				principals.append("\ng:").append(group);
+			}
+			
+		}
+		
+		return DigestUtils.sha256Hex(principals.toString()) + GSON.toJson(entityQuery);
+		
+	}
+	
+	/**
+	 * Gets the cached entities of a query.
+	 * @param key The {@link #key(EntityQuery, User) key} of the query.
+	 * @param generation The search index's current generation.
+	 * @return A copy of the list of cached entities, or <code>null</code> if the entities
+	 * are not cached or the cached entities are out of date.
+	 */
+	public List<IndexedEntity> get(String key, long generation) {
+		
+		if(!isEnabled()) {
+			return null;
+		}
+		
+		observe(generation);
+		
+		final Entry entry = entries.get(key);
+		
+		if(entry == null || entry.generation != generation || entry.expires < System.currentTimeMillis()) {
+			
+			misses.increment();
+			
+			return null;
+			
+		}
+		
+		hits.increment();
+		
+		return new ArrayList<IndexedEntity>(entry.entities);
+		
+	}
+	
+	/**
+	 * Caches the entities of a query unless the search index may not have
+	 * been refreshed since its generation changed.
+	 * @param key The {@link #key(EntityQuery, User) key} of the query.
+	 * @param generation The search index's generation when the query was executed.
+	 * @param indexedEntities The {@link IndexedEntity entities} returned by the search index.
+	 */
+	public void put(String key, long generation, List<IndexedEntity> indexedEntities) {
+		
+		if(isEnabled() && observe(generation) >= refreshInterval) {
+			entries.put(key, new Entry(generation, System.currentTimeMillis() + ttl, Collections.unmodifiableList(new ArrayList<IndexedEntity>(indexedEntities))));
+		}
+		
+	}
+	
+	/**
+	 * Records when a generation was first seen.
+	 * @param generation The search index's generation.
+	 * @return The time in milliseconds since the generation was first seen, which is no
+	 * longer than the time since it changed, or <code>-1</code> if it is out of date.
+	 */
+	private synchronized long observe(long generation) {
+		
+		final long now = System.currentTimeMillis();
+		
+		if(generation > observedGeneration) {
+			
+			observedGeneration = generation;
+			observedTime = now;
+			
+		} else if(generation < observedGeneration) {
+			
+			return -1;
+			
+		}
+		
+		return now - observedTime;
+		
+	}
+	
+	/**
+	 * Removes all of the entries.
+	 */
+	public void clear() {
+		
+		entries.clear();
+		
+	}
+	
+	/**
+	 * Gets the cache's metrics and resets the counts.
+	 * @return A list of {@link Metric metrics}.
+	 */
+	public List<Metric> getMetrics() {
+		
+		final long hitCount = hits.sumThenReset();
+		final long missCount = misses.sumThenReset();
+		
+		final List<Metric> metrics = new LinkedList<Metric>();
+		
+		metrics.add(new Metric("cache.hits", hitCount, Unit.COUNT));
+		metrics.add(new Metric("cache.misses", missCount, Unit.COUNT));
+		metrics.add(new Metric("cache.hitRate", hitCount + missCount == 0 ? 0 : hitCount * 100 / (hitCount + missCount), Unit.COUNT));
+		metrics.add(new Metric("cache.size", entries.size(), Unit.COUNT));
+		
+		return metrics;
+		
+	}
+	
+	private static class Entry {
+		
+		private final long generation;
+		private final long expires;
+		private final List<IndexedEntity> entities;
+		
+		public Entry(long generation, long expires, List<IndexedEntity> entities) {
+			
+			this.generation = generation;
+			this.expires = expires;
+			this.entities = entities;
+			
+		}
+		
+	}
+	
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.security.PrincipalSet;
+
+/**
+ * A continuous query whose EQL statement has been compiled
+ * into an {@link EqlPredicate} and whose owner's groups and principals
+ * have been resolved into a {@link User} and a {@link PrincipalSet}. The query's
+ * {@link ContinuousQueryStatistics} are kept with it.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class CompiledContinuousQuery {
+
+	private final ContinuousQueryEntity continuousQueryEntity;
+	private final String query;
+	private final EqlPredicate predicate;
+	private final User owner;
+	private final PrincipalSet principals;
+	private final ContinuousQueryStatistics statistics;
+	
+	public CompiledContinuousQuery(ContinuousQueryEntity continuousQueryEntity, EqlPredicate predicate, User owner, PrincipalSet principals, ContinuousQueryStatistics statistics) {
+		
+		this.continuousQueryEntity = continuousQueryEntity;
+		this.query = continuousQueryEntity.getQuery();
+		this.predicate = predicate;
+		this.owner = owner;
+		this.principals = principals;
+		this.statistics = statistics;
+		
+	}
+	
+	public long getId() {
+		return continuousQueryEntity.getId();
+	}
+
+	public ContinuousQueryEntity getContinuousQueryEntity() {
+		return continuousQueryEntity;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public EqlPredicate getPredicate() {
+		return predicate;
+	}
+
+	public User getOwner() {
+		return owner;
+	}
+
+	public PrincipalSet getPrincipals() {
+		return principals;
+	}
+
+	public ContinuousQueryStatistics getStatistics() {
+		return statistics;
+	}
+	
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import java.util.Arrays;
+
+import ai.philterd.entitydb.eql.filters.EqlPredicateIndex;
+import ai.philterd.entitydb.model.metrics.Histogram;
+
+/**
+ * Collects the evaluations of continuous queries made by one thread, such as
+ * the evaluations of one chunk of a batch, and adds them to the continuous
+ * queries' {@link ContinuousQueryStatistics} when the chunk is done. This
+ * keeps the shared statistics from being written for every evaluation.
+ * 
+ * Every evaluation is counted but only one in every sample interval is timed.
+ * The counts are kept in arrays indexed by the slots of the continuous queries
+ * in the {@link EqlPredicateIndex}.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ContinuousQueryEvaluations implements EqlPredicateIndex.Listener<Long> {
+
+	/**
+	 * The default number of evaluations per timed evaluation.
+	 */
+	public static final int DEFAULT_SAMPLE_INTERVAL = 16;
+	
+	private static final int EVALUATIONS = 0;
+	private static final int MATCHES = 1;
+	private static final int TIMED_EVALUATIONS = 2;
+	private static final int EVALUATION_TIME = 3;
+	private static final int EVALUATION_TIME_COUNTS = 4;
+	
+	private final int sampleInterval;
+	private int untimed;
+	
+	// The ID of the continuous query and its counts by slot.
+	private Long[] ids = new Long[16];
+	private long[][] counts = new long[16][];
+	
+	// The slots having counts, in the order they were first evaluated.
+	private int[] evaluated = new int[16];
+	private int evaluatedCount;
+	
+	/**
+	 * Creates a new collector that times one in every
+	 * {@link #DEFAULT_SAMPLE_INTERVAL} evaluations.
+	 */
+	public ContinuousQueryEvaluations() {
+		
+		this(DEFAULT_SAMPLE_INTERVAL);
+		
+	}
+	
+	/**
+	 * Creates a new collector.
+	 * @param sampleInterval The number of evaluations per timed evaluation.
+	 * The first evaluation is always timed.
+	 */
+	public ContinuousQueryEvaluations(int sampleInterval) {
+		
+		this.sampleInterval = Math.max(1, sampleInterval);
+		
+	}
+	
+	@Override
+	public boolean isTimed() {
+		
+		if(untimed == 0) {
+			
+			untimed = sampleInterval - 1;
+			
+			return true;
+			
+		}
+		
+		untimed--;
+		
+		return false;
+		
+	}
+	
+	@Override
+	public void evaluated(int slot, Long id, boolean matched, long elapsedTime) {
+		
+		if(slot >= ids.length) {
+			
+			final int length = Math.max(slot + 1, ids.length * 2);
+			
+			ids = Arrays.copyOf(ids, length);
+			counts = Arrays.copyOf(counts, length);
+			
+		}
+		
+		long[] slotCounts = counts[slot];
+		
+		if(slotCounts == null) {
+			
+			slotCounts = new long[EVALUATION_TIME_COUNTS + Histogram.BUCKETS];
+			counts[slot] = slotCounts;
+			
+		}
+		
+		if(ids[slot] == null || !ids[slot].equals(id)) {
+			
+			// The slot was used by a continuous query that has since been removed
+			// so its counts would not be added to any statistics.
+			if(ids[slot] != null) {
+				Arrays.fill(slotCounts, 0);
+			} else {
+				add(slot);
+			}
+			
+			ids[slot] = id;
+			
+		}
+		
+		slotCounts[EVALUATIONS]++;
+		
+		if(matched) {
+			slotCounts[MATCHES]++;
+		}
+		
+		if(elapsedTime >= 0) {
+			
+			slotCounts[TIMED_EVALUATIONS]++;
+			slotCounts[EVALUATION_TIME] += elapsedTime;
+			slotCounts[EVALUATION_TIME_COUNTS + Histogram.getBucket(elapsedTime)]++;
+			
+		}
+		
+	}
+	
+	/**
+	 * Adds the collected evaluations to the statistics of the continuous
+	 * queries in the registry and clears the collected evaluations.
+	 * @param continuousQueryRegistry The {@link ContinuousQueryRegistry}.
+	 */
+	public void flush(ContinuousQueryRegistry continuousQueryRegistry) {
+		
+		for(int i = 0; i < evaluatedCount; i++) {
+			
+			final int slot = evaluated[i];
+			final long[] slotCounts = counts[slot];
+			
+			final CompiledContinuousQuery compiledContinuousQuery = continuousQueryRegistry.get(ids[slot]);
+			
+			// The query may have been removed since it was evaluated.
+			if(compiledContinuousQuery != null) {
+				
+				compiledContinuousQuery.getStatistics().add(slotCounts[EVALUATIONS], slotCounts[MATCHES],
+						slotCounts[TIMED_EVALUATIONS], slotCounts[EVALUATION_TIME], slotCounts, EVALUATION_TIME_COUNTS);
+				
+			}
+			
+			Arrays.fill(slotCounts, 0);
+			ids[slot] = null;
+			
+		}
+		
+		evaluatedCount = 0;
+		
+	}
+	
+	private void add(int slot) {
+		
+		if(evaluatedCount == evaluated.length) {
+			evaluated = Arrays.copyOf(evaluated, evaluatedCount * 2);
+		}
+		
+		evaluated[evaluatedCount++] = slot;
+		
+	}
+	
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import ai.philterd.entitydb.model.entity.Entity;
+
+/**
+ * An entity that matched a continuous query.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class ContinuousQueryMatch {
+
+	private final CompiledContinuousQuery compiledContinuousQuery;
+	private final Entity entity;
+	
+	public ContinuousQueryMatch(CompiledContinuousQuery compiledContinuousQuery, Entity entity) {
+		
+		this.compiledContinuousQuery = compiledContinuousQuery;
+		this.entity = entity;
+		
+	}
+
+	public CompiledContinuousQuery getCompiledContinuousQuery() {
+		return compiledContinuousQuery;
+	}
+
+	public Entity getEntity() {
+		return entity;
+	}
+	
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.security.EncodedAcl;
+
+/**
+ * Matches a batch of entities against the continuous queries in a
+ * {@link ContinuousQueryRegistry} on a fork-join pool. Only matches
+ * visible to the owners of the continuous queries are returned.
+ * 
+ * The batch is split in half while it is larger than the minimum chunk
+ * size and the current worker does not already have surplus queued tasks
+ * that idle workers could steal, so a small batch or a busy pool is not
+ * split into more tasks than can run in parallel. Each chunk collects its
+ * matches into its own list and the lists are joined up the task tree,
+ * so the matches are collected without locks. Likewise each chunk collects
+ * the evaluations of the continuous queries and adds them to the queries'
+ * {@link ContinuousQueryStatistics} once, when the chunk is done.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public class ContinuousQueryMatchTask extends RecursiveTask<ContinuousQueryMatchTask.Result> {
+
+	private static final long serialVersionUID = 8431163487521590418L;
+	
+	// Stop splitting when this many forked tasks are waiting to be stolen.
+	private static final int SURPLUS_QUEUED_TASK_THRESHOLD = 2;
+
+	private final transient ContinuousQueryRegistry continuousQueryRegistry;
+	private final transient List<Entity> entities;
+	private final transient EncodedAcl acl;
+	private final int from;
+	private final int to;
+	private final int minimumChunkSize;
+	
+	/**
+	 * Creates a task that matches all entities in the list.
+	 * @param continuousQueryRegistry The {@link ContinuousQueryRegistry}.
+	 * @param entities The {@link Entity entities}.
+	 * @param acl The entities' {@link EncodedAcl ACL}.
+	 * @param minimumChunkSize The minimum number of entities in a chunk.
+	 */
+	public ContinuousQueryMatchTask(ContinuousQueryRegistry continuousQueryRegistry, List<Entity> entities, EncodedAcl acl, int minimumChunkSize) {
+		
+		this(continuousQueryRegistry, entities, acl, 0, entities.size(), Math.max(1, minimumChunkSize));
+		
+	}
+	
+	private ContinuousQueryMatchTask(ContinuousQueryRegistry continuousQueryRegistry, List<Entity> entities, EncodedAcl acl, int from, int to, int minimumChunkSize) {
+		
+		this.continuousQueryRegistry = continuousQueryRegistry;
+		this.entities = entities;
+		this.acl = acl;
+		this.from = from;
+		this.to = to;
+		this.minimumChunkSize = minimumChunkSize;
+		
+	}
+	
+	@Override
+	protected Result compute() {
+		
+		if(to - from > minimumChunkSize && getSurplusQueuedTaskCount() <= SURPLUS_QUEUED_TASK_THRESHOLD) {
+			
+			final int middle = (from + to) >>> 1;
+			
+			final ContinuousQueryMatchTask left = new ContinuousQueryMatchTask(continuousQueryRegistry, entities, acl, from, middle, minimumChunkSize);
+			final ContinuousQueryMatchTask right = new ContinuousQueryMatchTask(continuousQueryRegistry, entities, acl, middle, to, minimumChunkSize);
+			
+			left.fork();
+			
+			final Result rightResult = right.compute();
+			
+			return left.join().merge(rightResult);
+			
+		}
+		
+		final long startTime = System.nanoTime();
+		
+		final List<ContinuousQueryMatch> matches = new ArrayList<>();
+		final ContinuousQueryEvaluations evaluations = new ContinuousQueryEvaluations();
+		
+		for(int i = from; i < to; i++) {
+			
+			final Entity entity = entities.get(i);
+			
+			for(final CompiledContinuousQuery compiledContinuousQuery : continuousQueryRegistry.match(entity, acl, evaluations)) {
+				matches.add(new ContinuousQueryMatch(compiledContinuousQuery, entity));
+			}
+			
+		}
+		
+		evaluations.flush(continuousQueryRegistry);
+		
+		return new Result(matches, to - from, System.nanoTime() - startTime);
+		
+	}
+	
+	/**
+	 * The matches found by a task and how the task's work was split.
+	 */
+	public static final class Result {
+		
+		private final List<ContinuousQueryMatch> matches;
+		private int chunks;
+		private int maxChunkSize;
+		private long totalChunkTime;
+		private long maxChunkTime;
+		
+		private Result(List<ContinuousQueryMatch> matches, int chunkSize, long chunkTime) {
+			
+			this.matches = matches;
+			this.chunks = 1;
+			this.maxChunkSize = chunkSize;
+			this.totalChunkTime = chunkTime;
+			this.maxChunkTime = chunkTime;
+			
+		}
+		
+		private Result merge(Result other) {
+			
+			matches.addAll(other.matches);
+			chunks += other.chunks;
+			maxChunkSize = Math.max(maxChunkSize, other.maxChunkSize);
+			totalChunkTime += other.totalChunkTime;
+			maxChunkTime = Math.max(maxChunkTime, other.maxChunkTime);
+			
+			return this;
+			
+		}
+
+		/**
+		 * Gets the matches in the order of the entities in the batch.
+		 * @return The {@link ContinuousQueryMatch matches}.
+		 */
+		public List<ContinuousQueryMatch> getMatches() {
+			return matches;
+		}
+
+		/**
+		 * Gets the number of chunks the batch was split into.
+		 * @return The number of chunks.
+		 */
+		public int getChunks() {
+			return chunks;
+		}
+
+		/**
+		 * Gets the number of entities in the largest chunk.
+		 * @return The number of entities in the largest chunk.
+		 */
+		public int getMaxChunkSize() {
+			return maxChunkSize;
+		}
+
+		/**
+		 * Gets the sum of the time taken by each chunk in nanoseconds.
+		 * @return The sum of the time taken by each chunk in nanoseconds.
+		 */
+		public long getTotalChunkTime() {
+			return totalChunkTime;
+		}
+
+		/**
+		 * Gets the time taken by the slowest chunk in nanoseconds.
+		 * @return The time taken by the slowest chunk in nanoseconds.
+		 */
+		public long getMaxChunkTime() {
+			return maxChunkTime;
+		}
+		
+	}
+	
+}
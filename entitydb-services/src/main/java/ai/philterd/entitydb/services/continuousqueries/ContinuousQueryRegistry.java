@@ -0,0 +1,839 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.eql.filters.EqlPredicate;
+import ai.philterd.entitydb.eql.filters.EqlPredicateIndex;
+import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
+import ai.philterd.entitydb.model.datastore.entities.UserEntity;
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.entitystore.EntityIdGenerator;
+import ai.philterd.entitydb.model.exceptions.InvalidQueryException;
+import ai.philterd.entitydb.model.exceptions.QueryGenerationException;
+import ai.philterd.entitydb.model.search.ContinuousQueryIndex;
+import ai.philterd.entitydb.model.search.ContinuousQueryRegistration;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.model.security.EncodedAcl;
+import ai.philterd.entitydb.model.security.PrincipalDictionary;
+import ai.philterd.entitydb.model.security.PrincipalSet;
+
+/**
+ * An in-memory registry of the non-expired continuous queries. The registry
+ * is loaded from the data store when EntityDB starts and is kept current by
+ * adding and removing continuous queries as they are saved and deleted, so
+ * executing the continuous queries never reads the data store. Continuous
+ * queries saved and deleted by other EntityDB nodes are picked up by loading
+ * the registry again periodically. Matching waits until the registry has
+ * been loaded for the first time.
+ * 
+ * A continuous query's EQL statement is compiled once when it is added and
+ * the compiled predicates are kept in an {@link EqlPredicateIndex} so an
+ * entity is only evaluated against the continuous queries whose conditions
+ * could match it.
+ * 
+ * The principals of each query's owner are resolved when the query is added
+ * so checking if an entity is visible to the owner is a bit set intersection
+ * against the entity's {@link EncodedAcl}. The {@link PrincipalDictionary} is
+ * rebuilt from the owners of the loaded queries each time the registry is loaded
+ * so it does not keep the principals of users who no longer own a query.
+ * 
+ * When a {@link ContinuousQueryIndex} is configured the continuous queries are
+ * registered with it instead of the {@link EqlPredicateIndex} and entities are
+ * matched by {@link #percolate(List, Acl, EncodedAcl)}. The candidates it returns
+ * are verified against the compiled predicates and the owners' principals. The
+ * requests to the {@link ContinuousQueryIndex} are made outside of the registry's
+ * lock so a slow search cluster does not hold up the other changes to the registry.
+ * 
+ * The registry keeps the {@link ContinuousQueryStatistics} of each continuous
+ * query so the most expensive continuous queries can be found.
+ * 
+ * Continuous queries are expired by a {@link TimerWheel} using the same rule
+ * as the data store: a query expires once more than its number of days have
+ * passed since the day it was created, and a query with <code>-1</code> days
+ * never expires.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class ContinuousQueryRegistry {
+
+	private static final Logger LOGGER = LogManager.getLogger(ContinuousQueryRegistry.class);
+	
+	// How long matching waits for the registry to be loaded for the first time.
+	private static final long LOAD_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+	
+	// Expirations fall on day boundaries so a one minute tick is precise enough.
+	private static final long TICK_DURATION = TimeUnit.MINUTES.toMillis(1);
+	private static final int WHEEL_SIZE = 1440;
+	
+	private final Map<Long, CompiledContinuousQuery> compiledQueries = new ConcurrentHashMap<>();
+	
+	private final EqlPredicateIndex<Long> index = new EqlPredicateIndex<>();
+	
+	// Replaced on each load so the principals of users who no longer own a continuous query are dropped.
+	private volatile PrincipalDictionary principalDictionary = new PrincipalDictionary();
+	
+	private final TimerWheel<Long> expirations = new TimerWheel<>(TICK_DURATION, WHEEL_SIZE, System.currentTimeMillis());
+	
+	private final CountDownLatch loaded = new CountDownLatch(1);
+	
+	// Loads do not overlap. Adding and removing continuous queries does not wait for a load.
+	private final Object loadLock = new Object();
+	
+	// Increases when a continuous query is added or removed. Guarded by this.
+	private long version;
+	
+	// The version of each continuous query's last add or remove that is not yet in a load. Guarded by this.
+	private final Map<Long, Long> changes = new HashMap<>();
+	
+	// The version the last load was read at. Guarded by this.
+	private long loadedVersion = -1;
+	
+	@Autowired(required = false)
+	private ContinuousQueryIndex continuousQueryIndex;
+	
+	/**
+	 * Replaces the contents of the registry with the given continuous queries
+	 * read from the data store after any continuous query was added or removed.
+	 * @param continuousQueryEntities The non-expired {@link ContinuousQueryEntity continuous queries}.
+	 * @see #load(List, long)
+	 */
+	public void load(List<ContinuousQueryEntity> continuousQueryEntities) {
+		
+		load(continuousQueryEntities, getVersion());
+		
+	}
+	
+	/**
+	 * Replaces the contents of the registry with the given continuous queries.
+	 * When a {@link ContinuousQueryIndex} is configured the continuous queries
+	 * are registered with it in bulk and only the continuous queries that are
+	 * no longer in the data store are unregistered from it. The first load
+	 * registers every continuous query. Later loads only register the continuous
+	 * queries that are new or whose statement or owner's groups changed.
+	 * 
+	 * A continuous query that was added or removed after the continuous queries
+	 * were read is left as it is, so a query saved while the data store was read
+	 * is not dropped and a query deleted while it was read does not come back.
+	 * A load of continuous queries read before the last load is ignored.
+	 * @param continuousQueryEntities The non-expired {@link ContinuousQueryEntity continuous queries}.
+	 * @param readVersion The {@link #getVersion() version} of the registry before the continuous queries were read.
+	 */
+	public void load(List<ContinuousQueryEntity> continuousQueryEntities, long readVersion) {
+		
+		synchronized(loadLock) {
+		
+			try {
+			
+				final boolean firstLoad = !isLoaded();
+				
+				synchronized(this) {
+					
+					if(readVersion < loadedVersion) {
+						
+						LOGGER.debug("Ignoring continuous queries read before the last load.");
+						
+						return;
+						
+					}
+					
+				}
+				
+				// Resolve each owner's groups and principals once even if the owner has many queries.
+				final Map<Long, User> owners = new HashMap<>();
+				final Map<Long, PrincipalSet> principals = new HashMap<>();
+				
+				// Only the owners of the loaded queries are in the new dictionary.
+				final PrincipalDictionary dictionary = new PrincipalDictionary();
+				
+				final List<CompiledContinuousQuery> compiled = new ArrayList<>(continuousQueryEntities.size());
+				final List<CompiledContinuousQuery> changed = new ArrayList<>();
+				
+				for(final ContinuousQueryEntity continuousQueryEntity : continuousQueryEntities) {
+					
+					final UserEntity userEntity = continuousQueryEntity.getUser();
+					
+					final User owner = owners.computeIfAbsent(userEntity.getId(), u -> User.fromEntity(userEntity));
+					
+					final CompiledContinuousQuery existing = compiledQueries.get(continuousQueryEntity.getId());
+					
+					final CompiledContinuousQuery compiledContinuousQuery = compile(continuousQueryEntity, owner, principals.computeIfAbsent(owner.getId(), u -> dictionary.encode(owner)));
+					
+					if(compiledContinuousQuery != null) {
+						
+						compiled.add(compiledContinuousQuery);
+						
+						if(firstLoad || isChanged(existing, compiledContinuousQuery)) {
+							changed.add(compiledContinuousQuery);
+						}
+						
+					}
+					
+				}
+				
+				// Register the new and changed queries with the search index before taking the lock.
+				final Set<Long> registered = registerAll(changed);
+				final Set<Long> unregistered = new HashSet<>();
+				
+				if(registered != null) {
+					
+					for(final CompiledContinuousQuery compiledContinuousQuery : changed) {
+						
+						if(!registered.contains(compiledContinuousQuery.getId())) {
+							unregistered.add(compiledContinuousQuery.getId());
+						}
+						
+					}
+					
+				}
+				
+				final List<Long> evicted = new ArrayList<>();
+				
+				// The queries this load registered again after they were added or removed.
+				final List<Long> overwritten = new ArrayList<>();
+				
+				synchronized(this) {
+					
+					final Set<Long> ids = new HashSet<>(compiled.size() * 2);
+					
+					for(final CompiledContinuousQuery compiledContinuousQuery : compiled) {
+						
+						final long id = compiledContinuousQuery.getId();
+						
+						if(isChangedSince(id, readVersion)) {
+							
+							// Keep the query as it was added or removed after it was read.
+							ids.add(id);
+							
+							if(registered != null && registered.contains(id)) {
+								overwritten.add(id);
+							}
+							
+						} else if(!unregistered.contains(id)) {
+							
+							put(compiledContinuousQuery);
+							ids.add(id);
+							
+						}
+						
+					}
+					
+					// Remove any queries that are no longer in the data store or could not be compiled or registered.
+					for(final Long id : new ArrayList<>(compiledQueries.keySet())) {
+						
+						if(!ids.contains(id) && !isChangedSince(id, readVersion)) {
+							
+							evict(id);
+							evicted.add(id);
+							
+						}
+						
+					}
+					
+					// The changes up to this load are in the loaded queries.
+					changes.values().removeIf(v -> v <= readVersion);
+					loadedVersion = readVersion;
+					
+					principalDictionary = dictionary;
+					
+				}
+				
+				if(continuousQueryIndex != null) {
+					
+					if(firstLoad) {
+						
+						// Unregister the queries that were registered before EntityDB started and are no longer in the data store.
+						continuousQueryIndex.retain(new HashSet<>(compiledQueries.keySet()));
+						
+					} else {
+						
+						for(final Long id : evicted) {
+							continuousQueryIndex.unregister(id);
+						}
+						
+					}
+					
+					// Restore the registrations of the queries that were added or removed while this load registered them.
+					for(final Long id : overwritten) {
+						
+						final CompiledContinuousQuery compiledContinuousQuery = compiledQueries.get(id);
+						
+						if(compiledContinuousQuery == null) {
+							continuousQueryIndex.unregister(id);
+						} else if(!register(compiledContinuousQuery)) {
+							remove(id);
+						}
+						
+					}
+					
+				}
+				
+				LOGGER.info("Loaded {} continuous queries.", compiledQueries.size());
+			
+			} finally {
+				
+				loaded.countDown();
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Gets the version of the registry. The version increases each time a
+	 * continuous query is added or removed. Get the version before reading the
+	 * continuous queries from the data store and pass it to {@link #load(List, long)}.
+	 * @return The version of the registry.
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Determines if the registry has been loaded.
+	 * @return <code>true</code> if the registry has been loaded; otherwise <code>false</code>.
+	 */
+	public boolean isLoaded() {
+		return loaded.getCount() == 0;
+	}
+	
+	/**
+	 * Adds a continuous query to the registry, replacing the
+	 * continuous query having the same ID.
+	 * @param continuousQueryEntity The {@link ContinuousQueryEntity continuous query}.
+	 */
+	public void add(ContinuousQueryEntity continuousQueryEntity) {
+		
+		final User owner = User.fromEntity(continuousQueryEntity.getUser());
+		
+		final CompiledContinuousQuery compiledContinuousQuery = compile(continuousQueryEntity, owner, principalDictionary.encode(owner));
+		
+		if(compiledContinuousQuery == null) {
+			
+			remove(continuousQueryEntity.getId());
+			
+		} else if(continuousQueryIndex == null || register(compiledContinuousQuery)) {
+			
+			synchronized(this) {
+				
+				put(compiledContinuousQuery);
+				changes.put(compiledContinuousQuery.getId(), ++version);
+				
+			}
+			
+		} else {
+			
+			remove(continuousQueryEntity.getId());
+			
+		}
+		
+	}
+	
+	/**
+	 * Removes a continuous query from the registry.
+	 * @param id The ID of the continuous query.
+	 */
+	public void remove(long id) {
+		
+		synchronized(this) {
+			
+			evict(id);
+			changes.put(id, ++version);
+			
+		}
+		
+		if(continuousQueryIndex != null) {
+			continuousQueryIndex.unregister(id);
+		}
+		
+	}
+	
+	/**
+	 * Removes the continuous queries that have expired.
+	 * @param now The current time in milliseconds.
+	 */
+	public void expire(long now) {
+		
+		final List<Long> expired = new ArrayList<>();
+		
+		synchronized(this) {
+		
+			expirations.advance(now, id -> {
+				
+				LOGGER.debug("Continuous query {} expired.", id);
+				
+				if(continuousQueryIndex == null) {
+					index.remove(id);
+				}
+				
+				compiledQueries.remove(id);
+				
+				expired.add(id);
+				
+			});
+		
+		}
+		
+		if(continuousQueryIndex != null) {
+			
+			for(final Long id : expired) {
+				continuousQueryIndex.unregister(id);
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Encodes an ACL using the principals of the continuous queries' owners.
+	 * @param acl The {@link Acl}.
+	 * @return The {@link EncodedAcl}.
+	 */
+	public EncodedAcl encode(Acl acl) {
+		return principalDictionary.encode(acl);
+	}
+	
+	/**
+	 * Gets the continuous queries that match the entity and whose
+	 * owners are able to see the entity.
+	 * @param entity The {@link Entity entity}.
+	 * @param acl The entity's {@link EncodedAcl ACL}.
+	 * @return The matching continuous queries.
+	 */
+	public List<CompiledContinuousQuery> match(Entity entity, EncodedAcl acl) {
+		
+		return match(entity, acl, null);
+		
+	}
+	
+	/**
+	 * Gets the continuous queries that match the entity and whose owners
+	 * are able to see the entity, and collects each continuous query's evaluation.
+	 * @param entity The {@link Entity entity}.
+	 * @param acl The entity's {@link EncodedAcl ACL}.
+	 * @param evaluations The {@link ContinuousQueryEvaluations} that collects
+	 * the evaluations, or <code>null</code>.
+	 * @return The matching continuous queries.
+	 */
+	public List<CompiledContinuousQuery> match(Entity entity, EncodedAcl acl, ContinuousQueryEvaluations evaluations) {
+		
+		awaitLoad();
+		
+		final List<Long> ids = index.match(entity, evaluations);
+		final List<CompiledContinuousQuery> matches = new ArrayList<>(ids.size());
+		
+		for(final Long id : ids) {
+			
+			final CompiledContinuousQuery compiledContinuousQuery = compiledQueries.get(id);
+			
+			// The query may have been removed since it was matched.
+			if(compiledContinuousQuery != null && acl.isVisibleTo(compiledContinuousQuery.getPrincipals())) {
+				matches.add(compiledContinuousQuery);
+			}
+			
+		}
+		
+		return matches;
+		
+	}
+	
+	/**
+	 * Determines if the continuous queries are matched by a {@link ContinuousQueryIndex}.
+	 * @return <code>true</code> if the continuous queries are matched by
+	 * {@link #percolate(List, Acl, EncodedAcl)}; otherwise <code>false</code>.
+	 */
+	public boolean isPercolating() {
+		return continuousQueryIndex != null;
+	}
+	
+	/**
+	 * Gets the continuous queries that match each entity and whose owners are
+	 * able to see the entity by percolating the entities through the
+	 * {@link ContinuousQueryIndex}.
+	 * @param entities The {@link Entity entities}.
+	 * @param acl The entities' {@link Acl ACL}.
+	 * @param encodedAcl The entities' {@link EncodedAcl encoded ACL}.
+	 * @return The matches.
+	 */
+	public List<ContinuousQueryMatch> percolate(List<Entity> entities, Acl acl, EncodedAcl encodedAcl) {
+		
+		awaitLoad();
+		
+		final List<ContinuousQueryMatch> matches = new ArrayList<>();
+		final List<IndexedEntity> indexedEntities = new ArrayList<>(entities.size());
+		
+		for(final Entity entity : entities) {
+			indexedEntities.add(IndexedEntity.fromEntity(entity, EntityIdGenerator.generateEntityId(entity, acl.toString()), acl));
+		}
+		
+		final List<List<Long>> ids = continuousQueryIndex.match(indexedEntities);
+		
+		if(ids == null) {
+			
+			LOGGER.warn("Unable to percolate {} entities.", entities.size());
+			
+			return matches;
+			
+		}
+		
+		for(int i = 0; i < ids.size(); i++) {
+			
+			final Entity entity = entities.get(i);
+			
+			for(final Long id : ids.get(i)) {
+				
+				final CompiledContinuousQuery compiledContinuousQuery = compiledQueries.get(id);
+				
+				// The query may have been removed since it was matched, and the search
+				// index does not evaluate the conditions exactly as EQL does.
+				if(compiledContinuousQuery != null && encodedAcl.isVisibleTo(compiledContinuousQuery.getPrincipals())
+						&& compiledContinuousQuery.getPredicate().test(entity)) {
+					
+					matches.add(new ContinuousQueryMatch(compiledContinuousQuery, entity));
+					
+				}
+				
+			}
+			
+		}
+		
+		return matches;
+		
+	}
+	
+	/**
+	 * Gets a compiled continuous query.
+	 * @param id The ID of the continuous query.
+	 * @return The {@link CompiledContinuousQuery}, or <code>null</code>
+	 * if the continuous query is not in the registry.
+	 */
+	public CompiledContinuousQuery get(long id) {
+		return compiledQueries.get(id);
+	}
+	
+	/**
+	 * Gets the continuous queries that have taken the most time to evaluate.
+	 * @param limit The maximum number of continuous queries to return.
+	 * @return The compiled continuous queries in descending order of total evaluation time.
+	 */
+	public List<CompiledContinuousQuery> getMostExpensive(int limit) {
+		
+		final List<CompiledContinuousQuery> mostExpensive = new ArrayList<>(compiledQueries.values());
+		
+		mostExpensive.sort(Comparator.comparingLong((CompiledContinuousQuery c) -> c.getStatistics().getEvaluationTime()).reversed());
+		
+		return new ArrayList<>(mostExpensive.subList(0, Math.min(Math.max(0, limit), mostExpensive.size())));
+		
+	}
+	
+	/**
+	 * Gets a user's continuous queries that have taken the most time to evaluate.
+	 * @param limit The maximum number of continuous queries to return.
+	 * @param userId The ID of the user owning the continuous queries.
+	 * @return The compiled continuous queries in descending order of total evaluation time.
+	 */
+	public List<CompiledContinuousQuery> getMostExpensive(int limit, long userId) {
+		
+		final List<CompiledContinuousQuery> mostExpensive = new ArrayList<>();
+		
+		for(final CompiledContinuousQuery compiledContinuousQuery : compiledQueries.values()) {
+			
+			if(compiledContinuousQuery.getContinuousQueryEntity().getUser().getId() == userId) {
+				mostExpensive.add(compiledContinuousQuery);
+			}
+			
+		}
+		
+		mostExpensive.sort(Comparator.comparingLong((CompiledContinuousQuery c) -> c.getStatistics().getEvaluationTime()).reversed());
+		
+		return new ArrayList<>(mostExpensive.subList(0, Math.min(Math.max(0, limit), mostExpensive.size())));
+		
+	}
+	
+	/**
+	 * Gets the compiled continuous queries.
+	 * @return The compiled continuous queries.
+	 */
+	public Collection<CompiledContinuousQuery> getCompiledQueries() {
+		return compiledQueries.values();
+	}
+	
+	/**
+	 * Gets the number of compiled continuous queries.
+	 * @return The number of compiled continuous queries.
+	 */
+	public int size() {
+		return compiledQueries.size();
+	}
+	
+	/**
+	 * Gets the time at which a continuous query expires. This is the start of
+	 * the day after the last day on which <code>DATEDIFF(NOW(), timestamp) &lt;= days</code>.
+	 * @param continuousQueryEntity The {@link ContinuousQueryEntity continuous query}.
+	 * @return The time in milliseconds at which the continuous query expires, or
+	 * {@link Long#MAX_VALUE} if it never expires.
+	 */
+	public static long getExpiration(ContinuousQueryEntity continuousQueryEntity) {
+		
+		if(continuousQueryEntity.getDays() == -1) {
+			return Long.MAX_VALUE;
+		}
+		
+		final ZoneId zoneId = ZoneId.systemDefault();
+		
+		final LocalDate created = Instant.ofEpochMilli(continuousQueryEntity.getTimestamp().getTime()).atZone(zoneId).toLocalDate();
+		
+		return created.plusDays(continuousQueryEntity.getDays() + 1L).atStartOfDay(zoneId).toInstant().toEpochMilli();
+		
+	}
+	
+	/**
+	 * Waits for the registry to be loaded for the first time so entities
+	 * ingested while EntityDB starts are not matched against an empty registry.
+	 */
+	private void awaitLoad() {
+		
+		if(!isLoaded()) {
+			
+			try {
+				
+				if(!loaded.await(LOAD_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					LOGGER.warn("The continuous queries have not been loaded. Matching against {} continuous queries.", compiledQueries.size());
+				}
+				
+			} catch (InterruptedException ex) {
+				
+				Thread.currentThread().interrupt();
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Determines if a continuous query has to be registered again with the {@link ContinuousQueryIndex}.
+	 * @param existing The {@link CompiledContinuousQuery} in the registry, or <code>null</code>.
+	 * @param compiledContinuousQuery The {@link CompiledContinuousQuery} loaded from the data store.
+	 * @return <code>true</code> if the continuous query is new or its statement or owner's groups changed.
+	 */
+	private static boolean isChanged(CompiledContinuousQuery existing, CompiledContinuousQuery compiledContinuousQuery) {
+		
+		if(existing == null || !StringUtils.equals(existing.getQuery(), compiledContinuousQuery.getQuery())) {
+			return true;
+		}
+		
+		// The owners' groups were resolved when the queries were compiled.
+		return existing.getOwner().getId() != compiledContinuousQuery.getOwner().getId()
+				|| !Objects.equals(existing.getOwner().getGroups(), compiledContinuousQuery.getOwner().getGroups());
+		
+	}
+	
+	/**
+	 * Determines if a continuous query was added or removed after a version. The caller holds the lock.
+	 * @param id The ID of the continuous query.
+	 * @param version The version.
+	 * @return <code>true</code> if the continuous query was added or removed after the version.
+	 */
+	private boolean isChangedSince(long id, long version) {
+		
+		final Long changed = changes.get(id);
+		
+		return changed != null && changed > version;
+		
+	}
+	
+	/**
+	 * Compiles a continuous query. This does not change the registry.
+	 * @param continuousQueryEntity The {@link ContinuousQueryEntity continuous query}.
+	 * @param owner The continuous query's owner.
+	 * @param principals The principals of the continuous query's owner.
+	 * @return The {@link CompiledContinuousQuery}, or <code>null</code> if
+	 * the continuous query has expired or is malformed.
+	 */
+	private CompiledContinuousQuery compile(ContinuousQueryEntity continuousQueryEntity, User owner, PrincipalSet principals) {
+		
+		final long id = continuousQueryEntity.getId();
+		final String query = continuousQueryEntity.getQuery();
+		
+		if(getExpiration(continuousQueryEntity) <= System.currentTimeMillis()) {
+			return null;
+		}
+		
+		final CompiledContinuousQuery existing = compiledQueries.get(id);
+		
+		try {
+			
+			// Only compile the statement if it changed.
+			final EqlPredicate predicate = (existing != null && StringUtils.equals(existing.getQuery(), query)) ? existing.getPredicate() : EqlPredicate.compile(query);
+			
+			// Keep the statistics of a query whose statement did not change.
+			final ContinuousQueryStatistics statistics = (existing != null && existing.getPredicate() == predicate) ? existing.getStatistics() : new ContinuousQueryStatistics();
+			
+			return new CompiledContinuousQuery(continuousQueryEntity, predicate, owner, principals, statistics);
+			
+		} catch (QueryGenerationException ex) {
+			
+			LOGGER.warn("Continuous query {} is malformed and will not be executed: {}", id, query);
+			
+			return null;
+			
+		}
+		
+	}
+	
+	/**
+	 * Registers a continuous query with the {@link ContinuousQueryIndex}.
+	 * @param compiledContinuousQuery The {@link CompiledContinuousQuery}.
+	 * @return <code>true</code> if the continuous query was registered; otherwise <code>false</code>.
+	 */
+	private boolean register(CompiledContinuousQuery compiledContinuousQuery) {
+		
+		final ContinuousQueryEntity continuousQueryEntity = compiledContinuousQuery.getContinuousQueryEntity();
+		
+		try {
+		
+			if(continuousQueryIndex.register(continuousQueryEntity.getId(), Eql.generate(continuousQueryEntity.getQuery()), compiledContinuousQuery.getOwner())) {
+				return true;
+			}
+			
+			LOGGER.warn("Continuous query {} could not be registered and will not be executed: {}", continuousQueryEntity.getId(), continuousQueryEntity.getQuery());
+			
+		} catch (QueryGenerationException ex) {
+			
+			LOGGER.warn("Continuous query {} is malformed and will not be executed: {}", continuousQueryEntity.getId(), continuousQueryEntity.getQuery());
+			
+		} catch (InvalidQueryException ex) {
+			
+			LOGGER.warn("Continuous query {} cannot be percolated and will not be executed: {}", continuousQueryEntity.getId(), continuousQueryEntity.getQuery());
+			
+		}
+		
+		return false;
+		
+	}
+	
+	/**
+	 * Registers continuous queries with the {@link ContinuousQueryIndex} in bulk.
+	 * @param compiled The {@link CompiledContinuousQuery compiled continuous queries}.
+	 * @return The IDs of the continuous queries that were registered, or
+	 * <code>null</code> if there is no {@link ContinuousQueryIndex}.
+	 */
+	private Set<Long> registerAll(List<CompiledContinuousQuery> compiled) {
+		
+		if(continuousQueryIndex == null) {
+			return null;
+		}
+		
+		final List<ContinuousQueryRegistration> registrations = new ArrayList<>(compiled.size());
+		
+		for(final CompiledContinuousQuery compiledContinuousQuery : compiled) {
+			
+			final ContinuousQueryEntity continuousQueryEntity = compiledContinuousQuery.getContinuousQueryEntity();
+			
+			try {
+				
+				registrations.add(new ContinuousQueryRegistration(continuousQueryEntity.getId(), Eql.generate(continuousQueryEntity.getQuery()), compiledContinuousQuery.getOwner()));
+				
+			} catch (QueryGenerationException ex) {
+				
+				LOGGER.warn("Continuous query {} is malformed and will not be executed: {}", continuousQueryEntity.getId(), continuousQueryEntity.getQuery());
+				
+			}
+			
+		}
+		
+		final Set<Long> registered = continuousQueryIndex.register(registrations);
+		
+		if(registered.size() < compiled.size()) {
+			LOGGER.warn("{} continuous queries could not be registered and will not be executed.", compiled.size() - registered.size());
+		}
+		
+		return registered;
+		
+	}
+	
+	/**
+	 * Puts a compiled continuous query into the registry. The caller holds the lock.
+	 * @param compiledContinuousQuery The {@link CompiledContinuousQuery}.
+	 */
+	private void put(CompiledContinuousQuery compiledContinuousQuery) {
+		
+		final long id = compiledContinuousQuery.getId();
+		final long expiration = getExpiration(compiledContinuousQuery.getContinuousQueryEntity());
+		
+		if(continuousQueryIndex == null) {
+			index.put(id, compiledContinuousQuery.getPredicate());
+		}
+		
+		compiledQueries.put(id, compiledContinuousQuery);
+		
+		if(expiration == Long.MAX_VALUE) {
+			expirations.cancel(id);
+		} else {
+			expirations.schedule(id, expiration);
+		}
+		
+	}
+	
+	/**
+	 * Removes a continuous query from the registry. The caller holds the lock.
+	 * @param id The ID of the continuous query.
+	 */
+	private void evict(long id) {
+		
+		if(continuousQueryIndex == null) {
+			index.remove(id);
+		}
+		
+		compiledQueries.remove(id);
+		expirations.cancel(id);
+		
+	}
+	
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ai.philterd.entitydb.model.metrics.Histogram;
+
+/**
+ * The cost of a continuous query: how often it was evaluated, how often it
+ * matched, how long its evaluations took and how long it took for its
+ * matches to be alerted. The statistics are cumulative from when the
+ * continuous query was added to the {@link ContinuousQueryRegistry}.
+ * 
+ * Evaluations are collected per chunk by {@link ContinuousQueryEvaluations}
+ * and added in bulk, so the counters are only written once per chunk. Only
+ * a sample of the evaluations is timed so the total evaluation time is
+ * estimated from the timed evaluations.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+public final class ContinuousQueryStatistics {
+
+	private final LongAdder evaluations = new LongAdder();
+	private final LongAdder matches = new LongAdder();
+	private final LongAdder timedEvaluations = new LongAdder();
+	private final LongAdder evaluationTime = new LongAdder();
+	private final Histogram evaluationTimes = new Histogram();
+	private final Histogram timesToAlert = new Histogram();
+	
+	/**
+	 * Adds evaluations that were collected locally.
+	 * @param evaluations The number of evaluations.
+	 * @param matches The number of evaluations that matched.
+	 * @param timedEvaluations The number of evaluations that were timed.
+	 * @param evaluationTime The total time of the timed evaluations in nanoseconds.
+	 * @param evaluationTimeCounts The {@link Histogram} bucket counts of the evaluation times.
+	 * @param offset The position of the first bucket count in the array.
+	 */
+	public void add(long evaluations, long matches, long timedEvaluations, long evaluationTime, long[] evaluationTimeCounts, int offset) {
+		
+		this.evaluations.add(evaluations);
+		this.matches.add(matches);
+		this.timedEvaluations.add(timedEvaluations);
+		this.evaluationTime.add(evaluationTime);
+		this.evaluationTimes.add(evaluationTimeCounts, offset);
+		
+	}
+	
+	/**
+	 * Records the time from when an entity was received until
+	 * the owner of the continuous query was alerted of the match.
+	 * @param timeToAlert The time to alert in milliseconds.
+	 */
+	public void recordTimeToAlert(long timeToAlert) {
+		
+		timesToAlert.record(timeToAlert);
+		
+	}
+	
+	/**
+	 * Gets the number of times the continuous query was evaluated.
+	 * @return The number of evaluations.
+	 */
+	public long getEvaluations() {
+		return evaluations.sum();
+	}
+	
+	/**
+	 * Gets the number of evaluations that matched.
+	 * @return The number of matches.
+	 */
+	public long getMatches() {
+		return matches.sum();
+	}
+	
+	/**
+	 * Gets the total time spent evaluating the continuous query, estimated
+	 * from the evaluations that were timed.
+	 * @return The total evaluation time in nanoseconds.
+	 */
+	public long getEvaluationTime() {
+		
+		final long timed = timedEvaluations.sum();
+		
+		if(timed == 0) {
+			return 0;
+		}
+		
+		return Math.round((double) evaluationTime.sum() * evaluations.sum() / timed);
+		
+	}
+	
+	/**
+	 * Gets the {@link Histogram} of the times of the timed evaluations in nanoseconds.
+	 * @return The {@link Histogram} of the evaluation times.
+	 */
+	public Histogram getEvaluationTimes() {
+		return evaluationTimes;
+	}
+	
+	/**
+	 * Gets the {@link Histogram} of the times to alert in milliseconds.
+	 * @return The {@link Histogram} of the times to alert.
+	 */
+	public Histogram getTimesToAlert() {
+		return timesToAlert;
+	}
+	
+}
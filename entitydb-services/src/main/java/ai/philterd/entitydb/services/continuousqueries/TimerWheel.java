@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.continuousqueries;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel. Keys are scheduled to expire at a deadline and
+ * are placed in the bucket of the tick in which the deadline falls.
+ * Advancing the wheel only visits the buckets of the elapsed ticks, so
+ * scheduling, cancelling and expiring a key take constant time regardless
+ * of how many keys are scheduled. A bucket holds the keys of every rotation
+ * of the wheel and only the keys whose deadlines have passed are expired.
+ * 
+ * This class is not thread-safe.
+ * 
+ * @author Philterd, LLC
+ *
+ * @param <K> The type of the keys.
+ */
+public class TimerWheel<K> {
+
+	private final long tickDuration;
+	private final Set<K>[] buckets;
+	private final Map<K, Long> deadlineTicks = new HashMap<>();
+	
+	private long currentTick;
+	
+	/**
+	 * Creates a new timer wheel.
+	 * @param tickDuration The duration of a tick in milliseconds.
+	 * @param wheelSize The number of buckets in the wheel.
+	 * @param startTime The time in milliseconds at which the wheel starts.
+	 */
+	@SuppressWarnings("unchecked")
+	public TimerWheel(long tickDuration, int wheelSize, long startTime) {
+		
+		this.tickDuration = tickDuration;
+		this.buckets = new Set[wheelSize];
+		this.currentTick = startTime / tickDuration;
+		
+		for(int i = 0; i < wheelSize; i++) {
+			buckets[i] = new HashSet<>();
+		}
+		
+	}
+	
+	/**
+	 * Schedules a key to expire at the deadline, replacing any
+	 * existing schedule for the key. A key is expired by the first
+	 * call to {@link #advance(long, Consumer)} at or after its deadline
+	 * rounded up to the next tick.
+	 * @param key The key.
+	 * @param deadline The deadline in milliseconds.
+	 */
+	public void schedule(K key, long deadline) {
+		
+		cancel(key);
+		
+		// Round up so a key never expires before its deadline.
+		final long deadlineTick = Math.max(currentTick + 1, (deadline + tickDuration - 1) / tickDuration);
+		
+		deadlineTicks.put(key, deadlineTick);
+		buckets[bucket(deadlineTick)].add(key);
+		
+	}
+	
+	/**
+	 * Cancels the expiration of a key.
+	 * @param key The key.
+	 */
+	public void cancel(K key) {
+		
+		final Long deadlineTick = deadlineTicks.remove(key);
+		
+		if(deadlineTick != null) {
+			buckets[bucket(deadlineTick)].remove(key);
+		}
+		
+	}
+	
+	/**
+	 * Advances the wheel to the given time and expires the keys
+	 * whose deadlines have passed.
+	 * @param now The current time in milliseconds.
+	 * @param expired Receives the expired keys.
+	 */
+	public void advance(long now, Consumer<K> expired) {
+		
+		final long targetTick = now / tickDuration;
+		
+		if(targetTick - currentTick >= buckets.length) {
+			
+			// A full rotation has elapsed so every bucket must be visited once.
+			for(int i = 0; i < buckets.length; i++) {
+				expire(buckets[i], targetTick, expired);
+			}
+			
+			currentTick = targetTick;
+			
+		} else {
+		
+			while(currentTick < targetTick) {
+				
+				currentTick++;
+				
+				expire(buckets[bucket(currentTick)], currentTick, expired);
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Gets the number of scheduled keys.
+	 * @return The number of scheduled keys.
+	 */
+	public int size() {
+		return deadlineTicks.size();
+	}
+	
+	private void expire(Set<K> bucket, long tick, Consumer<K> expired) {
+		
+		final Iterator<K> iterator = bucket.iterator();
+		
+		while(iterator.hasNext()) {
+			
+			final K key = iterator.next();
+			
+			// Keys scheduled for later rotations stay in the bucket.
+			if(deadlineTicks.get(key) <= tick) {
+				
+				iterator.remove();
+				deadlineTicks.remove(key);
+				
+				expired.accept(key);
+				
+			}
+			
+		}
+		
+	}
+	
+	private int bucket(long tick) {
+		return (int) (tick % buckets.length);
+	}
+	
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.entitydb.services.notifications;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.aeonbits.owner.ConfigFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import ai.philterd.entitydb.configuration.EntityDbProperties;
+import ai.philterd.entitydb.model.metrics.MetricReporter;
+import ai.philterd.entitydb.model.metrics.Unit;
+
+/**
+ * Writes notifications to the datastore behind the caller. Notifications are
+ * put on a bounded in-memory buffer and a background thread writes them to the
+ * datastore using JDBC batch inserts when a batch is full or the flush interval
+ * elapses. When the buffer is full the caller either waits for space or the
+ * notification is dropped, depending on the configured policy. Buffered
+ * notifications are written when EntityDB shuts down.
+ * 
+ * @author Philterd, LLC
+ *
+ */
+@Component
+public class NotificationWriter implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LogManager.getLogger(NotificationWriter.class);
+	
+	private static final EntityDbProperties properties = ConfigFactory.create(EntityDbProperties.class);
+	
+	public static final String POLICY_BLOCK = "block";
+	public static final String POLICY_DROP = "drop";
+	
+	private static final String INSERT = "INSERT INTO Notifications (UserID, Timestamp, Notification, Type) VALUES (?, ?, ?, ?)";
+	
+	@Autowired
+	private DataSource dataSource;
+	
+	@Autowired
+	private MetricReporter metricReporter;
+	
+	private final BlockingQueue<PendingNotification> buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getNotificationBufferSize()));
+	private final boolean drop = StringUtils.equalsIgnoreCase(POLICY_DROP, properties.getNotificationBufferPolicy());
+	private final int batchSize = Math.max(1, properties.getNotificationBatchSize());
+	private final long flushInterval = Math.max(1, properties.getNotificationFlushInterval());
+	
+	private JdbcTemplate jdbcTemplate;
+	private Thread writer;
+	private volatile boolean running;
+	
+	@Override
+	public void afterPropertiesSet() {
+		
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		
+		running = true;
+		
+		writer = new Thread(this::run, "notification-writer");
+		writer.setDaemon(true);
+		writer.start();
+		
+	}
+	
+	/**
+	 * Buffers a notification to be written to the datastore.
+	 * @param userId The ID of the user being notified.
+	 * @param notification The notification.
+	 * @param type The type of the notification.
+	 */
+	public void write(long userId, String notification, int type) {
+		
+		final PendingNotification pendingNotification = new PendingNotification(userId, System.currentTimeMillis(), notification, type);
+		
+		if(drop) {
+			
+			if(!buffer.offer(pendingNotification)) {
+				
+				LOGGER.warn("The notification buffer is full. Dropped notification: {}", notification);
+				
+				metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "droppedNotifications", 1, Unit.COUNT);
+				
+			}
+			
+		} else {
+			
+			try {
+				
+				buffer.put(pendingNotification);
+				
+			} catch (InterruptedException ex) {
+				
+				LOGGER.warn("Interrupted while waiting for space in the notification buffer. Dropped notification: {}", notification);
+				
+				Thread.currentThread().interrupt();
+				
+			}
+			
+		}
+		
+	}
+	
+	/**
+	 * Stops the background writer and writes the buffered notifications.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		
+		// The writer stops within one flush interval.
+		running = false;
+		
+		writer.join(flushInterval + TimeUnit.SECONDS.toMillis(30));
+		
+		// Write anything buffered after the writer stopped.
+		final List<PendingNotification> batch = new ArrayList<>(batchSize);
+		
+		while(buffer.drainTo(batch, batchSize) > 0) {
+			
+			flush(batch);
+			
+		}
+		
+	}
+	
+	private void run() {
+		
+		final List<PendingNotification> batch = new ArrayList<>(batchSize);
+		
+		long deadline = System.currentTimeMillis() + flushInterval;
+		
+		while(running) {
+			
+			try {
+				
+				final PendingNotification pendingNotification = buffer.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				
+				if(pendingNotification != null) {
+					
+					batch.add(pendingNotification);
+					buffer.drainTo(batch, batchSize - batch.size());
+					
+				}
+				
+			} catch (InterruptedException ex) {
+				
+				// Write the batch and let destroy() drain the buffer.
+				running = false;
+				
+				Thread.currentThread().interrupt();
+				
+			}
+			
+			if(batch.size() >= batchSize || System.currentTimeMillis() >= deadline || !running) {
+				
+				flush(batch);
+				
+				deadline = System.currentTimeMillis() + flushInterval;
+				
+			}
+			
+		}
+		
+	}
+	
+	private void flush(List<PendingNotification> batch) {
+		
+		if(batch.isEmpty()) {
+			return;
+		}
+		
+		final long startTime = System.currentTimeMillis();
+		
+		try {
+		
+			jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, pendingNotification) -> {
+				
+				ps.setLong(1, pendingNotification.userId);
+				ps.setTimestamp(2, new Timestamp(pendingNotification.timestamp));
+				ps.setString(3, pendingNotification.notification);
+				ps.setInt(4, pendingNotification.type);
+				
+			});
+			
+			metricReporter.report(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "notificationBatchSize", batch.size(), Unit.COUNT);
+			metricReporter.reportElapsedTime(MetricReporter.MEASUREMENT_CONTINUOUS_QUERY, "notificationBatchTime", startTime);
+			
+		} catch (Exception ex) {
+			
+			LOGGER.error("Unable to write " + batch.size() + " notifications to the datastore.", ex);
+			
+		}
+		
+		batch.clear();
+		
+	}
+	
+	private static final class PendingNotification {
+		
+		private final long userId;
+		private final long timestamp;
+		private final String notification;
+		private final int type;
+		
+		private PendingNotification(long userId, long timestamp, String notification, int type) {
+			
+			this.userId = userId;
+			this.timestamp = timestamp;
+			this.notification = notification;
+			this.type = type;
+			
+		}
+		
+	}
+	
+}
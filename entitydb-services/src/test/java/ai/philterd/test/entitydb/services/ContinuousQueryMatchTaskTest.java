@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
+import ai.philterd.entitydb.model.datastore.entities.GroupEntity;
+import ai.philterd.entitydb.model.datastore.entities.UserEntity;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryMatch;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryMatchTask;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryRegistry;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryStatistics;
+
+public class ContinuousQueryMatchTaskTest {
+
+	@Test
+	public void matchTaskAtThreshold() throws Exception {
+		
+		ContinuousQueryRegistry registry = registry();
+		
+		List<Entity> entities = entities(10);
+		
+		// A batch no larger than the minimum chunk size is not split.
+		ContinuousQueryMatchTask.Result result = new ForkJoinPool(4).invoke(new ContinuousQueryMatchTask(registry, entities, registry.encode(new Acl("1::0")), 10));
+		
+		assertEquals(1, result.getChunks());
+		assertEquals(10, result.getMaxChunkSize());
+		assertEquals(result.getMaxChunkTime(), result.getTotalChunkTime());
+		assertEquals(Arrays.asList("entity0", "entity2", "entity4", "entity6", "entity8"), texts(result.getMatches()));
+		
+		ContinuousQueryStatistics statistics = registry.get(1).getStatistics();
+		
+		assertEquals(10, statistics.getEvaluations());
+		assertEquals(5, statistics.getMatches());
+		
+	}
+	
+	@Test
+	public void matchTaskAboveThreshold() throws Exception {
+		
+		ContinuousQueryRegistry registry = registry();
+		
+		List<Entity> entities = entities(1000);
+		
+		ContinuousQueryMatchTask.Result result = new ForkJoinPool(4).invoke(new ContinuousQueryMatchTask(registry, entities, registry.encode(new Acl("1::0")), 10));
+		
+		// How far the batch is split depends on the pool but it is split at least once.
+		assertTrue(result.getChunks() > 1);
+		assertTrue(result.getMaxChunkSize() <= 500);
+		assertTrue(result.getTotalChunkTime() >= result.getMaxChunkTime());
+		
+		// The merged matches are in the order of the entities.
+		List<String> expected = new ArrayList<String>();
+		
+		for(int x = 0; x < 1000; x += 2) {
+			expected.add("entity" + x);
+		}
+		
+		assertEquals(expected, texts(result.getMatches()));
+		
+		// Each chunk's evaluations were added to the statistics.
+		ContinuousQueryStatistics statistics = registry.get(1).getStatistics();
+		
+		assertEquals(1000, statistics.getEvaluations());
+		assertEquals(500, statistics.getMatches());
+		
+		// The matches of an invisible ACL are not returned but are still evaluated.
+		result = new ForkJoinPool(4).invoke(new ContinuousQueryMatchTask(registry, entities, registry.encode(new Acl("2::0")), 10));
+		
+		assertTrue(result.getMatches().isEmpty());
+		assertEquals(2000, statistics.getEvaluations());
+		
+	}
+	
+	private static ContinuousQueryRegistry registry() {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		registry.load(Arrays.asList(continuousQuery(1, user(1), "select * from entities where type = \"person\" and confidence > 60", new Date(), 1)));
+		
+		return registry;
+		
+	}
+	
+	private static List<Entity> entities(int count) {
+		
+		List<Entity> entities = new ArrayList<Entity>();
+		
+		// Every other entity matches.
+		for(int x = 0; x < count; x++) {
+			entities.add(new Entity("entity" + x, x % 2 == 0 ? 0.9 : 0.5, "person", "[0, 1)", "context", "docid"));
+		}
+		
+		return entities;
+		
+	}
+	
+	private static List<String> texts(List<ContinuousQueryMatch> matches) {
+		
+		List<String> texts = new ArrayList<String>();
+		
+		for(ContinuousQueryMatch match : matches) {
+			texts.add(match.getEntity().getText());
+		}
+		
+		return texts;
+		
+	}
+	
+	private static UserEntity user(long id) {
+		
+		UserEntity userEntity = new UserEntity();
+		userEntity.setId(id);
+		userEntity.setUserName("user" + id);
+		userEntity.setGroups(new ArrayList<GroupEntity>());
+		
+		return userEntity;
+		
+	}
+	
+	private static ContinuousQueryEntity continuousQuery(long id, UserEntity userEntity, String query, Date timestamp, int days) {
+		
+		ContinuousQueryEntity continuousQueryEntity = new ContinuousQueryEntity(userEntity, query, timestamp, days, "");
+		continuousQueryEntity.setId(id);
+		
+		return continuousQueryEntity;
+		
+	}
+	
+}
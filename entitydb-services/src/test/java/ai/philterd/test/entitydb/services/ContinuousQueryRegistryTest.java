@@ -0,0 +1,319 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.model.datastore.entities.ContinuousQueryEntity;
+import ai.philterd.entitydb.model.datastore.entities.GroupEntity;
+import ai.philterd.entitydb.model.datastore.entities.UserEntity;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.metrics.Histogram;
+import ai.philterd.entitydb.model.security.Acl;
+import ai.philterd.entitydb.model.security.EncodedAcl;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryEvaluations;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryRegistry;
+import ai.philterd.entitydb.services.continuousqueries.ContinuousQueryStatistics;
+import ai.philterd.entitydb.services.continuousqueries.TimerWheel;
+
+public class ContinuousQueryRegistryTest {
+
+	@Test
+	public void addMatchAndRemove() throws Exception {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		UserEntity user = user(1);
+		
+		registry.load(Arrays.asList(
+				continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 1),
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), -1),
+				continuousQuery(3, user, "not eql", new Date(), 1)));
+		
+		assertEquals(2, registry.size());
+		
+		EncodedAcl visible = registry.encode(new Acl("1::0"));
+		EncodedAcl invisible = registry.encode(new Acl("2::0"));
+		
+		Entity entity = new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid");
+		
+		assertEquals(1, registry.match(entity, visible).size());
+		assertTrue(registry.match(entity, invisible).isEmpty());
+		
+		registry.add(continuousQuery(4, user, "select * from entities where text = \"george washington\"", new Date(), 1));
+		
+		assertEquals(2, registry.match(entity, visible).size());
+		
+		registry.remove(1);
+		registry.remove(4);
+		
+		assertTrue(registry.match(entity, visible).isEmpty());
+		assertEquals(1, registry.size());
+		
+	}
+	
+	@Test
+	public void reload() throws Exception {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		UserEntity user = user(1);
+		
+		assertFalse(registry.isLoaded());
+		
+		registry.load(Arrays.asList(
+				continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 1),
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), 1)));
+		
+		assertTrue(registry.isLoaded());
+		
+		ContinuousQueryStatistics statistics = registry.get(2).getStatistics();
+		
+		// Query 1 was deleted and query 3 was created by another node.
+		registry.load(Arrays.asList(
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), 1),
+				continuousQuery(3, user, "select * from entities where type = \"person\"", new Date(), 1)));
+		
+		assertEquals(2, registry.size());
+		assertNull(registry.get(1));
+		assertSame(statistics, registry.get(2).getStatistics());
+		
+		Entity entity = new Entity("George Washington", 0.5, "person", "[0, 2)", "context", "docid");
+		
+		assertEquals(3, registry.match(entity, registry.encode(new Acl("1::0"))).get(0).getId());
+		
+	}
+	
+	@Test
+	public void reloadKeepsChangesMadeWhileReading() throws Exception {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		UserEntity user = user(1);
+		
+		registry.load(Arrays.asList(
+				continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 1),
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), 1)));
+		
+		long version = registry.getVersion();
+		
+		// Query 3 is saved and query 2 is deleted while the continuous queries are read.
+		List<ContinuousQueryEntity> read = Arrays.asList(
+				continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 1),
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), 1));
+		
+		registry.add(continuousQuery(3, user, "select * from entities where type = \"organization\"", new Date(), 1));
+		registry.remove(2);
+		
+		registry.load(read, version);
+		
+		assertEquals(2, registry.size());
+		assertNull(registry.get(2));
+		assertEquals(3, registry.get(3).getId());
+		
+		// A later load applies the data store again.
+		registry.load(Arrays.asList(continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 1)));
+		
+		assertEquals(1, registry.size());
+		
+		// Continuous queries read before the last load are ignored.
+		registry.load(read, version);
+		
+		assertEquals(1, registry.size());
+		
+	}
+	
+	@Test
+	public void statistics() throws Exception {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		UserEntity user = user(1);
+		
+		registry.load(Arrays.asList(
+				continuousQuery(1, user, "select * from entities where type = \"person\" and confidence > 60", new Date(), 1),
+				continuousQuery(2, user, "select * from entities where type = \"place\"", new Date(), 1)));
+		
+		EncodedAcl acl = registry.encode(new Acl("1::0"));
+		
+		// Every evaluation is timed.
+		ContinuousQueryEvaluations evaluations = new ContinuousQueryEvaluations(1);
+		
+		registry.match(new Entity("George Washington", 0.9, "person", "[0, 2)", "context", "docid"), acl, evaluations);
+		registry.match(new Entity("John Adams", 0.5, "person", "[0, 2)", "context", "docid"), acl, evaluations);
+		registry.match(new Entity("Paris", 0.5, "place", "[0, 1)", "context", "docid"), acl, evaluations);
+		
+		// Nothing is recorded until the evaluations are flushed.
+		assertEquals(0, registry.get(1).getStatistics().getEvaluations());
+		
+		evaluations.flush(registry);
+		
+		ContinuousQueryStatistics statistics = registry.get(1).getStatistics();
+		
+		assertEquals(2, statistics.getEvaluations());
+		assertEquals(1, statistics.getMatches());
+		assertEquals(2, statistics.getEvaluationTimes().getCount());
+		
+		// Query 2 is only a candidate for the place.
+		assertEquals(1, registry.get(2).getStatistics().getEvaluations());
+		
+		assertEquals(2, registry.getMostExpensive(5).size());
+		assertEquals(1, registry.getMostExpensive(1).size());
+		
+		// Only the user's own continuous queries.
+		assertEquals(2, registry.getMostExpensive(5, 1).size());
+		assertTrue(registry.getMostExpensive(5, 2).isEmpty());
+		
+		// The statistics are kept when an unchanged query is saved again.
+		registry.add(continuousQuery(1, user, "select * from entities where type = \"person\" and confidence > 60", new Date(), 2));
+		assertSame(statistics, registry.get(1).getStatistics());
+		
+		registry.add(continuousQuery(1, user, "select * from entities where type = \"person\"", new Date(), 2));
+		assertEquals(0, registry.get(1).getStatistics().getEvaluations());
+		
+	}
+	
+	@Test
+	public void sampledStatistics() throws Exception {
+		
+		ContinuousQueryRegistry registry = new ContinuousQueryRegistry();
+		
+		registry.load(Arrays.asList(continuousQuery(1, user(1), "select * from entities where type = \"person\"", new Date(), 1)));
+		
+		EncodedAcl acl = registry.encode(new Acl("1::0"));
+		
+		// Only the first of every four evaluations is timed.
+		ContinuousQueryEvaluations evaluations = new ContinuousQueryEvaluations(4);
+		
+		for(int i = 0; i < 8; i++) {
+			registry.match(new Entity("George Washington", 0.9, "person", "[0, 2)", "context", "docid"), acl, evaluations);
+		}
+		
+		evaluations.flush(registry);
+		
+		ContinuousQueryStatistics statistics = registry.get(1).getStatistics();
+		
+		assertEquals(8, statistics.getEvaluations());
+		assertEquals(8, statistics.getMatches());
+		assertEquals(2, statistics.getEvaluationTimes().getCount());
+		
+	}
+	
+	@Test
+	public void histogram() {
+		
+		Histogram histogram = new Histogram();
+		
+		for(int x = 1; x <= 100; x++) {
+			histogram.record(x);
+		}
+		
+		assertEquals(100, histogram.getCount());
+		
+		// 50 is in the bucket from 32 to 63 and 99 is in the bucket from 64 to 127.
+		assertEquals(63, histogram.getPercentile(50));
+		assertEquals(127, histogram.getPercentile(99));
+		assertEquals(0, new Histogram().getPercentile(50));
+		
+	}
+	
+	@Test
+	public void expiration() {
+		
+		final ZoneId zoneId = ZoneId.systemDefault();
+		final LocalDate today = LocalDate.now(zoneId);
+		
+		ContinuousQueryEntity continuousQueryEntity = continuousQuery(1, user(1), "select * from entities", Date.from(today.atTime(13, 0).atZone(zoneId).toInstant()), 2);
+		
+		// DATEDIFF(NOW(), timestamp) <= 2 holds through the end of the second day after creation.
+		assertEquals(today.plusDays(3).atStartOfDay(zoneId).toInstant().toEpochMilli(), ContinuousQueryRegistry.getExpiration(continuousQueryEntity));
+		
+		continuousQueryEntity.setDays(-1);
+		
+		assertEquals(Long.MAX_VALUE, ContinuousQueryRegistry.getExpiration(continuousQueryEntity));
+		
+	}
+	
+	@Test
+	public void timerWheel() {
+		
+		final long minute = TimeUnit.MINUTES.toMillis(1);
+		
+		TimerWheel<String> timerWheel = new TimerWheel<String>(minute, 60, 0);
+		
+		timerWheel.schedule("a", 5 * minute);
+		timerWheel.schedule("b", 65 * minute);
+		timerWheel.schedule("c", 10 * minute);
+		timerWheel.cancel("c");
+		
+		List<String> expired = new ArrayList<String>();
+		
+		timerWheel.advance(4 * minute, expired::add);
+		assertTrue(expired.isEmpty());
+		
+		// "b" shares a bucket with "a" but is a rotation later.
+		timerWheel.advance(5 * minute, expired::add);
+		assertEquals(Arrays.asList("a"), expired);
+		
+		timerWheel.advance(64 * minute, expired::add);
+		assertEquals(Arrays.asList("a"), expired);
+		
+		timerWheel.advance(500 * minute, expired::add);
+		assertEquals(Arrays.asList("a", "b"), expired);
+		assertEquals(0, timerWheel.size());
+		
+	}
+	
+	private static UserEntity user(long id) {
+		
+		UserEntity userEntity = new UserEntity();
+		userEntity.setId(id);
+		userEntity.setUserName("user" + id);
+		userEntity.setGroups(new ArrayList<GroupEntity>());
+		
+		return userEntity;
+		
+	}
+	
+	private static ContinuousQueryEntity continuousQuery(long id, UserEntity userEntity, String query, Date timestamp, int days) {
+		
+		ContinuousQueryEntity continuousQueryEntity = new ContinuousQueryEntity(userEntity, query, timestamp, days, "");
+		continuousQueryEntity.setId(id);
+		
+		return continuousQueryEntity;
+		
+	}
+	
+}
@@ -163,7 +163,7 @@ public class DefaultEntityQueryServiceTest {
 		@Bean
 		public QueueConsumer getQueueConsumer() throws IOException, URISyntaxException {
 
-			return new InternalQueueConsumer(getEntityStore(), getRulesEngines(), getAuditLogger(), getMetricReporter(), getIndexerCache());
+			return new InternalQueueConsumer(getEntityStore(), getRulesEngines(), Runnable::run, getAuditLogger(), getMetricReporter(), getIndexerCache());
 
 		}
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ai.philterd.entitydb.model.metrics.Metric;
+import ai.philterd.entitydb.model.metrics.MetricReporter;
+import ai.philterd.entitydb.model.metrics.Unit;
+import ai.philterd.entitydb.services.notifications.NotificationWriter;
+
+public class NotificationWriterTest {
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	
+	@Before
+	public void before() {
+		
+		dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:notification-writer-test", "sa", "");
+		dataSource.setDriverClassName("org.hsqldb.jdbcDriver");
+		
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE Notifications (ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, UserID BIGINT, Timestamp TIMESTAMP, Notification VARCHAR(255), Type INT)");
+		
+	}
+	
+	@After
+	public void after() {
+		
+		jdbcTemplate.execute("DROP TABLE Notifications");
+		
+	}
+	
+	@Test
+	public void writeAndFlushOnShutdown() throws Exception {
+		
+		NotificationWriter notificationWriter = new NotificationWriter();
+		
+		ReflectionTestUtils.setField(notificationWriter, "dataSource", dataSource);
+		ReflectionTestUtils.setField(notificationWriter, "metricReporter", new NoopMetricReporter());
+		
+		notificationWriter.afterPropertiesSet();
+		
+		for(int i = 0; i < 250; i++) {
+			notificationWriter.write(1, "notification " + i, 1);
+		}
+		
+		notificationWriter.destroy();
+		
+		assertEquals(250, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Notifications WHERE UserID = 1", Integer.class).intValue());
+		
+	}
+	
+	private static class NoopMetricReporter implements MetricReporter {
+
+		@Override
+		public void report(String measurement, List<Metric> metrics) {
+			
+		}
+
+		@Override
+		public void report(String measurement, String field, long value, Unit unit) {
+			
+		}
+
+		@Override
+		public void reportElapsedTime(String measurement, String field, long startTime) {
+			
+		}
+		
+	}
+	
+}
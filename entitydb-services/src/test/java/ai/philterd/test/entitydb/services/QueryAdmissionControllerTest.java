@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.exceptions.QueryRejectedException;
+import ai.philterd.entitydb.services.admission.QueryAdmissionController;
+import ai.philterd.entitydb.services.admission.QueryCostEstimator;
+
+public class QueryAdmissionControllerTest {
+
+	@Test
+	public void userConcurrency() throws Exception {
+		
+		final QueryAdmissionController controller = new QueryAdmissionController(2, 100);
+		
+		final QueryAdmissionController.Admission first = controller.admit("user1", 1);
+		controller.admit("user1", 1);
+		
+		try {
+			
+			controller.admit("user1", 1);
+			fail("The third query was admitted.");
+			
+		} catch (QueryRejectedException ex) {
+			
+			assertTrue(ex.getRetryAfter() >= 1);
+			
+		}
+		
+		// Another user is not limited by the first user's queries.
+		controller.admit("user2", 1);
+		
+		first.close();
+		
+		// Closing again does not release another query.
+		first.close();
+		
+		controller.admit("user1", 1);
+		
+		assertEquals(3, controller.getSpent());
+		
+	}
+	
+	@Test
+	public void budget() throws Exception {
+		
+		final QueryAdmissionController controller = new QueryAdmissionController(10, 100);
+		
+		final QueryAdmissionController.Admission expensive = controller.admit("user1", 80);
+		
+		try {
+			
+			controller.admit("user2", 30);
+			fail("The query was admitted over the budget.");
+			
+		} catch (QueryRejectedException ex) {
+			
+			// Expected.
+			
+		}
+		
+		controller.admit("user2", 20).close();
+		
+		expensive.close();
+		
+		assertEquals(0, controller.getSpent());
+		
+		// A query costing more than the budget is admitted when nothing else is executing.
+		try(QueryAdmissionController.Admission admission = controller.admit("user1", 1000)) {
+			assertEquals(100, controller.getSpent());
+		}
+		
+	}
+	
+	@Test
+	public void cost() throws Exception {
+		
+		final long selective = QueryCostEstimator.estimate(Eql.generate("select * from entities where text = \"George Washington\""));
+		final long wildcard = QueryCostEstimator.estimate(Eql.generate("select * from entities where text = \"Geo*\""));
+		final long shortPrefix = QueryCostEstimator.estimate(Eql.generate("select * from entities where text = \"G*\""));
+		final long unselective = QueryCostEstimator.estimate(Eql.generate("select * from entities where type = \"person\""));
+		final long deep = QueryCostEstimator.estimate(Eql.generate("select * from entities where text = \"George Washington\" limit 100 offset 5000"));
+		final long sorted = QueryCostEstimator.estimate(Eql.generate("select * from entities where text = \"George Washington\" limit 100 offset 5000 order by text"));
+		
+		assertEquals(2, selective);
+		assertTrue(wildcard > selective);
+		assertTrue(shortPrefix > wildcard);
+		assertTrue(unselective > selective);
+		assertTrue(deep > unselective);
+		assertTrue(sorted > deep);
+		
+	}
+	
+}
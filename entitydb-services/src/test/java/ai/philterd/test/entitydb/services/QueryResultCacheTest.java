@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 Philterd, LLC
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package ai.philterd.test.entitydb.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import ai.philterd.entitydb.eql.Eql;
+import ai.philterd.entitydb.model.domain.User;
+import ai.philterd.entitydb.model.entity.Entity;
+import ai.philterd.entitydb.model.search.IndexedEntity;
+import ai.philterd.entitydb.services.cache.QueryResultCache;
+
+public class QueryResultCacheTest {
+
+	@Test
+	public void key() throws Exception {
+		
+		final QueryResultCache cache = new QueryResultCache(10, 60000, 0);
+		
+		final User user1 = new User(1, "user", "user@test-fake.com", "555-555-5555", "apikey1", new HashSet<String>(Arrays.asList("g1", "g2")));
+		final User user2 = new User(2, "user", "user@test-fake.com", "555-555-5555", "apikey2", new HashSet<String>(Arrays.asList("g2", "g1")));
+		final User user3 = new User(3, "other", "other@test-fake.com", "555-555-5555", "apikey3", new HashSet<String>(Arrays.asList("g1", "g2")));
+		
+		// The same principals and the same parsed query share a key.
+		assertEquals(cache.key(Eql.generate("select * from entities where type = \"person\""), user1),
+				cache.key(Eql.generate("select  *  from entities where type=\"person\""), user2));
+		
+		// An ACL can name a user so the user's name is a principal.
+		assertNotEquals(cache.key(Eql.generate("select * from entities"), user1), cache.key(Eql.generate("select * from entities"), user3));
+		
+		assertNotEquals(cache.key(Eql.generate("select * from entities limit 10"), user1), cache.key(Eql.generate("select * from entities limit 11"), user1));
+		
+	}
+	
+	@Test
+	public void generation() throws Exception {
+		
+		final QueryResultCache cache = new QueryResultCache(10, 60000, 0);
+		
+		final IndexedEntity indexedEntity = IndexedEntity.fromEntity(Entity.createRandomPersonEntity(), UUID.randomUUID().toString(), "user:group:1");
+		
+		cache.put("key", 1, Collections.singletonList(indexedEntity));
+		
+		final List<IndexedEntity> indexedEntities = cache.get("key", 1);
+		assertNotNull(indexedEntities);
+		assertEquals(indexedEntity.getEntityId(), indexedEntities.get(0).getEntityId());
+		
+		// Removing the returned entities does not change the cached entities.
+		indexedEntities.clear();
+		assertEquals(1, cache.get("key", 1).size());
+		
+		// Entities were indexed after the entry was cached.
+		assertNull(cache.get("key", 2));
+		
+	}
+	
+	@Test
+	public void refreshInterval() throws Exception {
+		
+		final QueryResultCache cache = new QueryResultCache(10, 60000, 200);
+		
+		// The search index may not have been refreshed since the generation changed.
+		assertNull(cache.get("key", 1));
+		cache.put("key", 1, Collections.<IndexedEntity>emptyList());
+		assertNull(cache.get("key", 1));
+		
+		Thread.sleep(250);
+		
+		cache.put("key", 1, Collections.<IndexedEntity>emptyList());
+		assertNotNull(cache.get("key", 1));
+		
+		// A result executed at an older generation is not cached.
+		assertNull(cache.get("key", 2));
+		cache.put("other", 1, Collections.<IndexedEntity>emptyList());
+		assertNull(cache.get("other", 1));
+		
+	}
+	
+	@Test
+	public void bounds() throws Exception {
+		
+		final QueryResultCache cache = new QueryResultCache(2, 60000, 0);
+		
+		cache.put("key1", 1, Collections.<IndexedEntity>emptyList());
+		cache.put("key2", 1, Collections.<IndexedEntity>emptyList());
+		cache.get("key1", 1);
+		cache.put("key3", 1, Collections.<IndexedEntity>emptyList());
+		
+		// The least recently used entry was removed.
+		assertNotNull(cache.get("key1", 1));
+		assertNull(cache.get("key2", 1));
+		assertNotNull(cache.get("key3", 1));
+		
+		final QueryResultCache expiring = new QueryResultCache(2, 1, 0);
+		
+		expiring.put("key", 1, Collections.<IndexedEntity>emptyList());
+		
+		Thread.sleep(10);
+		
+		assertNull(expiring.get("key", 1));
+		
+	}
+	
+}
@@ -26,6 +26,7 @@ import ai.philterd.entitydb.model.entitystore.EntityStore;
 import ai.philterd.entitydb.model.entitystore.MetadataSanitizer;
 import ai.philterd.entitydb.model.entitystore.QueryResult;
 import ai.philterd.entitydb.model.eql.ConfidenceRange;
+import ai.philterd.entitydb.model.eql.DateRange;
 import ai.philterd.entitydb.model.eql.EntityMetadataFilter;
 import ai.philterd.entitydb.model.eql.EntityOrder;
 import ai.philterd.entitydb.model.eql.EntityQuery;
@@ -42,6 +43,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -593,6 +595,44 @@ public abstract class AbstractEntityStoreTest<T extends AbstractStoredEntity> {
 		
 	}
 	
+	@Test
+	public void queryTimeEntities() throws EntityStoreException {
+		
+		Entity entity = new Entity();
+		entity.setText("July 4, 1776");
+		entity.setConfidence(90.0);
+		entity.setType("date");
+		entity.setContext("context");
+		entity.setMetadata(Collections.singletonMap("time", "-6106060800000"));
+		
+		Entity entity2 = new Entity();
+		entity2.setText("September 17, 1787");
+		entity2.setConfidence(85);
+		entity2.setType("date");
+		entity2.setContext("context");
+		entity2.setMetadata(Collections.singletonMap("time", "-5694969600000"));
+		
+		Set<Entity> entities = new HashSet<Entity>();
+		entities.add(entity);
+		entities.add(entity2);
+		
+		entityStore.storeEntities(entities, "::1");
+		
+		EntityQuery entityQuery = new EntityQuery();
+		entityQuery.setTimeRange(new DateRange(-5700000000000L, -5600000000000L));
+		
+		QueryResult queryResult = entityStore.query(entityQuery);
+		
+		assertEquals(1, queryResult.getEntities().size());
+		assertEquals(entity2.getText(), queryResult.getEntities().get(0).getText());
+		
+		entityQuery = new EntityQuery();
+		entityQuery.setExtractionDateRange(new DateRange(0, System.currentTimeMillis() - 3600000));
+		
+		assertEquals(0, entityStore.query(entityQuery).getEntities().size());
+		
+	}
+	
 	@Test
 	public void querySortOrderEntities() throws EntityStoreException {
 		